@@ -0,0 +1,16 @@
+package com.todoapp.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Reactive implementation of the task API: the same {@code /api/tasks} contract as the servlet backend,
+ * served by WebFlux with R2DBC repositories against the same database and the same JWTs.
+ */
+@SpringBootApplication
+public class ReactiveTodoApplication {
+    
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveTodoApplication.class, args);
+    }
+}
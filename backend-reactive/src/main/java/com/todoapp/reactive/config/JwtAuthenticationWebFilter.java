@@ -0,0 +1,65 @@
+package com.todoapp.reactive.config;
+
+import com.todoapp.reactive.service.JwtService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive port of the servlet backend's JWT filter: a valid bearer token of an enabled user authenticates
+ * the request, anything else passes through unauthenticated. The user lookup is the only I/O and does not
+ * block. Not a bean on purpose, so it runs inside the security chain only.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+    
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+    
+    public JwtAuthenticationWebFilter(JwtService jwtService, ReactiveUserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+        
+        return authenticate(authHeader.substring(7))
+                .flatMap(auth -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth))
+                        .thenReturn(Boolean.TRUE))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(Boolean.TRUE)))
+                .then();
+    }
+    
+    private Mono<Authentication> authenticate(String jwt) {
+        final String username;
+        try {
+            username = jwtService.extractUsername(jwt);
+        } catch (Exception e) {
+            // Token is invalid, continue without authentication
+            return Mono.empty();
+        }
+        if (username == null) {
+            return Mono.empty();
+        }
+        
+        return userDetailsService.findByUsername(username)
+                .filter(userDetails -> userDetails.isEnabled() && jwtService.isTokenValid(jwt, userDetails.getUsername()))
+                .<Authentication>map(userDetails -> new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                ))
+                .onErrorResume(e -> Mono.empty());
+    }
+}
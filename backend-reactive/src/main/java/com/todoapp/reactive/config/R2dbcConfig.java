@@ -0,0 +1,44 @@
+package com.todoapp.reactive.config;
+
+import com.todoapp.reactive.model.TaskPriority;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+/**
+ * Stores task priorities as their small integer rank, like the servlet backend's converter
+ */
+@Configuration
+public class R2dbcConfig {
+    
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions(DatabaseClient databaseClient) {
+        return R2dbcCustomConversions.of(DialectResolver.getDialect(databaseClient.getConnectionFactory()),
+                List.of(new PriorityToRank(), new RankToPriority()));
+    }
+    
+    @WritingConverter
+    static class PriorityToRank implements Converter<TaskPriority, Short> {
+        
+        @Override
+        public Short convert(TaskPriority priority) {
+            return priority.getRank();
+        }
+    }
+    
+    @ReadingConverter
+    static class RankToPriority implements Converter<Short, TaskPriority> {
+        
+        @Override
+        public TaskPriority convert(Short rank) {
+            return TaskPriority.fromRank(rank);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.todoapp.reactive.controller;
+
+import com.todoapp.reactive.dto.AuthResponse;
+import com.todoapp.reactive.dto.LoginRequest;
+import com.todoapp.reactive.repository.UserRepository;
+import com.todoapp.reactive.service.JwtService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Login only, so clients and the load generator can run against this stack alone; accounts are
+ * registered through the servlet backend.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*")
+public class AuthController {
+    
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    
+    @Autowired
+    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+    }
+    
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return userRepository.findByUsernameOrEmail(loginRequest.getUsernameOrEmail())
+                .switchIfEmpty(Mono.error(new RuntimeException("Invalid username/email or password")))
+                // BCrypt is deliberately slow, so keep it off the event loop
+                .flatMap(user -> Mono.fromCallable(() -> passwordEncoder.matches(loginRequest.getPassword(), user.getPassword()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .map(matches -> {
+                            if (!matches) {
+                                throw new RuntimeException("Invalid username/email or password");
+                            }
+                            if (user.getDeletionRequestedAt() != null) {
+                                throw new RuntimeException("This account has been deleted");
+                            }
+                            String token = jwtService.generateToken(user.getUsername());
+                            return new AuthResponse(token, user.getId(), user.getUsername(), user.getEmail());
+                        }))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(RuntimeException.class, e -> {
+                    Map<String, String> errorResponse = new HashMap<>();
+                    errorResponse.put("message", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+                });
+    }
+    
+    @GetMapping("/test")
+    public Mono<ResponseEntity<String>> test() {
+        return Mono.just(ResponseEntity.ok("Auth endpoint is working!"));
+    }
+}
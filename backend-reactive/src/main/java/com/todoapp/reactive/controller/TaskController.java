@@ -0,0 +1,276 @@
+package com.todoapp.reactive.controller;
+
+import com.todoapp.reactive.model.Task;
+import com.todoapp.reactive.model.User;
+import com.todoapp.reactive.service.AuthenticatedUser;
+import com.todoapp.reactive.service.TaskService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The core of the servlet backend's {@code /api/tasks} contract on non-blocking handlers, for benchmarking
+ * the two stacks against each other. Listing, reading, creating, completing and deleting tasks match the
+ * servlet backend's paths, status codes and JSON. Everything else (tags, trees, archived history,
+ * analytics, manual ordering, occurrences, delta sync) answers 501 Not Implemented, as on the embedded
+ * storage engine, and so do writes while sharding or cache invalidation is enabled.
+ */
+@RestController
+@RequestMapping("/api/tasks")
+@CrossOrigin(origins = "*")
+public class TaskController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+    
+    private final TaskService taskService;
+    
+    @Autowired
+    public TaskController(TaskService taskService) {
+        this.taskService = taskService;
+    }
+    
+    /**
+     * Get current authenticated user, as loaded by the JWT filter
+     */
+    private Mono<User> getCurrentUser() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .filter(authentication -> authentication.getPrincipal() instanceof AuthenticatedUser)
+                .map(authentication -> ((AuthenticatedUser) authentication.getPrincipal()).getUser())
+                .switchIfEmpty(Mono.error(new RuntimeException("User not authenticated")));
+    }
+    
+    /**
+     * Get tasks for the current user
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<Task>>> getTasks() {
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("GET /api/tasks - Fetching tasks for user: {}", user.getUsername()))
+                .flatMap(user -> taskService.getRecentTasksByUser(user).collectList())
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error fetching tasks: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Create a new task for the current user
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Task>> createTask(@Valid @RequestBody Task task) {
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("POST /api/tasks - Creating new task: {} for user: {}", task.getTitle(), user.getUsername()))
+                .flatMap(user -> taskService.createTaskForUser(task, user))
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(e -> {
+                    logger.error("Error creating task: {}", e.getMessage());
+                    if (e instanceof IllegalArgumentException) {
+                        return Mono.just(ResponseEntity.badRequest().build());
+                    }
+                    if (e instanceof UnsupportedOperationException) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+                    }
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Mark a task as completed
+     */
+    @PutMapping("/{id}/complete")
+    public Mono<ResponseEntity<Task>> completeTask(@PathVariable Long id) {
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("PUT /api/tasks/{}/complete - Marking task as completed for user: {}", id, user.getUsername()))
+                .flatMap(user -> taskService.completeTask(id, user))
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error completing task {}: {}", id, e.getMessage());
+                    if (e instanceof UnsupportedOperationException) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+                    }
+                    return Mono.just(e instanceof IllegalArgumentException
+                            ? ResponseEntity.notFound().build()
+                            : ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Complete a task together with all of its subtasks (not implemented on this stack)
+     */
+    @PutMapping("/{id}/complete-tree")
+    public Mono<ResponseEntity<Task>> completeTaskTree(@PathVariable Long id) {
+        return notImplemented();
+    }
+    
+    /**
+     * Delete a task and its subtasks
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable Long id) {
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("DELETE /api/tasks/{} - Deleting task for user: {}", id, user.getUsername()))
+                .flatMap(user -> taskService.deleteTask(id, user))
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(e -> {
+                    logger.error("Error deleting task {}: {}", id, e.getMessage());
+                    if (e instanceof UnsupportedOperationException) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+                    }
+                    return Mono.just(e instanceof IllegalArgumentException
+                            ? ResponseEntity.notFound().build()
+                            : ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Get a specific task by ID
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Task>> getTaskById(@PathVariable Long id) {
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("GET /api/tasks/{} - Fetching task by ID for user: {}", id, user.getUsername()))
+                .flatMap(user -> taskService.getTaskById(id, user)
+                        .map(ResponseEntity::ok)
+                        .defaultIfEmpty(ResponseEntity.notFound().build()))
+                .onErrorResume(e -> {
+                    logger.error("Error fetching task: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Get a task with its subtasks nested under it (not implemented on this stack)
+     */
+    @GetMapping("/{id}/tree")
+    public Mono<ResponseEntity<Task>> getTaskTree(@PathVariable Long id) {
+        return notImplemented();
+    }
+    
+    /**
+     * Get completed tasks for the current user; archived history is not available on this stack
+     */
+    @GetMapping("/completed")
+    public Mono<ResponseEntity<List<Task>>> getCompletedTasks(@RequestParam(defaultValue = "false") boolean history) {
+        if (history) {
+            return notImplemented();
+        }
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("GET /api/tasks/completed - Fetching completed tasks for user: {}", user.getUsername()))
+                .flatMap(user -> taskService.getRecentCompletedTasksByUser(user).collectList())
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error fetching completed tasks: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Get the agenda for the current user: incomplete tasks by priority, due date and creation time
+     */
+    @GetMapping("/agenda")
+    public Mono<ResponseEntity<List<Task>>> getAgenda(@RequestParam(defaultValue = "20") int limit) {
+        int agendaLimit = Math.max(1, Math.min(limit, 200));
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("GET /api/tasks/agenda - Fetching agenda for user: {}", user.getUsername()))
+                .flatMap(user -> taskService.getAgendaByUser(user, agendaLimit).collectList())
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    logger.error("Error fetching agenda: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Get completion analytics (not implemented on this stack)
+     */
+    @GetMapping("/analytics")
+    public Mono<ResponseEntity<Object>> getAnalytics() {
+        return notImplemented();
+    }
+    
+    /**
+     * Get all tasks for the current user. The body is streamed while rows are read, as a JSON array or, with
+     * {@code Accept: application/x-ndjson}, one task per line; the list is never held in memory. Tag filters
+     * and manual order are not implemented on this stack.
+     */
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<Task>>> getAllTasks(@RequestParam(required = false) List<String> tags,
+                                                        @RequestParam(defaultValue = "created") String order) {
+        if ((tags != null && !tags.isEmpty()) || !"created".equals(order)) {
+            return notImplemented();
+        }
+        return getCurrentUser()
+                .doOnNext(user -> logger.debug("GET /api/tasks/all - Fetching all tasks for user: {}", user.getUsername()))
+                .map(user -> ResponseEntity.ok(taskService.getAllTasksByUser(user)))
+                .onErrorResume(e -> {
+                    logger.error("Error fetching all tasks: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+    
+    /**
+     * Replace the tags of a task (not implemented on this stack)
+     */
+    @PutMapping("/{id}/tags")
+    public Mono<ResponseEntity<Task>> setTags(@PathVariable Long id, @RequestBody List<String> tags) {
+        return notImplemented();
+    }
+    
+    /**
+     * Get the current user's tags with their task counts (not implemented on this stack)
+     */
+    @GetMapping("/tags")
+    public Mono<ResponseEntity<Object>> getTags() {
+        return notImplemented();
+    }
+    
+    /**
+     * Move a task in the manual order (not implemented on this stack)
+     */
+    @PutMapping("/{id}/move")
+    public Mono<ResponseEntity<Task>> moveTask(@PathVariable Long id) {
+        return notImplemented();
+    }
+    
+    /**
+     * Complete one occurrence of a recurring task (not implemented on this stack)
+     */
+    @PutMapping("/{id}/occurrences/{occurrenceAt}/complete")
+    public Mono<ResponseEntity<Task>> completeOccurrence(@PathVariable Long id) {
+        return notImplemented();
+    }
+    
+    /**
+     * Edit one occurrence of a recurring task (not implemented on this stack)
+     */
+    @PutMapping("/{id}/occurrences/{occurrenceAt}")
+    public Mono<ResponseEntity<Task>> updateOccurrence(@PathVariable Long id) {
+        return notImplemented();
+    }
+    
+    /**
+     * Get task changes since a sync token (not implemented on this stack)
+     */
+    @GetMapping("/changes")
+    public Mono<ResponseEntity<Object>> getChanges() {
+        return notImplemented();
+    }
+    
+    private static <T> Mono<ResponseEntity<T>> notImplemented() {
+        return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build());
+    }
+}
@@ -0,0 +1,37 @@
+package com.todoapp.reactive.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class LoginRequest {
+    
+    @NotBlank(message = "Username or email is required")
+    private String usernameOrEmail;
+    
+    @NotBlank(message = "Password is required")
+    private String password;
+    
+    // Constructors
+    public LoginRequest() {}
+    
+    public LoginRequest(String usernameOrEmail, String password) {
+        this.usernameOrEmail = usernameOrEmail;
+        this.password = password;
+    }
+    
+    // Getters and Setters
+    public String getUsernameOrEmail() {
+        return usernameOrEmail;
+    }
+    
+    public void setUsernameOrEmail(String usernameOrEmail) {
+        this.usernameOrEmail = usernameOrEmail;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+} 
\ No newline at end of file
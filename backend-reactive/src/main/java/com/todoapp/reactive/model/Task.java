@@ -0,0 +1,180 @@
+package com.todoapp.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Row of the task table, which the servlet backend owns; serialized exactly like its task entity
+ */
+@Table("task")
+public class Task {
+    
+    @Id
+    private Long id;
+    
+    @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be less than 255 characters")
+    @Column("title")
+    private String title;
+    
+    @Size(max = 1000, message = "Description must be less than 1000 characters")
+    @Column("description")
+    private String description;
+    
+    @Column("completed")
+    private Boolean completed = false;
+    
+    @Column("created_at")
+    private LocalDateTime createdAt;
+    
+    @Column("completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column("priority")
+    private TaskPriority priority = TaskPriority.MEDIUM;
+    
+    @Column("due_date")
+    private LocalDateTime dueDate;
+    
+    @JsonIgnore
+    @Column("user_id")
+    private Long userId;
+    
+    @Column("parent_id")
+    private Long parentId;
+    
+    /**
+     * Change sequence of the last write, for the servlet backend's delta sync
+     */
+    @JsonIgnore
+    @Column("change_seq")
+    private Long changeSeq;
+    
+    /**
+     * Tag names, sorted; read from task_tag, null when not loaded
+     */
+    @Transient
+    private List<String> tags;
+    
+    // Constructors
+    public Task() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public Boolean getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public TaskPriority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getParentId() {
+        return parentId;
+    }
+    
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+    
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    
+    @Override
+    public String toString() {
+        return "Task{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", completed=" + completed +
+                ", priority='" + priority + '\'' +
+                ", parentId=" + parentId +
+                ", userId=" + userId +
+                '}';
+    }
+}
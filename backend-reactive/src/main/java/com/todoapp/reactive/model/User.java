@@ -0,0 +1,70 @@
+package com.todoapp.reactive.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of the users table, read-only here: accounts are registered and deleted through the servlet backend
+ */
+@Table("users")
+public class User {
+    
+    @Id
+    private Long id;
+    
+    @Column("username")
+    private String username;
+    
+    @Column("email")
+    private String email;
+    
+    @Column("password")
+    private String password;
+    
+    @Column("deletion_requested_at")
+    private LocalDateTime deletionRequestedAt;
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public LocalDateTime getDeletionRequestedAt() {
+        return deletionRequestedAt;
+    }
+    
+    public void setDeletionRequestedAt(LocalDateTime deletionRequestedAt) {
+        this.deletionRequestedAt = deletionRequestedAt;
+    }
+}
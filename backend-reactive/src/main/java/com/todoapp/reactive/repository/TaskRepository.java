@@ -0,0 +1,79 @@
+package com.todoapp.reactive.repository;
+
+import com.todoapp.reactive.model.Task;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of the servlet backend's task queries, over the same indexes
+ */
+@Repository
+public interface TaskRepository extends ReactiveCrudRepository<Task, Long> {
+    
+    Mono<Task> findByIdAndUserId(Long id, Long userId);
+    
+    /**
+     * The user's most recent incomplete tasks
+     */
+    @Query("SELECT * FROM task WHERE user_id = :userId AND completed = FALSE ORDER BY created_at DESC LIMIT :limit")
+    Flux<Task> findRecentIncompleteByUserId(Long userId, int limit);
+    
+    /**
+     * The user's most recently completed tasks
+     */
+    @Query("SELECT * FROM task WHERE user_id = :userId AND completed = TRUE ORDER BY completed_at DESC LIMIT :limit")
+    Flux<Task> findRecentCompletedByUserId(Long userId, int limit);
+    
+    /**
+     * Agenda: incomplete tasks by priority, due date and creation time (idx_task_user_agenda), without
+     * recurring task templates; their occurrences are only expanded by the servlet backend
+     */
+    @Query("SELECT * FROM task WHERE user_id = :userId AND completed = FALSE AND recurrence IS NULL " +
+            "ORDER BY priority ASC, due_date ASC, created_at ASC LIMIT :limit")
+    Flux<Task> findAgendaByUserId(Long userId, int limit);
+    
+    @Query("SELECT * FROM task WHERE user_id = :userId ORDER BY created_at DESC")
+    Flux<Task> findAllByUserIdNewestFirst(Long userId);
+    
+    /**
+     * Mark one of the user's tasks completed
+     *
+     * @return the number of rows updated, 0 if the user has no such task
+     */
+    @Modifying
+    @Query("UPDATE task SET completed = TRUE, completed_at = :completedAt, change_seq = :changeSeq " +
+            "WHERE id = :id AND user_id = :userId")
+    Mono<Integer> completeByIdAndUserId(Long id, Long userId, LocalDateTime completedAt, Long changeSeq);
+    
+    /**
+     * Ids of one of the user's tasks and all of its descendants, empty if the user has no such task
+     */
+    @Query("WITH RECURSIVE subtree (id) AS (" +
+            "SELECT id FROM task WHERE id = :rootId AND user_id = :userId " +
+            "UNION ALL SELECT c.id FROM task c JOIN subtree s ON c.parent_id = s.id) " +
+            "SELECT id FROM subtree")
+    Flux<Long> findSubtreeIds(Long rootId, Long userId);
+    
+    /**
+     * Delete one of the user's tasks together with all of its descendants in a single statement
+     *
+     * @return the number of rows deleted, 0 if the user has no such task
+     */
+    @Modifying
+    @Query("WITH RECURSIVE subtree (id) AS (" +
+            "SELECT id FROM task WHERE id = :rootId AND user_id = :userId " +
+            "UNION ALL SELECT c.id FROM task c JOIN subtree s ON c.parent_id = s.id) " +
+            "DELETE FROM task WHERE id IN (SELECT id FROM subtree)")
+    Mono<Integer> deleteSubtree(Long rootId, Long userId);
+    
+    @Query("SELECT tt.task_id AS task_id, g.name AS name FROM task_tag tt JOIN tag g ON g.id = tt.tag_id " +
+            "WHERE tt.task_id IN (:taskIds)")
+    Flux<TaskTagName> findTagNames(Collection<Long> taskIds);
+}
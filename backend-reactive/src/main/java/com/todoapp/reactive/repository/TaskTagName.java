@@ -0,0 +1,23 @@
+package com.todoapp.reactive.repository;
+
+/**
+ * Projection: one tag name of one task
+ */
+public class TaskTagName {
+    
+    private final Long taskId;
+    private final String name;
+    
+    public TaskTagName(Long taskId, String name) {
+        this.taskId = taskId;
+        this.name = name;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
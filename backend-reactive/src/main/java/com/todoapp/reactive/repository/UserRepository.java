@@ -0,0 +1,16 @@
+package com.todoapp.reactive.repository;
+
+import com.todoapp.reactive.model.User;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface UserRepository extends ReactiveCrudRepository<User, Long> {
+    
+    Mono<User> findByUsername(String username);
+    
+    @Query("SELECT * FROM users WHERE username = :usernameOrEmail OR email = :usernameOrEmail")
+    Mono<User> findByUsernameOrEmail(String usernameOrEmail);
+}
@@ -0,0 +1,29 @@
+package com.todoapp.reactive.service;
+
+import com.todoapp.reactive.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+@Service
+public class CustomUserDetailsService implements ReactiveUserDetailsService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        // Accounts pending deletion are disabled, so their tokens stop working immediately
+        return userRepository.findByUsername(username)
+                .map(user -> new AuthenticatedUser(
+                        user,
+                        user.getDeletionRequestedAt() == null,
+                        Collections.singletonList(new SimpleGrantedAuthority("USER"))
+                ));
+    }
+}
@@ -0,0 +1,88 @@
+package com.todoapp.reactive.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The servlet backend's change sequences and tombstones, written from this stack so that its writes show up
+ * in delta sync ({@code GET /api/tasks/changes} on the servlet backend). Each write reserves the next value
+ * of the owner's {@code task_sync_state} counter in its transaction and stamps it on the task, or on a
+ * {@code task_tombstone} per deleted task. The counter row stays locked until commit, exactly as for the
+ * servlet backend's writes, so both stacks' changes to a user's tasks commit in sequence order.
+ */
+@Service
+public class TaskChangeLog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeLog.class);
+    
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator newTransaction;
+    
+    @Autowired
+    public TaskChangeLog(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newTransaction = TransactionalOperator.create(transactionManager, definition);
+    }
+    
+    /**
+     * Reserve the next change sequence for a write to the user's tasks; must run inside the write's transaction
+     */
+    public Mono<Long> next(Long userId) {
+        return advance(userId)
+                .flatMap(updated -> updated > 0 ? Mono.just(updated) : createState(userId).then(advance(userId)))
+                .then(databaseClient.sql("SELECT change_seq FROM task_sync_state WHERE user_id = :userId")
+                        .bind("userId", userId)
+                        .map(row -> row.get("change_seq", Long.class))
+                        .one());
+    }
+    
+    /**
+     * Record tombstones for those of the given tasks that belong to the user, before they are deleted
+     */
+    public Mono<Long> recordDeletions(Long userId, List<Long> taskIds, long changeSeq) {
+        return databaseClient.sql("INSERT INTO task_tombstone (task_id, user_id, change_seq, deleted_at) " +
+                        "SELECT id, user_id, :changeSeq, :deletedAt FROM task WHERE id IN (:ids) AND user_id = :userId")
+                .bind("changeSeq", changeSeq)
+                .bind("deletedAt", LocalDateTime.now())
+                .bind("ids", taskIds)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    private Mono<Long> advance(Long userId) {
+        return databaseClient.sql("UPDATE task_sync_state SET change_seq = change_seq + 1 WHERE user_id = :userId")
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+    
+    /**
+     * Create the user's counter in its own transaction, so it is visible (and lockable) at once and a
+     * concurrent first write simply finds it
+     */
+    private Mono<Void> createState(Long userId) {
+        return databaseClient.sql("INSERT INTO task_sync_state (user_id, change_seq, purged_seq) VALUES (:userId, 0, 0)")
+                .bind("userId", userId)
+                .then()
+                .as(newTransaction::transactional)
+                .onErrorResume(DataIntegrityViolationException.class, e -> {
+                    logger.debug("Sync state of user {} was created concurrently", userId);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,220 @@
+package com.todoapp.reactive.service;
+
+import com.todoapp.reactive.model.Task;
+import com.todoapp.reactive.model.TaskPriority;
+import com.todoapp.reactive.model.User;
+import com.todoapp.reactive.repository.TaskRepository;
+import com.todoapp.reactive.repository.TaskTagName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Task operations of the servlet backend's task service that the reactive API serves. Nothing here blocks:
+ * every method returns a publisher that runs its queries when subscribed. Writes run in a transaction that
+ * also records them in the servlet backend's change log, so delta sync clients see them.
+ */
+@Service
+public class TaskService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+    
+    /** Number of tasks in the recent and completed lists, as in the servlet backend */
+    public static final int RECENT_LIMIT = 5;
+    
+    /** Tasks per tag lookup, which also bounds the IN list */
+    private static final int TAG_CHUNK = 256;
+    
+    private final TaskRepository taskRepository;
+    private final TaskChangeLog taskChangeLog;
+    private final TransactionalOperator transactionalOperator;
+    
+    /**
+     * Set to the servlet backend's value: this stack only connects to one database
+     */
+    @Value("${todoapp.sharding.enabled:false}")
+    private boolean shardingEnabled;
+    
+    /**
+     * Set to the servlet backend's value: this stack does not publish cache invalidations
+     */
+    @Value("${todoapp.cache.invalidation.enabled:false}")
+    private boolean cacheInvalidationEnabled;
+    
+    @Autowired
+    public TaskService(TaskRepository taskRepository, TaskChangeLog taskChangeLog,
+                       TransactionalOperator transactionalOperator) {
+        this.taskRepository = taskRepository;
+        this.taskChangeLog = taskChangeLog;
+        this.transactionalOperator = transactionalOperator;
+    }
+    
+    @PostConstruct
+    public void logWriteMode() {
+        if (!writable()) {
+            logger.warn("Task writes are disabled: the reactive stack neither routes to shards nor invalidates the servlet backend's caches");
+        }
+    }
+    
+    public Flux<Task> getRecentTasksByUser(User user) {
+        logger.debug("Fetching the most recent {} incomplete tasks for user: {}", RECENT_LIMIT, user.getUsername());
+        return withTags(taskRepository.findRecentIncompleteByUserId(user.getId(), RECENT_LIMIT));
+    }
+    
+    public Flux<Task> getRecentCompletedTasksByUser(User user) {
+        logger.debug("Fetching the most recent {} completed tasks for user: {}", RECENT_LIMIT, user.getUsername());
+        return withTags(taskRepository.findRecentCompletedByUserId(user.getId(), RECENT_LIMIT));
+    }
+    
+    public Flux<Task> getAgendaByUser(User user, int limit) {
+        logger.debug("Fetching agenda (limit {}) for user: {}", limit, user.getUsername());
+        return withTags(taskRepository.findAgendaByUserId(user.getId(), limit));
+    }
+    
+    /**
+     * All of the user's tasks, newest first, emitted as they are read
+     */
+    public Flux<Task> getAllTasksByUser(User user) {
+        logger.debug("Fetching all tasks for user: {}", user.getUsername());
+        return withTags(taskRepository.findAllByUserIdNewestFirst(user.getId()));
+    }
+    
+    public Mono<Task> getTaskById(Long id, User user) {
+        logger.debug("Fetching task by ID: {} for user: {}", id, user.getUsername());
+        return withTags(taskRepository.findByIdAndUserId(id, user.getId()).flux()).next();
+    }
+    
+    /**
+     * Create a task for the user
+     *
+     * @throws IllegalArgumentException (signalled) if the title is blank or the parent is not the user's task
+     * @throws UnsupportedOperationException (signalled) if the task has tags or writes are disabled
+     */
+    public Mono<Task> createTaskForUser(Task task, User user) {
+        logger.debug("Creating new task: {} for user: {}", task.getTitle(), user.getUsername());
+        
+        if (!writable()) {
+            return writesDisabled();
+        }
+        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Task title cannot be empty"));
+        }
+        if (task.getTags() != null && !task.getTags().isEmpty()) {
+            return Mono.error(new UnsupportedOperationException("Tags are not supported by the reactive API"));
+        }
+        
+        Mono<Boolean> parentOk = task.getParentId() == null
+                ? Mono.just(true)
+                : taskRepository.findByIdAndUserId(task.getParentId(), user.getId()).hasElement();
+        return parentOk.flatMap(ok -> {
+            if (!ok) {
+                return Mono.error(new IllegalArgumentException("Parent task with ID " + task.getParentId() + " not found"));
+            }
+            task.setId(null);
+            task.setUserId(user.getId());
+            task.setCompleted(false);
+            task.setCompletedAt(null);
+            if (task.getCreatedAt() == null) {
+                task.setCreatedAt(LocalDateTime.now());
+            }
+            if (task.getPriority() == null) {
+                task.setPriority(TaskPriority.MEDIUM);
+            }
+            return taskChangeLog.next(user.getId())
+                    .flatMap(changeSeq -> {
+                        task.setChangeSeq(changeSeq);
+                        return taskRepository.save(task);
+                    })
+                    .as(transactionalOperator::transactional);
+        }).doOnNext(saved -> {
+            saved.setTags(new ArrayList<>());
+            logger.info("Created new task with ID: {} for user: {}", saved.getId(), user.getUsername());
+        });
+    }
+    
+    /**
+     * Mark one of the user's tasks completed
+     *
+     * @throws IllegalArgumentException (signalled) if the user has no such task
+     * @throws UnsupportedOperationException (signalled) if writes are disabled
+     */
+    public Mono<Task> completeTask(Long id, User user) {
+        logger.debug("Marking task {} as completed for user: {}", id, user.getUsername());
+        if (!writable()) {
+            return writesDisabled();
+        }
+        return taskChangeLog.next(user.getId())
+                .flatMap(changeSeq -> taskRepository.completeByIdAndUserId(id, user.getId(), LocalDateTime.now(), changeSeq))
+                .flatMap(updated -> updated == 0
+                        ? Mono.<Integer>error(new IllegalArgumentException("Task with ID " + id + " not found"))
+                        : Mono.just(updated))
+                .as(transactionalOperator::transactional)
+                .then(getTaskById(id, user))
+                .doOnNext(task -> logger.info("Task {} marked as completed for user: {}", id, user.getUsername()));
+    }
+    
+    /**
+     * Delete one of the user's tasks and everything below it, leaving a tombstone for each deleted task. The
+     * change sequence is reserved first, so the user's counter is locked before the subtree is read.
+     *
+     * @throws IllegalArgumentException (signalled) if the user has no such task
+     * @throws UnsupportedOperationException (signalled) if writes are disabled
+     */
+    public Mono<Void> deleteTask(Long id, User user) {
+        logger.debug("Deleting task {} for user: {}", id, user.getUsername());
+        if (!writable()) {
+            return writesDisabled();
+        }
+        return taskChangeLog.next(user.getId())
+                .flatMap(changeSeq -> taskRepository.findSubtreeIds(id, user.getId()).collectList()
+                        .flatMap(ids -> ids.isEmpty()
+                                ? Mono.<Integer>error(new IllegalArgumentException("Task with ID " + id + " not found"))
+                                : taskChangeLog.recordDeletions(user.getId(), ids, changeSeq)
+                                        .then(taskRepository.deleteSubtree(id, user.getId()))))
+                .as(transactionalOperator::transactional)
+                .doOnNext(deleted -> logger.info("Task {} deleted for user: {} ({} rows)", id, user.getUsername(), deleted))
+                .then();
+    }
+    
+    /**
+     * Writes are only safe while the servlet backend uses one database and keeps no replica caches to
+     * invalidate: with sharding they would land on the wrong shard, with cache invalidation the servlet
+     * replicas would keep serving stale tasks
+     */
+    public boolean writable() {
+        return !shardingEnabled && !cacheInvalidationEnabled;
+    }
+    
+    private static <T> Mono<T> writesDisabled() {
+        return Mono.error(new UnsupportedOperationException(
+                "Task writes are disabled on the reactive API while sharding or cache invalidation is enabled"));
+    }
+    
+    /**
+     * Fill in the tags of streamed tasks with one lookup per chunk, keeping their order
+     */
+    private Flux<Task> withTags(Flux<Task> tasks) {
+        return tasks.buffer(TAG_CHUNK).concatMap(chunk -> {
+            Map<Long, Task> byId = new HashMap<>(chunk.size() * 2);
+            for (Task task : chunk) {
+                task.setTags(new ArrayList<>());
+                byId.put(task.getId(), task);
+            }
+            return taskRepository.findTagNames(byId.keySet())
+                    .doOnNext(tag -> byId.get(tag.getTaskId()).getTags().add(tag.getName()))
+                    .thenMany(Flux.fromIterable(chunk))
+                    .doOnNext(task -> task.getTags().sort(null));
+        });
+    }
+}
@@ -0,0 +1,295 @@
+package com.todoapp.reactive.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.todoapp.reactive.service.JwtService;
+import com.todoapp.reactive.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class TaskControllerIntegrationTest {
+    
+    private static final AtomicInteger USERS = new AtomicInteger();
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    private String username;
+    private String token;
+    
+    @BeforeEach
+    void setUp() {
+        username = "reactive" + USERS.incrementAndGet();
+        databaseClient.sql("INSERT INTO users (username, email, password) VALUES (:username, :email, :password)")
+                .bind("username", username)
+                .bind("email", username + "@example.com")
+                .bind("password", passwordEncoder.encode("secret"))
+                .then()
+                .block();
+        
+        JsonNode login = webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("usernameOrEmail", username, "password", "secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        token = login.path("token").asText();
+    }
+    
+    @Test
+    void createdTaskIsListedCompletedAndDeleted() {
+        // Given
+        long id = create(Map.of("title", "Write report", "priority", "High"));
+        
+        // When
+        JsonNode recent = get("/api/tasks");
+        
+        // Then
+        assertEquals(1, recent.size());
+        assertEquals("Write report", recent.get(0).path("title").asText());
+        assertEquals("High", recent.get(0).path("priority").asText());
+        assertTrue(recent.get(0).path("tags").isArray());
+        assertFalse(recent.get(0).has("userId"));
+        
+        // When
+        webTestClient.put().uri("/api/tasks/{id}/complete", id)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.completed").isEqualTo(true);
+        
+        // Then
+        assertEquals(0, get("/api/tasks").size());
+        assertEquals(id, get("/api/tasks/completed").get(0).path("id").asLong());
+        
+        // When
+        webTestClient.delete().uri("/api/tasks/{id}", id)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNoContent();
+        
+        // Then
+        webTestClient.get().uri("/api/tasks/{id}", id)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+    
+    @Test
+    void deletingATaskDeletesItsSubtasks() {
+        // Given
+        long parent = create(Map.of("title", "Parent"));
+        long child = create(Map.of("title", "Child", "parentId", parent));
+        create(Map.of("title", "Grandchild", "parentId", child));
+        
+        // When
+        webTestClient.delete().uri("/api/tasks/{id}", parent)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNoContent();
+        
+        // Then
+        assertEquals(0, get("/api/tasks/all").size());
+    }
+    
+    @Test
+    void writesAreStampedForDeltaSync() {
+        // Given
+        long parent = create(Map.of("title", "Plan trip"));
+        long child = create(Map.of("title", "Book flights", "parentId", parent));
+        
+        // When
+        webTestClient.put().uri("/api/tasks/{id}/complete", child)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk();
+        
+        // Then: each write took the next value of the user's counter
+        assertEquals(1L, changeSeq(parent));
+        assertEquals(3L, changeSeq(child));
+        
+        // When
+        webTestClient.delete().uri("/api/tasks/{id}", parent)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNoContent();
+        
+        // Then: the whole subtree left tombstones under one new sequence
+        List<Long> tombstones = databaseClient.sql("SELECT t.task_id FROM task_tombstone t JOIN users u ON u.id = t.user_id " +
+                        "WHERE u.username = :username AND t.change_seq = 4 ORDER BY t.task_id")
+                .bind("username", username)
+                .map(row -> row.get("task_id", Long.class))
+                .all().collectList().block();
+        assertEquals(List.of(parent, child), tombstones);
+        assertEquals(4L, databaseClient.sql("SELECT s.change_seq FROM task_sync_state s JOIN users u ON u.id = s.user_id " +
+                        "WHERE u.username = :username")
+                .bind("username", username)
+                .map(row -> row.get("change_seq", Long.class))
+                .one().block());
+    }
+    
+    @Test
+    void tagsAreReadSorted() {
+        // Given
+        long id = create(Map.of("title", "Tagged elsewhere"));
+        for (String name : List.of("work", "urgent")) {
+            databaseClient.sql("INSERT INTO tag (user_id, name) SELECT id, :name FROM users WHERE username = :username")
+                    .bind("name", name).bind("username", username).then().block();
+            databaseClient.sql("INSERT INTO task_tag (user_id, task_id, tag_id) " +
+                            "SELECT user_id, :taskId, id FROM tag WHERE name = :name AND user_id = " +
+                            "(SELECT id FROM users WHERE username = :username)")
+                    .bind("taskId", id).bind("name", name).bind("username", username).then().block();
+        }
+        
+        // When
+        JsonNode task = get("/api/tasks/" + id);
+        
+        // Then
+        assertEquals("urgent", task.path("tags").get(0).asText());
+        assertEquals("work", task.path("tags").get(1).asText());
+    }
+    
+    @Test
+    void allTasksStreamAsNdjson() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            create(Map.of("title", "Task " + i));
+        }
+        
+        // When
+        List<JsonNode> streamed = webTestClient.get().uri("/api/tasks/all")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(JsonNode.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        
+        // Then
+        assertEquals(3, streamed.size());
+        assertEquals("Task 2", streamed.get(0).path("title").asText());
+    }
+    
+    @Test
+    void otherUsersTasksAreNotFound() {
+        // Given
+        long id = create(Map.of("title", "Private"));
+        String otherToken = jwtService.generateToken("someone-else");
+        
+        // When / Then
+        webTestClient.get().uri("/api/tasks/{id}", id)
+                .header("Authorization", "Bearer " + otherToken)
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.get().uri("/api/tasks")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+    
+    @Test
+    void invalidAndUnportedRequestsAreRejected() {
+        // When / Then
+        webTestClient.post().uri("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Orphan", "parentId", 999999))
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.post().uri("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Tagged", "tags", List.of("work")))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+        webTestClient.put().uri("/api/tasks/{id}/complete", 999999)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+    
+    @Test
+    void writesAreRejectedWhileCacheInvalidationIsEnabled() {
+        // Given
+        long id = create(Map.of("title", "Written before"));
+        ReflectionTestUtils.setField(taskService, "cacheInvalidationEnabled", true);
+        try {
+            // When / Then: writes answer 501, reads keep working
+            webTestClient.post().uri("/api/tasks")
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("title", "Written during"))
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+            webTestClient.put().uri("/api/tasks/{id}/complete", id)
+                    .header("Authorization", "Bearer " + token)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+            webTestClient.delete().uri("/api/tasks/{id}", id)
+                    .header("Authorization", "Bearer " + token)
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+            assertEquals(1, get("/api/tasks").size());
+        } finally {
+            ReflectionTestUtils.setField(taskService, "cacheInvalidationEnabled", false);
+        }
+    }
+    
+    private long create(Map<String, Object> task) {
+        return webTestClient.post().uri("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class).returnResult().getResponseBody()
+                .path("id").asLong();
+    }
+    
+    private Long changeSeq(long id) {
+        return databaseClient.sql("SELECT change_seq FROM task WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("change_seq", Long.class))
+                .one().block();
+    }
+    
+    private JsonNode get(String uri) {
+        return webTestClient.get().uri(uri)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,53 @@
+-- The parts of the servlet backend's schema this stack reads and writes
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) UNIQUE,
+    email VARCHAR(255) UNIQUE,
+    password VARCHAR(100),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    deletion_requested_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS task (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    completed BOOLEAN,
+    created_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    priority SMALLINT NOT NULL,
+    due_date TIMESTAMP,
+    user_id BIGINT REFERENCES users (id),
+    parent_id BIGINT,
+    change_seq BIGINT,
+    recurrence VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS tag (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS task_tag (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    task_id BIGINT NOT NULL REFERENCES task (id) ON DELETE CASCADE,
+    tag_id BIGINT NOT NULL REFERENCES tag (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS task_sync_state (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL UNIQUE,
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    purged_seq BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS task_tombstone (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,288 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.event.UserChangedEvent;
+import com.todoapp.sharding.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the in-process caches of several backend replicas consistent through PostgreSQL LISTEN/NOTIFY
+ * ({@code todoapp.cache.invalidation.enabled}).
+ * <p>
+ * After a task or user change commits, a compact message {@code node|seq|type|id|userId} is queued and
+ * sent with {@code pg_notify} by a background sender, so writes do not wait for it. Every other node
+ * listens on a dedicated connection and evicts the affected user from its {@link InvalidatableCache}s;
+ * the sending node already updated its own caches from the same event.
+ * Each node numbers its messages, so a receiver that sees a gap (a failed notify, a dropped message) or
+ * that had to reconnect flushes all caches instead of trusting what it holds.
+ */
+@Component
+public class CacheInvalidationBus {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String NONE = "-";
+    
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<InvalidatableCache> caches;
+    private final MeterRegistry meterRegistry;
+    
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    
+    @Value("${todoapp.cache.invalidation.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${todoapp.cache.invalidation.channel:todoapp_cache_invalidation}")
+    private String channel;
+    
+    @Value("${todoapp.cache.invalidation.poll-timeout:1s}")
+    private Duration pollTimeout;
+    
+    @Value("${todoapp.cache.invalidation.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+    
+    private final BlockingQueue<String> outbox = new ArrayBlockingQueue<>(10_000);
+    
+    private Thread listener;
+    private Thread sender;
+    private volatile boolean running;
+    private volatile boolean listening;
+    
+    @Autowired
+    public CacheInvalidationBus(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                List<InvalidatableCache> caches,
+                                MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.caches = caches;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalStateException("Invalid todoapp.cache.invalidation.channel: " + channel);
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+        sender = new Thread(this::send, "cache-invalidation-sender");
+        sender.setDaemon(true);
+        sender.start();
+        logger.info("Cache invalidation bus started on channel {} as node {}", channel, nodeId);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            sender.interrupt();
+            listener.join(pollTimeout.toMillis() * 2);
+            sender.join(pollTimeout.toMillis() * 2);
+        }
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Whether the listener currently holds a connection with LISTEN registered
+     */
+    public boolean isListening() {
+        return listening;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        publish('T', event.getTaskId(), event.getUserId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // User events are not seen by the caches themselves, so evict locally as well
+        evict(event.getUserId());
+        publish('U', event.getUserId(), event.getUserId());
+    }
+    
+    private void publish(char type, Long id, Long userId) {
+        if (!enabled) {
+            return;
+        }
+        String message = type + "|" + (id != null ? id : NONE) + "|" + (userId != null ? userId : NONE);
+        if (!outbox.offer(message)) {
+            // Skipping a number makes every receiver flush, which covers the dropped message
+            sequence.incrementAndGet();
+            logger.warn("Cache invalidation outbox full, dropping {}", message);
+        }
+    }
+    
+    /**
+     * Sends queued messages from one thread, so sequence numbers reach the channel in order. Everything
+     * queued at once goes out in one transaction; PostgreSQL delivers a transaction's notifications in order.
+     */
+    private void send() {
+        List<String> batch = new ArrayList<>();
+        while (running || !outbox.isEmpty()) {
+            try {
+                String first = outbox.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                // Shutting down: send what is left
+            }
+            outbox.drainTo(batch);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            
+            List<String> payloads = new ArrayList<>(batch.size());
+            for (String message : batch) {
+                // Numbered before sending: if this notify fails, receivers see the gap and flush
+                payloads.add(nodeId + "|" + sequence.incrementAndGet() + "|" + message);
+            }
+            batch.clear();
+            try {
+                // Listeners are on the default shard, so notify there
+                ShardContext.runOn(0, () -> transactionTemplate.executeWithoutResult(status -> {
+                    for (String payload : payloads) {
+                        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+                    }
+                }));
+                counter("sent").increment(payloads.size());
+            } catch (RuntimeException e) {
+                logger.warn("Could not send {} cache invalidations: {}", payloads.size(), e.getMessage());
+            }
+        }
+    }
+    
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                // Whatever was sent while this node was not listening is lost
+                flush("listening (re)started");
+                
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener lost its connection, retrying in {}: {}", reconnectDelay, e.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+            
+            if (running) {
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Apply one received message
+     */
+    void receive(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 5) {
+            logger.warn("Ignoring malformed cache invalidation {}", payload);
+            return;
+        }
+        String origin = parts[0];
+        if (origin.equals(nodeId)) {
+            return;
+        }
+        counter("received").increment();
+        
+        long seq = Long.parseLong(parts[1]);
+        Long previous = lastSeen.put(origin, seq);
+        if (previous != null && seq != previous + 1) {
+            flush("missed " + (seq - previous - 1) + " messages from node " + origin);
+            return;
+        }
+        
+        if (NONE.equals(parts[4])) {
+            // Owner unknown (delete by id): any user's entries may be affected
+            flush("change without owner from node " + origin);
+        } else {
+            evict(Long.valueOf(parts[4]));
+        }
+    }
+    
+    private void evict(Long userId) {
+        for (InvalidatableCache cache : caches) {
+            cache.evict(userId);
+        }
+    }
+    
+    private void flush(String reason) {
+        logger.info("Flushing all local caches: {}", reason);
+        counter("flushed").increment();
+        for (InvalidatableCache cache : caches) {
+            cache.evictAll();
+        }
+    }
+    
+    private Counter counter(String outcome) {
+        return Counter.builder("todoapp.cache.invalidations").tag("outcome", outcome).register(meterRegistry);
+    }
+}
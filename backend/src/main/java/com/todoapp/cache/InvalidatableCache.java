@@ -0,0 +1,17 @@
+package com.todoapp.cache;
+
+/**
+ * In-process cache that {@link CacheInvalidationBus} can evict when another node changes data
+ */
+public interface InvalidatableCache {
+    
+    /**
+     * Drop everything cached for a user
+     */
+    void evict(Long userId);
+    
+    /**
+     * Drop everything, e.g. after invalidation messages may have been missed
+     */
+    void evictAll();
+}
@@ -0,0 +1,181 @@
+package com.todoapp.cache;
+
+import com.todoapp.model.ListRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of access decisions for shared task lists, keyed by (user, list), so checking a
+ * member's access to a task in a shared list does not cost a query per request. Refusals are cached too.
+ * <p>
+ * Membership changes publish a UserChangedEvent for the affected user, which evicts that user's entries
+ * here and, through {@link CacheInvalidationBus}, on every other replica. Entries expire after {@code ttl}
+ * as a backstop for changes made without events.
+ */
+@Component
+public class ListAccessCache implements InvalidatableCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ListAccessCache.class);
+    private static final int STRIPES = 64;
+    
+    @Value("${todoapp.cache.list-access.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.cache.list-access.max-entries:100000}")
+    private int maxEntries;
+    
+    @Value("${todoapp.cache.list-access.ttl:PT10M}")
+    private Duration ttl;
+    
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    
+    /**
+     * Eviction counters per user stripe; a load only installs its result if no eviction for that stripe
+     * happened while the query ran, so a decision loaded before a membership change is not cached after it
+     */
+    private final long[] stamps = new long[STRIPES];
+    
+    private long hits;
+    private long misses;
+    
+    /**
+     * The user's access to a list, loading it with {@code loader} on a miss
+     */
+    public Access get(Long userId, Long listId, Supplier<Access> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        Key key = new Key(userId, listId);
+        long stamp;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits++;
+                return entry.access;
+            }
+            misses++;
+            stamp = stamps[stripe(userId)];
+        }
+        
+        Access loaded = loader.get();
+        synchronized (this) {
+            if (stamps[stripe(userId)] == stamp) {
+                entries.put(key, new Entry(loaded, System.nanoTime() + ttl.toNanos()));
+            } else {
+                logger.debug("Not caching access of user {} to list {}: changed while loading", userId, listId);
+            }
+        }
+        return loaded;
+    }
+    
+    @Override
+    public synchronized void evict(Long userId) {
+        entries.keySet().removeIf(key -> key.userId.equals(userId));
+        stamps[stripe(userId)]++;
+    }
+    
+    @Override
+    public synchronized void evictAll() {
+        entries.clear();
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i]++;
+        }
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+    
+    /**
+     * A user's access to a list: the list's owner, and the user's role (null for no access). Both are null
+     * when the list does not exist.
+     */
+    public static final class Access {
+        
+        public static final Access NONE = new Access(null, null);
+        
+        private final Long ownerId;
+        private final ListRole role;
+        
+        public Access(Long ownerId, ListRole role) {
+            this.ownerId = ownerId;
+            this.role = role;
+        }
+        
+        public Long getOwnerId() {
+            return ownerId;
+        }
+        
+        public ListRole getRole() {
+            return role;
+        }
+        
+        public boolean canRead() {
+            return role != null;
+        }
+        
+        public boolean canEdit() {
+            return role != null && role.canEdit();
+        }
+    }
+    
+    private static final class Key {
+        final Long userId;
+        final Long listId;
+        
+        Key(Long userId, Long listId) {
+            this.userId = userId;
+            this.listId = listId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return userId.equals(other.userId) && listId.equals(other.listId);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, listId);
+        }
+    }
+    
+    private static final class Entry {
+        final Access access;
+        final long expiresAt;
+        
+        Entry(Access access, long expiresAt) {
+            this.access = access;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for per-user reads: while one request is loading a user's query, identical requests for
+ * the same user wait for that load and share its result instead of running the query again.
+ * <p>
+ * Flights are keyed by user, query and the user's write version. Every committed change to a user's tasks
+ * bumps the version before the writing request returns, so a read issued after a write never joins a flight
+ * that started before it; it starts a new one and sees the write. Versions are kept per stripe of users,
+ * so a write may occasionally stop unrelated users from sharing a flight, never the other way round.
+ * Call this outside any transaction, so waiting requests do not hold a database connection.
+ * Counters: {@code todoapp.reads.executed} and {@code todoapp.reads.coalesced}, tagged by query name only;
+ * parameters such as limits or date windows come from clients and stay out of the tags.
+ */
+@Component
+public class ReadCoalescer implements InvalidatableCache {
+    
+    private static final int STRIPES = 1024;
+    
+    private final MeterRegistry meterRegistry;
+    private final Map<FlightKey, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    
+    @Value("${todoapp.cache.coalescing.enabled:true}")
+    private boolean enabled;
+    
+    @Autowired
+    public ReadCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Run {@code loader}, or wait for an identical in-flight call for the same user and share its result.
+     * The result is shared between callers and must not be modified.
+     *
+     * @param query fixed name of the read
+     */
+    public <T> T read(Long userId, String query, Supplier<T> loader) {
+        return read(userId, query, "", loader);
+    }
+    
+    /**
+     * Like {@link #read(Long, String, Supplier)} for a read with parameters; only calls with equal parameters
+     * share a flight
+     *
+     * @param query  fixed name of the read, used as the meter tag
+     * @param params every parameter that changes the result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(Long userId, String query, String params, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        FlightKey key = new FlightKey(userId, query + ":" + params, versions.get(stripe(userId)));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            counter("todoapp.reads.coalesced", query).increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        
+        counter("todoapp.reads.executed", query).increment();
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getUserId() == null) {
+            // Owner unknown: no flight may be joined any more
+            evictAll();
+            return;
+        }
+        evict(event.getUserId());
+    }
+    
+    /**
+     * Start a new generation for the user, so reads already in flight are not shared any more
+     */
+    @Override
+    public void evict(Long userId) {
+        versions.incrementAndGet(stripe(userId));
+    }
+    
+    @Override
+    public void evictAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+    }
+    
+    private Counter counter(String name, String query) {
+        return Counter.builder(name).tag("query", query).register(meterRegistry);
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+    
+    private static final class FlightKey {
+        final Long userId;
+        final String query;
+        final long version;
+        
+        FlightKey(Long userId, String query, long version) {
+            this.userId = userId;
+            this.query = query;
+            this.version = version;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey other = (FlightKey) o;
+            return userId.equals(other.userId) && query.equals(other.query) && version == other.version;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, query, version);
+        }
+    }
+}
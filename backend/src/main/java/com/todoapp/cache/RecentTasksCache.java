@@ -0,0 +1,256 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.storage.StoredTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Per-user top-K lists of the newest incomplete and most recently completed tasks, backing
+ * {@code GET /api/tasks} and {@code GET /api/tasks/completed}.
+ * <p>
+ * A list is loaded from the database on first access and afterwards maintained in place from committed
+ * {@link TaskChangedEvent}s: creates and completions are inserted and the list trimmed back to K.
+ * A removal only forces a reload when it leaves fewer than K entries while the database may hold more.
+ * Idle users are evicted in LRU order once {@code max-users} is reached, and entries expire after
+ * {@code ttl} to pick up changes made without events (archiving, manual SQL).
+ */
+@Component
+public class RecentTasksCache implements InvalidatableCache {
+    
+    /**
+     * Entries per list, matching the page size of the recent/completed endpoints
+     */
+    public static final int K = 5;
+    
+    private static final Logger logger = LoggerFactory.getLogger(RecentTasksCache.class);
+    private static final int STRIPES = 64;
+    
+    @Value("${todoapp.cache.recent-tasks.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.cache.recent-tasks.max-users:10000}")
+    private int maxUsers;
+    
+    @Value("${todoapp.cache.recent-tasks.ttl:PT10M}")
+    private Duration ttl;
+    
+    private final Map<Long, UserLists> users = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserLists> eldest) {
+            return size() > maxUsers;
+        }
+    };
+    
+    /**
+     * Change counters per user stripe; a load only installs its result if no change for that stripe
+     * committed while the query ran, so a slow load cannot resurrect data an event already replaced
+     */
+    private final long[] stamps = new long[STRIPES];
+    
+    private long hits;
+    private long misses;
+    
+    /**
+     * Newest incomplete tasks for the user, loading them with {@code loader} (top K by created_at) on a miss
+     */
+    public List<Task> getIncomplete(User user, Supplier<List<Task>> loader) {
+        return get(user, false, loader);
+    }
+    
+    /**
+     * Most recently completed tasks for the user, loading them with {@code loader} (top K by completed_at) on a miss
+     */
+    public List<Task> getCompleted(User user, Supplier<List<Task>> loader) {
+        return get(user, true, loader);
+    }
+    
+    @Override
+    public synchronized void evict(Long userId) {
+        users.remove(userId);
+        stamps[stripe(userId)]++;
+    }
+    
+    @Override
+    public synchronized void evictAll() {
+        users.clear();
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i]++;
+        }
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!enabled || event.getTaskId() == null) {
+            return;
+        }
+        synchronized (this) {
+            if (event.getUserId() == null) {
+                // Delete by id only: the owner is unknown, so look through every cached user
+                for (int i = 0; i < STRIPES; i++) {
+                    stamps[i]++;
+                }
+                for (UserLists lists : users.values()) {
+                    lists.remove(event.getTaskId());
+                }
+                return;
+            }
+            
+            stamps[stripe(event.getUserId())]++;
+            UserLists lists = users.get(event.getUserId());
+            if (lists == null) {
+                return;
+            }
+            lists.remove(event.getTaskId());
+            if (event.getType() != TaskChangedEvent.Type.DELETED && event.getTask() != null) {
+                lists.add(StoredTask.from(event.getTask()));
+            }
+        }
+    }
+    
+    private List<Task> get(User user, boolean completed, Supplier<List<Task>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        
+        long stamp;
+        synchronized (this) {
+            UserLists lists = users.get(user.getId());
+            TopK list = lists != null ? lists.list(completed) : null;
+            if (list != null && list.isUsable(System.nanoTime())) {
+                hits++;
+                return list.toTasks(user);
+            }
+            misses++;
+            stamp = stamps[stripe(user.getId())];
+        }
+        
+        List<Task> loaded = loader.get();
+        synchronized (this) {
+            if (stamps[stripe(user.getId())] == stamp) {
+                UserLists lists = users.computeIfAbsent(user.getId(), id -> new UserLists());
+                lists.install(completed, loaded, System.nanoTime() + ttl.toNanos());
+            } else {
+                logger.debug("Not caching recent tasks for user {}: changed while loading", user.getId());
+            }
+        }
+        return loaded;
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+    
+    private static final class UserLists {
+        TopK incomplete;
+        TopK completed;
+        
+        TopK list(boolean completedList) {
+            return completedList ? completed : incomplete;
+        }
+        
+        void install(boolean completedList, List<Task> tasks, long expiresAt) {
+            TopK list = new TopK(completedList ? StoredTask.NEWEST_COMPLETED : StoredTask.NEWEST_CREATED, expiresAt);
+            for (Task task : tasks) {
+                list.entries.add(StoredTask.from(task));
+            }
+            // Fewer than K rows means the database has no more: removals never need a reload
+            list.exhaustive = tasks.size() < K;
+            if (completedList) {
+                completed = list;
+            } else {
+                incomplete = list;
+            }
+        }
+        
+        void add(StoredTask task) {
+            TopK list = task.isCompleted() ? completed : incomplete;
+            if (list != null) {
+                list.add(task);
+            }
+        }
+        
+        void remove(Long taskId) {
+            if (incomplete != null) {
+                incomplete.remove(taskId);
+            }
+            if (completed != null) {
+                completed.remove(taskId);
+            }
+        }
+    }
+    
+    private static final class TopK {
+        final NavigableSet<StoredTask> entries;
+        final long expiresAt;
+        boolean exhaustive;
+        boolean stale;
+        
+        TopK(Comparator<StoredTask> order, long expiresAt) {
+            this.entries = new TreeSet<>(order);
+            this.expiresAt = expiresAt;
+        }
+        
+        boolean isUsable(long now) {
+            return !stale && now - expiresAt < 0;
+        }
+        
+        void add(StoredTask task) {
+            if (!exhaustive && !entries.isEmpty() && entries.comparator().compare(task, entries.last()) > 0) {
+                // Sorts after the cached tail: rows we have not loaded may come first
+                return;
+            }
+            entries.add(task);
+            if (entries.size() > K) {
+                // The trimmed row is still in the database, so the list no longer covers everything
+                entries.pollLast();
+                exhaustive = false;
+            }
+        }
+        
+        void remove(Long taskId) {
+            Iterator<StoredTask> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getId() == taskId) {
+                    iterator.remove();
+                    if (!exhaustive) {
+                        stale = true;
+                    }
+                    return;
+                }
+            }
+        }
+        
+        List<Task> toTasks(User owner) {
+            List<Task> tasks = new ArrayList<>(entries.size());
+            for (StoredTask entry : entries) {
+                tasks.add(entry.toTask(owner));
+            }
+            return tasks;
+        }
+    }
+}
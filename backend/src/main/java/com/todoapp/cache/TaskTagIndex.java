@@ -0,0 +1,232 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskTagAssignment;
+import com.todoapp.repository.TaskTagRepository;
+import com.todoapp.util.LongBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-user tag bitmaps (tag name to the ids of the tasks carrying it) for multi-tag filtering.
+ * <p>
+ * A user's bitmaps are built from one query over task_tag on first use and afterwards kept current from
+ * committed {@link TaskChangedEvent}s: the task service attaches the new tag list to create and update
+ * events, and deletes drop the task from every bitmap. Filters and the tags shown on returned tasks are
+ * then answered from memory. Idle users are evicted in LRU order and entries expire after {@code ttl},
+ * the same way as {@link RecentTasksCache}.
+ */
+@Component
+public class TaskTagIndex implements InvalidatableCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskTagIndex.class);
+    private static final int STRIPES = 64;
+    
+    private final TaskTagRepository taskTagRepository;
+    
+    @Value("${todoapp.tags.index.max-users:10000}")
+    private int maxUsers;
+    
+    @Value("${todoapp.tags.index.ttl:PT10M}")
+    private Duration ttl;
+    
+    private final Map<Long, UserTags> users = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserTags> eldest) {
+            return size() > maxUsers;
+        }
+    };
+    
+    /**
+     * Change counters per user stripe, so a load that raced with a change is not installed
+     */
+    private final long[] stamps = new long[STRIPES];
+    
+    @Autowired
+    public TaskTagIndex(TaskTagRepository taskTagRepository) {
+        this.taskTagRepository = taskTagRepository;
+    }
+    
+    /**
+     * Ids of the user's tasks carrying all ({@code matchAll}) or any of the given normalized tag names
+     */
+    public LongBitmap find(Long userId, Collection<String> tags, boolean matchAll) {
+        return withTags(userId, byTag -> {
+            LongBitmap result = null;
+            for (String tag : tags) {
+                LongBitmap tasks = byTag.get(tag);
+                if (tasks == null) {
+                    if (matchAll) {
+                        return new LongBitmap();
+                    }
+                    continue;
+                }
+                result = result == null ? tasks.copy() : matchAll ? result.and(tasks) : result.or(tasks);
+            }
+            return result != null ? result : new LongBitmap();
+        });
+    }
+    
+    /**
+     * Number of tasks per tag for the user, by tag name
+     */
+    public Map<String, Long> countByTag(Long userId) {
+        return withTags(userId, byTag -> {
+            Map<String, Long> counts = new TreeMap<>();
+            byTag.forEach((tag, tasks) -> counts.put(tag, tasks.cardinality()));
+            return counts;
+        });
+    }
+    
+    /**
+     * Fill in {@link Task#setTags} for tasks that all belong to the given user
+     */
+    public void attachTags(Long userId, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, Task> byId = new HashMap<>(tasks.size() * 2);
+        for (Task task : tasks) {
+            task.setTags(new ArrayList<>());
+            byId.put(task.getId(), task);
+        }
+        withTags(userId, byTag -> {
+            // Tag names iterate in sorted order, so every task's list ends up sorted
+            for (Map.Entry<String, LongBitmap> entry : new TreeMap<>(byTag).entrySet()) {
+                LongBitmap tagged = entry.getValue();
+                if (tagged.cardinality() < tasks.size()) {
+                    tagged.forEach(id -> {
+                        Task task = byId.get(id);
+                        if (task != null) {
+                            task.getTags().add(entry.getKey());
+                        }
+                    });
+                } else {
+                    for (Task task : tasks) {
+                        if (tagged.contains(task.getId())) {
+                            task.getTags().add(entry.getKey());
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public synchronized void evict(Long userId) {
+        users.remove(userId);
+        stamps[stripe(userId)]++;
+    }
+    
+    @Override
+    public synchronized void evictAll() {
+        users.clear();
+        for (int i = 0; i < STRIPES; i++) {
+            stamps[i]++;
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getTaskId() == null) {
+            return;
+        }
+        synchronized (this) {
+            if (event.getUserId() == null) {
+                for (int i = 0; i < STRIPES; i++) {
+                    stamps[i]++;
+                }
+                for (UserTags entry : users.values()) {
+                    entry.remove(event.getTaskId());
+                }
+                return;
+            }
+            
+            stamps[stripe(event.getUserId())]++;
+            UserTags entry = users.get(event.getUserId());
+            if (entry == null) {
+                return;
+            }
+            if (event.getType() == TaskChangedEvent.Type.DELETED) {
+                entry.remove(event.getTaskId());
+            } else if (event.getTask() != null && event.getTask().getTags() != null) {
+                // Events without a tag list (e.g. completions) leave the task's tags as they are
+                entry.set(event.getTaskId(), event.getTask().getTags());
+            }
+        }
+    }
+    
+    private <T> T withTags(Long userId, TagsFunction<T> function) {
+        long stamp;
+        synchronized (this) {
+            UserTags entry = users.get(userId);
+            if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+                return function.apply(entry.byTag);
+            }
+            stamp = stamps[stripe(userId)];
+        }
+        
+        UserTags loaded = new UserTags(System.nanoTime() + ttl.toNanos());
+        for (TaskTagAssignment assignment : taskTagRepository.findAssignmentsByUserId(userId)) {
+            loaded.byTag.computeIfAbsent(assignment.getTag(), tag -> new LongBitmap()).add(assignment.getTaskId());
+        }
+        synchronized (this) {
+            if (stamps[stripe(userId)] == stamp) {
+                users.put(userId, loaded);
+            } else {
+                logger.debug("Not caching tag bitmaps for user {}: changed while loading", userId);
+            }
+            return function.apply(loaded.byTag);
+        }
+    }
+    
+    private static int stripe(Long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+    
+    private interface TagsFunction<T> {
+        T apply(Map<String, LongBitmap> byTag);
+    }
+    
+    private static final class UserTags {
+        final Map<String, LongBitmap> byTag = new HashMap<>();
+        final long expiresAt;
+        
+        UserTags(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+        
+        void set(Long taskId, Collection<String> tags) {
+            remove(taskId);
+            for (String tag : tags) {
+                byTag.computeIfAbsent(tag, name -> new LongBitmap()).add(taskId);
+            }
+        }
+        
+        void remove(Long taskId) {
+            Iterator<LongBitmap> iterator = byTag.values().iterator();
+            while (iterator.hasNext()) {
+                LongBitmap tasks = iterator.next();
+                if (tasks.remove(taskId) && tasks.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.todoapp.config;
+
+import com.todoapp.util.GradientLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit for the API ({@code todoapp.concurrency-limit}). Requests to {@code /api/**}
+ * over the limit are rejected at once with 503 and {@code Retry-After}, before authentication or any
+ * database work, instead of queueing in Tomcat for a pool connection. The limit follows observed latency
+ * through {@link GradientLimit}: it grows while latency stays near its baseline and shrinks as soon as
+ * requests start to queue.
+ * <p>
+ * Auth requests and writes may use the whole limit, other reads {@code read-share} of it, and bulk reads
+ * ({@code bulk-paths}) {@code bulk-read-share}, so under overload bulk reads are shed first and logins and
+ * writes last. Meters: gauges {@code todoapp.concurrency.limit}, {@code todoapp.concurrency.inflight} and
+ * {@code todoapp.concurrency.rtt} (short and long averages), and the counter
+ * {@code todoapp.concurrency.requests} tagged by priority and outcome (accepted or rejected).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    
+    enum Priority {
+        CRITICAL,
+        READ,
+        BULK_READ
+    }
+    
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inflight = new AtomicInteger();
+    
+    @Value("${todoapp.concurrency-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+    
+    @Value("${todoapp.concurrency-limit.min-limit:4}")
+    private int minLimit;
+    
+    @Value("${todoapp.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+    
+    @Value("${todoapp.concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+    
+    @Value("${todoapp.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+    
+    @Value("${todoapp.concurrency-limit.long-window:600}")
+    private int longWindow;
+    
+    @Value("${todoapp.concurrency-limit.read-share:0.9}")
+    private double readShare;
+    
+    @Value("${todoapp.concurrency-limit.bulk-read-share:0.5}")
+    private double bulkReadShare;
+    
+    @Value("${todoapp.concurrency-limit.bulk-paths:/api/tasks/all,/api/tasks/analytics,/api/tasks/changes,/api/lists/*/tasks}")
+    private List<String> bulkPaths;
+    
+    private volatile GradientLimit limit;
+    
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Web slice tests run without Micrometer; decisions are then counted into a throwaway registry
+     */
+    @Autowired
+    public ConcurrencyLimitFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+    
+    @PostConstruct
+    public void start() {
+        limit = new GradientLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing, longWindow);
+        Gauge.builder("todoapp.concurrency.limit", () -> limit.getLimit())
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("todoapp.concurrency.inflight", inflight::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        Gauge.builder("todoapp.concurrency.rtt", () -> limit.getShortRttNanos() / 1e9)
+                .description("Short-term average latency of admitted requests")
+                .tag("window", "short")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("todoapp.concurrency.rtt", () -> limit.getLongRttNanos() / 1e9)
+                .description("Baseline latency of admitted requests")
+                .tag("window", "long")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (enabled) {
+            logger.info("Adaptive concurrency limit enabled (initial {}, range {}-{})", initialLimit, minLimit, maxLimit);
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        Priority priority = classify(request);
+        int admitted = tryAcquire(priority);
+        if (admitted == 0) {
+            count(priority, "rejected");
+            logger.debug("Rejected {} {} over the concurrency limit of {}", request.getMethod(), request.getRequestURI(), limit.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        
+        count(priority, "accepted");
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inflight.decrementAndGet();
+            limit.onSample(System.nanoTime() - start, admitted);
+        }
+    }
+    
+    Priority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.startsWith("/api/auth/") || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return Priority.CRITICAL;
+        }
+        for (String pattern : bulkPaths) {
+            if (PATHS.match(pattern, path)) {
+                return Priority.BULK_READ;
+            }
+        }
+        return Priority.READ;
+    }
+    
+    /**
+     * Admit a request if the requests in flight leave room for its priority
+     *
+     * @return requests in flight including this one, or 0 if it was rejected
+     */
+    private int tryAcquire(Priority priority) {
+        double share = priority == Priority.CRITICAL ? 1.0 : priority == Priority.READ ? readShare : bulkReadShare;
+        int allowed = Math.max(1, (int) (limit.getLimit() * share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+    
+    private void count(Priority priority, String outcome) {
+        Counter.builder("todoapp.concurrency.requests")
+                .description("Requests admitted or shed by the concurrency limiter")
+                .tag("priority", priority.name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+    
+    int getLimit() {
+        return limit.getLimit();
+    }
+}
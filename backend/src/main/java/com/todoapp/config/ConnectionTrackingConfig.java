@@ -0,0 +1,32 @@
+package com.todoapp.config;
+
+import com.todoapp.sharding.ShardRoutingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class ConnectionTrackingConfig {
+    
+    /**
+     * Wraps the application's connection pool in a {@link ConnectionTrackingDataSource}. The shard router is
+     * left alone because it is injected by type; {@link com.todoapp.sharding.ShardingConfig} wraps each
+     * shard's pool instead. Without a request bound by {@link ConnectionTrackingFilter} the wrapper hands out
+     * plain connections.
+     */
+    @Bean
+    static BeanPostProcessor connectionTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ConnectionTrackingDataSource)
+                        && !(bean instanceof ShardRoutingDataSource)) {
+                    return new ConnectionTrackingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.todoapp.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records, for the request bound in {@link ConnectionUsage}, how long each connection stays checked out
+ * (from {@code getConnection} to {@code close}) and how long its statements take to execute. Connections
+ * obtained without a bound request (scheduled jobs, startup) are returned unwrapped.
+ */
+public class ConnectionTrackingDataSource extends DelegatingDataSource implements AutoCloseable {
+    
+    public ConnectionTrackingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+    
+    /**
+     * Closes the wrapped pool, so it is still shut down with the application context
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) getTargetDataSource()).close();
+        }
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+    
+    private static Connection track(Connection connection) {
+        ConnectionUsage usage = ConnectionUsage.get();
+        if (usage == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(ConnectionTrackingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, usage));
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+        private final ConnectionUsage usage;
+        private final long checkedOutAt = System.nanoTime();
+        private boolean closed;
+        
+        ConnectionHandler(Connection target, ConnectionUsage usage) {
+            this.target = target;
+            this.usage = usage;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        usage.connectionReleased(System.nanoTime() - checkedOutAt);
+                    }
+                    return ConnectionTrackingDataSource.invoke(target, method, args);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    Object result = ConnectionTrackingDataSource.invoke(target, method, args);
+                    if (result instanceof Statement) {
+                        return wrap((Statement) result, (Connection) proxy);
+                    }
+                    return result;
+            }
+        }
+        
+        private Statement wrap(Statement statement, Connection connection) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(ConnectionTrackingDataSource.class.getClassLoader(),
+                    new Class<?>[]{type}, new StatementHandler(statement, connection, usage));
+        }
+    }
+    
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final ConnectionUsage usage;
+        
+        StatementHandler(Statement target, Connection connection, ConnectionUsage usage) {
+            this.target = target;
+            this.connection = connection;
+            this.usage = usage;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return ConnectionTrackingDataSource.invoke(target, method, args);
+                } finally {
+                    usage.statementExecuted(System.nanoTime() - start);
+                }
+            }
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return ConnectionTrackingDataSource.invoke(target, method, args);
+            }
+        }
+    }
+}
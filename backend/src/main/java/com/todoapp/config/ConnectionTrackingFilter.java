@@ -0,0 +1,117 @@
+package com.todoapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures database connection use per request: total time connections were checked out versus time spent
+ * executing statements, as the Micrometer timers {@code todoapp.db.connection.hold} and
+ * {@code todoapp.db.statement.time} (tagged with method and uri pattern). A request that keeps one
+ * connection longer than {@code hold-threshold} is logged and counted in
+ * {@code todoapp.db.connection.long-holds}; a large gap between hold and statement time points at work
+ * done inside a transaction that does not need the database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConnectionTrackingFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionTrackingFilter.class);
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${todoapp.db.connection-tracking.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.db.connection-tracking.hold-threshold:200ms}")
+    private Duration holdThreshold;
+    
+    public ConnectionTrackingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Web slice tests run without Micrometer; requests are then measured into a throwaway registry
+     */
+    @Autowired
+    public ConnectionTrackingFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        ConnectionUsage usage = new ConnectionUsage();
+        ConnectionUsage.set(usage);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConnectionUsage.clear();
+            record(request, usage);
+        }
+    }
+    
+    private void record(HttpServletRequest request, ConnectionUsage usage) {
+        if (usage.getCheckouts() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        
+        Timer.builder("todoapp.db.connection.hold")
+                .description("Time database connections were checked out per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(usage.getHoldNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("todoapp.db.statement.time")
+                .description("Time spent executing SQL statements per request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(usage.getStatementNanos(), TimeUnit.NANOSECONDS);
+        
+        if (usage.getMaxHoldNanos() > holdThreshold.toNanos()) {
+            Counter.builder("todoapp.db.connection.long-holds")
+                    .description("Requests that held a database connection longer than the threshold")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {} held a database connection for {} ms (threshold {} ms): {} checkouts, {} ms held in total, {} statements taking {} ms",
+                    method, request.getRequestURI(),
+                    TimeUnit.NANOSECONDS.toMillis(usage.getMaxHoldNanos()), holdThreshold.toMillis(),
+                    usage.getCheckouts(), TimeUnit.NANOSECONDS.toMillis(usage.getHoldNanos()),
+                    usage.getStatements(), TimeUnit.NANOSECONDS.toMillis(usage.getStatementNanos()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.todoapp.config;
+
+/**
+ * Database connection usage of one request: how long connections were checked out and how much of that
+ * time was spent executing statements. Bound to the handling thread by {@link ConnectionTrackingFilter}
+ * and carried to worker threads by the executors, like {@link com.todoapp.sharding.ShardContext}.
+ */
+public class ConnectionUsage {
+    
+    private static final ThreadLocal<ConnectionUsage> CURRENT = new ThreadLocal<>();
+    
+    private int checkouts;
+    private long holdNanos;
+    private long maxHoldNanos;
+    private int statements;
+    private long statementNanos;
+    
+    public static ConnectionUsage get() {
+        return CURRENT.get();
+    }
+    
+    static void set(ConnectionUsage usage) {
+        CURRENT.set(usage);
+    }
+    
+    static void clear() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * Run with the given usage bound to the current thread, restoring the previous binding afterwards
+     */
+    static void runWith(ConnectionUsage usage, Runnable action) {
+        ConnectionUsage previous = CURRENT.get();
+        CURRENT.set(usage);
+        try {
+            action.run();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+    
+    synchronized void connectionReleased(long heldNanos) {
+        checkouts++;
+        holdNanos += heldNanos;
+        maxHoldNanos = Math.max(maxHoldNanos, heldNanos);
+    }
+    
+    synchronized void statementExecuted(long nanos) {
+        statements++;
+        statementNanos += nanos;
+    }
+    
+    public synchronized int getCheckouts() {
+        return checkouts;
+    }
+    
+    public synchronized long getHoldNanos() {
+        return holdNanos;
+    }
+    
+    public synchronized long getMaxHoldNanos() {
+        return maxHoldNanos;
+    }
+    
+    public synchronized int getStatements() {
+        return statements;
+    }
+    
+    public synchronized long getStatementNanos() {
+        return statementNanos;
+    }
+}
@@ -0,0 +1,52 @@
+package com.todoapp.config;
+
+import com.todoapp.sharding.ShardContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+    
+    /**
+     * Bounded pool for the dashboard's parallel reads. A full queue rejects new work (the controller answers
+     * 503) rather than running it on the request thread, which may already hold a database connection.
+     */
+    @Bean(name = "dashboardExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${todoapp.dashboard.pool-size:8}") int poolSize,
+                                                    @Value("${todoapp.dashboard.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(requestContextPropagator());
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Carries the submitting thread's shard selection and connection usage tracking over to the worker thread
+     */
+    static TaskDecorator requestContextPropagator() {
+        return runnable -> {
+            Integer shard = ShardContext.get();
+            ConnectionUsage usage = ConnectionUsage.get();
+            Runnable task = runnable;
+            if (usage != null) {
+                Runnable tracked = task;
+                task = () -> ConnectionUsage.runWith(usage, tracked);
+            }
+            if (shard != null) {
+                Runnable routed = task;
+                task = () -> ShardContext.runOn(shard, routed);
+            }
+            return task;
+        };
+    }
+}
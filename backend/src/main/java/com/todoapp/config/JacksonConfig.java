@@ -0,0 +1,20 @@
+package com.todoapp.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Writes every property of classes carrying a {@code @JsonFilter} unless a response sets that filter itself,
+ * as the task list endpoints do for sparse fieldsets (see TaskFields)
+ */
+@Configuration
+public class JacksonConfig {
+    
+    @Bean
+    Jackson2ObjectMapperBuilderCustomizer serializeAllByDefault() {
+        return builder -> builder.filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.todoapp.config;
 
+import com.todoapp.sharding.ShardRoutingFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,6 +22,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
     
+    @Autowired
+    private ShardRoutingFilter shardRoutingFilter;
+    
     @Autowired
     private UserDetailsService userDetailsService;
     
@@ -30,14 +34,17 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/api/tasks/**").authenticated()
+                .requestMatchers("/api/dashboard").authenticated()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(shardRoutingFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -0,0 +1,69 @@
+package com.todoapp.controller;
+
+import com.todoapp.model.AccountDeletion;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.service.AccountDeletionService;
+import com.todoapp.service.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/account")
+@CrossOrigin(origins = "*")
+public class AccountController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
+    
+    private final AccountDeletionService accountDeletionService;
+    private final UserRepository userRepository;
+    
+    @Autowired
+    public AccountController(AccountDeletionService accountDeletionService, UserRepository userRepository) {
+        this.accountDeletionService = accountDeletionService;
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        
+        // Reuse the user loaded by the JWT filter rather than querying it again
+        if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getUser();
+        }
+        
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+    
+    /**
+     * Delete the current user's account. The account is disabled immediately and its tasks are
+     * removed in the background.
+     */
+    @DeleteMapping
+    public ResponseEntity<AccountDeletion> deleteAccount() {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("DELETE /api/account - Deleting account of user: {}", currentUser.getUsername());
+            
+            AccountDeletion deletion = accountDeletionService.requestDeletion(currentUser.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(deletion);
+        } catch (Exception e) {
+            logger.error("Error deleting account: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.todoapp.controller;
+
+import com.todoapp.dto.DashboardResponse;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.service.AuthenticatedUser;
+import com.todoapp.service.DashboardService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+    
+    private final DashboardService dashboardService;
+    private final UserRepository userRepository;
+    
+    @Autowired
+    public DashboardController(DashboardService dashboardService, UserRepository userRepository) {
+        this.dashboardService = dashboardService;
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        
+        // Reuse the user loaded by the JWT filter rather than querying it again
+        if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getUser();
+        }
+        
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+    
+    /**
+     * Get recent tasks, recently completed tasks and task counts for the current user in one call
+     */
+    @GetMapping
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/dashboard - Building dashboard for user: {}", currentUser.getUsername());
+            
+            return ResponseEntity.ok(dashboardService.getDashboard(currentUser));
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        } catch (Exception e) {
+            logger.error("Error building dashboard: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+}
@@ -1,21 +1,41 @@
 package com.todoapp.controller;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.todoapp.cache.ReadCoalescer;
+import com.todoapp.dto.TaskAnalytics;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskFields;
+import com.todoapp.dto.TaskMoveRequest;
+import com.todoapp.dto.TaskOccurrenceUpdate;
 import com.todoapp.model.Task;
 import com.todoapp.model.User;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.service.AuthenticatedUser;
+import com.todoapp.service.TaskAnalyticsService;
+import com.todoapp.service.TaskCreateBatcher;
 import com.todoapp.service.TaskService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -26,11 +46,30 @@ public class TaskController {
     
     private final TaskService taskService;
     private final UserRepository userRepository;
+    private final TaskAnalyticsService taskAnalyticsService;
+    private final ReadCoalescer readCoalescer;
+    private final TaskCreateBatcher taskCreateBatcher;
+    
+    /**
+     * Span of the agenda window in which recurring tasks' occurrences are listed, from the start of today
+     */
+    @Value("${todoapp.recurrence.agenda-window:7d}")
+    private Duration agendaWindow;
+    
+    /**
+     * Fieldset of the task list endpoints when a request has no {@code fields} parameter; empty for whole tasks
+     */
+    @Value("${todoapp.tasks.list-fields:}")
+    private String defaultListFields;
     
     @Autowired
-    public TaskController(TaskService taskService, UserRepository userRepository) {
+    public TaskController(TaskService taskService, UserRepository userRepository, TaskAnalyticsService taskAnalyticsService,
+                          ReadCoalescer readCoalescer, TaskCreateBatcher taskCreateBatcher) {
         this.taskService = taskService;
         this.userRepository = userRepository;
+        this.taskAnalyticsService = taskAnalyticsService;
+        this.readCoalescer = readCoalescer;
+        this.taskCreateBatcher = taskCreateBatcher;
     }
     
     /**
@@ -42,22 +81,52 @@ public class TaskController {
             throw new RuntimeException("User not authenticated");
         }
         
+        // Reuse the user loaded by the JWT filter rather than querying it again
+        if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getUser();
+        }
+        
         String username = authentication.getName();
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
     
     /**
-     * Get tasks for the current user
+     * Fieldset of a task list request, falling back to the configured default
+     *
+     * @throws IllegalArgumentException if a field is unknown
+     */
+    private TaskFields listFields(String fields) {
+        return TaskFields.parse(fields != null ? fields : defaultListFields);
+    }
+    
+    /**
+     * A list response written with only the fieldset's properties, or whole tasks without one
+     */
+    private static MappingJacksonValue withFields(List<Task> tasks, TaskFields fields) {
+        MappingJacksonValue body = new MappingJacksonValue(tasks);
+        if (fields != null) {
+            body.setFilters(new SimpleFilterProvider().addFilter(TaskFields.FILTER,
+                    SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames())));
+        }
+        return body;
+    }
+    
+    /**
+     * Get tasks for the current user, with only the requested {@code fields}
      */
     @GetMapping
-    public ResponseEntity<List<Task>> getTasks() {
+    public ResponseEntity<MappingJacksonValue> getTasks(@RequestParam(required = false) String fields) {
         try {
             User currentUser = getCurrentUser();
             logger.debug("GET /api/tasks - Fetching tasks for user: {}", currentUser.getUsername());
             
-            List<Task> tasks = taskService.getRecentTasksByUser(currentUser);
-            return ResponseEntity.ok(tasks);
+            TaskFields taskFields = listFields(fields);
+            List<Task> tasks = readCoalescer.read(currentUser.getId(), "recent", () -> taskService.getRecentTasksByUser(currentUser));
+            return ResponseEntity.ok(withFields(tasks, taskFields));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error fetching tasks: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -73,11 +142,20 @@ public class TaskController {
             User currentUser = getCurrentUser();
             logger.debug("POST /api/tasks - Creating new task: {} for user: {}", task.getTitle(), currentUser.getUsername());
             
-            Task createdTask = taskService.createTaskForUser(task, currentUser);
+            Task createdTask = taskCreateBatcher.create(task, currentUser);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
         } catch (IllegalArgumentException e) {
             logger.error("Error creating task: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
+        } catch (TimeoutException e) {
+            logger.error("Error creating task: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        } catch (RejectedExecutionException e) {
+            logger.error("Error creating task: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error creating task: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
         } catch (Exception e) {
             logger.error("Error creating task: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -104,6 +182,104 @@ public class TaskController {
         }
     }
     
+    /**
+     * Complete a task together with all of its subtasks
+     */
+    @PutMapping("/{id}/complete-tree")
+    public ResponseEntity<Task> completeTaskTree(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("PUT /api/tasks/{}/complete-tree - Completing task tree for user: {}", id, currentUser.getUsername());
+            
+            Optional<Task> tree = taskService.completeTaskTree(id, currentUser);
+            return tree.map(ResponseEntity::ok)
+                      .orElse(ResponseEntity.notFound().build());
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error completing task tree {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error completing task tree: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Move a task right after another task ({@code afterId}), or to the top of the manual order
+     */
+    @PutMapping("/{id}/move")
+    public ResponseEntity<Task> moveTask(@PathVariable Long id, @RequestBody TaskMoveRequest request) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("PUT /api/tasks/{}/move - Moving task after {} for user: {}", id, request.getAfterId(), currentUser.getUsername());
+            
+            Optional<Task> moved = taskService.moveTask(id, request.getAfterId(), currentUser);
+            return moved.map(ResponseEntity::ok)
+                       .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid move of task {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error moving task {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error moving task: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Complete one occurrence of a recurring task, identified by its original due date
+     */
+    @PutMapping("/{id}/occurrences/{occurrenceAt}/complete")
+    public ResponseEntity<Task> completeOccurrence(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceAt) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("PUT /api/tasks/{}/occurrences/{}/complete - Completing occurrence for user: {}", id, occurrenceAt, currentUser.getUsername());
+            
+            Optional<Task> completed = taskService.completeOccurrence(id, occurrenceAt, currentUser);
+            return completed.map(ResponseEntity::ok)
+                            .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid occurrence {} of task {}: {}", occurrenceAt, id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error completing occurrence of task {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error completing occurrence: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Edit one occurrence of a recurring task, identified by its original due date; the series is unchanged
+     */
+    @PutMapping("/{id}/occurrences/{occurrenceAt}")
+    public ResponseEntity<Task> updateOccurrence(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceAt,
+            @Valid @RequestBody TaskOccurrenceUpdate changes) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("PUT /api/tasks/{}/occurrences/{} - Editing occurrence for user: {}", id, occurrenceAt, currentUser.getUsername());
+            
+            Optional<Task> updated = taskService.updateOccurrence(id, occurrenceAt, changes, currentUser);
+            return updated.map(ResponseEntity::ok)
+                          .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid occurrence {} of task {}: {}", occurrenceAt, id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error editing occurrence of task {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error editing occurrence: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
     /**
      * Delete a task
      */
@@ -143,16 +319,48 @@ public class TaskController {
     }
     
     /**
-     * Get completed tasks for the current user
+     * Get a task with its subtasks nested under it and rolled-up completion counts
+     */
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<Task> getTaskTree(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/tasks/{}/tree - Fetching task tree for user: {}", id, currentUser.getUsername());
+            
+            Optional<Task> tree = taskService.getTaskTree(id, currentUser);
+            return tree.map(ResponseEntity::ok)
+                      .orElse(ResponseEntity.notFound().build());
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error fetching task tree {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error fetching task tree: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Get completed tasks for the current user, optionally including archived history
      */
     @GetMapping("/completed")
-    public ResponseEntity<List<Task>> getCompletedTasks() {
+    public ResponseEntity<MappingJacksonValue> getCompletedTasks(
+            @RequestParam(defaultValue = "false") boolean history,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String fields) {
         try {
             User currentUser = getCurrentUser();
             logger.debug("GET /api/tasks/completed - Fetching completed tasks for user: {}", currentUser.getUsername());
             
-            List<Task> tasks = taskService.getRecentCompletedTasksByUser(currentUser);
-            return ResponseEntity.ok(tasks);
+            TaskFields taskFields = listFields(fields);
+            int historyLimit = Math.max(1, Math.min(limit, 500));
+            List<Task> tasks = history
+                    ? readCoalescer.read(currentUser.getId(), "completed-history", String.valueOf(historyLimit),
+                            () -> taskService.getCompletedTaskHistoryByUser(currentUser, historyLimit))
+                    : readCoalescer.read(currentUser.getId(), "completed", () -> taskService.getRecentCompletedTasksByUser(currentUser));
+            return ResponseEntity.ok(withFields(tasks, taskFields));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error fetching completed tasks: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -160,19 +368,179 @@ public class TaskController {
     }
     
     /**
-     * Get all tasks for the current user
+     * Get the agenda for the current user: incomplete tasks by priority, due date and creation time, with the
+     * occurrences of recurring tasks due in [from, to) (default: the agenda window from the start of today)
+     */
+    @GetMapping("/agenda")
+    public ResponseEntity<MappingJacksonValue> getAgenda(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String fields) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/tasks/agenda - Fetching agenda for user: {}", currentUser.getUsername());
+            
+            TaskFields taskFields = listFields(fields);
+            int agendaLimit = Math.max(1, Math.min(limit, 200));
+            LocalDateTime windowStart = from != null ? from : LocalDate.now().atStartOfDay();
+            LocalDateTime windowEnd = to != null ? to : windowStart.plus(agendaWindow);
+            if (!windowStart.isBefore(windowEnd)) {
+                return ResponseEntity.badRequest().build();
+            }
+            List<Task> tasks = readCoalescer.read(currentUser.getId(), "agenda", agendaLimit + ":" + windowStart + ":" + windowEnd,
+                    () -> taskService.getAgendaByUser(currentUser, agendaLimit, windowStart, windowEnd));
+            return ResponseEntity.ok(withFields(tasks, taskFields));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid fields: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching agenda: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Get completion analytics for the current user over [from, to] (default: the last 30 days)
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<TaskAnalytics> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/tasks/analytics - Fetching analytics for user: {}", currentUser.getUsername());
+            
+            LocalDate end = to != null ? to : LocalDate.now();
+            LocalDate start = from != null ? from : end.minusDays(29);
+            return ResponseEntity.ok(taskAnalyticsService.getAnalytics(currentUser, start, end));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid analytics range: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error fetching analytics: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Get all tasks for the current user, newest first or in the user's manual order ({@code order=manual}),
+     * optionally only those tagged with all (default) or any of {@code tags}. With {@code fields}, only those
+     * columns are read (except with a tag filter) and written.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<Task>> getAllTasks() {
+    public ResponseEntity<MappingJacksonValue> getAllTasks(@RequestParam(required = false) List<String> tags,
+                                                           @RequestParam(defaultValue = "all") String mode,
+                                                           @RequestParam(defaultValue = "created") String order,
+                                                           @RequestParam(required = false) String fields) {
         try {
             User currentUser = getCurrentUser();
             logger.debug("GET /api/tasks/all - Fetching all tasks for user: {}", currentUser.getUsername());
             
-            List<Task> tasks = taskService.getAllTasksByUser(currentUser);
-            return ResponseEntity.ok(tasks);
+            TaskFields taskFields = listFields(fields);
+            if (!"created".equals(order) && !"manual".equals(order)) {
+                return ResponseEntity.badRequest().build();
+            }
+            boolean manual = "manual".equals(order);
+            if (manual && tags != null && !tags.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (tags == null || tags.isEmpty()) {
+                List<Task> tasks;
+                if (taskFields != null) {
+                    tasks = readCoalescer.read(currentUser.getId(), "all", (manual ? "manual:" : "created:") + taskFields,
+                            () -> taskService.getAllTasksByUser(currentUser, taskFields, manual));
+                } else if (manual) {
+                    tasks = readCoalescer.read(currentUser.getId(), "all", "manual", () -> taskService.getAllTasksByUserInManualOrder(currentUser));
+                } else {
+                    tasks = readCoalescer.read(currentUser.getId(), "all", () -> taskService.getAllTasksByUser(currentUser));
+                }
+                return ResponseEntity.ok(withFields(tasks, taskFields));
+            }
+            if (!"all".equals(mode) && !"any".equals(mode)) {
+                return ResponseEntity.badRequest().build();
+            }
+            List<Task> tasks = taskService.getTasksByTags(currentUser, tags, "all".equals(mode));
+            return ResponseEntity.ok(withFields(tasks, taskFields));
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid tag filter or fields: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error filtering tasks by tag: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
         } catch (Exception e) {
             logger.error("Error fetching all tasks: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
+    
+    /**
+     * Get what changed in the current user's tasks since a sync token from an earlier call: changed tasks,
+     * ids of deleted tasks and the token for the next call. Without a token, or with one that is too old,
+     * all tasks are returned with {@code reset} set.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChanges> getChanges(@RequestParam(required = false) String since) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/tasks/changes - Fetching changes since {} for user: {}", since, currentUser.getUsername());
+            
+            long token = since == null || since.isBlank() ? 0 : Long.parseLong(since.trim());
+            if (token < 0) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(taskService.getChangesSince(currentUser, token));
+        } catch (NumberFormatException e) {
+            logger.error("Invalid sync token: {}", since);
+            return ResponseEntity.badRequest().build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error fetching task changes: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error fetching task changes: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Replace the tags of a task
+     */
+    @PutMapping("/{id}/tags")
+    public ResponseEntity<Task> setTags(@PathVariable Long id, @RequestBody List<String> tags) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("PUT /api/tasks/{}/tags - Tagging task {} for user: {}", id, tags, currentUser.getUsername());
+            
+            if (taskService.getTaskById(id, currentUser).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Task taggedTask = taskService.setTaskTags(id, currentUser, tags);
+            return ResponseEntity.ok(taggedTask);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid tags for task {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (UnsupportedOperationException e) {
+            logger.error("Error tagging task {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        } catch (Exception e) {
+            logger.error("Error tagging task: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Get the current user's tags with the number of tasks carrying each
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<Map<String, Long>> getTags() {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/tasks/tags - Fetching tags for user: {}", currentUser.getUsername());
+            
+            return ResponseEntity.ok(taskService.getTagCountsByUser(currentUser));
+        } catch (Exception e) {
+            logger.error("Error fetching tags: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
 }
\ No newline at end of file
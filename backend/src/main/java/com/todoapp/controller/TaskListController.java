@@ -0,0 +1,188 @@
+package com.todoapp.controller;
+
+import com.todoapp.dto.ListMemberRequest;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskList;
+import com.todoapp.model.TaskListMember;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.service.AuthenticatedUser;
+import com.todoapp.service.TaskListService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lists")
+@CrossOrigin(origins = "*")
+public class TaskListController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskListController.class);
+    
+    private final TaskListService taskListService;
+    private final UserRepository userRepository;
+    
+    @Autowired
+    public TaskListController(TaskListService taskListService, UserRepository userRepository) {
+        this.taskListService = taskListService;
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new RuntimeException("User not authenticated");
+        }
+        
+        // Reuse the user loaded by the JWT filter rather than querying it again
+        if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getUser();
+        }
+        
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+    
+    /**
+     * Get the lists the current user owns or is a member of, with their role in each
+     */
+    @GetMapping
+    public ResponseEntity<List<TaskList>> getLists() {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/lists - Fetching task lists for user: {}", currentUser.getUsername());
+            
+            return ResponseEntity.ok(taskListService.getListsByUser(currentUser));
+        } catch (Exception e) {
+            logger.error("Error fetching task lists: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Create a list owned by the current user
+     */
+    @PostMapping
+    public ResponseEntity<TaskList> createList(@Valid @RequestBody TaskList list) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("POST /api/lists - Creating task list: {} for user: {}", list.getName(), currentUser.getUsername());
+            
+            TaskList createdList = taskListService.createList(list.getName(), currentUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdList);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error creating task list: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error creating task list: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Delete a list the current user owns; its tasks are kept as the owner's private tasks
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteList(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("DELETE /api/lists/{} - Deleting task list for user: {}", id, currentUser.getUsername());
+            
+            return taskListService.deleteList(id, currentUser)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error deleting task list: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Get the tasks in a list the current user can see. New tasks are added to a list through
+     * POST /api/tasks with a listId.
+     */
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<List<Task>> getListTasks(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/lists/{}/tasks - Fetching list tasks for user: {}", id, currentUser.getUsername());
+            
+            return taskListService.getTasks(id, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error fetching list tasks: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Get the members of a list the current user can see
+     */
+    @GetMapping("/{id}/members")
+    public ResponseEntity<List<TaskListMember>> getMembers(@PathVariable Long id) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("GET /api/lists/{}/members - Fetching list members for user: {}", id, currentUser.getUsername());
+            
+            return taskListService.getMembers(id, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            logger.error("Error fetching list members: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Share a list the current user owns with another user as viewer or editor, or change their role
+     */
+    @PutMapping("/{id}/members/{username}")
+    public ResponseEntity<TaskListMember> setMember(@PathVariable Long id, @PathVariable String username,
+                                                    @Valid @RequestBody ListMemberRequest request) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("PUT /api/lists/{}/members/{} - Sharing list as {} for user: {}", id, username, request.getRole(), currentUser.getUsername());
+            
+            return taskListService.setMember(id, username, request.getRole(), currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.error("Error sharing list {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error sharing list: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+    
+    /**
+     * Remove a member from a list; owners can remove anyone, members can leave
+     */
+    @DeleteMapping("/{id}/members/{username}")
+    public ResponseEntity<Void> removeMember(@PathVariable Long id, @PathVariable String username) {
+        try {
+            User currentUser = getCurrentUser();
+            logger.debug("DELETE /api/lists/{}/members/{} - Removing list member for user: {}", id, username, currentUser.getUsername());
+            
+            return taskListService.removeMember(id, username, currentUser)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error removing list member: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+}
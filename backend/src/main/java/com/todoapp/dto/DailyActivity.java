@@ -0,0 +1,47 @@
+package com.todoapp.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Tasks created and completed by one user on one day
+ */
+public class DailyActivity {
+    
+    private LocalDate date;
+    private long created;
+    private long completed;
+    
+    // Constructors
+    public DailyActivity() {}
+    
+    public DailyActivity(LocalDate date, long created, long completed) {
+        this.date = date;
+        this.created = created;
+        this.completed = completed;
+    }
+    
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public void setCreated(long created) {
+        this.created = created;
+    }
+    
+    public long getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,49 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.Task;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard renders, fetched in a single request
+ */
+public class DashboardResponse {
+    
+    private List<Task> recentTasks;
+    private List<Task> completedTasks;
+    private TaskStats stats;
+    
+    // Constructors
+    public DashboardResponse() {}
+    
+    public DashboardResponse(List<Task> recentTasks, List<Task> completedTasks, TaskStats stats) {
+        this.recentTasks = recentTasks;
+        this.completedTasks = completedTasks;
+        this.stats = stats;
+    }
+    
+    // Getters and Setters
+    public List<Task> getRecentTasks() {
+        return recentTasks;
+    }
+    
+    public void setRecentTasks(List<Task> recentTasks) {
+        this.recentTasks = recentTasks;
+    }
+    
+    public List<Task> getCompletedTasks() {
+        return completedTasks;
+    }
+    
+    public void setCompletedTasks(List<Task> completedTasks) {
+        this.completedTasks = completedTasks;
+    }
+    
+    public TaskStats getStats() {
+        return stats;
+    }
+    
+    public void setStats(TaskStats stats) {
+        this.stats = stats;
+    }
+}
@@ -0,0 +1,66 @@
+package com.todoapp.dto;
+
+/**
+ * Creation-to-completion time of completed tasks, in seconds. Percentiles come from a log-linear
+ * histogram and are accurate to within about 12%.
+ */
+public class LatencySummary {
+    
+    private long count;
+    private long meanSeconds;
+    private long p50Seconds;
+    private long p90Seconds;
+    private long p99Seconds;
+    
+    // Constructors
+    public LatencySummary() {}
+    
+    public LatencySummary(long count, long meanSeconds, long p50Seconds, long p90Seconds, long p99Seconds) {
+        this.count = count;
+        this.meanSeconds = meanSeconds;
+        this.p50Seconds = p50Seconds;
+        this.p90Seconds = p90Seconds;
+        this.p99Seconds = p99Seconds;
+    }
+    
+    // Getters and Setters
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public long getMeanSeconds() {
+        return meanSeconds;
+    }
+    
+    public void setMeanSeconds(long meanSeconds) {
+        this.meanSeconds = meanSeconds;
+    }
+    
+    public long getP50Seconds() {
+        return p50Seconds;
+    }
+    
+    public void setP50Seconds(long p50Seconds) {
+        this.p50Seconds = p50Seconds;
+    }
+    
+    public long getP90Seconds() {
+        return p90Seconds;
+    }
+    
+    public void setP90Seconds(long p90Seconds) {
+        this.p90Seconds = p90Seconds;
+    }
+    
+    public long getP99Seconds() {
+        return p99Seconds;
+    }
+    
+    public void setP99Seconds(long p99Seconds) {
+        this.p99Seconds = p99Seconds;
+    }
+}
@@ -0,0 +1,29 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.ListRole;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Role given to a member of a shared list: viewer or editor
+ */
+public class ListMemberRequest {
+    
+    @NotNull(message = "Role is required")
+    private ListRole role;
+    
+    // Constructors
+    public ListMemberRequest() {}
+    
+    public ListMemberRequest(ListRole role) {
+        this.role = role;
+    }
+    
+    // Getters and Setters
+    public ListRole getRole() {
+        return role;
+    }
+    
+    public void setRole(ListRole role) {
+        this.role = role;
+    }
+}
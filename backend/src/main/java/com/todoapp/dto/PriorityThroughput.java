@@ -0,0 +1,67 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.TaskPriority;
+
+/**
+ * Task flow for one priority over an analytics range
+ */
+public class PriorityThroughput {
+    
+    private TaskPriority priority;
+    private long created;
+    private long completed;
+    private double completedPerDay;
+    private LatencySummary completionLatency;
+    
+    // Constructors
+    public PriorityThroughput() {}
+    
+    public PriorityThroughput(TaskPriority priority, long created, long completed, double completedPerDay, LatencySummary completionLatency) {
+        this.priority = priority;
+        this.created = created;
+        this.completed = completed;
+        this.completedPerDay = completedPerDay;
+        this.completionLatency = completionLatency;
+    }
+    
+    // Getters and Setters
+    public TaskPriority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+    
+    public long getCreated() {
+        return created;
+    }
+    
+    public void setCreated(long created) {
+        this.created = created;
+    }
+    
+    public long getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+    
+    public double getCompletedPerDay() {
+        return completedPerDay;
+    }
+    
+    public void setCompletedPerDay(double completedPerDay) {
+        this.completedPerDay = completedPerDay;
+    }
+    
+    public LatencySummary getCompletionLatency() {
+        return completionLatency;
+    }
+    
+    public void setCompletionLatency(LatencySummary completionLatency) {
+        this.completionLatency = completionLatency;
+    }
+}
@@ -0,0 +1,79 @@
+package com.todoapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Completion analytics for one user over an inclusive date range, served from daily rollups
+ */
+public class TaskAnalytics {
+    
+    private LocalDate from;
+    private LocalDate to;
+    
+    /**
+     * Activity after this time is not reflected yet; null before the rollup job first ran
+     */
+    private LocalDateTime rolledUpUntil;
+    
+    /**
+     * One entry per day of the range, zero-filled
+     */
+    private List<DailyActivity> days;
+    
+    private LatencySummary completionLatency;
+    private List<PriorityThroughput> priorities;
+    
+    // Constructors
+    public TaskAnalytics() {}
+    
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+    
+    public LocalDateTime getRolledUpUntil() {
+        return rolledUpUntil;
+    }
+    
+    public void setRolledUpUntil(LocalDateTime rolledUpUntil) {
+        this.rolledUpUntil = rolledUpUntil;
+    }
+    
+    public List<DailyActivity> getDays() {
+        return days;
+    }
+    
+    public void setDays(List<DailyActivity> days) {
+        this.days = days;
+    }
+    
+    public LatencySummary getCompletionLatency() {
+        return completionLatency;
+    }
+    
+    public void setCompletionLatency(LatencySummary completionLatency) {
+        this.completionLatency = completionLatency;
+    }
+    
+    public List<PriorityThroughput> getPriorities() {
+        return priorities;
+    }
+    
+    public void setPriorities(List<PriorityThroughput> priorities) {
+        this.priorities = priorities;
+    }
+}
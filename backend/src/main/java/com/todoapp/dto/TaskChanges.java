@@ -0,0 +1,61 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.Task;
+
+import java.util.List;
+
+/**
+ * Response of {@code GET /api/tasks/changes}: the tasks created or updated and the ids of the tasks deleted
+ * since the client's sync token, plus the token to send next time. With {@code reset} set, {@code changed}
+ * is the complete task list and the client replaces its copy instead of applying a delta.
+ */
+public class TaskChanges {
+    
+    private List<Task> changed;
+    private List<Long> deleted;
+    private String syncToken;
+    private boolean reset;
+    
+    // Constructors
+    public TaskChanges() {}
+    
+    public TaskChanges(List<Task> changed, List<Long> deleted, String syncToken, boolean reset) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.syncToken = syncToken;
+        this.reset = reset;
+    }
+    
+    // Getters and Setters
+    public List<Task> getChanged() {
+        return changed;
+    }
+    
+    public void setChanged(List<Task> changed) {
+        this.changed = changed;
+    }
+    
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+    
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+    
+    public String getSyncToken() {
+        return syncToken;
+    }
+    
+    public void setSyncToken(String syncToken) {
+        this.syncToken = syncToken;
+    }
+    
+    public boolean isReset() {
+        return reset;
+    }
+    
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
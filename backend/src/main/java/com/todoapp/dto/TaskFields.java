@@ -0,0 +1,129 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskPriority;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Sparse fieldset of a task list response, from {@code ?fields=}: a comma-separated list of task JSON
+ * properties, {@code compact} for id, title, priority, completed and dueDate, or {@code all} for whole
+ * tasks. {@code id} is always included. All names except {@code tags} are task columns, and only those are selected where the list is
+ * read as a projection.
+ */
+public final class TaskFields {
+    
+    /**
+     * Id of the {@code @JsonFilter} on Task
+     */
+    public static final String FILTER = "taskFields";
+    public static final String COMPACT = "compact";
+    public static final String ALL = "all";
+    
+    private static final Set<String> COMPACT_FIELDS = Set.of("id", "title", "priority", "completed", "dueDate");
+    
+    /**
+     * Selectable fields in response order, with how to set each column's value on a task
+     */
+    private static final Map<String, BiConsumer<Task, Object>> FIELDS = new LinkedHashMap<>();
+    
+    static {
+        FIELDS.put("id", (task, value) -> task.setId((Long) value));
+        FIELDS.put("title", (task, value) -> task.setTitle((String) value));
+        FIELDS.put("description", (task, value) -> task.setDescription((String) value));
+        FIELDS.put("completed", (task, value) -> task.setCompleted((Boolean) value));
+        FIELDS.put("createdAt", (task, value) -> task.setCreatedAt((LocalDateTime) value));
+        FIELDS.put("completedAt", (task, value) -> task.setCompletedAt((LocalDateTime) value));
+        FIELDS.put("priority", (task, value) -> task.setPriority((TaskPriority) value));
+        FIELDS.put("dueDate", (task, value) -> task.setDueDate((LocalDateTime) value));
+        FIELDS.put("parentId", (task, value) -> task.setParentId((Long) value));
+        FIELDS.put("listId", (task, value) -> task.setListId((Long) value));
+        FIELDS.put("sortKey", (task, value) -> task.setSortKey((String) value));
+        FIELDS.put("recurrence", (task, value) -> task.setRecurrence((String) value));
+        FIELDS.put("seriesId", (task, value) -> task.setSeriesId((Long) value));
+        FIELDS.put("occurrenceAt", (task, value) -> task.setOccurrenceAt((LocalDateTime) value));
+        FIELDS.put("tags", null);
+    }
+    
+    private final Set<String> names;
+    private final Set<String> columns;
+    
+    private TaskFields(Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+        Set<String> columns = new LinkedHashSet<>(names);
+        columns.remove("tags");
+        this.columns = Collections.unmodifiableSet(columns);
+    }
+    
+    /**
+     * Parse a {@code fields} parameter
+     *
+     * @return null for whole tasks
+     * @throws IllegalArgumentException if a name is not a selectable task field
+     */
+    public static TaskFields parse(String fields) {
+        if (fields == null || fields.isBlank() || ALL.equals(fields.trim())) {
+            return null;
+        }
+        
+        Set<String> requested = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (COMPACT.equals(trimmed)) {
+                requested.addAll(COMPACT_FIELDS);
+            } else if (FIELDS.containsKey(trimmed)) {
+                requested.add(trimmed);
+            } else if (!trimmed.isEmpty()) {
+                throw new IllegalArgumentException("Unknown task field: " + trimmed);
+            }
+        }
+        
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : FIELDS.keySet()) {
+            if (name.equals("id") || requested.contains(name)) {
+                names.add(name);
+            }
+        }
+        return new TaskFields(names);
+    }
+    
+    /**
+     * JSON properties to write, id first
+     */
+    public Set<String> getNames() {
+        return names;
+    }
+    
+    /**
+     * Task attributes to select, i.e. the names without {@code tags}
+     */
+    public Set<String> getColumns() {
+        return columns;
+    }
+    
+    public boolean includes(String name) {
+        return names.contains(name);
+    }
+    
+    /**
+     * Set a selected column's value on a task
+     */
+    public static void apply(Task task, String column, Object value) {
+        BiConsumer<Task, Object> setter = FIELDS.get(column);
+        if (setter == null) {
+            throw new IllegalArgumentException("Not a task column: " + column);
+        }
+        setter.accept(task, value);
+    }
+    
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+}
@@ -0,0 +1,25 @@
+package com.todoapp.dto;
+
+/**
+ * Target position of a moved task: right after {@code afterId}, or at the top of the list when it is null
+ */
+public class TaskMoveRequest {
+    
+    private Long afterId;
+    
+    // Constructors
+    public TaskMoveRequest() {}
+    
+    public TaskMoveRequest(Long afterId) {
+        this.afterId = afterId;
+    }
+    
+    // Getters and Setters
+    public Long getAfterId() {
+        return afterId;
+    }
+    
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+}
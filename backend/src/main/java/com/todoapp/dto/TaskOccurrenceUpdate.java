@@ -0,0 +1,65 @@
+package com.todoapp.dto;
+
+import com.todoapp.model.TaskPriority;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changes to one occurrence of a recurring task; null fields keep the series' values
+ */
+public class TaskOccurrenceUpdate {
+    
+    @Size(max = 255, message = "Title must be less than 255 characters")
+    private String title;
+    
+    @Size(max = 1000, message = "Description must be less than 1000 characters")
+    private String description;
+    
+    private TaskPriority priority;
+    
+    private LocalDateTime dueDate;
+    
+    // Constructors
+    public TaskOccurrenceUpdate() {}
+    
+    public TaskOccurrenceUpdate(String title, String description, TaskPriority priority, LocalDateTime dueDate) {
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.dueDate = dueDate;
+    }
+    
+    // Getters and Setters
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public TaskPriority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+}
@@ -0,0 +1,37 @@
+package com.todoapp.dto;
+
+import java.time.LocalDateTime;
+
+public class TaskReminder {
+    
+    private final Long taskId;
+    private final Long userId;
+    private final LocalDateTime dueDate;
+    
+    public TaskReminder(Long taskId, Long userId, LocalDateTime dueDate) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.dueDate = dueDate;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    @Override
+    public String toString() {
+        return "TaskReminder{" +
+                "taskId=" + taskId +
+                ", userId=" + userId +
+                ", dueDate=" + dueDate +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.todoapp.dto;
+
+/**
+ * Task counts for one user, as shown on the dashboard
+ */
+public class TaskStats {
+    
+    private long total;
+    private long completed;
+    private long pending;
+    private long highPriority;
+    
+    // Constructors
+    public TaskStats() {}
+    
+    public TaskStats(long total, long completed, long pending, long highPriority) {
+        this.total = total;
+        this.completed = completed;
+        this.pending = pending;
+        this.highPriority = highPriority;
+    }
+    
+    /**
+     * Fold a group of {@code count} tasks sharing the same status and priority class into the totals
+     */
+    public void add(boolean isCompleted, boolean isHighPriority, long count) {
+        total += count;
+        if (isCompleted) {
+            completed += count;
+        } else {
+            pending += count;
+        }
+        if (isHighPriority) {
+            highPriority += count;
+        }
+    }
+    
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(long completed) {
+        this.completed = completed;
+    }
+    
+    public long getPending() {
+        return pending;
+    }
+    
+    public void setPending(long pending) {
+        this.pending = pending;
+    }
+    
+    public long getHighPriority() {
+        return highPriority;
+    }
+    
+    public void setHighPriority(long highPriority) {
+        this.highPriority = highPriority;
+    }
+}
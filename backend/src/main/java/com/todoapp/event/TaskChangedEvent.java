@@ -0,0 +1,65 @@
+package com.todoapp.event;
+
+import com.todoapp.model.Task;
+
+/**
+ * Published by the task service whenever a task is created, updated, completed or deleted.
+ * Listeners that must only see committed data should use {@code @TransactionalEventListener}.
+ */
+public class TaskChangedEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        COMPLETED,
+        DELETED
+    }
+    
+    private final Type type;
+    private final Long taskId;
+    private final Long userId;
+    private final Task task;
+    
+    public TaskChangedEvent(Type type, Long taskId, Long userId, Task task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.userId = userId;
+        this.task = task;
+    }
+    
+    public static TaskChangedEvent of(Type type, Task task) {
+        Long userId = task.getUser() != null ? task.getUser().getId() : null;
+        return new TaskChangedEvent(type, task.getId(), userId, task);
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    /**
+     * Owner of the task, or null when unknown (e.g. deletes issued by id only)
+     */
+    public Long getUserId() {
+        return userId;
+    }
+    
+    /**
+     * Snapshot of the task after the change, or null for deletes issued by id only
+     */
+    public Task getTask() {
+        return task;
+    }
+    
+    @Override
+    public String toString() {
+        return "TaskChangedEvent{" +
+                "type=" + type +
+                ", taskId=" + taskId +
+                ", userId=" + userId +
+                '}';
+    }
+}
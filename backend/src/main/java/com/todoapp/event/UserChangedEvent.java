@@ -0,0 +1,23 @@
+package com.todoapp.event;
+
+/**
+ * Published when something about a user changes that cached per-user data may depend on, e.g. when the
+ * account is queued for deletion.
+ */
+public class UserChangedEvent {
+    
+    private final Long userId;
+    
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserChangedEvent{userId=" + userId + "}";
+    }
+}
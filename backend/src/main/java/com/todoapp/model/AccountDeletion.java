@@ -0,0 +1,85 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one account deletion. Lives on shard 0; the row outlives the user it describes so the
+ * background job can resume after a restart and operators can see what was removed.
+ */
+@Entity
+@Table(name = "account_deletion")
+public class AccountDeletion {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+    
+    /**
+     * Rows removed so far across all per-user tables and shards
+     */
+    @Column(name = "deleted_rows", nullable = false)
+    private long deletedRows;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Set once every row of the user, including the user itself, is gone
+     */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public AccountDeletion() {}
+    
+    public AccountDeletion(Long userId, LocalDateTime requestedAt) {
+        this.userId = userId;
+        this.requestedAt = requestedAt;
+        this.updatedAt = requestedAt;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+    
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+    
+    public long getDeletedRows() {
+        return deletedRows;
+    }
+    
+    public void setDeletedRows(long deletedRows) {
+        this.deletedRows = deletedRows;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
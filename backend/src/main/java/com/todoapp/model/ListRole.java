@@ -0,0 +1,39 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * What a user may do with a task list. Viewers and editors are stored in task_list_member; the owner is
+ * the list's user.
+ */
+public enum ListRole {
+    
+    VIEWER,
+    EDITOR,
+    OWNER;
+    
+    public boolean canEdit() {
+        return this != VIEWER;
+    }
+    
+    @JsonValue
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Parse a role name case-insensitively
+     */
+    @JsonCreator
+    public static ListRole fromName(String name) {
+        for (ListRole role : values()) {
+            if (role.name().equalsIgnoreCase(name != null ? name.trim() : "")) {
+                return role;
+            }
+        }
+        throw new IllegalArgumentException("Unknown list role: " + name);
+    }
+}
@@ -0,0 +1,190 @@
+package com.todoapp.model;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Recurrence rule of a recurring task, stored as text in task.recurrence:
+ * <ul>
+ * <li>{@code daily}, {@code daily:N} - every day, or every N days</li>
+ * <li>{@code weekly}, {@code weekly:mon,wed,fri} - every week on the anchor's weekday, or on the listed days</li>
+ * <li>{@code monthly} - every month on the anchor's day of month (the last day in shorter months)</li>
+ * <li>{@code cron:<expression>} - a 5-field crontab or 6-field Spring cron expression</li>
+ * </ul>
+ * The anchor is the series' first due date. Occurrences start there and, except for cron rules, keep its
+ * time of day. They are expanded for a window on demand, never generated up front.
+ */
+public final class RecurrenceRule {
+    
+    private enum Frequency { DAILY, WEEKLY, MONTHLY, CRON }
+    
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> days;
+    private final CronExpression cron;
+    private final String text;
+    
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> days, CronExpression cron, String text) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.days = days;
+        this.cron = cron;
+        this.text = text;
+    }
+    
+    /**
+     * Parse a rule, case-insensitively
+     *
+     * @throws IllegalArgumentException if the rule is not valid
+     */
+    public static RecurrenceRule parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule cannot be empty");
+        }
+        String trimmed = text.trim();
+        int colon = trimmed.indexOf(':');
+        String kind = (colon < 0 ? trimmed : trimmed.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        String argument = colon < 0 ? null : trimmed.substring(colon + 1).trim();
+        
+        switch (kind) {
+            case "daily" -> {
+                int interval = argument == null ? 1 : parseInterval(argument);
+                return new RecurrenceRule(Frequency.DAILY, interval, Set.of(), null, interval == 1 ? "daily" : "daily:" + interval);
+            }
+            case "weekly" -> {
+                Set<DayOfWeek> days = argument == null ? Set.of() : parseDays(argument);
+                String normalized = days.isEmpty() ? "weekly" : days.stream()
+                        .map(day -> day.name().substring(0, 3).toLowerCase(Locale.ROOT))
+                        .collect(Collectors.joining(",", "weekly:", ""));
+                return new RecurrenceRule(Frequency.WEEKLY, 1, days, null, normalized);
+            }
+            case "monthly" -> {
+                if (argument != null) {
+                    throw new IllegalArgumentException("Monthly rules take no argument: " + text);
+                }
+                return new RecurrenceRule(Frequency.MONTHLY, 1, Set.of(), null, "monthly");
+            }
+            case "cron" -> {
+                if (argument == null || argument.isEmpty()) {
+                    throw new IllegalArgumentException("Cron rule needs an expression: " + text);
+                }
+                String expression = argument.split("\\s+").length == 5 ? "0 " + argument : argument;
+                return new RecurrenceRule(Frequency.CRON, 1, Set.of(), CronExpression.parse(expression), "cron:" + argument);
+            }
+            default -> throw new IllegalArgumentException("Unknown recurrence rule: " + text);
+        }
+    }
+    
+    /**
+     * Occurrences in [from, to), at most {@code max} of them, earliest first; none before the anchor
+     */
+    public List<LocalDateTime> occurrences(LocalDateTime anchor, LocalDateTime from, LocalDateTime to, int max) {
+        List<LocalDateTime> result = new ArrayList<>();
+        LocalDateTime start = from.isBefore(anchor) ? anchor : from;
+        if (max <= 0 || !start.isBefore(to)) {
+            return result;
+        }
+        
+        switch (frequency) {
+            case DAILY -> {
+                // Jump straight to the window rather than stepping from the anchor
+                long step = ChronoUnit.DAYS.between(anchor, start) / interval;
+                LocalDateTime next = anchor.plusDays(step * interval);
+                while (next.isBefore(start)) {
+                    next = anchor.plusDays(++step * interval);
+                }
+                while (next.isBefore(to) && result.size() < max) {
+                    result.add(next);
+                    next = anchor.plusDays(++step * interval);
+                }
+            }
+            case WEEKLY -> {
+                Set<DayOfWeek> weekdays = days.isEmpty() ? Set.of(anchor.getDayOfWeek()) : days;
+                for (LocalDate date = start.toLocalDate(); result.size() < max; date = date.plusDays(1)) {
+                    LocalDateTime next = date.atTime(anchor.toLocalTime());
+                    if (!next.isBefore(to)) {
+                        break;
+                    }
+                    if (!next.isBefore(start) && weekdays.contains(date.getDayOfWeek())) {
+                        result.add(next);
+                    }
+                }
+            }
+            case MONTHLY -> {
+                // Always offset from the anchor, so a series on the 31st returns to the 31st after February
+                long step = ChronoUnit.MONTHS.between(anchor, start);
+                LocalDateTime next = anchor.plusMonths(step);
+                while (next.isBefore(start)) {
+                    next = anchor.plusMonths(++step);
+                }
+                while (next.isBefore(to) && result.size() < max) {
+                    result.add(next);
+                    next = anchor.plusMonths(++step);
+                }
+            }
+            case CRON -> {
+                LocalDateTime next = cron.next(start.minusNanos(1));
+                while (next != null && next.isBefore(to) && result.size() < max) {
+                    result.add(next);
+                    next = cron.next(next);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Whether the series has an occurrence at exactly this time
+     */
+    public boolean occursAt(LocalDateTime anchor, LocalDateTime at) {
+        return !occurrences(anchor, at, at.plusNanos(1), 1).isEmpty();
+    }
+    
+    /**
+     * The rule in its normalized form, as stored
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+    
+    private static int parseInterval(String argument) {
+        try {
+            int interval = Integer.parseInt(argument);
+            if (interval < 1 || interval > 366) {
+                throw new IllegalArgumentException("Daily interval must be between 1 and 366: " + argument);
+            }
+            return interval;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid daily interval: " + argument);
+        }
+    }
+    
+    private static Set<DayOfWeek> parseDays(String argument) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String token : argument.split(",")) {
+            String name = token.trim().toUpperCase(Locale.ROOT);
+            DayOfWeek match = null;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (name.length() >= 3 && day.name().startsWith(name)) {
+                    match = day;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Invalid weekday: " + token.trim());
+            }
+            days.add(match);
+        }
+        return days;
+    }
+}
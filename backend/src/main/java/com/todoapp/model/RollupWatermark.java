@@ -0,0 +1,45 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an incremental background job on one shard: everything up to and including
+ * {@code processedUntil} has been folded into the job's output.
+ */
+@Entity
+@Table(name = "rollup_watermark")
+public class RollupWatermark {
+    
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+    
+    @Column(name = "processed_until", nullable = false)
+    private LocalDateTime processedUntil;
+    
+    // Constructors
+    public RollupWatermark() {}
+    
+    public RollupWatermark(String name, LocalDateTime processedUntil) {
+        this.name = name;
+        this.processedUntil = processedUntil;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDateTime getProcessedUntil() {
+        return processedUntil;
+    }
+    
+    public void setProcessedUntil(LocalDateTime processedUntil) {
+        this.processedUntil = processedUntil;
+    }
+}
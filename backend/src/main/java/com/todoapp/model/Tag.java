@@ -0,0 +1,77 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A user's label for grouping tasks. Names are stored trimmed and lower-cased and are unique per user.
+ */
+@Entity
+@Table(name = "tag", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tag_user_name", columnNames = {"user_id", "name"})
+})
+public class Tag {
+    
+    public static final int MAX_NAME_LENGTH = 50;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "name", nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+    
+    // Constructors
+    public Tag() {}
+    
+    public Tag(Long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+    
+    /**
+     * Canonical form of a tag name as typed by a user
+     *
+     * @throws IllegalArgumentException if the name is blank, too long or contains a comma
+     */
+    public static String normalize(String name) {
+        String normalized = name != null ? name.trim().toLowerCase() : "";
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Tag name cannot be empty");
+        }
+        if (normalized.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Tag name must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        if (normalized.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("Tag name cannot contain a comma");
+        }
+        return normalized;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+}
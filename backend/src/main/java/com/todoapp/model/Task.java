@@ -1,12 +1,29 @@
 package com.todoapp.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = {
+        @Index(name = "idx_task_user_completed_created", columnList = "user_id, completed, created_at"),
+        @Index(name = "idx_task_completed_completed_at", columnList = "completed, completed_at"),
+        @Index(name = "idx_task_completed_due_date", columnList = "completed, due_date"),
+        @Index(name = "idx_task_user_agenda", columnList = "user_id, completed, priority, due_date, created_at"),
+        @Index(name = "idx_task_created_at", columnList = "created_at"),
+        @Index(name = "idx_task_parent", columnList = "parent_id"),
+        @Index(name = "idx_task_user_change_seq", columnList = "user_id, change_seq"),
+        @Index(name = "idx_task_user_sort_key", columnList = "user_id, sort_key"),
+        @Index(name = "idx_task_list", columnList = "list_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_series_occurrence", columnNames = {"series_id", "occurrence_at"})
+})
+@JsonFilter("taskFields")
 public class Task {
     
     @Id
@@ -31,14 +48,92 @@ public class Task {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
     
-    @Size(max = 20, message = "Priority must be less than 20 characters")
-    @Column(name = "priority")
-    private String priority;
+    @Column(name = "priority", nullable = false)
+    private TaskPriority priority = TaskPriority.MEDIUM;
     
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+    
+    /**
+     * Owner, never loaded for responses: tasks are always read for a known user, and serializing it would
+     * lazy-load the user (password hash included) after the transaction has ended.
+     */
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
     
+    /**
+     * Parent task for subtasks, null for top-level tasks. Set on create only, so trees cannot form cycles.
+     */
+    @Column(name = "parent_id")
+    private Long parentId;
+    
+    /**
+     * Shared list the task belongs to (see TaskList), null for private tasks. Set on create only; a task in
+     * a list is owned by the list's owner whoever created it, and subtasks join their parent's list.
+     */
+    @Column(name = "list_id")
+    private Long listId;
+    
+    /**
+     * Change sequence of the last write to this task, from the owner's counter (see TaskChangeLog);
+     * null for rows not written since delta sync was introduced
+     */
+    @JsonIgnore
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    
+    /**
+     * Rank key of the task in its owner's manual order (see RankKeys); set by the task service on create
+     * and move, null for rows the rebalance job has not keyed yet
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "sort_key")
+    private String sortKey;
+    
+    /**
+     * Recurrence rule (see RecurrenceRule) making this task the template of a series, null for one-off tasks.
+     * The due date is the first occurrence; completing the template ends the series.
+     */
+    @Size(max = 100, message = "Recurrence must be less than 100 characters")
+    @Column(name = "recurrence", length = 100)
+    private String recurrence;
+    
+    /**
+     * For an occurrence of a recurring task, the template's ID and the occurrence's original due date.
+     * Occurrences are expanded from the rule at read time and only stored once completed or edited;
+     * occurrences listed but not stored have no ID.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "series_id")
+    private Long seriesId;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "occurrence_at")
+    private LocalDateTime occurrenceAt;
+    
+    /**
+     * Tag names, sorted. Stored in task_tag; filled in by the task service, null when not loaded.
+     */
+    @Transient
+    private List<String> tags;
+    
+    /**
+     * Children, filled in only when the task is loaded as a tree
+     */
+    @Transient
+    private List<Task> subtasks;
+    
+    /**
+     * Number of descendants and of completed descendants, filled in only when the task is loaded as a tree
+     */
+    @Transient
+    private Integer subtaskCount;
+    
+    @Transient
+    private Integer completedSubtaskCount;
+    
     // Constructors
     public Task() {
         this.createdAt = LocalDateTime.now();
@@ -104,14 +199,22 @@ public class Task {
         this.completedAt = completedAt;
     }
     
-    public String getPriority() {
+    public TaskPriority getPriority() {
         return priority;
     }
     
-    public void setPriority(String priority) {
+    public void setPriority(TaskPriority priority) {
         this.priority = priority;
     }
     
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+    
     public User getUser() {
         return user;
     }
@@ -120,6 +223,94 @@ public class Task {
         this.user = user;
     }
     
+    public Long getParentId() {
+        return parentId;
+    }
+    
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+    
+    public Long getListId() {
+        return listId;
+    }
+    
+    public void setListId(Long listId) {
+        this.listId = listId;
+    }
+    
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+    
+    public String getSortKey() {
+        return sortKey;
+    }
+    
+    public void setSortKey(String sortKey) {
+        this.sortKey = sortKey;
+    }
+    
+    public String getRecurrence() {
+        return recurrence;
+    }
+    
+    public void setRecurrence(String recurrence) {
+        this.recurrence = recurrence;
+    }
+    
+    public Long getSeriesId() {
+        return seriesId;
+    }
+    
+    public void setSeriesId(Long seriesId) {
+        this.seriesId = seriesId;
+    }
+    
+    public LocalDateTime getOccurrenceAt() {
+        return occurrenceAt;
+    }
+    
+    public void setOccurrenceAt(LocalDateTime occurrenceAt) {
+        this.occurrenceAt = occurrenceAt;
+    }
+    
+    public List<String> getTags() {
+        return tags;
+    }
+    
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+    
+    public List<Task> getSubtasks() {
+        return subtasks;
+    }
+    
+    public void setSubtasks(List<Task> subtasks) {
+        this.subtasks = subtasks;
+    }
+    
+    public Integer getSubtaskCount() {
+        return subtaskCount;
+    }
+    
+    public void setSubtaskCount(Integer subtaskCount) {
+        this.subtaskCount = subtaskCount;
+    }
+    
+    public Integer getCompletedSubtaskCount() {
+        return completedSubtaskCount;
+    }
+    
+    public void setCompletedSubtaskCount(Integer completedSubtaskCount) {
+        this.completedSubtaskCount = completedSubtaskCount;
+    }
+    
     @PrePersist
     public void prePersist() {
         if (this.createdAt == null) {
@@ -128,6 +319,9 @@ public class Task {
         if (this.completed == null) {
             this.completed = false;
         }
+        if (this.priority == null) {
+            this.priority = TaskPriority.MEDIUM;
+        }
     }
     
     @Override
@@ -140,6 +334,8 @@ public class Task {
                 ", createdAt=" + createdAt +
                 ", completedAt=" + completedAt +
                 ", priority='" + priority + '\'' +
+                ", dueDate=" + dueDate +
+                ", parentId=" + parentId +
                 ", userId=" + (user != null ? user.getId() : null) +
                 '}';
     }
@@ -0,0 +1,121 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a completed task that has been moved out of the live task table.
+ * The owning user is stored as a plain id so archive rows never hold a foreign key
+ * lock on users.
+ */
+@Entity
+@Table(name = "task_archive", indexes = {
+        @Index(name = "idx_task_archive_user_completed", columnList = "user_id, completed_at")
+})
+public class TaskArchive {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "title", nullable = false)
+    private String title;
+    
+    @Column(name = "description", length = 1000)
+    private String description;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @Column(name = "priority")
+    private TaskPriority priority;
+    
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+    
+    // Constructors
+    public TaskArchive() {}
+    
+    /**
+     * Convert back to a detached task for API responses
+     */
+    public Task toTask() {
+        Task task = new Task(title, description);
+        task.setId(id);
+        task.setCompleted(true);
+        task.setCreatedAt(createdAt);
+        task.setCompletedAt(completedAt);
+        task.setPriority(priority);
+        return task;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public TaskPriority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+    
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
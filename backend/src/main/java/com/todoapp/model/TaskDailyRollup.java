@@ -0,0 +1,137 @@
+package com.todoapp.model;
+
+import com.todoapp.util.LatencyHistogram;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated task activity for one user, day and priority, maintained by TaskRollupService.
+ * Like task_archive it stores the owner as a plain id so it can be copied between shards as-is.
+ */
+@Entity
+@Table(name = "task_daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_daily_rollup", columnNames = {"user_id", "rollup_date", "priority"})
+})
+public class TaskDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate date;
+    
+    @Column(name = "priority", nullable = false)
+    private TaskPriority priority;
+    
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+    
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+    
+    /**
+     * Sum of creation-to-completion times of the tasks completed that day, for the mean
+     */
+    @Column(name = "latency_seconds_total", nullable = false)
+    private long latencySecondsTotal;
+    
+    /**
+     * {@link LatencyHistogram#encode()} of the same completion times, for percentiles
+     */
+    @Column(name = "latency_histogram", length = 2000)
+    private String latencyHistogram;
+    
+    // Constructors
+    public TaskDailyRollup() {}
+    
+    public TaskDailyRollup(Long userId, LocalDate date, TaskPriority priority) {
+        this.userId = userId;
+        this.date = date;
+        this.priority = priority;
+    }
+    
+    public void recordCreated() {
+        createdCount++;
+    }
+    
+    public void recordCompleted(long latencySeconds) {
+        LatencyHistogram histogram = getLatencies();
+        histogram.record(latencySeconds);
+        latencyHistogram = histogram.encode();
+        latencySecondsTotal += Math.max(0, latencySeconds);
+        completedCount++;
+    }
+    
+    public LatencyHistogram getLatencies() {
+        return LatencyHistogram.decode(latencyHistogram);
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public TaskPriority getPriority() {
+        return priority;
+    }
+    
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+    
+    public long getCreatedCount() {
+        return createdCount;
+    }
+    
+    public void setCreatedCount(long createdCount) {
+        this.createdCount = createdCount;
+    }
+    
+    public long getCompletedCount() {
+        return completedCount;
+    }
+    
+    public void setCompletedCount(long completedCount) {
+        this.completedCount = completedCount;
+    }
+    
+    public long getLatencySecondsTotal() {
+        return latencySecondsTotal;
+    }
+    
+    public void setLatencySecondsTotal(long latencySecondsTotal) {
+        this.latencySecondsTotal = latencySecondsTotal;
+    }
+    
+    public String getLatencyHistogram() {
+        return latencyHistogram;
+    }
+    
+    public void setLatencyHistogram(String latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+}
@@ -0,0 +1,95 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named list of tasks that its owner can share with other users. The list, its memberships and its
+ * tasks all belong to the owner, so they live on the owner's shard and go away with the owner's account.
+ */
+@Entity
+@Table(name = "task_list", indexes = {
+        @Index(name = "idx_task_list_user", columnList = "user_id")
+})
+public class TaskList {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @JsonProperty(value = "ownerId", access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be less than 100 characters")
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    /**
+     * The requesting user's role, filled in by the list service
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Transient
+    private ListRole role;
+    
+    // Constructors
+    public TaskList() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public TaskList(Long userId, String name) {
+        this();
+        this.userId = userId;
+        this.name = name;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public ListRole getRole() {
+        return role;
+    }
+    
+    public void setRole(ListRole role) {
+        this.role = role;
+    }
+}
@@ -0,0 +1,120 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user a task list is shared with, and their role. The row carries the list owner's id as user_id, like
+ * the other per-user tables, so shard moves and account deletion handle it with the owner's data.
+ */
+@Entity
+@Table(name = "task_list_member", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_list_member", columnNames = {"list_id", "member_id"})
+}, indexes = {
+        @Index(name = "idx_task_list_member_user", columnList = "user_id"),
+        @Index(name = "idx_task_list_member_member", columnList = "member_id")
+})
+public class TaskListMember {
+    
+    @JsonIgnore
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "list_id", nullable = false)
+    private Long listId;
+    
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false, length = 10)
+    private ListRole role;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    /**
+     * The member's username, filled in by the list service
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Transient
+    private String username;
+    
+    // Constructors
+    public TaskListMember() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public TaskListMember(Long userId, Long listId, Long memberId, ListRole role) {
+        this();
+        this.userId = userId;
+        this.listId = listId;
+        this.memberId = memberId;
+        this.role = role;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getListId() {
+        return listId;
+    }
+    
+    public void setListId(Long listId) {
+        this.listId = listId;
+    }
+    
+    public Long getMemberId() {
+        return memberId;
+    }
+    
+    public void setMemberId(Long memberId) {
+        this.memberId = memberId;
+    }
+    
+    public ListRole getRole() {
+        return role;
+    }
+    
+    public void setRole(ListRole role) {
+        this.role = role;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+}
@@ -0,0 +1,57 @@
+package com.todoapp.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Task priority, stored as a small integer rank so it sorts and indexes cheaply.
+ * Lower ranks come first in the agenda.
+ */
+public enum TaskPriority {
+    
+    HIGH((short) 1, "High"),
+    MEDIUM((short) 2, "Medium"),
+    LOW((short) 3, "Low");
+    
+    private final short rank;
+    private final String label;
+    
+    TaskPriority(short rank, String label) {
+        this.rank = rank;
+        this.label = label;
+    }
+    
+    public short getRank() {
+        return rank;
+    }
+    
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+    
+    public static TaskPriority fromRank(short rank) {
+        for (TaskPriority priority : values()) {
+            if (priority.rank == rank) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority rank: " + rank);
+    }
+    
+    /**
+     * Parse a priority name case-insensitively; blank input yields null
+     */
+    @JsonCreator
+    public static TaskPriority fromLabel(String label) {
+        if (label == null || label.trim().isEmpty()) {
+            return null;
+        }
+        for (TaskPriority priority : values()) {
+            if (priority.label.equalsIgnoreCase(label.trim())) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority: " + label);
+    }
+}
@@ -0,0 +1,18 @@
+package com.todoapp.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class TaskPriorityConverter implements AttributeConverter<TaskPriority, Short> {
+    
+    @Override
+    public Short convertToDatabaseColumn(TaskPriority priority) {
+        return priority != null ? priority.getRank() : null;
+    }
+    
+    @Override
+    public TaskPriority convertToEntityAttribute(Short rank) {
+        return rank != null ? TaskPriority.fromRank(rank) : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-user change counter behind delta sync. Every write to a user's tasks takes the next value(s) while
+ * holding this row locked until commit, so change sequences become visible in order: once a reader sees
+ * {@code changeSeq = n}, every change up to n is committed. Lives on the user's shard and moves with it.
+ */
+@Entity
+@Table(name = "task_sync_state", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_sync_state_user", columnNames = {"user_id"})
+})
+public class TaskSyncState {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    /**
+     * Last change sequence handed out for the user's tasks
+     */
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+    
+    /**
+     * Highest change sequence whose tombstone has been purged; older sync tokens get a full snapshot
+     */
+    @Column(name = "purged_seq", nullable = false)
+    private long purgedSeq;
+    
+    // Constructors
+    public TaskSyncState() {}
+    
+    public TaskSyncState(Long userId) {
+        this.userId = userId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+    
+    public long getPurgedSeq() {
+        return purgedSeq;
+    }
+    
+    public void setPurgedSeq(long purgedSeq) {
+        this.purgedSeq = purgedSeq;
+    }
+}
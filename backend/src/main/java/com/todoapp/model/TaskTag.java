@@ -0,0 +1,77 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Row of the task/tag many-to-many table. It carries its own id and the owner's id so shard moves
+ * can copy it like the other per-user tables, and rows go away with their task or tag in the database.
+ */
+@Entity
+@Table(name = "task_tag", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_tag", columnNames = {"task_id", "tag_id"})
+}, indexes = {
+        @Index(name = "idx_task_tag_user", columnList = "user_id")
+})
+public class TaskTag {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "task_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Task task;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "tag_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Tag tag;
+    
+    // Constructors
+    public TaskTag() {}
+    
+    public TaskTag(Long userId, Task task, Tag tag) {
+        this.userId = userId;
+        this.task = task;
+        this.tag = tag;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Task getTask() {
+        return task;
+    }
+    
+    public void setTask(Task task) {
+        this.task = task;
+    }
+    
+    public Tag getTag() {
+        return tag;
+    }
+    
+    public void setTag(Tag tag) {
+        this.tag = tag;
+    }
+}
@@ -0,0 +1,76 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted (or archived) task, kept so delta sync can tell clients to drop it.
+ * Purged after {@code todoapp.sync.tombstone-retention}.
+ */
+@Entity
+@Table(name = "task_tombstone", indexes = {
+        @Index(name = "idx_task_tombstone_user_change", columnList = "user_id, change_seq"),
+        @Index(name = "idx_task_tombstone_deleted_at", columnList = "deleted_at")
+})
+public class TaskTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Constructors
+    public TaskTombstone() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getTaskId() {
+        return taskId;
+    }
+    
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
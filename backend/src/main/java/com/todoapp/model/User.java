@@ -34,6 +34,12 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    /**
+     * Set when the account is deleted; the user is disabled from then on while their data is removed
+     */
+    @Column(name = "deletion_requested_at")
+    private LocalDateTime deletionRequestedAt;
+    
     // Constructors
     public User() {}
     
@@ -94,6 +100,14 @@ public class User {
         this.updatedAt = updatedAt;
     }
     
+    public LocalDateTime getDeletionRequestedAt() {
+        return deletionRequestedAt;
+    }
+    
+    public void setDeletionRequestedAt(LocalDateTime deletionRequestedAt) {
+        this.deletionRequestedAt = deletionRequestedAt;
+    }
+    
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,84 @@
+package com.todoapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Directory entry mapping a user to the shard holding their tasks.
+ * Lives on shard 0 next to the users table.
+ */
+@Entity
+@Table(name = "user_shard")
+public class UserShard {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "username", unique = true, nullable = false, length = 50)
+    private String username;
+    
+    @Column(name = "shard_id", nullable = false)
+    private Integer shardId;
+    
+    /**
+     * Target shard while a move is in progress; writes for the user are refused until it completes
+     */
+    @Column(name = "moving_to")
+    private Integer movingTo;
+    
+    /**
+     * Previous shard whose copy of the user's data still has to be cleaned up after a move
+     */
+    @Column(name = "moved_from")
+    private Integer movedFrom;
+    
+    // Constructors
+    public UserShard() {}
+    
+    public UserShard(Long userId, String username, Integer shardId) {
+        this.userId = userId;
+        this.username = username;
+        this.shardId = shardId;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public Integer getShardId() {
+        return shardId;
+    }
+    
+    public void setShardId(Integer shardId) {
+        this.shardId = shardId;
+    }
+    
+    public Integer getMovingTo() {
+        return movingTo;
+    }
+    
+    public void setMovingTo(Integer movingTo) {
+        this.movingTo = movingTo;
+    }
+    
+    public Integer getMovedFrom() {
+        return movedFrom;
+    }
+    
+    public void setMovedFrom(Integer movedFrom) {
+        this.movedFrom = movedFrom;
+    }
+}
@@ -0,0 +1,28 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.AccountDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+    
+    /**
+     * Deletions that still have rows to remove, oldest request first
+     */
+    @Query("SELECT d FROM AccountDeletion d WHERE d.completedAt IS NULL ORDER BY d.requestedAt ASC")
+    List<AccountDeletion> findPending();
+    
+    /**
+     * Add a finished batch to the progress counter
+     */
+    @Modifying
+    @Query("UPDATE AccountDeletion d SET d.deletedRows = d.deletedRows + :rows, d.updatedAt = :now WHERE d.userId = :userId")
+    int addDeletedRows(@Param("userId") Long userId, @Param("rows") long rows, @Param("now") LocalDateTime now);
+}
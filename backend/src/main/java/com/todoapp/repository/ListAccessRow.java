@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.ListRole;
+
+/**
+ * Owner of a task list and a user's membership role in it (null if not a member)
+ */
+public interface ListAccessRow {
+    
+    Long getOwnerId();
+    
+    ListRole getRole();
+}
@@ -0,0 +1,14 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+    
+    List<Tag> findByUserIdAndNameIn(Long userId, Collection<String> names);
+}
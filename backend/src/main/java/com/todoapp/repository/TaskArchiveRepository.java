@@ -0,0 +1,32 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskArchiveRepository extends JpaRepository<TaskArchive, Long> {
+    
+    /**
+     * Copy the given live tasks into the archive table in a single statement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_archive (id, title, description, created_at, completed_at, priority, user_id, archived_at) " +
+            "SELECT t.id, t.title, t.description, t.created_at, t.completed_at, t.priority, t.user_id, :archivedAt " +
+            "FROM task t WHERE t.id IN (:ids)", nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+    
+    /**
+     * Find the most recently completed archived tasks for a specific user
+     */
+    @Query("SELECT a FROM TaskArchive a WHERE a.userId = :userId ORDER BY a.completedAt DESC")
+    List<TaskArchive> findCompletedByUserId(@Param("userId") Long userId, Pageable pageable);
+}
@@ -0,0 +1,31 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskDailyRollupRepository extends JpaRepository<TaskDailyRollup, Long> {
+    
+    /**
+     * Rollup rows for one user over a date range, oldest first
+     */
+    @Query("SELECT r FROM TaskDailyRollup r WHERE r.userId = :userId AND r.date BETWEEN :from AND :to ORDER BY r.date ASC")
+    List<TaskDailyRollup> findByUserIdAndDateRange(@Param("userId") Long userId,
+                                                   @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to);
+    
+    /**
+     * Existing rows the rollup job is about to update
+     */
+    @Query("SELECT r FROM TaskDailyRollup r WHERE r.userId IN :userIds AND r.date BETWEEN :from AND :to")
+    List<TaskDailyRollup> findForUpdate(@Param("userIds") Collection<Long> userIds,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+}
@@ -0,0 +1,15 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection used to load upcoming due dates without hydrating full tasks
+ */
+public interface TaskDueDate {
+    
+    Long getId();
+    
+    Long getUserId();
+    
+    LocalDateTime getDueDate();
+}
@@ -0,0 +1,25 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskListMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskListMemberRepository extends JpaRepository<TaskListMember, Long> {
+    
+    List<TaskListMember> findByListIdOrderByCreatedAtAsc(Long listId);
+    
+    List<TaskListMember> findByMemberId(Long memberId);
+    
+    Optional<TaskListMember> findByListIdAndMemberId(Long listId, Long memberId);
+    
+    @Modifying
+    @Query("DELETE FROM TaskListMember m WHERE m.listId = :listId")
+    int deleteByListId(@Param("listId") Long listId);
+}
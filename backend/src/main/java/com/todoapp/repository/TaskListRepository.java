@@ -0,0 +1,23 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskList;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskListRepository extends JpaRepository<TaskList, Long> {
+    
+    List<TaskList> findByUserIdOrderByCreatedAtAsc(Long userId);
+    
+    /**
+     * Owner of a list and the user's membership role in it, in one query; the role is null for non-members
+     */
+    @Query("SELECT l.userId AS ownerId, m.role AS role FROM TaskList l " +
+           "LEFT JOIN TaskListMember m ON m.listId = l.id AND m.memberId = :userId WHERE l.id = :listId")
+    Optional<ListAccessRow> findAccess(@Param("listId") Long listId, @Param("userId") Long userId);
+}
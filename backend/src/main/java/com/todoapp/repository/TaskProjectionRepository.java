@@ -0,0 +1,19 @@
+package com.todoapp.repository;
+
+import com.todoapp.dto.TaskFields;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+
+import java.util.List;
+
+/**
+ * Task reads that select only some columns, for sparse fieldsets
+ */
+public interface TaskProjectionRepository {
+    
+    /**
+     * All of the user's tasks with only the fieldset's columns set, newest first or in manual order.
+     * The tasks are not managed entities.
+     */
+    List<Task> findAllTasksByUser(User user, TaskFields fields, boolean manualOrder);
+}
@@ -0,0 +1,43 @@
+package com.todoapp.repository;
+
+import com.todoapp.dto.TaskFields;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the select list from the fieldset's column names, which {@link TaskFields} has already checked
+ * against the task attributes, so nothing from the request reaches the query text unvalidated
+ */
+public class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Task> findAllTasksByUser(User user, TaskFields fields, boolean manualOrder) {
+        String select = fields.getColumns().stream()
+                .map(column -> "t." + column + " AS " + column)
+                .collect(Collectors.joining(", "));
+        String order = manualOrder ? "t.sortKey ASC NULLS LAST, t.createdAt ASC, t.id ASC" : "t.createdAt DESC";
+        List<Tuple> rows = entityManager.createQuery("SELECT " + select + " FROM Task t WHERE t.user = :user ORDER BY " + order, Tuple.class)
+                .setParameter("user", user)
+                .getResultList();
+        
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Task task = new Task();
+            for (String column : fields.getColumns()) {
+                TaskFields.apply(task, column, row.get(column));
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -4,14 +4,18 @@ import com.todoapp.model.Task;
 import com.todoapp.model.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskProjectionRepository {
     
     /**
      * Find the most recent 5 incomplete tasks
@@ -61,9 +65,183 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE t.completed = true AND t.user = :user ORDER BY t.completedAt DESC")
     List<Task> findTop5CompletedTasksByUser(@Param("user") User user, Pageable pageable);
     
+    /**
+     * Find completed tasks for a specific user, most recently completed first; the page sets how many
+     */
+    @Query("SELECT t FROM Task t WHERE t.completed = true AND t.user = :user ORDER BY t.completedAt DESC")
+    List<Task> findCompletedTasksByUser(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * Find incomplete tasks for a specific user in agenda order: priority, then due date, then creation time,
+     * leaving out recurring task templates (their occurrences are listed instead).
+     * Matches idx_task_user_agenda so the first page is read straight off the index.
+     */
+    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.completed = false AND t.recurrence IS NULL ORDER BY t.priority ASC, t.dueDate ASC, t.createdAt ASC")
+    List<Task> findAgendaByUser(@Param("user") User user, Pageable pageable);
+    
+    /**
+     * A user's active recurring tasks, together with their stored occurrences originally due in [from, to),
+     * in one query (served by idx_task_user_recurring on PostgreSQL)
+     */
+    @Query("SELECT t FROM Task t WHERE t.user = :user AND ((t.recurrence IS NOT NULL AND t.completed = false) " +
+           "OR (t.seriesId IS NOT NULL AND t.occurrenceAt >= :from AND t.occurrenceAt < :to))")
+    List<Task> findRecurringByUser(@Param("user") User user, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * The stored occurrence of a recurring task, if it was completed or edited
+     */
+    Optional<Task> findBySeriesIdAndOccurrenceAt(Long seriesId, LocalDateTime occurrenceAt);
+    
+    /**
+     * Tasks in a shared list, newest first
+     */
+    @Query("SELECT t FROM Task t WHERE t.listId = :listId ORDER BY t.createdAt DESC")
+    List<Task> findByListId(@Param("listId") Long listId);
+    
+    /**
+     * Take every task out of a list that is being deleted, stamping them so synced clients see the change
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.listId = NULL, t.changeSeq = :changeSeq WHERE t.listId = :listId")
+    int clearList(@Param("listId") Long listId, @Param("changeSeq") long changeSeq);
+    
     /**
      * Find all tasks for a specific user
      */
     @Query("SELECT t FROM Task t WHERE t.user = :user ORDER BY t.createdAt DESC")
     List<Task> findAllTasksByUser(@Param("user") User user);
-}
\ No newline at end of file
+    
+    /**
+     * Find ids of completed tasks finished before the cutoff, oldest first. Tasks that still have subtasks
+     * are skipped until their subtasks have been archived, so no live task points at an archived parent.
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.completed = true AND t.completedAt < :cutoff " +
+            "AND NOT EXISTS (SELECT c.id FROM Task c WHERE c.parentId = t.id) ORDER BY t.completedAt ASC")
+    List<Long> findArchivableTaskIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Delete a batch of tasks by id in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find incomplete tasks due in [from, to), soonest first
+     */
+    @Query("SELECT t.id AS id, t.user.id AS userId, t.dueDate AS dueDate FROM Task t " +
+            "WHERE t.completed = false AND t.dueDate >= :from AND t.dueDate < :to ORDER BY t.dueDate ASC")
+    List<TaskDueDate> findIncompleteTasksDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Count a user's tasks by completion status and priority in one pass (at most six rows)
+     */
+    @Query("SELECT t.completed AS completed, t.priority AS priority, COUNT(t) AS total FROM Task t " +
+            "WHERE t.user = :user GROUP BY t.completed, t.priority")
+    List<TaskStatusCount> countByStatusAndPriority(@Param("user") User user);
+    
+    /**
+     * Tasks created in (from, to], for the analytics rollup
+     */
+    @Query("SELECT t.user.id AS userId, t.priority AS priority, t.createdAt AS createdAt, t.completedAt AS completedAt " +
+            "FROM Task t WHERE t.createdAt > :from AND t.createdAt <= :to")
+    List<TaskTimeline> findCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Tasks completed in (from, to], for the analytics rollup
+     */
+    @Query("SELECT t.user.id AS userId, t.priority AS priority, t.createdAt AS createdAt, t.completedAt AS completedAt " +
+            "FROM Task t WHERE t.completed = true AND t.completedAt > :from AND t.completedAt <= :to")
+    List<TaskTimeline> findCompletedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    /**
+     * Number of tasks created or completed in (from, to], used to size rollup windows before loading them
+     */
+    @Query("SELECT COUNT(t) FROM Task t WHERE (t.createdAt > :from AND t.createdAt <= :to) " +
+            "OR (t.completed = true AND t.completedAt > :from AND t.completedAt <= :to)")
+    long countActivityBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @Query("SELECT MIN(t.createdAt) FROM Task t")
+    LocalDateTime findEarliestCreatedAt();
+    
+    /**
+     * The user's task and all of its descendants, walked in one recursive query over idx_task_parent
+     */
+    @Query(value = "WITH RECURSIVE subtree (id) AS (" +
+            "SELECT id FROM task WHERE id = :rootId AND user_id = :userId " +
+            "UNION ALL SELECT c.id FROM task c JOIN subtree s ON c.parent_id = s.id) " +
+            "SELECT t.* FROM task t JOIN subtree s ON t.id = s.id", nativeQuery = true)
+    List<Task> findSubtree(@Param("rootId") Long rootId, @Param("userId") Long userId);
+    
+    /**
+     * Ids of a task and all of its descendants, whoever owns them
+     */
+    @Query(value = "WITH RECURSIVE subtree (id) AS (" +
+            "SELECT id FROM task WHERE id = :rootId " +
+            "UNION ALL SELECT c.id FROM task c JOIN subtree s ON c.parent_id = s.id) " +
+            "SELECT CAST(id AS BIGINT) FROM subtree", nativeQuery = true)
+    List<Long> findSubtreeIds(@Param("rootId") Long rootId);
+    
+    /**
+     * Complete every incomplete task in the user's subtree in a single statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "WITH RECURSIVE subtree (id) AS (" +
+            "SELECT id FROM task WHERE id = :rootId AND user_id = :userId " +
+            "UNION ALL SELECT c.id FROM task c JOIN subtree s ON c.parent_id = s.id) " +
+            "UPDATE task SET completed = TRUE, completed_at = :completedAt, change_seq = :changeSeq " +
+            "WHERE completed = FALSE AND id IN (SELECT id FROM subtree)", nativeQuery = true)
+    int completeSubtree(@Param("rootId") Long rootId, @Param("userId") Long userId,
+                        @Param("completedAt") LocalDateTime completedAt, @Param("changeSeq") long changeSeq);
+    
+    /**
+     * The user's tasks written with a change sequence in (since, until], over idx_task_user_change_seq
+     */
+    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.changeSeq > :since AND t.changeSeq <= :until ORDER BY t.changeSeq")
+    List<Task> findChangedBetween(@Param("user") User user, @Param("since") long since, @Param("until") long until);
+    
+    /**
+     * Owners of the given tasks
+     */
+    @Query("SELECT DISTINCT t.user.id FROM Task t WHERE t.id IN :ids")
+    List<Long> findUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find all tasks for a specific user in their manual order; unkeyed tasks come last, oldest first
+     */
+    @Query("SELECT t FROM Task t WHERE t.user = :user ORDER BY t.sortKey ASC NULLS LAST, t.createdAt ASC, t.id ASC")
+    List<Task> findAllTasksByUserInManualOrder(@Param("user") User user);
+    
+    /**
+     * Ids of the user's tasks in manual order, for rebalancing their keys
+     */
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId ORDER BY t.sortKey ASC NULLS LAST, t.createdAt ASC, t.id ASC")
+    List<Long> findIdsInManualOrder(@Param("userId") Long userId);
+    
+    /**
+     * The user's highest rank key, read off idx_task_user_sort_key
+     */
+    @Query("SELECT MAX(t.sortKey) FROM Task t WHERE t.user.id = :userId")
+    String findLastSortKey(@Param("userId") Long userId);
+    
+    /**
+     * The user's lowest rank key above {@code after}, ignoring one task (the one being moved)
+     */
+    @Query("SELECT MIN(t.sortKey) FROM Task t WHERE t.user.id = :userId AND t.sortKey > :after AND t.id <> :excludedId")
+    String findNextSortKey(@Param("userId") Long userId, @Param("after") String after, @Param("excludedId") Long excludedId);
+    
+    /**
+     * The user's lowest rank key, ignoring one task (the one being moved)
+     */
+    @Query("SELECT MIN(t.sortKey) FROM Task t WHERE t.user.id = :userId AND t.id <> :excludedId")
+    String findFirstSortKey(@Param("userId") Long userId, @Param("excludedId") Long excludedId);
+    
+    @Query("SELECT t.sortKey FROM Task t WHERE t.id = :id")
+    String findSortKeyById(@Param("id") Long id);
+    
+    /**
+     * Users with a task whose rank key is missing or longer than {@code maxLength}
+     */
+    @Query("SELECT DISTINCT t.user.id FROM Task t WHERE t.user IS NOT NULL AND (t.sortKey IS NULL OR LENGTH(t.sortKey) > :maxLength)")
+    List<Long> findUserIdsNeedingRebalance(@Param("maxLength") int maxLength, Pageable pageable);
+}
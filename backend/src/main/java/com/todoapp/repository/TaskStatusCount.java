@@ -0,0 +1,15 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskPriority;
+
+/**
+ * Row of a per-user task count grouped by completion status and priority
+ */
+public interface TaskStatusCount {
+    
+    Boolean getCompleted();
+    
+    TaskPriority getPriority();
+    
+    Long getTotal();
+}
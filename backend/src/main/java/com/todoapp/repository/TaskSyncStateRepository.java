@@ -0,0 +1,39 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface TaskSyncStateRepository extends JpaRepository<TaskSyncState, Long> {
+    
+    Optional<TaskSyncState> findByUserId(Long userId);
+    
+    /**
+     * Reserve {@code count} change sequences; the row stays locked until the transaction ends
+     *
+     * @return 0 if the user has no sync state yet
+     */
+    @Modifying
+    @Query("UPDATE TaskSyncState s SET s.changeSeq = s.changeSeq + :count WHERE s.userId = :userId")
+    int advance(@Param("userId") Long userId, @Param("count") long count);
+    
+    @Query("SELECT s.changeSeq FROM TaskSyncState s WHERE s.userId = :userId")
+    Long findChangeSeq(@Param("userId") Long userId);
+    
+    /**
+     * Remember the newest tombstone about to be purged for every user that has one older than the cutoff
+     */
+    @Modifying
+    @Query(value = "UPDATE task_sync_state s SET purged_seq = (" +
+            "SELECT MAX(t.change_seq) FROM task_tombstone t WHERE t.user_id = s.user_id AND t.deleted_at < :cutoff) " +
+            "WHERE EXISTS (SELECT 1 FROM task_tombstone t WHERE t.user_id = s.user_id AND t.deleted_at < :cutoff)",
+            nativeQuery = true)
+    int markPurged(@Param("cutoff") LocalDateTime cutoff);
+}
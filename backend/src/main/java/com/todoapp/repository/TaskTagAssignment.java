@@ -0,0 +1,11 @@
+package com.todoapp.repository;
+
+/**
+ * One task/tag pair, used to build the in-memory tag bitmaps
+ */
+public interface TaskTagAssignment {
+    
+    String getTag();
+    
+    Long getTaskId();
+}
@@ -0,0 +1,27 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskTagRepository extends JpaRepository<TaskTag, Long> {
+    
+    /**
+     * Every task/tag pair of a user, read once to build the tag bitmaps
+     */
+    @Query("SELECT g.name AS tag, tt.task.id AS taskId FROM TaskTag tt JOIN tt.tag g WHERE tt.userId = :userId")
+    List<TaskTagAssignment> findAssignmentsByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT tt FROM TaskTag tt JOIN FETCH tt.tag WHERE tt.task.id = :taskId")
+    List<TaskTag> findByTaskId(@Param("taskId") Long taskId);
+    
+    @Modifying
+    @Query("DELETE FROM TaskTag tt WHERE tt.task.id = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -0,0 +1,19 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskPriority;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection with just what the analytics rollup needs from a task
+ */
+public interface TaskTimeline {
+    
+    Long getUserId();
+    
+    TaskPriority getPriority();
+    
+    LocalDateTime getCreatedAt();
+    
+    LocalDateTime getCompletedAt();
+}
@@ -0,0 +1,36 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    
+    /**
+     * Record the user's tasks among {@code ids} as deleted in one statement, before the rows themselves are deleted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_tombstone (task_id, user_id, change_seq, deleted_at) " +
+            "SELECT id, user_id, :changeSeq, :deletedAt FROM task WHERE id IN :ids AND user_id = :userId",
+            nativeQuery = true)
+    int insertForTasks(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                       @Param("changeSeq") long changeSeq, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * Ids of the user's tasks deleted in (since, until]
+     */
+    @Query("SELECT t.taskId FROM TaskTombstone t WHERE t.userId = :userId AND t.changeSeq > :since AND t.changeSeq <= :until")
+    List<Long> findTaskIdsDeletedBetween(@Param("userId") Long userId, @Param("since") long since, @Param("until") long until);
+    
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
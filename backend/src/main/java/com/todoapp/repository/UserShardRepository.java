@@ -0,0 +1,13 @@
+package com.todoapp.repository;
+
+import com.todoapp.model.UserShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserShardRepository extends JpaRepository<UserShard, Long> {
+    
+    Optional<UserShard> findByUsername(String username);
+}
@@ -0,0 +1,226 @@
+package com.todoapp.service;
+
+import com.todoapp.event.UserChangedEvent;
+import com.todoapp.model.AccountDeletion;
+import com.todoapp.model.User;
+import com.todoapp.repository.AccountDeletionRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.sharding.ShardDirectory;
+import com.todoapp.sharding.ShardRebalancer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deletes user accounts without one long transaction over all of a user's rows.
+ * <p>
+ * A request only disables the user (so logins and existing tokens are rejected at once) and records an
+ * account_deletion row. A background job then removes the user's rows from every per-user table on every
+ * shard in fixed-size batches, each in its own short transaction with a pause in between, adding each batch
+ * to the row's progress counter. Batches are idempotent, so after a crash the job simply continues; the user
+ * row itself is removed once a full pass finds nothing left. Tasks kept outside SQL, by the embedded storage
+ * engine, are removed through {@link TaskService#deleteTasksOfUser} at the start of every pass.
+ */
+@Service
+public class AccountDeletionService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+    
+    private final UserRepository userRepository;
+    private final TaskService taskService;
+    private final AccountDeletionRepository deletionRepository;
+    private final ShardDirectory shardDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${todoapp.account-deletion.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.account-deletion.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${todoapp.account-deletion.batch-pause:100ms}")
+    private Duration batchPause;
+    
+    @Value("${todoapp.account-deletion.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+    
+    @Autowired
+    public AccountDeletionService(UserRepository userRepository,
+                                  TaskService taskService,
+                                  AccountDeletionRepository deletionRepository,
+                                  ShardDirectory shardDirectory,
+                                  PlatformTransactionManager transactionManager,
+                                  DataSource dataSource,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.taskService = taskService;
+        this.deletionRepository = deletionRepository;
+        this.shardDirectory = shardDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.eventPublisher = eventPublisher;
+    }
+    
+    /**
+     * Disable the user and queue their data for deletion; repeated requests return the existing deletion
+     *
+     * @throws IllegalArgumentException if the user does not exist
+     */
+    public AccountDeletion requestDeletion(Long userId) {
+        AccountDeletion deletion = ShardContext.callOn(0, () -> transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User " + userId + " not found"));
+            Optional<AccountDeletion> existing = deletionRepository.findById(userId);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            user.setDeletionRequestedAt(now);
+            return deletionRepository.save(new AccountDeletion(userId, now));
+        }));
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        logger.info("Account deletion requested for user {}", userId);
+        return deletion;
+    }
+    
+    /**
+     * Continue every unfinished deletion, spending at most {@code max-batches-per-run} batches per run
+     */
+    @Scheduled(fixedDelayString = "${todoapp.account-deletion.interval:PT30S}", initialDelayString = "${todoapp.account-deletion.initial-delay:PT30S}")
+    public void deletePendingAccounts() {
+        if (!enabled) {
+            return;
+        }
+        
+        List<AccountDeletion> pending = ShardContext.callOn(0, deletionRepository::findPending);
+        int budget = maxBatchesPerRun;
+        for (AccountDeletion deletion : pending) {
+            budget = deleteAccount(deletion.getUserId(), budget);
+            if (budget <= 0) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Delete up to {@code budget} batches of the user's rows, finishing the deletion once a full pass
+     * over all shards and tables deletes nothing
+     *
+     * @return batches left in the budget
+     */
+    int deleteAccount(Long userId, int budget) {
+        while (budget > 0) {
+            long deletedInPass = 0;
+            int purged = taskService.deleteTasksOfUser(userId);
+            if (purged > 0) {
+                budget--;
+                deletedInPass += purged;
+                recordProgress(userId, purged);
+            }
+            for (Integer shard : shardDirectory.getShardIds()) {
+                // Children before parents, e.g. task_tag before task
+                for (int i = ShardRebalancer.USER_TABLES.size() - 1; i >= 0; i--) {
+                    String table = ShardRebalancer.USER_TABLES.get(i);
+                    int deleted;
+                    do {
+                        if (budget <= 0) {
+                            return 0;
+                        }
+                        deleted = ShardContext.callOn(shard, () -> deleteBatch(table, "user_id", userId));
+                        if (deleted > 0) {
+                            budget--;
+                            deletedInPass += deleted;
+                            recordProgress(userId, deleted);
+                            logger.debug("Deleted {} rows of {} for user {} on shard {}", deleted, table, userId, shard);
+                            if (!pause()) {
+                                return 0;
+                            }
+                        }
+                    } while (deleted == batchSize);
+                }
+                
+                // Memberships of lists other users shared with this user live under the list owner
+                int deleted;
+                do {
+                    if (budget <= 0) {
+                        return 0;
+                    }
+                    deleted = ShardContext.callOn(shard, () -> deleteBatch("task_list_member", "member_id", userId));
+                    if (deleted > 0) {
+                        budget--;
+                        deletedInPass += deleted;
+                        recordProgress(userId, deleted);
+                        if (!pause()) {
+                            return 0;
+                        }
+                    }
+                } while (deleted == batchSize);
+            }
+            if (deletedInPass == 0) {
+                finish(userId);
+                return budget;
+            }
+        }
+        return budget;
+    }
+    
+    private int deleteBatch(String table, String column, Long userId) {
+        Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                        + " WHERE " + column + " = ? ORDER BY id LIMIT " + batchSize + ")", userId));
+        return deleted != null ? deleted : 0;
+    }
+    
+    private void recordProgress(Long userId, int deleted) {
+        ShardContext.runOn(0, () -> transactionTemplate.executeWithoutResult(
+                status -> deletionRepository.addDeletedRows(userId, deleted, LocalDateTime.now())));
+    }
+    
+    /**
+     * Remove the user itself: the directory entry, the replicated user rows, then the row on shard 0
+     */
+    private void finish(Long userId) {
+        shardDirectory.remove(userId);
+        for (Integer shard : shardDirectory.getShardIds()) {
+            if (shard != 0) {
+                ShardContext.runOn(shard, () -> transactionTemplate.executeWithoutResult(
+                        status -> jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId)));
+            }
+        }
+        ShardContext.runOn(0, () -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+            deletionRepository.findById(userId).ifPresent(deletion -> {
+                LocalDateTime now = LocalDateTime.now();
+                deletion.setCompletedAt(now);
+                deletion.setUpdatedAt(now);
+                logger.info("Deleted account of user {}: {} rows removed", userId, deletion.getDeletedRows());
+            });
+        }));
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
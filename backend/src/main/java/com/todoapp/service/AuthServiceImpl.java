@@ -5,6 +5,7 @@ import com.todoapp.dto.LoginRequest;
 import com.todoapp.dto.RegisterRequest;
 import com.todoapp.model.User;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.sharding.ShardDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,9 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private JwtService jwtService;
     
+    @Autowired
+    private ShardDirectory shardDirectory;
+    
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     
     @Override
@@ -45,6 +49,7 @@ public class AuthServiceImpl implements AuthService {
         );
         
         User savedUser = userRepository.save(user);
+        shardDirectory.register(savedUser);
         
         // Generate JWT token
         String token = jwtService.generateToken(savedUser.getUsername());
@@ -63,6 +68,10 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("Invalid username/email or password");
         }
         
+        if (user.getDeletionRequestedAt() != null) {
+            throw new RuntimeException("This account has been deleted");
+        }
+        
         // Generate JWT token
         String token = jwtService.generateToken(user.getUsername());
         
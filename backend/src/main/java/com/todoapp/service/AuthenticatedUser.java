@@ -0,0 +1,24 @@
+package com.todoapp.service;
+
+import com.todoapp.model.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Security principal that keeps the {@link User} loaded during authentication, so controllers can use it
+ * instead of looking the user up a second time for the same request.
+ */
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+    
+    private final transient User user;
+    
+    public AuthenticatedUser(User user, boolean enabled, Collection<? extends GrantedAuthority> authorities) {
+        super(user.getUsername(), user.getPassword(), enabled, true, true, true, authorities);
+        this.user = user;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+}
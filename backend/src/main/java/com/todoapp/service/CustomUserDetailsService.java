@@ -22,9 +22,10 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
         
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
+        // Accounts pending deletion are disabled, so their tokens stop working immediately
+        return new AuthenticatedUser(
+                user,
+                user.getDeletionRequestedAt() == null,
                 Collections.singletonList(new SimpleGrantedAuthority("USER"))
         );
     }
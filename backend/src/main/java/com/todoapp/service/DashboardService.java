@@ -0,0 +1,132 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.DashboardResponse;
+import com.todoapp.dto.TaskStats;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the dashboard for one user: the independent reads run in parallel on the bounded dashboard
+ * executor, all within an overall deadline.
+ * <p>
+ * All database work happens on executor threads. The request thread only waits, so it never pins a
+ * pooled connection (open-in-view would hold it for the whole request) while workers need one. Each
+ * read runs in a read-only transaction whose timeout is what is left of the deadline, so the driver
+ * aborts a slow query and returns its connection; reads still queued when the deadline passes are
+ * cancelled before they start.
+ */
+@Service
+public class DashboardService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    
+    private final TaskService taskService;
+    private final Executor executor;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${todoapp.dashboard.timeout:PT2S}")
+    private Duration timeout;
+    
+    @Value("${todoapp.storage.engine:jpa}")
+    private String storageEngine;
+    
+    @Autowired
+    public DashboardService(TaskService taskService,
+                            @Qualifier("dashboardExecutor") Executor executor,
+                            PlatformTransactionManager transactionManager) {
+        this.taskService = taskService;
+        this.executor = executor;
+        this.transactionManager = transactionManager;
+    }
+    
+    /**
+     * @param user the authenticated user, as loaded during authentication
+     * @throws TimeoutException if the dashboard could not be built within {@code todoapp.dashboard.timeout}
+     * @throws java.util.concurrent.RejectedExecutionException if the dashboard executor is saturated
+     */
+    public DashboardResponse getDashboard(User user) throws TimeoutException {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        CompletableFuture<List<Task>> recent = CompletableFuture.supplyAsync(
+                bounded(deadline, () -> taskService.getRecentTasksByUser(user)), executor);
+        CompletableFuture<List<Task>> completed = CompletableFuture.supplyAsync(
+                bounded(deadline, () -> taskService.getRecentCompletedTasksByUser(user)), executor);
+        CompletableFuture<TaskStats> stats = CompletableFuture.supplyAsync(
+                bounded(deadline, () -> taskService.getTaskStatsByUser(user)), executor);
+        
+        try {
+            CompletableFuture.allOf(recent, completed, stats)
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            logger.debug("Dashboard for user {} built in {} ms", user.getUsername(), (System.nanoTime() - start) / 1_000_000);
+            return new DashboardResponse(withOwner(recent.join(), user), withOwner(completed.join(), user), stats.join());
+        } catch (TimeoutException e) {
+            recent.cancel(true);
+            completed.cancel(true);
+            stats.cancel(true);
+            logger.warn("Dashboard for user {} exceeded its {} deadline", user.getUsername(), timeout);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Dashboard query failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading dashboard", e);
+        }
+    }
+    
+    /**
+     * Wrap a read so it gives up once the deadline has passed and, on the JPA engine, runs in a read-only
+     * transaction that times out with the deadline; the service methods join it, so the timeout reaches
+     * their queries. JDBC query timeouts have whole-second resolution, so a read may overrun by up to a
+     * second.
+     */
+    private <T> Supplier<T> bounded(long deadline, Supplier<T> read) {
+        return () -> {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new CancellationException("Dashboard deadline passed before the read started");
+            }
+            if (!"jpa".equals(storageEngine)) {
+                return read.get();
+            }
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + 999_999_999L)));
+            return transaction.execute(status -> read.get());
+        };
+    }
+    
+    /**
+     * The reads ran in their own, already closed sessions; point the detached tasks at the resolved
+     * user instead of leaving uninitialized proxies for serialization to trip over
+     */
+    private static List<Task> withOwner(List<Task> tasks, User user) {
+        for (Task task : tasks) {
+            task.setUser(user);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,314 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskFields;
+import com.todoapp.dto.TaskOccurrenceUpdate;
+import com.todoapp.dto.TaskStats;
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+import com.todoapp.storage.EmbeddedTaskStore;
+import com.todoapp.storage.StoredTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Task service backed by the in-process {@link EmbeddedTaskStore} instead of JPA, selected with
+ * {@code todoapp.storage.engine=embedded}. The store keeps no archive, so completed history is
+ * served from the live completed index. Tags are not supported.
+ */
+@Service
+@ConditionalOnProperty(name = "todoapp.storage.engine", havingValue = "embedded")
+public class EmbeddedTaskService implements TaskService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedTaskService.class);
+    private static final String TAGS_UNSUPPORTED = "Tags require todoapp.storage.engine=jpa";
+    private static final String SUBTASKS_UNSUPPORTED = "Subtasks require todoapp.storage.engine=jpa";
+    private static final String ORDERING_UNSUPPORTED = "Manual ordering requires todoapp.storage.engine=jpa";
+    private static final String RECURRENCE_UNSUPPORTED = "Recurring tasks require todoapp.storage.engine=jpa";
+    private static final String LISTS_UNSUPPORTED = "Shared lists require todoapp.storage.engine=jpa";
+    
+    private final EmbeddedTaskStore store;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    public EmbeddedTaskService(EmbeddedTaskStore store, ApplicationEventPublisher eventPublisher) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Override
+    public List<Task> getRecentTasks() {
+        logger.debug("Fetching the most recent 5 incomplete tasks");
+        return toTasks(store.findIncomplete(null, 5), null);
+    }
+    
+    @Override
+    public List<Task> getRecentTasksByUser(User user) {
+        logger.debug("Fetching the most recent 5 incomplete tasks for user: {}", user.getUsername());
+        return toTasks(store.findIncomplete(user.getId(), 5), user);
+    }
+    
+    @Override
+    public Task createTask(Task task) {
+        logger.debug("Creating new task: {}", task.getTitle());
+        return insert(task);
+    }
+    
+    @Override
+    public Task createTaskForUser(Task task, User user) {
+        logger.debug("Creating new task: {} for user: {}", task.getTitle(), user.getUsername());
+        if (task.getTags() != null && !task.getTags().isEmpty()) {
+            throw new UnsupportedOperationException(TAGS_UNSUPPORTED);
+        }
+        if (task.getParentId() != null) {
+            throw new UnsupportedOperationException(SUBTASKS_UNSUPPORTED);
+        }
+        if (task.getRecurrence() != null) {
+            throw new UnsupportedOperationException(RECURRENCE_UNSUPPORTED);
+        }
+        if (task.getListId() != null) {
+            throw new UnsupportedOperationException(LISTS_UNSUPPORTED);
+        }
+        task.setUser(user);
+        return insert(task);
+    }
+    
+    @Override
+    public Task completeTask(Long id) {
+        logger.debug("Marking task {} as completed", id);
+        return complete(load(id).toTask(null));
+    }
+    
+    @Override
+    public Task completeTask(Long id, User user) {
+        logger.debug("Marking task {} as completed for user: {}", id, user.getUsername());
+        StoredTask stored = load(id);
+        checkOwner(stored, user);
+        return complete(stored.toTask(user));
+    }
+    
+    @Override
+    public void deleteTask(Long id) {
+        logger.debug("Deleting task {}", id);
+        StoredTask removed = store.delete(id);
+        if (removed == null) {
+            throw new IllegalArgumentException("Task with ID " + id + " not found");
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, removed.toTask(null)));
+        logger.info("Task {} deleted", id);
+    }
+    
+    @Override
+    public void deleteTask(Long id, User user) {
+        logger.debug("Deleting task {} for user: {}", id, user.getUsername());
+        checkOwner(load(id), user);
+        StoredTask removed = store.delete(id);
+        if (removed == null) {
+            throw new IllegalArgumentException("Task with ID " + id + " not found");
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, removed.toTask(user)));
+        logger.info("Task {} deleted for user: {}", id, user.getUsername());
+    }
+    
+    @Override
+    public Optional<Task> getTaskById(Long id) {
+        logger.debug("Fetching task by ID: {}", id);
+        return Optional.ofNullable(store.get(id)).map(stored -> stored.toTask(null));
+    }
+    
+    @Override
+    public Optional<Task> getTaskById(Long id, User user) {
+        logger.debug("Fetching task by ID: {} for user: {}", id, user.getUsername());
+        StoredTask stored = store.get(id);
+        if (stored != null && stored.getUserId() == user.getId()) {
+            return Optional.of(stored.toTask(user));
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public List<Task> getAllIncompleteTasks() {
+        logger.debug("Fetching all incomplete tasks");
+        return toTasks(store.findIncomplete(null, Integer.MAX_VALUE), null);
+    }
+    
+    @Override
+    public List<Task> getAllIncompleteTasksByUser(User user) {
+        logger.debug("Fetching all incomplete tasks for user: {}", user.getUsername());
+        return toTasks(store.findIncomplete(user.getId(), Integer.MAX_VALUE), user);
+    }
+    
+    @Override
+    public List<Task> getRecentCompletedTasks() {
+        logger.debug("Fetching the most recent 5 completed tasks");
+        return toTasks(store.findCompleted(null, 5), null);
+    }
+    
+    @Override
+    public List<Task> getRecentCompletedTasksByUser(User user) {
+        logger.debug("Fetching the most recent 5 completed tasks for user: {}", user.getUsername());
+        return toTasks(store.findCompleted(user.getId(), 5), user);
+    }
+    
+    @Override
+    public List<Task> getAgendaByUser(User user, int limit) {
+        logger.debug("Fetching agenda (limit {}) for user: {}", limit, user.getUsername());
+        return toTasks(store.findAgenda(user.getId(), limit), user);
+    }
+    
+    @Override
+    public List<Task> getAgendaByUser(User user, int limit, LocalDateTime from, LocalDateTime to) {
+        // The embedded store has no recurring tasks, so there is nothing to blend in
+        return getAgendaByUser(user, limit);
+    }
+    
+    @Override
+    public Optional<Task> completeOccurrence(Long seriesId, LocalDateTime occurrenceAt, User user) {
+        throw new UnsupportedOperationException(RECURRENCE_UNSUPPORTED);
+    }
+    
+    @Override
+    public Optional<Task> updateOccurrence(Long seriesId, LocalDateTime occurrenceAt, TaskOccurrenceUpdate changes, User user) {
+        throw new UnsupportedOperationException(RECURRENCE_UNSUPPORTED);
+    }
+    
+    @Override
+    public List<Task> getCompletedTaskHistoryByUser(User user, int limit) {
+        logger.debug("Fetching completed task history (limit {}) for user: {}", limit, user.getUsername());
+        return toTasks(store.findCompleted(user.getId(), limit), user);
+    }
+    
+    @Override
+    public List<Task> getAllTasksByUser(User user) {
+        logger.debug("Fetching all tasks for user: {}", user.getUsername());
+        return toTasks(store.findAll(user.getId()), user);
+    }
+    
+    @Override
+    public TaskStats getTaskStatsByUser(User user) {
+        logger.debug("Counting tasks for user: {}", user.getUsername());
+        TaskStats stats = new TaskStats();
+        for (StoredTask task : store.findAll(user.getId())) {
+            stats.add(task.isCompleted(), task.getPriority() == TaskPriority.HIGH, 1);
+        }
+        return stats;
+    }
+    
+    @Override
+    public Task setTaskTags(Long id, User user, Collection<String> tags) {
+        throw new UnsupportedOperationException(TAGS_UNSUPPORTED);
+    }
+    
+    @Override
+    public List<Task> getTasksByTags(User user, Collection<String> tags, boolean matchAll) {
+        throw new UnsupportedOperationException(TAGS_UNSUPPORTED);
+    }
+    
+    @Override
+    public Map<String, Long> getTagCountsByUser(User user) {
+        return Collections.emptyMap();
+    }
+    
+    @Override
+    public List<Task> getAllTasksByUserInManualOrder(User user) {
+        throw new UnsupportedOperationException(ORDERING_UNSUPPORTED);
+    }
+    
+    /**
+     * Records are read whole here; the response is still trimmed to the fieldset
+     */
+    @Override
+    public List<Task> getAllTasksByUser(User user, TaskFields fields, boolean manualOrder) {
+        return manualOrder ? getAllTasksByUserInManualOrder(user) : getAllTasksByUser(user);
+    }
+    
+    @Override
+    public Optional<Task> moveTask(Long id, Long afterId, User user) {
+        throw new UnsupportedOperationException(ORDERING_UNSUPPORTED);
+    }
+    
+    @Override
+    public TaskChanges getChangesSince(User user, long since) {
+        throw new UnsupportedOperationException("Delta sync requires todoapp.storage.engine=jpa");
+    }
+    
+    @Override
+    public int deleteTasksOfUser(Long userId) {
+        List<StoredTask> removed = store.deleteUser(userId);
+        for (StoredTask task : removed) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, task.toTask(null)));
+        }
+        logger.info("Deleted {} tasks of user {}", removed.size(), userId);
+        return removed.size();
+    }
+    
+    @Override
+    public Optional<Task> getTaskTree(Long id, User user) {
+        throw new UnsupportedOperationException(SUBTASKS_UNSUPPORTED);
+    }
+    
+    @Override
+    public Optional<Task> completeTaskTree(Long id, User user) {
+        throw new UnsupportedOperationException(SUBTASKS_UNSUPPORTED);
+    }
+    
+    private Task insert(Task task) {
+        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be empty");
+        }
+        
+        task.setId(null);
+        task.setCompleted(false);
+        task.setCompletedAt(null);
+        StoredTask stored = store.insert(StoredTask.from(task));
+        task.setId(stored.getId());
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, task));
+        logger.info("Created new task with ID: {}", task.getId());
+        return task;
+    }
+    
+    private Task complete(Task task) {
+        task.setCompleted(true);
+        task.setCompletedAt(LocalDateTime.now());
+        store.update(StoredTask.from(task));
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, task));
+        logger.info("Task {} marked as completed", task.getId());
+        return task;
+    }
+    
+    private StoredTask load(Long id) {
+        StoredTask stored = id != null ? store.get(id) : null;
+        if (stored == null) {
+            throw new IllegalArgumentException("Task with ID " + id + " not found");
+        }
+        return stored;
+    }
+    
+    private static void checkOwner(StoredTask stored, User user) {
+        if (stored.getUserId() != user.getId()) {
+            throw new IllegalArgumentException("Task does not belong to user: " + user.getUsername());
+        }
+    }
+    
+    private static List<Task> toTasks(List<StoredTask> stored, User owner) {
+        List<Task> tasks = new ArrayList<>(stored.size());
+        for (StoredTask task : stored) {
+            tasks.add(task.toTask(owner));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,22 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskReminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoggingTaskReminderListener implements TaskReminderListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoggingTaskReminderListener.class);
+    
+    @Override
+    public void onTaskDueSoon(TaskReminder reminder) {
+        logger.info("Task {} for user {} is due at {}", reminder.getTaskId(), reminder.getUserId(), reminder.getDueDate());
+    }
+    
+    @Override
+    public void onTaskOverdue(TaskReminder reminder) {
+        logger.info("Task {} for user {} is overdue since {}", reminder.getTaskId(), reminder.getUserId(), reminder.getDueDate());
+    }
+}
@@ -0,0 +1,116 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.DailyActivity;
+import com.todoapp.dto.LatencySummary;
+import com.todoapp.dto.PriorityThroughput;
+import com.todoapp.dto.TaskAnalytics;
+import com.todoapp.model.TaskDailyRollup;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskDailyRollupRepository;
+import com.todoapp.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds per-user completion analytics from task_daily_rollup, so a year-long chart reads at most
+ * a few rows per day instead of scanning the task table.
+ */
+@Service
+public class TaskAnalyticsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskAnalyticsService.class);
+    
+    private final TaskDailyRollupRepository rollupRepository;
+    private final TaskRollupService rollupService;
+    
+    @Value("${todoapp.analytics.max-range-days:366}")
+    private int maxRangeDays;
+    
+    @Autowired
+    public TaskAnalyticsService(TaskDailyRollupRepository rollupRepository, TaskRollupService rollupService) {
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+    }
+    
+    /**
+     * Analytics for the inclusive range [from, to]
+     *
+     * @throws IllegalArgumentException if the range is reversed or longer than {@code max-range-days}
+     */
+    @Transactional(readOnly = true)
+    public TaskAnalytics getAnalytics(User user, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int dayCount = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > maxRangeDays) {
+            throw new IllegalArgumentException("Date range must not exceed " + maxRangeDays + " days");
+        }
+        logger.debug("Building analytics for user {} from {} to {}", user.getUsername(), from, to);
+        
+        List<DailyActivity> days = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            days.add(new DailyActivity(from.plusDays(i), 0, 0));
+        }
+        LatencyHistogram latencies = new LatencyHistogram();
+        long latencyTotal = 0;
+        Map<TaskPriority, PriorityTotals> byPriority = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, new PriorityTotals());
+        }
+        
+        for (TaskDailyRollup rollup : rollupRepository.findByUserIdAndDateRange(user.getId(), from, to)) {
+            DailyActivity day = days.get((int) ChronoUnit.DAYS.between(from, rollup.getDate()));
+            day.setCreated(day.getCreated() + rollup.getCreatedCount());
+            day.setCompleted(day.getCompleted() + rollup.getCompletedCount());
+            
+            LatencyHistogram rowLatencies = rollup.getLatencies();
+            latencies.add(rowLatencies);
+            latencyTotal += rollup.getLatencySecondsTotal();
+            
+            PriorityTotals totals = byPriority.get(rollup.getPriority());
+            totals.created += rollup.getCreatedCount();
+            totals.completed += rollup.getCompletedCount();
+            totals.latencyTotal += rollup.getLatencySecondsTotal();
+            totals.latencies.add(rowLatencies);
+        }
+        
+        List<PriorityThroughput> priorities = new ArrayList<>(byPriority.size());
+        byPriority.forEach((priority, totals) -> priorities.add(new PriorityThroughput(priority, totals.created,
+                totals.completed, (double) totals.completed / dayCount, summarize(totals.latencies, totals.latencyTotal))));
+        
+        TaskAnalytics analytics = new TaskAnalytics();
+        analytics.setFrom(from);
+        analytics.setTo(to);
+        analytics.setRolledUpUntil(rollupService.getWatermark());
+        analytics.setDays(days);
+        analytics.setCompletionLatency(summarize(latencies, latencyTotal));
+        analytics.setPriorities(priorities);
+        return analytics;
+    }
+    
+    private static LatencySummary summarize(LatencyHistogram histogram, long totalSeconds) {
+        long count = histogram.getCount();
+        return new LatencySummary(count, count > 0 ? totalSeconds / count : 0,
+                histogram.getPercentile(50), histogram.getPercentile(90), histogram.getPercentile(99));
+    }
+    
+    private static final class PriorityTotals {
+        long created;
+        long completed;
+        long latencyTotal;
+        final LatencyHistogram latencies = new LatencyHistogram();
+    }
+}
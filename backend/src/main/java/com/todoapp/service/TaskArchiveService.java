@@ -0,0 +1,132 @@
+package com.todoapp.service;
+
+import com.todoapp.repository.TaskArchiveRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.sharding.ShardDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Background job that moves old completed tasks from the live task table into task_archive.
+ * Work is split into small batches, each in its own short transaction, with a pause between
+ * batches so the job never holds long locks or floods the WAL.
+ */
+@Service
+public class TaskArchiveService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveService.class);
+    
+    private final TaskRepository taskRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TaskChangeLog taskChangeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+    
+    @Value("${todoapp.archive.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.archive.retention:30d}")
+    private Duration retention;
+    
+    @Value("${todoapp.archive.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${todoapp.archive.batch-pause:200ms}")
+    private Duration batchPause;
+    
+    @Value("${todoapp.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+    
+    @Autowired
+    public TaskArchiveService(TaskRepository taskRepository,
+                              TaskArchiveRepository taskArchiveRepository,
+                              TaskChangeLog taskChangeLog,
+                              PlatformTransactionManager transactionManager,
+                              ShardDirectory shardDirectory) {
+        this.taskRepository = taskRepository;
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.taskChangeLog = taskChangeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardDirectory = shardDirectory;
+    }
+    
+    /**
+     * Archive completed tasks older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${todoapp.archive.interval:PT10M}", initialDelayString = "${todoapp.archive.initial-delay:PT1M}")
+    public void archiveCompletedTasks() {
+        if (!enabled) {
+            return;
+        }
+        
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        for (Integer shard : shardDirectory.getShardIds()) {
+            int total = ShardContext.callOn(shard, () -> archiveShard(cutoff));
+            if (total > 0) {
+                logger.info("Archived {} completed tasks older than {} on shard {}", total, cutoff, shard);
+            }
+        }
+    }
+    
+    private int archiveShard(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved = archiveBatch(cutoff);
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Move a single batch of archivable tasks in one short transaction
+     */
+    public int archiveBatch(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = taskRepository.findArchivableTaskIds(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            taskArchiveRepository.copyFromTasks(ids, LocalDateTime.now());
+            // Archived tasks leave the live list, so synced clients get a tombstone for them
+            List<Long> userIds = new ArrayList<>(taskRepository.findUserIdsByIdIn(ids));
+            Collections.sort(userIds);
+            for (Long userId : userIds) {
+                taskChangeLog.recordDeletions(userId, ids, taskChangeLog.next(userId));
+            }
+            taskRepository.deleteByIdIn(ids);
+            return ids.size();
+        });
+        logger.debug("Archived batch of {} tasks", moved);
+        return moved != null ? moved : 0;
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
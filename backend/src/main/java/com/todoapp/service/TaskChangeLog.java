@@ -0,0 +1,149 @@
+package com.todoapp.service;
+
+import com.todoapp.model.TaskSyncState;
+import com.todoapp.repository.TaskSyncStateRepository;
+import com.todoapp.repository.TaskTombstoneRepository;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.sharding.ShardDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Change sequences and tombstones behind delta sync ({@code GET /api/tasks/changes}).
+ * <p>
+ * Every write to a user's tasks reserves sequence numbers from the user's {@link TaskSyncState} row in the
+ * writing transaction and stamps them on the rows it touches ({@code task.change_seq}, or a
+ * {@code task_tombstone} per deleted task). The counter row stays locked until commit, so a user's changes
+ * commit in sequence order and a reader that sees counter value n can safely hand out n as its sync token.
+ * Tombstones are purged after {@code todoapp.sync.tombstone-retention}; clients holding an older token get a
+ * full snapshot instead of a delta.
+ */
+@Service
+public class TaskChangeLog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeLog.class);
+    
+    private static final int ID_CHUNK = 1000;
+    
+    private final TaskSyncStateRepository syncStateRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final ShardDirectory shardDirectory;
+    
+    @Value("${todoapp.sync.purge.enabled:true}")
+    private boolean purgeEnabled;
+    
+    @Value("${todoapp.sync.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+    
+    @Autowired
+    public TaskChangeLog(TaskSyncStateRepository syncStateRepository,
+                         TaskTombstoneRepository tombstoneRepository,
+                         PlatformTransactionManager transactionManager,
+                         ShardDirectory shardDirectory) {
+        this.syncStateRepository = syncStateRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardDirectory = shardDirectory;
+    }
+    
+    /**
+     * Reserve the next change sequence for a write to the user's tasks
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(Long userId) {
+        return reserve(userId, 1);
+    }
+    
+    /**
+     * Reserve {@code count} consecutive change sequences for the user, locking the user's counter until the
+     * current transaction ends
+     *
+     * @return the last of the reserved sequences
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(Long userId, int count) {
+        if (syncStateRepository.advance(userId, count) == 0) {
+            createState(userId);
+            syncStateRepository.advance(userId, count);
+        }
+        return syncStateRepository.findChangeSeq(userId);
+    }
+    
+    /**
+     * Record tombstones for those of the given tasks that belong to the user, before they are deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletions(Long userId, List<Long> taskIds, long changeSeq) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int start = 0; start < taskIds.size(); start += ID_CHUNK) {
+            tombstoneRepository.insertForTasks(taskIds.subList(start, Math.min(taskIds.size(), start + ID_CHUNK)), userId, changeSeq, now);
+        }
+    }
+    
+    /**
+     * The user's sync state as currently committed, empty if the user never wrote a task since sync existed
+     */
+    public Optional<TaskSyncState> getState(Long userId) {
+        return syncStateRepository.findByUserId(userId);
+    }
+    
+    /**
+     * Ids of the user's tasks deleted with a change sequence in (since, until]
+     */
+    public List<Long> getDeletedTaskIds(Long userId, long since, long until) {
+        return tombstoneRepository.findTaskIdsDeletedBetween(userId, since, until);
+    }
+    
+    /**
+     * Purge tombstones older than the retention period on every shard
+     */
+    @Scheduled(fixedDelayString = "${todoapp.sync.purge-interval:PT1H}", initialDelayString = "${todoapp.sync.purge-initial-delay:PT5M}")
+    public void purgeTombstones() {
+        if (!purgeEnabled) {
+            return;
+        }
+        
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+        for (Integer shard : shardDirectory.getShardIds()) {
+            Integer purged = ShardContext.callOn(shard, () -> transactionTemplate.execute(status -> {
+                syncStateRepository.markPurged(cutoff);
+                return tombstoneRepository.deleteOlderThan(cutoff);
+            }));
+            if (purged != null && purged > 0) {
+                logger.info("Purged {} task tombstones older than {} on shard {}", purged, cutoff, shard);
+            }
+        }
+    }
+    
+    /**
+     * Create the user's counter in its own transaction, so it is visible (and lockable) at once and a
+     * concurrent first write simply finds it
+     */
+    private void createState(Long userId) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> syncStateRepository.save(new TaskSyncState(userId)));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Sync state of user {} was created concurrently", userId);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.todoapp.service;
+
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.util.RankKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional group commit for task creation ({@code todoapp.group-commit.enabled}).
+ * <p>
+ * Concurrent creates are queued and a single writer thread inserts them as one JDBC batch in one
+ * transaction, so many requests share one commit (and one fsync) instead of paying for one each. The writer
+ * takes whatever is queued and waits at most {@code max-delay} for more, up to {@code max-batch-size}
+ * tasks; while a batch commits, new requests pile up for the next one. At low rates a create therefore
+ * waits at most {@code max-delay} longer than it would without batching. Every request still gets its own
+ * id or error: if a batch fails, its tasks are retried one by one through the regular create path.
+ * Tasks with tags or a parent always use the regular path.
+ * <p>
+ * A request waits at most {@code wait-timeout} for its batch. If the writer has not picked its task up by
+ * then, the request creates it directly; if the writer already has, the request gives up with a timeout
+ * rather than risk creating the task twice. Creates still queued at shutdown are rejected.
+ */
+@Service
+public class TaskCreateBatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskCreateBatcher.class);
+    
+    private static final String INSERT = "INSERT INTO task (title, description, completed, created_at, priority, due_date, user_id, change_seq, sort_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final TaskService taskService;
+    private final TaskChangeLog taskChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${todoapp.group-commit.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${todoapp.storage.engine:jpa}")
+    private String storageEngine;
+    
+    @Value("${todoapp.group-commit.max-delay:2ms}")
+    private Duration maxDelay;
+    
+    @Value("${todoapp.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+    
+    @Value("${todoapp.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${todoapp.group-commit.wait-timeout:5s}")
+    private Duration waitTimeout;
+    
+    private BlockingQueue<PendingCreate> queue;
+    private Thread writer;
+    private volatile boolean running;
+    
+    @Autowired
+    public TaskCreateBatcher(TaskService taskService,
+                             TaskChangeLog taskChangeLog,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             DataSource dataSource) {
+        this.taskService = taskService;
+        this.taskChangeLog = taskChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    @PostConstruct
+    public void start() {
+        if (!enabled || !"jpa".equals(storageEngine)) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::writeLoop, "task-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Group commit for task creation enabled (max delay {}, max batch {})", maxDelay, maxBatchSize);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            rejectQueued();
+        }
+    }
+    
+    /**
+     * Create a task for the user, through the next group commit when enabled, otherwise directly
+     *
+     * @throws IllegalArgumentException if the task is invalid
+     * @throws TimeoutException if the task was handed to the writer but not committed within {@code wait-timeout};
+     *                          it may still be created
+     * @throws RejectedExecutionException if the batcher shut down before writing the task; it was not created
+     */
+    public Task create(Task task, User user) throws TimeoutException {
+        if (writer == null || !running || (task.getTags() != null && !task.getTags().isEmpty()) || task.getParentId() != null
+                || task.getRecurrence() != null || task.getListId() != null) {
+            return taskService.createTaskForUser(task, user);
+        }
+        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be empty");
+        }
+        
+        PendingCreate pending = new PendingCreate(task, user, ShardContext.get());
+        if (!queue.offer(pending)) {
+            logger.debug("Group commit queue full, creating task directly");
+            return taskService.createTaskForUser(task, user);
+        }
+        try {
+            return pending.result.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (pending.claim()) {
+                logger.warn("Group commit did not pick up a create within {}, creating task directly", waitTimeout);
+                return taskService.createTaskForUser(task, user);
+            }
+            throw new TimeoutException("Group commit did not finish within " + waitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private void writeLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelay.toNanos();
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCreate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: write what was collected, then drain the rest
+                queue.drainTo(batch);
+            }
+            
+            // Requests that timed out before the batch was taken create their tasks themselves
+            batch.removeIf(pending -> !pending.claim());
+            if (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (RuntimeException | Error e) {
+                    logger.error("Group commit writer failed on a batch of {} tasks: {}", batch.size(), e.getMessage());
+                    for (PendingCreate pending : batch) {
+                        pending.result.completeExceptionally(e);
+                    }
+                }
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Fail creates left in the queue once the writer has stopped, so their requests do not wait out the timeout
+     */
+    private void rejectQueued() {
+        List<PendingCreate> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (PendingCreate pending : left) {
+            if (pending.claim()) {
+                pending.result.completeExceptionally(new RejectedExecutionException("Group commit is shutting down"));
+            }
+        }
+        if (!left.isEmpty()) {
+            logger.warn("Rejected {} queued task creates on shutdown", left.size());
+        }
+    }
+    
+    /**
+     * Write one collected batch, one transaction per shard
+     */
+    void write(List<PendingCreate> batch) {
+        Map<Integer, List<PendingCreate>> byShard = new HashMap<>();
+        for (PendingCreate pending : batch) {
+            byShard.computeIfAbsent(pending.shard, shard -> new ArrayList<>()).add(pending);
+        }
+        byShard.forEach((shard, creates) -> {
+            if (shard != null) {
+                ShardContext.runOn(shard, () -> writeShard(creates));
+            } else {
+                writeShard(creates);
+            }
+        });
+    }
+    
+    private void writeShard(List<PendingCreate> creates) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(creates));
+            for (PendingCreate pending : creates) {
+                pending.result.complete(pending.task);
+            }
+            logger.debug("Group-committed {} tasks", creates.size());
+        } catch (RuntimeException e) {
+            logger.warn("Group commit of {} tasks failed, retrying them one by one: {}", creates.size(), e.getMessage());
+            for (PendingCreate pending : creates) {
+                try {
+                    pending.task.setId(null);
+                    pending.result.complete(taskService.createTaskForUser(pending.task, pending.user));
+                } catch (RuntimeException single) {
+                    pending.result.completeExceptionally(single);
+                }
+            }
+        }
+    }
+    
+    private void insert(List<PendingCreate> creates) {
+        for (PendingCreate pending : creates) {
+            Task task = pending.task;
+            task.setCompleted(false);
+            task.setUser(pending.user);
+            task.prePersist();
+        }
+        
+        // One counter update per user in the batch, taken in user order so concurrent writers cannot deadlock;
+        // new tasks go to the end of the user's manual order, like single creates
+        Map<Long, List<Task>> byUser = new TreeMap<>();
+        for (PendingCreate pending : creates) {
+            byUser.computeIfAbsent(pending.user.getId(), userId -> new ArrayList<>()).add(pending.task);
+        }
+        byUser.forEach((userId, tasks) -> {
+            long seq = taskChangeLog.reserve(userId, tasks.size()) - tasks.size();
+            String sortKey = jdbcTemplate.queryForObject("SELECT MAX(sort_key) FROM task WHERE user_id = ?", String.class, userId);
+            for (Task task : tasks) {
+                task.setChangeSeq(++seq);
+                sortKey = RankKeys.between(sortKey, null);
+                task.setSortKey(sortKey);
+            }
+        });
+        
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = creates.get(i).task;
+                        ps.setString(1, task.getTitle());
+                        ps.setString(2, task.getDescription());
+                        ps.setBoolean(3, false);
+                        ps.setTimestamp(4, Timestamp.valueOf(task.getCreatedAt()));
+                        ps.setShort(5, task.getPriority().getRank());
+                        if (task.getDueDate() != null) {
+                            ps.setTimestamp(6, Timestamp.valueOf(task.getDueDate()));
+                        } else {
+                            ps.setNull(6, Types.TIMESTAMP);
+                        }
+                        ps.setLong(7, creates.get(i).user.getId());
+                        ps.setLong(8, task.getChangeSeq());
+                        ps.setString(9, task.getSortKey());
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return creates.size();
+                    }
+                }, keys);
+        
+        List<Map<String, Object>> ids = keys.getKeyList();
+        if (ids.size() != creates.size()) {
+            throw new IllegalStateException("Expected " + creates.size() + " generated ids but got " + ids.size());
+        }
+        for (int i = 0; i < creates.size(); i++) {
+            Task task = creates.get(i).task;
+            task.setId(((Number) ids.get(i).values().iterator().next()).longValue());
+            task.setTags(new ArrayList<>());
+            eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, task));
+        }
+    }
+    
+    static final class PendingCreate {
+        final Task task;
+        final User user;
+        final Integer shard;
+        final CompletableFuture<Task> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        
+        PendingCreate(Task task, User user, Integer shard) {
+            this.task = task;
+            this.user = user;
+            this.shard = shard;
+        }
+        
+        /**
+         * Take the create over, either for the writer or for a request that stopped waiting; only one can
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
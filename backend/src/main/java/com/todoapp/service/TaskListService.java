@@ -0,0 +1,280 @@
+package com.todoapp.service;
+
+import com.todoapp.cache.ListAccessCache;
+import com.todoapp.cache.TaskTagIndex;
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.event.UserChangedEvent;
+import com.todoapp.model.ListRole;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskList;
+import com.todoapp.model.TaskListMember;
+import com.todoapp.model.User;
+import com.todoapp.model.UserShard;
+import com.todoapp.repository.TaskListMemberRepository;
+import com.todoapp.repository.TaskListRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.sharding.ShardDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared task lists and the access checks for tasks in them. A task's owner always has full access without
+ * any lookup; anyone else's access to a task in a list comes from {@link ListAccessCache}, so sharing adds
+ * no query to requests once a member's decision is cached. Membership changes evict the member's cached
+ * decisions after commit through a UserChangedEvent.
+ * <p>
+ * Lists live on the owner's shard, so with sharding enabled a list can only be shared with users on the
+ * same shard, and users who share lists are not moved between shards.
+ */
+@Service
+@Transactional
+public class TaskListService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskListService.class);
+    
+    private final TaskListRepository taskListRepository;
+    private final TaskListMemberRepository taskListMemberRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final ListAccessCache listAccessCache;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskChangeLog taskChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardDirectory shardDirectory;
+    
+    @Autowired
+    public TaskListService(TaskListRepository taskListRepository,
+                           TaskListMemberRepository taskListMemberRepository,
+                           TaskRepository taskRepository,
+                           UserRepository userRepository,
+                           ListAccessCache listAccessCache,
+                           TaskTagIndex taskTagIndex,
+                           TaskChangeLog taskChangeLog,
+                           ApplicationEventPublisher eventPublisher,
+                           ShardDirectory shardDirectory) {
+        this.taskListRepository = taskListRepository;
+        this.taskListMemberRepository = taskListMemberRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.listAccessCache = listAccessCache;
+        this.taskTagIndex = taskTagIndex;
+        this.taskChangeLog = taskChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.shardDirectory = shardDirectory;
+    }
+    
+    /**
+     * The user's access to a list, from the cache
+     */
+    @Transactional(readOnly = true)
+    public ListAccessCache.Access getAccess(Long listId, User user) {
+        return listAccessCache.get(user.getId(), listId, () -> taskListRepository.findAccess(listId, user.getId())
+                .map(row -> new ListAccessCache.Access(row.getOwnerId(),
+                        user.getId().equals(row.getOwnerId()) ? ListRole.OWNER : row.getRole()))
+                .orElse(ListAccessCache.Access.NONE));
+    }
+    
+    /**
+     * Whether the user may see the task: they own it, or it is in a list shared with them
+     */
+    @Transactional(readOnly = true)
+    public boolean canRead(Task task, User user) {
+        return isOwner(task, user) || task.getListId() != null && getAccess(task.getListId(), user).canRead();
+    }
+    
+    /**
+     * Whether the user may change the task: they own it, or it is in a list they edit
+     */
+    @Transactional(readOnly = true)
+    public boolean canEdit(Task task, User user) {
+        return isOwner(task, user) || task.getListId() != null && getAccess(task.getListId(), user).canEdit();
+    }
+    
+    /**
+     * Owner of a new task added to a list by the user
+     *
+     * @throws IllegalArgumentException if the list does not exist or the user may not edit it
+     */
+    @Transactional(readOnly = true)
+    public User getOwnerForNewTask(Long listId, User user) {
+        ListAccessCache.Access access = getAccess(listId, user);
+        if (!access.canEdit()) {
+            throw new IllegalArgumentException("Task list with ID " + listId + " not found");
+        }
+        return access.getRole() == ListRole.OWNER ? user : userRepository.getReferenceById(access.getOwnerId());
+    }
+    
+    /**
+     * Lists the user owns, oldest first, then lists shared with them
+     */
+    @Transactional(readOnly = true)
+    public List<TaskList> getListsByUser(User user) {
+        logger.debug("Fetching task lists for user: {}", user.getUsername());
+        List<TaskList> lists = new ArrayList<>(taskListRepository.findByUserIdOrderByCreatedAtAsc(user.getId()));
+        for (TaskList list : lists) {
+            list.setRole(ListRole.OWNER);
+        }
+        
+        Map<Long, ListRole> shared = new HashMap<>();
+        for (TaskListMember membership : taskListMemberRepository.findByMemberId(user.getId())) {
+            shared.put(membership.getListId(), membership.getRole());
+        }
+        if (!shared.isEmpty()) {
+            List<TaskList> sharedLists = taskListRepository.findAllById(shared.keySet());
+            for (TaskList list : sharedLists) {
+                list.setRole(shared.get(list.getId()));
+            }
+            sharedLists.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+            lists.addAll(sharedLists);
+        }
+        return lists;
+    }
+    
+    public TaskList createList(String name, User user) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("List name cannot be empty");
+        }
+        TaskList list = taskListRepository.save(new TaskList(user.getId(), name.trim()));
+        list.setRole(ListRole.OWNER);
+        logger.info("Created task list {} for user: {}", list.getId(), user.getUsername());
+        return list;
+    }
+    
+    /**
+     * Delete a list the user owns. Its tasks stay with the owner as private tasks.
+     *
+     * @return false if the list does not exist or the user does not own it
+     */
+    public boolean deleteList(Long listId, User user) {
+        Optional<TaskList> list = taskListRepository.findById(listId);
+        if (list.isEmpty() || !list.get().getUserId().equals(user.getId())) {
+            return false;
+        }
+        
+        List<TaskListMember> members = taskListMemberRepository.findByListIdOrderByCreatedAtAsc(listId);
+        taskListMemberRepository.deleteByListId(listId);
+        int tasks = taskRepository.clearList(listId, taskChangeLog.next(user.getId()));
+        taskListRepository.delete(list.get());
+        
+        for (TaskListMember member : members) {
+            eventPublisher.publishEvent(new UserChangedEvent(member.getMemberId()));
+        }
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, null, user.getId(), null));
+        logger.info("Deleted task list {} ({} tasks kept) for user: {}", listId, tasks, user.getUsername());
+        return true;
+    }
+    
+    /**
+     * Tasks in a list the user can see, newest first
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Task>> getTasks(Long listId, User user) {
+        ListAccessCache.Access access = getAccess(listId, user);
+        if (!access.canRead()) {
+            return Optional.empty();
+        }
+        List<Task> tasks = taskRepository.findByListId(listId);
+        taskTagIndex.attachTags(access.getOwnerId(), tasks);
+        return Optional.of(tasks);
+    }
+    
+    /**
+     * Members of a list the user can see, with their usernames
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<TaskListMember>> getMembers(Long listId, User user) {
+        if (!getAccess(listId, user).canRead()) {
+            return Optional.empty();
+        }
+        List<TaskListMember> members = taskListMemberRepository.findByListIdOrderByCreatedAtAsc(listId);
+        Map<Long, String> usernames = new HashMap<>();
+        for (User member : userRepository.findAllById(members.stream().map(TaskListMember::getMemberId).toList())) {
+            usernames.put(member.getId(), member.getUsername());
+        }
+        for (TaskListMember member : members) {
+            member.setUsername(usernames.get(member.getMemberId()));
+        }
+        return Optional.of(members);
+    }
+    
+    /**
+     * Share a list the user owns with another user, or change that user's role
+     *
+     * @return empty if the list does not exist or the user does not own it
+     * @throws IllegalArgumentException if the member or the role is not valid
+     */
+    public Optional<TaskListMember> setMember(Long listId, String username, ListRole role, User user) {
+        Optional<TaskList> list = taskListRepository.findById(listId);
+        if (list.isEmpty() || !list.get().getUserId().equals(user.getId())) {
+            return Optional.empty();
+        }
+        if (role == null || role == ListRole.OWNER) {
+            throw new IllegalArgumentException("Role must be viewer or editor");
+        }
+        User member = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+        if (member.getId().equals(user.getId())) {
+            throw new IllegalArgumentException("The owner cannot be added as a member");
+        }
+        if (shardDirectory.isEnabled() && !shardOf(member.getId()).equals(shardOf(user.getId()))) {
+            throw new IllegalArgumentException("Lists can only be shared with users on the same shard");
+        }
+        if (shardDirectory.isEnabled() && isMoving(member.getId())) {
+            // The owner's own writes are already refused while the owner is being moved
+            throw new IllegalArgumentException("User " + username + " is being moved to another shard");
+        }
+        
+        TaskListMember membership = taskListMemberRepository.findByListIdAndMemberId(listId, member.getId())
+                .orElseGet(() -> new TaskListMember(user.getId(), listId, member.getId(), role));
+        membership.setRole(role);
+        TaskListMember saved = taskListMemberRepository.save(membership);
+        saved.setUsername(member.getUsername());
+        eventPublisher.publishEvent(new UserChangedEvent(member.getId()));
+        logger.info("Shared task list {} with {} as {} for user: {}", listId, username, role.getName(), user.getUsername());
+        return Optional.of(saved);
+    }
+    
+    /**
+     * Take a member off a list; the owner can remove anyone, members only themselves
+     *
+     * @return false if there is no such member the user may remove
+     */
+    public boolean removeMember(Long listId, String username, User user) {
+        Optional<User> member = userRepository.findByUsername(username);
+        if (member.isEmpty()) {
+            return false;
+        }
+        Optional<TaskListMember> membership = taskListMemberRepository.findByListIdAndMemberId(listId, member.get().getId());
+        if (membership.isEmpty()
+                || !(membership.get().getUserId().equals(user.getId()) || member.get().getId().equals(user.getId()))) {
+            return false;
+        }
+        taskListMemberRepository.delete(membership.get());
+        eventPublisher.publishEvent(new UserChangedEvent(member.get().getId()));
+        logger.info("Removed {} from task list {} for user: {}", username, listId, user.getUsername());
+        return true;
+    }
+    
+    private Integer shardOf(Long userId) {
+        return shardDirectory.findByUserId(userId).map(UserShard::getShardId).orElse(0);
+    }
+    
+    private boolean isMoving(Long userId) {
+        return shardDirectory.findByUserId(userId).map(entry -> entry.getMovingTo() != null).orElse(false);
+    }
+    
+    private static boolean isOwner(Task task, User user) {
+        return task.getUser() != null && task.getUser().getId().equals(user.getId());
+    }
+}
@@ -0,0 +1,140 @@
+package com.todoapp.service;
+
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.sharding.ShardDirectory;
+import com.todoapp.util.RankKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background job that gives a user's tasks fresh, evenly spaced rank keys once any of them has grown past
+ * {@link #MAX_KEY_LENGTH} characters, or has no key yet (rows written before manual ordering, or by the
+ * reactive stack). Each user is rebalanced in its own short transaction, holding the user's change counter
+ * (see TaskChangeLog) so no move interleaves, and every rewritten row gets the same change sequence so
+ * synced clients pick up the new keys.
+ */
+@Service
+public class TaskOrderRebalancer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskOrderRebalancer.class);
+    
+    /**
+     * Key length that triggers a rebalance; idx_task_sort_key_rebalance is a partial index on this condition
+     */
+    public static final int MAX_KEY_LENGTH = 24;
+    
+    private static final String UPDATE = "UPDATE task SET sort_key = ?, change_seq = ? WHERE id = ?";
+    private static final int UPDATE_BATCH = 500;
+    
+    private final TaskRepository taskRepository;
+    private final TaskChangeLog taskChangeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+    
+    @Value("${todoapp.ordering.rebalance.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.ordering.rebalance.max-users-per-run:100}")
+    private int maxUsersPerRun;
+    
+    @Value("${todoapp.ordering.rebalance.user-pause:100ms}")
+    private Duration userPause;
+    
+    @Autowired
+    public TaskOrderRebalancer(TaskRepository taskRepository,
+                               TaskChangeLog taskChangeLog,
+                               ApplicationEventPublisher eventPublisher,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               ShardDirectory shardDirectory) {
+        this.taskRepository = taskRepository;
+        this.taskChangeLog = taskChangeLog;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardDirectory = shardDirectory;
+    }
+    
+    /**
+     * Rebalance the users whose keys have grown too long or are missing
+     */
+    @Scheduled(fixedDelayString = "${todoapp.ordering.rebalance.interval:PT5M}", initialDelayString = "${todoapp.ordering.rebalance.initial-delay:PT2M}")
+    public void rebalanceLongKeys() {
+        if (!enabled) {
+            return;
+        }
+        
+        for (Integer shard : shardDirectory.getShardIds()) {
+            int users = ShardContext.callOn(shard, this::rebalanceShard);
+            if (users > 0) {
+                logger.info("Rebalanced task order of {} users on shard {}", users, shard);
+            }
+        }
+    }
+    
+    private int rebalanceShard() {
+        List<Long> userIds = taskRepository.findUserIdsNeedingRebalance(MAX_KEY_LENGTH, PageRequest.of(0, maxUsersPerRun));
+        int done = 0;
+        for (Long userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> rebalance(userId, taskChangeLog.next(userId)));
+            done++;
+            if (!pause()) {
+                break;
+            }
+        }
+        return done;
+    }
+    
+    /**
+     * Rewrite the keys of all the user's tasks in their current order. The caller must already hold the
+     * user's change counter, taken with {@code changeSeq}.
+     *
+     * @return number of tasks rekeyed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int rebalance(Long userId, long changeSeq) {
+        List<Long> ids = taskRepository.findIdsInManualOrder(userId);
+        List<String> keys = RankKeys.spread(ids.size());
+        for (int start = 0; start < ids.size(); start += UPDATE_BATCH) {
+            int end = Math.min(ids.size(), start + UPDATE_BATCH);
+            List<Object[]> rows = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                rows.add(new Object[]{keys.get(i), changeSeq, ids.get(i)});
+            }
+            jdbcTemplate.batchUpdate(UPDATE, rows);
+        }
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, null, userId, null));
+        logger.debug("Rebalanced {} rank keys for user {}", ids.size(), userId);
+        return ids.size();
+    }
+    
+    private boolean pause() {
+        try {
+            Thread.sleep(userPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
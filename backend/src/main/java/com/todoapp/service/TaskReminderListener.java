@@ -0,0 +1,21 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskReminder;
+
+/**
+ * In-process callback for due-date events raised by {@link TaskReminderService}.
+ * Implementations run on the scheduler thread and should hand off slow work.
+ */
+public interface TaskReminderListener {
+    
+    /**
+     * Called once when a task is within the configured reminder lead time of its due date
+     */
+    default void onTaskDueSoon(TaskReminder reminder) {
+    }
+    
+    /**
+     * Called once when an incomplete task passes its due date
+     */
+    void onTaskOverdue(TaskReminder reminder);
+}
@@ -0,0 +1,191 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskReminder;
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.Task;
+import com.todoapp.repository.TaskDueDate;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.sharding.ShardDirectory;
+import com.todoapp.util.HierarchicalTimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Raises due-soon and overdue events for incomplete tasks.
+ * <p>
+ * Only the next window of due dates is held in memory: a periodic loader pulls tasks due before
+ * {@code now + window} from the (completed, due_date) index into a hierarchical timing wheel, and
+ * task create/complete/delete events keep the wheel in sync in between loads. Each task uses two
+ * wheel keys, one for the reminder and one for the overdue notification. The first load also looks back
+ * {@code startup-lookback} for tasks that fell due while the service was down, and notifies those (and
+ * tasks already inside the lead time) on the next tick.
+ */
+@Service
+public class TaskReminderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskReminderService.class);
+    
+    private final TaskRepository taskRepository;
+    private final List<TaskReminderListener> listeners;
+    private final ShardDirectory shardDirectory;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private volatile HierarchicalTimingWheel<Notification> wheel;
+    private volatile LocalDateTime loadedUntil;
+    
+    @Value("${todoapp.reminders.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.reminders.window:PT30M}")
+    private Duration window;
+    
+    @Value("${todoapp.reminders.lead-time:PT15M}")
+    private Duration leadTime;
+    
+    @Value("${todoapp.reminders.tick:PT1S}")
+    private Duration tick;
+    
+    @Value("${todoapp.reminders.startup-lookback:PT24H}")
+    private Duration startupLookback;
+    
+    @Autowired
+    public TaskReminderService(TaskRepository taskRepository,
+                               List<TaskReminderListener> listeners,
+                               ShardDirectory shardDirectory) {
+        this.taskRepository = taskRepository;
+        this.listeners = listeners;
+        this.shardDirectory = shardDirectory;
+    }
+    
+    /**
+     * Load the next window of due dates into the wheel
+     */
+    @Scheduled(fixedDelayString = "${todoapp.reminders.load-interval:PT10M}")
+    public void loadNextWindow() {
+        if (!enabled) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        boolean firstLoad = wheel == null;
+        if (firstLoad) {
+            wheel = new HierarchicalTimingWheel<>(tick.toMillis(), 8, 4, toEpochMillis(now));
+            loadedUntil = now.minus(startupLookback);
+        }
+        
+        LocalDateTime from = loadedUntil;
+        LocalDateTime to = now.plus(window).plus(leadTime);
+        if (!to.isAfter(from)) {
+            return;
+        }
+        
+        int loaded = 0;
+        for (Integer shard : shardDirectory.getShardIds()) {
+            List<TaskDueDate> due = ShardContext.callOn(shard, () -> taskRepository.findIncompleteTasksDueBetween(from, to));
+            for (TaskDueDate task : due) {
+                schedule(task.getId(), task.getUserId(), task.getDueDate(), firstLoad);
+            }
+            loaded += due.size();
+        }
+        loadedUntil = to;
+        logger.debug("Loaded {} due dates in [{}, {}), {} notifications pending", loaded, from, to, wheel.size());
+    }
+    
+    /**
+     * Advance the wheel and deliver expired notifications
+     */
+    @Scheduled(fixedRateString = "${todoapp.reminders.tick:PT1S}")
+    public void tick() {
+        if (wheel == null) {
+            return;
+        }
+        wheel.advanceTo(System.currentTimeMillis(), this::deliver);
+    }
+    
+    /**
+     * Keep the wheel in sync with committed task changes (the embedded store publishes outside a transaction)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (wheel == null || event.getTaskId() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED, UPDATED -> {
+                Task task = event.getTask();
+                cancel(event.getTaskId());
+                if (task != null && task.getDueDate() != null && !Boolean.TRUE.equals(task.getCompleted())
+                        && task.getDueDate().isBefore(loadedUntil)) {
+                    schedule(task.getId(), event.getUserId(), task.getDueDate(), false);
+                }
+            }
+            case COMPLETED, DELETED -> cancel(event.getTaskId());
+        }
+    }
+    
+    /**
+     * Number of pending due-soon and overdue notifications
+     */
+    public int pendingNotifications() {
+        return wheel != null ? wheel.size() : 0;
+    }
+    
+    /**
+     * Schedule a task's notifications; past deadlines fire on the next tick
+     *
+     * @param catchUp also send the reminder of a task already inside the lead time, on the first load
+     */
+    private void schedule(Long taskId, Long userId, LocalDateTime dueDate, boolean catchUp) {
+        TaskReminder reminder = new TaskReminder(taskId, userId, dueDate);
+        long dueMillis = toEpochMillis(dueDate);
+        long now = System.currentTimeMillis();
+        if (!leadTime.isZero() && (dueMillis - leadTime.toMillis() > now || catchUp && dueMillis > now)) {
+            wheel.schedule(taskId << 1, dueMillis - leadTime.toMillis(), new Notification(reminder, false));
+        }
+        wheel.schedule((taskId << 1) | 1, dueMillis, new Notification(reminder, true));
+    }
+    
+    private void cancel(Long taskId) {
+        wheel.cancel(taskId << 1);
+        wheel.cancel((taskId << 1) | 1);
+    }
+    
+    private void deliver(Notification notification) {
+        for (TaskReminderListener listener : listeners) {
+            try {
+                if (notification.overdue) {
+                    listener.onTaskOverdue(notification.reminder);
+                } else {
+                    listener.onTaskDueSoon(notification.reminder);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Reminder listener {} failed for task {}: {}",
+                        listener.getClass().getSimpleName(), notification.reminder.getTaskId(), e.getMessage());
+            }
+        }
+    }
+    
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+    
+    private static final class Notification {
+        final TaskReminder reminder;
+        final boolean overdue;
+        
+        Notification(TaskReminder reminder, boolean overdue) {
+            this.reminder = reminder;
+            this.overdue = overdue;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.todoapp.service;
+
+import com.todoapp.model.RollupWatermark;
+import com.todoapp.model.TaskDailyRollup;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.repository.RollupWatermarkRepository;
+import com.todoapp.repository.TaskDailyRollupRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskTimeline;
+import com.todoapp.sharding.ShardContext;
+import com.todoapp.sharding.ShardDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Background job that folds task creations and completions into task_daily_rollup rows.
+ * <p>
+ * Each shard keeps a watermark; a run walks forward from it in windows, reading only the tasks created or
+ * completed inside the window through the created_at and (completed, completed_at) indexes, and commits the
+ * updated rollup rows together with the advanced watermark, so every event is counted exactly once even
+ * across restarts. Windows stop {@code settle-delay} short of now so that transactions still in flight
+ * have committed before their rows are read. Rollups record history: deleting or archiving a task later
+ * does not take its creation or completion back out.
+ */
+@Service
+public class TaskRollupService {
+    
+    static final String WATERMARK = "task_daily_rollup";
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskRollupService.class);
+    private static final Duration MIN_WINDOW = Duration.ofSeconds(1);
+    private static final int USER_ID_CHUNK = 500;
+    
+    private final TaskRepository taskRepository;
+    private final TaskDailyRollupRepository rollupRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+    
+    @Value("${todoapp.analytics.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${todoapp.analytics.settle-delay:PT1M}")
+    private Duration settleDelay;
+    
+    @Value("${todoapp.analytics.window:PT6H}")
+    private Duration window;
+    
+    @Value("${todoapp.analytics.max-rows-per-window:50000}")
+    private long maxRowsPerWindow;
+    
+    @Value("${todoapp.analytics.max-windows-per-run:200}")
+    private int maxWindowsPerRun;
+    
+    @Autowired
+    public TaskRollupService(TaskRepository taskRepository,
+                             TaskDailyRollupRepository rollupRepository,
+                             RollupWatermarkRepository watermarkRepository,
+                             PlatformTransactionManager transactionManager,
+                             ShardDirectory shardDirectory) {
+        this.taskRepository = taskRepository;
+        this.rollupRepository = rollupRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardDirectory = shardDirectory;
+    }
+    
+    /**
+     * Bring the rollups of every shard up to {@code now - settle-delay}
+     */
+    @Scheduled(fixedDelayString = "${todoapp.analytics.interval:PT1M}", initialDelayString = "${todoapp.analytics.initial-delay:PT30S}")
+    public void rollUp() {
+        if (!enabled) {
+            return;
+        }
+        
+        LocalDateTime upTo = LocalDateTime.now().minus(settleDelay);
+        for (Integer shard : shardDirectory.getShardIds()) {
+            int windows = ShardContext.callOn(shard, () -> rollUpShard(upTo));
+            logger.debug("Rolled up {} analytics windows on shard {}", windows, shard);
+        }
+    }
+    
+    /**
+     * Processed-until time of the current shard's rollups, or null before the first run
+     */
+    public LocalDateTime getWatermark() {
+        return watermarkRepository.findById(WATERMARK).map(RollupWatermark::getProcessedUntil).orElse(null);
+    }
+    
+    private int rollUpShard(LocalDateTime upTo) {
+        int windows = 0;
+        while (windows < maxWindowsPerRun) {
+            Boolean more = transactionTemplate.execute(status -> rollUpWindow(upTo));
+            windows++;
+            if (!Boolean.TRUE.equals(more)) {
+                break;
+            }
+        }
+        return windows;
+    }
+    
+    /**
+     * Fold the next window after the watermark in one transaction
+     *
+     * @return whether there is more to do before {@code upTo}
+     */
+    boolean rollUpWindow(LocalDateTime upTo) {
+        RollupWatermark watermark = watermarkRepository.findForUpdate(WATERMARK).orElse(null);
+        if (watermark == null) {
+            // First run on this shard: start just before the oldest live task
+            LocalDateTime earliest = taskRepository.findEarliestCreatedAt();
+            LocalDateTime start = earliest != null && earliest.isBefore(upTo) ? earliest.minusNanos(1_000) : upTo;
+            watermark = watermarkRepository.save(new RollupWatermark(WATERMARK, start));
+        }
+        
+        LocalDateTime from = watermark.getProcessedUntil();
+        if (!from.isBefore(upTo)) {
+            return false;
+        }
+        LocalDateTime to = windowEnd(from, upTo);
+        
+        List<TaskTimeline> created = taskRepository.findCreatedBetween(from, to);
+        List<TaskTimeline> completed = taskRepository.findCompletedBetween(from, to);
+        if (!created.isEmpty() || !completed.isEmpty()) {
+            Map<RollupKey, TaskDailyRollup> rollups = loadRollups(created, completed, from.toLocalDate(), to.toLocalDate());
+            for (TaskTimeline task : created) {
+                if (task.getUserId() != null) {
+                    rollup(rollups, task.getUserId(), task.getCreatedAt(), task.getPriority()).recordCreated();
+                }
+            }
+            for (TaskTimeline task : completed) {
+                if (task.getUserId() != null) {
+                    long latency = task.getCreatedAt() != null
+                            ? Duration.between(task.getCreatedAt(), task.getCompletedAt()).getSeconds() : 0;
+                    rollup(rollups, task.getUserId(), task.getCompletedAt(), task.getPriority()).recordCompleted(latency);
+                }
+            }
+            rollupRepository.saveAll(rollups.values());
+            logger.debug("Rolled up {} creations and {} completions in ({}, {}]", created.size(), completed.size(), from, to);
+        }
+        
+        watermark.setProcessedUntil(to);
+        return to.isBefore(upTo);
+    }
+    
+    /**
+     * End of the window starting at {@code from}: at most {@code window} long, halved until it holds
+     * no more than {@code max-rows-per-window} rows so one transaction never loads an unbounded backlog
+     */
+    private LocalDateTime windowEnd(LocalDateTime from, LocalDateTime upTo) {
+        Duration length = window;
+        while (true) {
+            LocalDateTime to = from.plus(length);
+            if (!to.isBefore(upTo)) {
+                to = upTo;
+                length = Duration.between(from, to);
+            }
+            if (length.compareTo(MIN_WINDOW) <= 0 || taskRepository.countActivityBetween(from, to) <= maxRowsPerWindow) {
+                return to;
+            }
+            length = length.dividedBy(2);
+        }
+    }
+    
+    private Map<RollupKey, TaskDailyRollup> loadRollups(List<TaskTimeline> created, List<TaskTimeline> completed,
+                                                        LocalDate from, LocalDate to) {
+        Set<Long> userIds = new HashSet<>();
+        for (TaskTimeline task : created) {
+            userIds.add(task.getUserId());
+        }
+        for (TaskTimeline task : completed) {
+            userIds.add(task.getUserId());
+        }
+        userIds.remove(null);
+        
+        Map<RollupKey, TaskDailyRollup> rollups = new HashMap<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int i = 0; i < ids.size(); i += USER_ID_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + USER_ID_CHUNK));
+            for (TaskDailyRollup rollup : rollupRepository.findForUpdate(chunk, from, to)) {
+                rollups.put(new RollupKey(rollup.getUserId(), rollup.getDate(), rollup.getPriority()), rollup);
+            }
+        }
+        return rollups;
+    }
+    
+    /**
+     * Rollup row for the user, day and priority, created on first use
+     */
+    private static TaskDailyRollup rollup(Map<RollupKey, TaskDailyRollup> rollups, Long userId,
+                                          LocalDateTime time, TaskPriority priority) {
+        TaskPriority effective = priority != null ? priority : TaskPriority.MEDIUM;
+        return rollups.computeIfAbsent(new RollupKey(userId, time.toLocalDate(), effective),
+                key -> new TaskDailyRollup(key.userId, key.date, key.priority));
+    }
+    
+    private static final class RollupKey {
+        final Long userId;
+        final LocalDate date;
+        final TaskPriority priority;
+        
+        RollupKey(Long userId, LocalDate date, TaskPriority priority) {
+            this.userId = userId;
+            this.date = date;
+            this.priority = priority;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return userId.equals(other.userId) && date.equals(other.date) && priority == other.priority;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, date, priority);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.todoapp.service;
 
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskFields;
+import com.todoapp.dto.TaskOccurrenceUpdate;
+import com.todoapp.dto.TaskStats;
 import com.todoapp.model.Task;
 import com.todoapp.model.User;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TaskService {
@@ -77,8 +84,100 @@ public interface TaskService {
      */
     List<Task> getRecentCompletedTasksByUser(User user);
     
+    /**
+     * Get the top incomplete tasks for a specific user ordered by priority, due date and creation time
+     */
+    List<Task> getAgendaByUser(User user, int limit);
+    
+    /**
+     * Get the agenda with the occurrences of the user's recurring tasks due in [from, to) blended in.
+     * Occurrences that have not been completed or edited are expanded from the rule and carry no ID.
+     */
+    List<Task> getAgendaByUser(User user, int limit, LocalDateTime from, LocalDateTime to);
+    
+    /**
+     * Complete one occurrence of a recurring task (with user validation), storing it as a task of its own
+     *
+     * @throws IllegalArgumentException if the series has no occurrence at {@code occurrenceAt}
+     */
+    Optional<Task> completeOccurrence(Long seriesId, LocalDateTime occurrenceAt, User user);
+    
+    /**
+     * Edit one occurrence of a recurring task (with user validation), storing it as a task of its own
+     *
+     * @throws IllegalArgumentException if the series has no occurrence at {@code occurrenceAt}
+     */
+    Optional<Task> updateOccurrence(Long seriesId, LocalDateTime occurrenceAt, TaskOccurrenceUpdate changes, User user);
+    
+    /**
+     * Get completed tasks for a specific user across live and archived data, most recent first
+     */
+    List<Task> getCompletedTaskHistoryByUser(User user, int limit);
+    
     /**
      * Get all tasks for a specific user
      */
     List<Task> getAllTasksByUser(User user);
-}
\ No newline at end of file
+    
+    /**
+     * Get all tasks for a specific user in the user's manual order
+     */
+    List<Task> getAllTasksByUserInManualOrder(User user);
+    
+    /**
+     * Get all tasks for a specific user, newest first or in manual order, reading only the fieldset's columns
+     */
+    List<Task> getAllTasksByUser(User user, TaskFields fields, boolean manualOrder);
+    
+    /**
+     * Move a task right after another of the user's tasks, or to the top when {@code afterId} is null
+     * (with user validation). Only the moved task is rewritten.
+     *
+     * @throws IllegalArgumentException if {@code afterId} is not one of the user's other tasks
+     */
+    Optional<Task> moveTask(Long id, Long afterId, User user);
+    
+    /**
+     * Get task counts (total, completed, pending, high priority) for a specific user
+     */
+    TaskStats getTaskStatsByUser(User user);
+    
+    /**
+     * Replace a task's tags (with user validation); names are trimmed and lower-cased
+     */
+    Task setTaskTags(Long id, User user, Collection<String> tags);
+    
+    /**
+     * Get a user's tasks carrying all ({@code matchAll}) or any of the given tags, newest first
+     */
+    List<Task> getTasksByTags(User user, Collection<String> tags, boolean matchAll);
+    
+    /**
+     * Get the number of tasks per tag for a specific user
+     */
+    Map<String, Long> getTagCountsByUser(User user);
+    
+    /**
+     * Get a task with all of its subtasks nested under it and completion counts rolled up (with user validation)
+     */
+    Optional<Task> getTaskTree(Long id, User user);
+    
+    /**
+     * Complete a task and every incomplete subtask below it (with user validation), returning the updated tree
+     */
+    Optional<Task> completeTaskTree(Long id, User user);
+    
+    /**
+     * Get the user's task changes since a sync token (0 for none): a delta with tombstones, or a full
+     * snapshot when the token is unknown or older than the retained tombstones
+     */
+    TaskChanges getChangesSince(User user, long since);
+    
+    /**
+     * Remove every task of a user whose account is being deleted, from wherever this engine keeps tasks
+     * outside the per-user SQL tables the account deletion job clears itself
+     *
+     * @return number of tasks removed
+     */
+    int deleteTasksOfUser(Long userId);
+}
@@ -1,31 +1,105 @@
 package com.todoapp.service;
 
+import com.todoapp.cache.RecentTasksCache;
+import com.todoapp.cache.TaskTagIndex;
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.dto.TaskFields;
+import com.todoapp.dto.TaskOccurrenceUpdate;
+import com.todoapp.dto.TaskStats;
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.RecurrenceRule;
+import com.todoapp.model.Tag;
 import com.todoapp.model.Task;
+import com.todoapp.model.TaskTag;
 import com.todoapp.model.User;
+import com.todoapp.model.TaskArchive;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.TaskSyncState;
+import com.todoapp.repository.TagRepository;
+import com.todoapp.repository.TaskArchiveRepository;
 import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskStatusCount;
+import com.todoapp.repository.TaskTagRepository;
+import com.todoapp.util.LongBitmap;
+import com.todoapp.util.RankKeys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
+@ConditionalOnProperty(name = "todoapp.storage.engine", havingValue = "jpa", matchIfMissing = true)
 public class TaskServiceImpl implements TaskService {
     
     private static final Logger logger = LoggerFactory.getLogger(TaskServiceImpl.class);
     
+    private static final int MAX_TAGS_PER_TASK = 20;
+    private static final int ID_CHUNK = 1000;
+    
+    /**
+     * Far past the background rebalance threshold; keys stay well within the 255-character column
+     */
+    private static final int INLINE_REBALANCE_KEY_LENGTH = 4 * TaskOrderRebalancer.MAX_KEY_LENGTH;
+    
+    /**
+     * Agenda order, as in findAgendaByUser, for merging expanded occurrences into the stored tasks
+     */
+    private static final Comparator<Task> AGENDA_ORDER = Comparator.comparing(Task::getPriority)
+            .thenComparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+    
     private final TaskRepository taskRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecentTasksCache recentTasksCache;
+    private final TagRepository tagRepository;
+    private final TaskTagRepository taskTagRepository;
+    private final TaskTagIndex taskTagIndex;
+    private final TaskChangeLog taskChangeLog;
+    private final TaskOrderRebalancer taskOrderRebalancer;
+    private final TaskListService taskListService;
     
     @Autowired
-    public TaskServiceImpl(TaskRepository taskRepository) {
+    public TaskServiceImpl(TaskRepository taskRepository,
+                           TaskArchiveRepository taskArchiveRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           RecentTasksCache recentTasksCache,
+                           TagRepository tagRepository,
+                           TaskTagRepository taskTagRepository,
+                           TaskTagIndex taskTagIndex,
+                           TaskChangeLog taskChangeLog,
+                           TaskOrderRebalancer taskOrderRebalancer,
+                           TaskListService taskListService) {
         this.taskRepository = taskRepository;
+        this.taskArchiveRepository = taskArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.recentTasksCache = recentTasksCache;
+        this.tagRepository = tagRepository;
+        this.taskTagRepository = taskTagRepository;
+        this.taskTagIndex = taskTagIndex;
+        this.taskChangeLog = taskChangeLog;
+        this.taskOrderRebalancer = taskOrderRebalancer;
+        this.taskListService = taskListService;
     }
     
     @Override
@@ -40,8 +114,8 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public List<Task> getRecentTasksByUser(User user) {
         logger.debug("Fetching the most recent 5 incomplete tasks for user: {}", user.getUsername());
-        Pageable pageable = PageRequest.of(0, 5);
-        return taskRepository.findTop5IncompleteTasksByUser(user, pageable);
+        Pageable pageable = PageRequest.of(0, RecentTasksCache.K);
+        return withTags(user, recentTasksCache.getIncomplete(user, () -> taskRepository.findTop5IncompleteTasksByUser(user, pageable)));
     }
     
     @Override
@@ -52,8 +126,17 @@ public class TaskServiceImpl implements TaskService {
             throw new IllegalArgumentException("Task title cannot be empty");
         }
         
+        if (task.getParentId() != null && !taskRepository.existsById(task.getParentId())) {
+            throw new IllegalArgumentException("Parent task with ID " + task.getParentId() + " not found");
+        }
+        
+        normalizeRecurrence(task);
         task.setCompleted(false);
+        if (task.getUser() != null) {
+            stampNew(task, task.getUser().getId());
+        }
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, savedTask));
         logger.info("Created new task with ID: {}", savedTask.getId());
         return savedTask;
     }
@@ -66,9 +149,27 @@ public class TaskServiceImpl implements TaskService {
             throw new IllegalArgumentException("Task title cannot be empty");
         }
         
+        // Tasks in a shared list belong to the list's owner, whoever adds them; subtasks join their parent's list
+        User owner = user;
+        if (task.getParentId() != null) {
+            Optional<Task> parent = taskRepository.findById(task.getParentId());
+            if (parent.isEmpty() || !taskListService.canEdit(parent.get(), user)) {
+                throw new IllegalArgumentException("Parent task with ID " + task.getParentId() + " not found");
+            }
+            owner = parent.get().getUser();
+            task.setListId(parent.get().getListId());
+        } else if (task.getListId() != null) {
+            owner = taskListService.getOwnerForNewTask(task.getListId(), user);
+        }
+        
+        normalizeRecurrence(task);
+        List<String> tags = task.getTags();
         task.setCompleted(false);
-        task.setUser(user);
+        task.setUser(owner);
+        stampNew(task, owner.getId());
         Task savedTask = taskRepository.save(task);
+        applyTags(savedTask, owner, tags != null ? tags : List.of(), false);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, savedTask));
         logger.info("Created new task with ID: {} for user: {}", savedTask.getId(), user.getUsername());
         return savedTask;
     }
@@ -85,7 +186,11 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskOpt.get();
         task.setCompleted(true);
         task.setCompletedAt(LocalDateTime.now());
+        if (task.getUser() != null) {
+            task.setChangeSeq(taskChangeLog.next(task.getUser().getId()));
+        }
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, updatedTask));
         logger.info("Task {} marked as completed", id);
         return updatedTask;
     }
@@ -100,13 +205,15 @@ public class TaskServiceImpl implements TaskService {
         }
         
         Task task = taskOpt.get();
-        if (!task.getUser().getId().equals(user.getId())) {
+        if (!taskListService.canEdit(task, user)) {
             throw new IllegalArgumentException("Task does not belong to user: " + user.getUsername());
         }
         
         task.setCompleted(true);
         task.setCompletedAt(LocalDateTime.now());
+        task.setChangeSeq(taskChangeLog.next(task.getUser().getId()));
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, updatedTask));
         logger.info("Task {} marked as completed for user: {}", id, user.getUsername());
         return updatedTask;
     }
@@ -115,11 +222,15 @@ public class TaskServiceImpl implements TaskService {
     public void deleteTask(Long id) {
         logger.debug("Deleting task {}", id);
         
-        if (!taskRepository.existsById(id)) {
+        Optional<Task> taskOpt = taskRepository.findById(id);
+        if (taskOpt.isEmpty()) {
             throw new IllegalArgumentException("Task with ID " + id + " not found");
         }
         
+        Task task = taskOpt.get();
+        deleteSubtasks(id, task.getUser() != null ? task.getUser().getId() : null);
         taskRepository.deleteById(id);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, task));
         logger.info("Task {} deleted", id);
     }
     
@@ -133,11 +244,13 @@ public class TaskServiceImpl implements TaskService {
         }
         
         Task task = taskOpt.get();
-        if (!task.getUser().getId().equals(user.getId())) {
+        if (!taskListService.canEdit(task, user)) {
             throw new IllegalArgumentException("Task does not belong to user: " + user.getUsername());
         }
         
+        deleteSubtasks(id, task.getUser().getId());
         taskRepository.deleteById(id);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, task));
         logger.info("Task {} deleted for user: {}", id, user.getUsername());
     }
     
@@ -153,7 +266,8 @@ public class TaskServiceImpl implements TaskService {
     public Optional<Task> getTaskById(Long id, User user) {
         logger.debug("Fetching task by ID: {} for user: {}", id, user.getUsername());
         Optional<Task> taskOpt = taskRepository.findById(id);
-        if (taskOpt.isPresent() && taskOpt.get().getUser().getId().equals(user.getId())) {
+        if (taskOpt.isPresent() && taskListService.canRead(taskOpt.get(), user)) {
+            withTags(taskOpt.get().getUser(), List.of(taskOpt.get()));
             return taskOpt;
         }
         return Optional.empty();
@@ -185,14 +299,533 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public List<Task> getRecentCompletedTasksByUser(User user) {
         logger.debug("Fetching the most recent 5 completed tasks for user: {}", user.getUsername());
-        Pageable pageable = PageRequest.of(0, 5);
-        return taskRepository.findTop5CompletedTasksByUser(user, pageable);
+        Pageable pageable = PageRequest.of(0, RecentTasksCache.K);
+        return withTags(user, recentTasksCache.getCompleted(user, () -> taskRepository.findTop5CompletedTasksByUser(user, pageable)));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getAgendaByUser(User user, int limit) {
+        logger.debug("Fetching agenda (limit {}) for user: {}", limit, user.getUsername());
+        return withTags(user, taskRepository.findAgendaByUser(user, PageRequest.of(0, limit)));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getAgendaByUser(User user, int limit, LocalDateTime from, LocalDateTime to) {
+        List<Task> agenda = getAgendaByUser(user, limit);
+        List<Task> occurrences = expandOccurrences(user, from, to, limit);
+        if (occurrences.isEmpty()) {
+            return agenda;
+        }
+        
+        // Both lists hold at least the first `limit` entries of their own kind, so the merged head is exact
+        List<Task> merged = new ArrayList<>(agenda.size() + occurrences.size());
+        merged.addAll(agenda);
+        merged.addAll(occurrences);
+        merged.sort(AGENDA_ORDER);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+    
+    @Override
+    public Optional<Task> completeOccurrence(Long seriesId, LocalDateTime occurrenceAt, User user) {
+        logger.debug("Completing occurrence {} of task {} for user: {}", occurrenceAt, seriesId, user.getUsername());
+        return storeOccurrence(seriesId, occurrenceAt, user, occurrence -> {
+            occurrence.setCompleted(true);
+            occurrence.setCompletedAt(LocalDateTime.now());
+        });
+    }
+    
+    @Override
+    public Optional<Task> updateOccurrence(Long seriesId, LocalDateTime occurrenceAt, TaskOccurrenceUpdate changes, User user) {
+        logger.debug("Editing occurrence {} of task {} for user: {}", occurrenceAt, seriesId, user.getUsername());
+        if (changes.getTitle() != null && changes.getTitle().trim().isEmpty()) {
+            throw new IllegalArgumentException("Task title cannot be empty");
+        }
+        return storeOccurrence(seriesId, occurrenceAt, user, occurrence -> {
+            if (changes.getTitle() != null) {
+                occurrence.setTitle(changes.getTitle());
+            }
+            if (changes.getDescription() != null) {
+                occurrence.setDescription(changes.getDescription());
+            }
+            if (changes.getPriority() != null) {
+                occurrence.setPriority(changes.getPriority());
+            }
+            if (changes.getDueDate() != null) {
+                occurrence.setDueDate(changes.getDueDate());
+            }
+        });
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getCompletedTaskHistoryByUser(User user, int limit) {
+        logger.debug("Fetching completed task history (limit {}) for user: {}", limit, user.getUsername());
+        Pageable pageable = PageRequest.of(0, limit);
+        
+        List<Task> history = new ArrayList<>(taskRepository.findCompletedTasksByUser(user, pageable));
+        for (TaskArchive archived : taskArchiveRepository.findCompletedByUserId(user.getId(), pageable)) {
+            history.add(archived.toTask());
+        }
+        
+        // Archived tasks lost their task_tag rows with the live row and come back without tags
+        history.sort(Comparator.comparing(Task::getCompletedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return withTags(user, history.size() > limit ? new ArrayList<>(history.subList(0, limit)) : history);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<Task> getAllTasksByUser(User user) {
         logger.debug("Fetching all tasks for user: {}", user.getUsername());
-        return taskRepository.findAllTasksByUser(user);
+        return withTags(user, taskRepository.findAllTasksByUser(user));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasksByUser(User user, TaskFields fields, boolean manualOrder) {
+        logger.debug("Fetching all tasks with fields {} for user: {}", fields, user.getUsername());
+        List<Task> tasks = taskRepository.findAllTasksByUser(user, fields, manualOrder);
+        return fields.includes("tags") ? withTags(user, tasks) : tasks;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getAllTasksByUserInManualOrder(User user) {
+        logger.debug("Fetching all tasks in manual order for user: {}", user.getUsername());
+        return withTags(user, taskRepository.findAllTasksByUserInManualOrder(user));
+    }
+    
+    @Override
+    public Optional<Task> moveTask(Long id, Long afterId, User user) {
+        logger.debug("Moving task {} after {} for user: {}", id, afterId, user.getUsername());
+        
+        Optional<Task> taskOpt = taskRepository.findById(id);
+        if (taskOpt.isEmpty() || !taskListService.canEdit(taskOpt.get(), user)) {
+            return Optional.empty();
+        }
+        if (id.equals(afterId)) {
+            throw new IllegalArgumentException("Task cannot be moved after itself");
+        }
+        
+        // A list member moves the task within its owner's order, which is where its key lives
+        Task task = taskOpt.get();
+        Long ownerId = task.getUser().getId();
+        
+        // Taken before reading any neighbour key, so concurrent moves of the owner's tasks cannot pick the same gap
+        long changeSeq = taskChangeLog.next(ownerId);
+        String lower = afterId != null ? getSortKey(afterId, ownerId, user) : null;
+        if (afterId != null && lower == null) {
+            // Rows from before manual ordering have no key yet: key them now rather than wait for the job
+            taskOrderRebalancer.rebalance(ownerId, changeSeq);
+            lower = taskRepository.findSortKeyById(afterId);
+        }
+        String key = sortKeyAfter(ownerId, id, lower);
+        if (key.length() > INLINE_REBALANCE_KEY_LENGTH) {
+            // Moves into one gap faster than the background job runs: rebalance now before keys outgrow the column
+            taskOrderRebalancer.rebalance(ownerId, changeSeq);
+            lower = afterId != null ? taskRepository.findSortKeyById(afterId) : null;
+            key = sortKeyAfter(ownerId, id, lower);
+        }
+        
+        task.setSortKey(key);
+        task.setChangeSeq(changeSeq);
+        Task movedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.UPDATED, movedTask));
+        logger.info("Task {} moved after {} for user: {}", id, afterId, user.getUsername());
+        return Optional.of(movedTask);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStats getTaskStatsByUser(User user) {
+        logger.debug("Counting tasks for user: {}", user.getUsername());
+        TaskStats stats = new TaskStats();
+        for (TaskStatusCount count : taskRepository.countByStatusAndPriority(user)) {
+            stats.add(Boolean.TRUE.equals(count.getCompleted()), count.getPriority() == TaskPriority.HIGH, count.getTotal());
+        }
+        return stats;
+    }
+    
+    @Override
+    public Task setTaskTags(Long id, User user, Collection<String> tags) {
+        logger.debug("Setting tags {} on task {} for user: {}", tags, id, user.getUsername());
+        
+        Optional<Task> taskOpt = taskRepository.findById(id);
+        if (taskOpt.isEmpty() || !taskListService.canEdit(taskOpt.get(), user)) {
+            throw new IllegalArgumentException("Task with ID " + id + " not found");
+        }
+        
+        Task task = taskOpt.get();
+        task.setChangeSeq(taskChangeLog.next(task.getUser().getId()));
+        applyTags(task, task.getUser(), tags, true);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.UPDATED, task));
+        logger.info("Task {} tagged {} for user: {}", id, task.getTags(), user.getUsername());
+        return task;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> getTasksByTags(User user, Collection<String> tags, boolean matchAll) {
+        logger.debug("Fetching tasks tagged {} ({}) for user: {}", tags, matchAll ? "all" : "any", user.getUsername());
+        LongBitmap ids = taskTagIndex.find(user.getId(), normalizeTags(tags), matchAll);
+        
+        List<Task> tasks = new ArrayList<>((int) ids.cardinality());
+        long[] all = ids.toArray();
+        for (int start = 0; start < all.length; start += ID_CHUNK) {
+            List<Long> chunk = new ArrayList<>(Math.min(ID_CHUNK, all.length - start));
+            for (int i = start; i < Math.min(all.length, start + ID_CHUNK); i++) {
+                chunk.add(all[i]);
+            }
+            for (Task task : taskRepository.findAllById(chunk)) {
+                if (task.getUser() != null && user.getId().equals(task.getUser().getId())) {
+                    tasks.add(task);
+                }
+            }
+        }
+        tasks.sort(Comparator.comparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return withTags(user, tasks);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> getTagCountsByUser(User user) {
+        logger.debug("Counting tags for user: {}", user.getUsername());
+        return taskTagIndex.countByTag(user.getId());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Task> getTaskTree(Long id, User user) {
+        logger.debug("Fetching task tree {} for user: {}", id, user.getUsername());
+        List<Task> subtree = taskRepository.findSubtree(id, user.getId());
+        if (subtree.isEmpty()) {
+            Optional<User> owner = sharedOwner(id, user, false);
+            if (owner.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(buildTree(id, withTags(owner.get(), taskRepository.findSubtree(id, owner.get().getId()))));
+        }
+        return Optional.ofNullable(buildTree(id, withTags(user, subtree)));
+    }
+    
+    @Override
+    public Optional<Task> completeTaskTree(Long id, User user) {
+        logger.debug("Completing task tree {} for user: {}", id, user.getUsername());
+        
+        // Truncated to the column precision so the rows this call completed can be recognized below
+        LocalDateTime completedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int completed = taskRepository.completeSubtree(id, user.getId(), completedAt, taskChangeLog.next(user.getId()));
+        List<Task> subtree = taskRepository.findSubtree(id, user.getId());
+        User owner = user;
+        if (subtree.isEmpty()) {
+            Optional<User> sharedOwner = sharedOwner(id, user, true);
+            if (sharedOwner.isEmpty()) {
+                return Optional.empty();
+            }
+            owner = sharedOwner.get();
+            completed = taskRepository.completeSubtree(id, owner.getId(), completedAt, taskChangeLog.next(owner.getId()));
+            subtree = taskRepository.findSubtree(id, owner.getId());
+        }
+        
+        for (Task task : subtree) {
+            if (completedAt.equals(task.getCompletedAt())) {
+                eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, task));
+            }
+        }
+        logger.info("Completed {} tasks in tree {} for user: {}", completed, id, user.getUsername());
+        return Optional.of(buildTree(id, withTags(owner, subtree)));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChanges getChangesSince(User user, long since) {
+        logger.debug("Fetching task changes since {} for user: {}", since, user.getUsername());
+        
+        // Every change up to the committed counter value is itself committed (see TaskChangeLog)
+        Optional<TaskSyncState> state = taskChangeLog.getState(user.getId());
+        long current = state.map(TaskSyncState::getChangeSeq).orElse(0L);
+        long purged = state.map(TaskSyncState::getPurgedSeq).orElse(0L);
+        String token = Long.toString(current);
+        
+        if (since <= 0 || since < purged || since > current) {
+            return new TaskChanges(getAllTasksByUser(user), List.of(), token, true);
+        }
+        if (since == current) {
+            return new TaskChanges(List.of(), List.of(), token, false);
+        }
+        
+        List<Task> changed = withTags(user, taskRepository.findChangedBetween(user, since, current));
+        List<Long> deleted = taskChangeLog.getDeletedTaskIds(user.getId(), since, current);
+        return new TaskChanges(changed, deleted, token, false);
+    }
+    
+    @Override
+    public int deleteTasksOfUser(Long userId) {
+        // Tasks live in the task table, which the account deletion job clears in batches
+        return 0;
+    }
+    
+    /**
+     * Stamp a new task with the owner's next change sequence and put it at the end of the owner's manual order
+     */
+    private void stampNew(Task task, Long userId) {
+        task.setChangeSeq(taskChangeLog.next(userId));
+        task.setSortKey(RankKeys.between(taskRepository.findLastSortKey(userId), null));
+    }
+    
+    /**
+     * Validate a new task's recurrence rule and store it in normalized form
+     */
+    private static void normalizeRecurrence(Task task) {
+        if (task.getRecurrence() == null) {
+            return;
+        }
+        if (task.getDueDate() == null) {
+            throw new IllegalArgumentException("A recurring task needs a due date for its first occurrence");
+        }
+        if (task.getParentId() != null) {
+            throw new IllegalArgumentException("Subtasks cannot recur");
+        }
+        task.setRecurrence(RecurrenceRule.parse(task.getRecurrence()).toString());
+    }
+    
+    /**
+     * Occurrences of the user's active recurring tasks in [from, to), at most {@code max} per series, leaving
+     * out the ones already stored. One query loads the series together with their stored occurrences;
+     * everything else happens in memory.
+     */
+    private List<Task> expandOccurrences(User user, LocalDateTime from, LocalDateTime to, int max) {
+        List<Task> series = new ArrayList<>();
+        Map<Long, Set<LocalDateTime>> stored = new HashMap<>();
+        for (Task task : taskRepository.findRecurringByUser(user, from, to)) {
+            if (task.getRecurrence() != null) {
+                if (task.getDueDate() != null) {
+                    series.add(task);
+                }
+            } else {
+                stored.computeIfAbsent(task.getSeriesId(), id -> new HashSet<>()).add(task.getOccurrenceAt());
+            }
+        }
+        if (series.isEmpty()) {
+            return List.of();
+        }
+        
+        withTags(user, series);
+        List<Task> occurrences = new ArrayList<>();
+        for (Task template : series) {
+            Set<LocalDateTime> skip = stored.getOrDefault(template.getId(), Set.of());
+            try {
+                RecurrenceRule rule = RecurrenceRule.parse(template.getRecurrence());
+                for (LocalDateTime at : rule.occurrences(template.getDueDate(), from, to, max + skip.size())) {
+                    if (!skip.contains(at)) {
+                        occurrences.add(occurrenceOf(template, at));
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping task {} with invalid recurrence '{}': {}", template.getId(), template.getRecurrence(), e.getMessage());
+            }
+        }
+        return occurrences;
+    }
+    
+    /**
+     * Store an occurrence of a recurring task with a change applied, or apply the change to the stored one
+     */
+    private Optional<Task> storeOccurrence(Long seriesId, LocalDateTime occurrenceAt, User user, Consumer<Task> change) {
+        Optional<Task> seriesOpt = taskRepository.findById(seriesId);
+        if (seriesOpt.isEmpty() || !taskListService.canEdit(seriesOpt.get(), user) || seriesOpt.get().getRecurrence() == null) {
+            return Optional.empty();
+        }
+        Task series = seriesOpt.get();
+        User owner = series.getUser();
+        if (series.getDueDate() == null || !RecurrenceRule.parse(series.getRecurrence()).occursAt(series.getDueDate(), occurrenceAt)) {
+            throw new IllegalArgumentException("Task " + seriesId + " has no occurrence at " + occurrenceAt);
+        }
+        
+        // Taken before looking for a stored occurrence, so concurrent requests for the same one store it once
+        long changeSeq = taskChangeLog.next(owner.getId());
+        Optional<Task> existing = taskRepository.findBySeriesIdAndOccurrenceAt(seriesId, occurrenceAt);
+        Task occurrence;
+        if (existing.isPresent()) {
+            occurrence = existing.get();
+        } else {
+            occurrence = occurrenceOf(withTags(owner, List.of(series)).get(0), occurrenceAt);
+            occurrence.setCreatedAt(LocalDateTime.now());
+            occurrence.setSortKey(RankKeys.between(taskRepository.findLastSortKey(owner.getId()), null));
+        }
+        change.accept(occurrence);
+        occurrence.setChangeSeq(changeSeq);
+        Task savedOccurrence = taskRepository.save(occurrence);
+        if (existing.isEmpty()) {
+            applyTags(savedOccurrence, owner, series.getTags(), false);
+        }
+        
+        TaskChangedEvent.Type type = Boolean.TRUE.equals(savedOccurrence.getCompleted()) ? TaskChangedEvent.Type.COMPLETED
+                : existing.isPresent() ? TaskChangedEvent.Type.UPDATED : TaskChangedEvent.Type.CREATED;
+        eventPublisher.publishEvent(TaskChangedEvent.of(type, savedOccurrence));
+        logger.info("Stored occurrence {} of task {} as task {} for user: {}", occurrenceAt, seriesId, savedOccurrence.getId(), user.getUsername());
+        return Optional.of(savedOccurrence);
+    }
+    
+    /**
+     * An occurrence of a recurring task, due at {@code at}, not yet stored
+     */
+    private static Task occurrenceOf(Task series, LocalDateTime at) {
+        Task occurrence = new Task(series.getTitle(), series.getDescription(), series.getUser());
+        occurrence.setCreatedAt(series.getCreatedAt());
+        occurrence.setPriority(series.getPriority());
+        occurrence.setDueDate(at);
+        occurrence.setSeriesId(series.getId());
+        occurrence.setOccurrenceAt(at);
+        occurrence.setListId(series.getListId());
+        occurrence.setTags(series.getTags() != null ? new ArrayList<>(series.getTags()) : null);
+        return occurrence;
+    }
+    
+    /**
+     * Owner of a task the user reaches through a shared list rather than owns, if they may read (or edit) it
+     */
+    private Optional<User> sharedOwner(Long id, User user, boolean edit) {
+        return taskRepository.findById(id)
+                .filter(task -> task.getListId() != null && task.getUser() != null)
+                .filter(task -> edit ? taskListService.canEdit(task, user) : taskListService.canRead(task, user))
+                .map(Task::getUser);
+    }
+    
+    /**
+     * Sort key of a task in the owner's order that the user can see
+     */
+    private String getSortKey(Long id, Long ownerId, User user) {
+        Optional<Task> taskOpt = taskRepository.findById(id);
+        if (taskOpt.isEmpty() || !taskOpt.get().getUser().getId().equals(ownerId) || !taskListService.canRead(taskOpt.get(), user)) {
+            throw new IllegalArgumentException("Task with ID " + id + " not found");
+        }
+        return taskOpt.get().getSortKey();
+    }
+    
+    /**
+     * A key for a task placed right after the given key (or first), between it and the next of the user's tasks
+     */
+    private String sortKeyAfter(Long userId, Long id, String lower) {
+        String upper = lower != null ? taskRepository.findNextSortKey(userId, lower, id) : taskRepository.findFirstSortKey(userId, id);
+        return RankKeys.between(lower, upper);
+    }
+    
+    /**
+     * Delete everything below a task, publishing a delete for each removed subtask. Tombstones are recorded
+     * for the task itself too, which the caller deletes.
+     */
+    private void deleteSubtasks(Long id, Long userId) {
+        List<Long> ids = taskRepository.findSubtreeIds(id);
+        if (userId != null) {
+            taskChangeLog.recordDeletions(userId, ids, taskChangeLog.next(userId));
+        }
+        ids.remove(id);
+        for (int start = 0; start < ids.size(); start += ID_CHUNK) {
+            taskRepository.deleteByIdIn(ids.subList(start, Math.min(ids.size(), start + ID_CHUNK)));
+        }
+        for (Long subtaskId : ids) {
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, subtaskId, userId, null));
+        }
+    }
+    
+    /**
+     * Link the flat rows of a subtree into nested subtasks, oldest first, and roll completion counts up
+     *
+     * @return the root, or null if it is not among the rows
+     */
+    private static Task buildTree(Long rootId, List<Task> subtree) {
+        Map<Long, Task> byId = new HashMap<>(subtree.size() * 2);
+        for (Task task : subtree) {
+            task.setSubtasks(new ArrayList<>());
+            byId.put(task.getId(), task);
+        }
+        Task root = byId.get(rootId);
+        if (root == null) {
+            return null;
+        }
+        for (Task task : subtree) {
+            Task parent = task == root ? null : byId.get(task.getParentId());
+            if (parent != null) {
+                parent.getSubtasks().add(task);
+            }
+        }
+        rollUpCounts(root);
+        return root;
+    }
+    
+    private static void rollUpCounts(Task root) {
+        // Iterative post-order walk, so deep trees cannot overflow the stack
+        List<Task> order = new ArrayList<>();
+        List<Task> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Task task = pending.remove(pending.size() - 1);
+            order.add(task);
+            task.getSubtasks().sort(Comparator.comparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Task::getId));
+            pending.addAll(task.getSubtasks());
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Task task = order.get(i);
+            int total = 0;
+            int completed = 0;
+            for (Task subtask : task.getSubtasks()) {
+                total += 1 + subtask.getSubtaskCount();
+                completed += (Boolean.TRUE.equals(subtask.getCompleted()) ? 1 : 0) + subtask.getCompletedSubtaskCount();
+            }
+            task.setSubtaskCount(total);
+            task.setCompletedSubtaskCount(completed);
+        }
+    }
+    
+    private List<Task> withTags(User user, List<Task> tasks) {
+        taskTagIndex.attachTags(user.getId(), tasks);
+        return tasks;
+    }
+    
+    /**
+     * Make the task's task_tag rows match {@code names}, creating missing tags for the user,
+     * and set the resulting sorted list on the task for the response and the change event
+     */
+    private void applyTags(Task task, User user, Collection<String> names, boolean existing) {
+        Set<String> wanted = normalizeTags(names);
+        if (wanted.size() > MAX_TAGS_PER_TASK) {
+            throw new IllegalArgumentException("A task can have at most " + MAX_TAGS_PER_TASK + " tags");
+        }
+        
+        List<TaskTag> unwanted = new ArrayList<>();
+        Set<String> missing = new TreeSet<>(wanted);
+        if (existing) {
+            for (TaskTag link : taskTagRepository.findByTaskId(task.getId())) {
+                if (!missing.remove(link.getTag().getName())) {
+                    unwanted.add(link);
+                }
+            }
+        }
+        taskTagRepository.deleteAll(unwanted);
+        
+        if (!missing.isEmpty()) {
+            Map<String, Tag> tags = new HashMap<>();
+            for (Tag tag : tagRepository.findByUserIdAndNameIn(user.getId(), missing)) {
+                tags.put(tag.getName(), tag);
+            }
+            List<TaskTag> links = new ArrayList<>(missing.size());
+            for (String name : missing) {
+                Tag tag = tags.computeIfAbsent(name, n -> tagRepository.save(new Tag(user.getId(), n)));
+                links.add(new TaskTag(user.getId(), task, tag));
+            }
+            taskTagRepository.saveAll(links);
+        }
+        task.setTags(new ArrayList<>(wanted));
+    }
+    
+    private static Set<String> normalizeTags(Collection<String> names) {
+        Set<String> normalized = new TreeSet<>();
+        for (String name : names) {
+            normalized.add(Tag.normalize(name));
+        }
+        return normalized;
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.todoapp.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound shard selection read by {@link ShardRoutingDataSource} whenever a connection is acquired.
+ * Must be set before a transaction starts; code that runs without a shard goes to the default shard.
+ */
+public final class ShardContext {
+    
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    
+    private ShardContext() {
+    }
+    
+    public static Integer get() {
+        return CURRENT.get();
+    }
+    
+    public static void set(Integer shard) {
+        CURRENT.set(shard);
+    }
+    
+    public static void clear() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * Run work against the given shard, restoring the previous selection afterwards
+     */
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+    
+    public static void runOn(int shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package com.todoapp.sharding;
+
+import com.todoapp.model.User;
+import com.todoapp.model.UserShard;
+import com.todoapp.repository.UserShardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Maps users to shards. New users are placed with a jump consistent hash of their id, and the
+ * user_shard directory on shard 0 records the placement so individual users can later be moved.
+ * When sharding is disabled every user lives on the single shard 0.
+ */
+@Service
+public class ShardDirectory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardDirectory.class);
+    private static final int MAX_CACHED_USERS = 100_000;
+    
+    private final ShardingProperties properties;
+    private final UserShardRepository userShardRepository;
+    private final ObjectProvider<ShardRoutingDataSource> routingDataSource;
+    private final ConcurrentHashMap<String, CachedShard> cache = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public ShardDirectory(ShardingProperties properties,
+                          UserShardRepository userShardRepository,
+                          ObjectProvider<ShardRoutingDataSource> routingDataSource) {
+        this.properties = properties;
+        this.userShardRepository = userShardRepository;
+        this.routingDataSource = routingDataSource;
+    }
+    
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+    
+    public int getShardCount() {
+        return isEnabled() ? properties.getShards().size() : 1;
+    }
+    
+    public List<Integer> getShardIds() {
+        return IntStream.range(0, getShardCount()).boxed().toList();
+    }
+    
+    /**
+     * Stable placement for a new user (Lamping and Veach jump consistent hash): adding a shard only
+     * relocates about 1/N of new placements, and existing users keep their directory entry regardless.
+     */
+    public static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+    
+    /**
+     * Record the home shard of a newly registered user and replicate the user row there
+     */
+    public void register(User user) {
+        if (!isEnabled()) {
+            return;
+        }
+        int shard = jumpHash(user.getId(), getShardCount());
+        ShardContext.runOn(0, () -> userShardRepository.save(new UserShard(user.getId(), user.getUsername(), shard)));
+        if (shard != 0) {
+            ensureUserOnShard(user.getId(), shard);
+        }
+        logger.info("Placed user {} on shard {}", user.getUsername(), shard);
+    }
+    
+    /**
+     * Look up a user's directory entry; cached entries are only used when {@code allowCached} is set
+     */
+    public Optional<UserShard> lookup(String username, boolean allowCached) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        if (allowCached) {
+            CachedShard cached = cache.get(username);
+            if (cached != null && cached.expiresAt > System.nanoTime()) {
+                return Optional.of(cached.entry);
+            }
+        }
+        
+        Optional<UserShard> entry = ShardContext.callOn(0, () -> userShardRepository.findByUsername(username));
+        if (cache.size() >= MAX_CACHED_USERS) {
+            cache.clear();
+        }
+        entry.ifPresent(e -> cache.put(username, new CachedShard(e, System.nanoTime() + properties.getDirectoryCacheTtl().toNanos())));
+        return entry;
+    }
+    
+    public Optional<UserShard> findByUserId(Long userId) {
+        return ShardContext.callOn(0, () -> userShardRepository.findById(userId));
+    }
+    
+    public UserShard save(UserShard entry) {
+        cache.remove(entry.getUsername());
+        return ShardContext.callOn(0, () -> userShardRepository.save(entry));
+    }
+    
+    /**
+     * Drop a deleted user's directory entry
+     */
+    public void remove(Long userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        ShardContext.runOn(0, () -> userShardRepository.findById(userId).ifPresent(entry -> {
+            cache.remove(entry.getUsername());
+            userShardRepository.delete(entry);
+        }));
+    }
+    
+    /**
+     * Copy the user row from shard 0 to the given shard if it is not there yet
+     */
+    public void ensureUserOnShard(Long userId, int shard) {
+        ShardRoutingDataSource routing = routingDataSource.getObject();
+        Integer present = new JdbcTemplate(routing.getShard(shard))
+                .queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, userId);
+        if (present == null || present == 0) {
+            new ShardRowCopier(1).copy(routing.getShard(0), routing.getShard(shard), "users", "id", userId);
+        }
+    }
+    
+    private static final class CachedShard {
+        final UserShard entry;
+        final long expiresAt;
+        
+        CachedShard(UserShard entry, long expiresAt) {
+            this.entry = entry;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
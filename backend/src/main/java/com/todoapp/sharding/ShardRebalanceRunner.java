@@ -0,0 +1,38 @@
+package com.todoapp.sharding;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command line entry point for moving a user between shards:
+ * <pre>
+ * java -jar todo-backend.jar --spring.main.web-application-type=none \
+ *      --rebalance.user-id=42 --rebalance.target-shard=2
+ * </pre>
+ * The application exits once the move has finished.
+ */
+@Component
+public class ShardRebalanceRunner implements ApplicationRunner {
+    
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebalance.user-id") || !args.containsOption("rebalance.target-shard")) {
+            return;
+        }
+        Long userId = Long.valueOf(args.getOptionValues("rebalance.user-id").get(0));
+        int targetShard = Integer.parseInt(args.getOptionValues("rebalance.target-shard").get(0));
+        
+        shardRebalancer.moveUser(userId, targetShard);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
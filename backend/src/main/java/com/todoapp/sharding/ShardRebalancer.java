@@ -0,0 +1,132 @@
+package com.todoapp.sharding;
+
+import com.todoapp.model.UserShard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Moves one user's data to another shard while the application keeps serving traffic.
+ * <ol>
+ *   <li>Mark the directory entry as moving: the user's reads still go to the source shard,
+ *       writes are refused with 503 until the move completes.</li>
+ *   <li>Copy the user's rows to the target shard in batches (after clearing any partial copy).</li>
+ *   <li>Flip the directory entry to the target shard.</li>
+ *   <li>After the directory cache TTL, delete the rows left on the source shard.</li>
+ * </ol>
+ * Every step is idempotent and the progress is stored in the directory, so re-running the same move
+ * after a crash resumes it.
+ * <p>
+ * Shared lists must stay on one shard with everyone in them, so a user who owns a list with members, or
+ * is a member of someone else's list, is not moved; the move is refused until those shares are removed.
+ */
+@Service
+public class ShardRebalancer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+    
+    /**
+     * Tables holding per-user rows, keyed by user_id, in copy order
+     */
+    public static final List<String> USER_TABLES = List.of("task_sync_state", "task_tombstone", "task", "task_archive",
+            "task_daily_rollup", "tag", "task_tag", "task_list", "task_list_member");
+    
+    private final ShardDirectory shardDirectory;
+    private final ObjectProvider<ShardRoutingDataSource> routingDataSource;
+    private final ShardingProperties properties;
+    
+    @Autowired
+    public ShardRebalancer(ShardDirectory shardDirectory,
+                           ObjectProvider<ShardRoutingDataSource> routingDataSource,
+                           ShardingProperties properties) {
+        this.shardDirectory = shardDirectory;
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+    }
+    
+    public void moveUser(Long userId, int targetShard) {
+        if (!shardDirectory.isEnabled()) {
+            throw new IllegalStateException("Sharding is not enabled");
+        }
+        if (targetShard < 0 || targetShard >= shardDirectory.getShardCount()) {
+            throw new IllegalArgumentException("Unknown shard: " + targetShard);
+        }
+        UserShard entry = shardDirectory.findByUserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User " + userId + " has no shard assignment"));
+        
+        ShardRoutingDataSource routing = routingDataSource.getObject();
+        ShardRowCopier copier = new ShardRowCopier(properties.getRebalanceBatchSize());
+        
+        if (entry.getShardId() != targetShard) {
+            int sourceShard = entry.getShardId();
+            entry.setMovingTo(targetShard);
+            shardDirectory.save(entry);
+            logger.info("Moving user {} from shard {} to shard {}", userId, sourceShard, targetShard);
+            
+            // Let writes admitted before the entry was marked finish on the source shard
+            sleep(properties.getRebalanceDrainTime());
+            
+            DataSource source = routing.getShard(sourceShard);
+            DataSource target = routing.getShard(targetShard);
+            // Checked after the drain: new shares with a moving user are refused, so none can appear later
+            int shares = countShares(source, userId);
+            if (shares > 0) {
+                entry.setMovingTo(null);
+                shardDirectory.save(entry);
+                throw new IllegalStateException("User " + userId + " shares task lists with other users ("
+                        + shares + " memberships) and cannot be moved to another shard on their own");
+            }
+            shardDirectory.ensureUserOnShard(userId, targetShard);
+            for (int i = USER_TABLES.size() - 1; i >= 0; i--) {
+                copier.delete(target, USER_TABLES.get(i), "user_id", userId);
+            }
+            for (String table : USER_TABLES) {
+                long copied = copier.copy(source, target, table, "user_id", userId);
+                logger.info("Copied {} rows of {} for user {} to shard {}", copied, table, userId, targetShard);
+            }
+            
+            entry.setShardId(targetShard);
+            entry.setMovingTo(null);
+            entry.setMovedFrom(sourceShard);
+            shardDirectory.save(entry);
+        }
+        
+        if (entry.getMovedFrom() != null && entry.getMovedFrom() != targetShard) {
+            // Readers may still route to the old shard until their cached directory entry expires
+            sleep(properties.getDirectoryCacheTtl());
+            DataSource previous = routing.getShard(entry.getMovedFrom());
+            for (int i = USER_TABLES.size() - 1; i >= 0; i--) {
+                copier.delete(previous, USER_TABLES.get(i), "user_id", userId);
+            }
+            logger.info("Removed user {} data from shard {}", userId, entry.getMovedFrom());
+        }
+        entry.setMovedFrom(null);
+        shardDirectory.save(entry);
+        logger.info("User {} now lives on shard {}", userId, targetShard);
+    }
+    
+    /**
+     * Memberships in lists the user owns plus the user's memberships in other owners' lists
+     */
+    private static int countShares(DataSource shard, Long userId) {
+        Integer shares = new JdbcTemplate(shard).queryForObject(
+                "SELECT COUNT(*) FROM task_list_member WHERE user_id = ? OR member_id = ?", Integer.class, userId, userId);
+        return shares != null ? shares : 0;
+    }
+    
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while moving user", e);
+        }
+    }
+}
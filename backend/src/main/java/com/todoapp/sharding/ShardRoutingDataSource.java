@@ -0,0 +1,43 @@
+package com.todoapp.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes each connection request to the shard selected in {@link ShardContext}, defaulting to shard 0
+ * (which also holds the user directory).
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private final List<DataSource> shards;
+    
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.get();
+        return shard != null ? shard : 0;
+    }
+    
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+    
+    public int getShardCount() {
+        return shards.size();
+    }
+}
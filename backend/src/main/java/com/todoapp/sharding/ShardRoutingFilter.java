@@ -0,0 +1,63 @@
+package com.todoapp.sharding;
+
+import com.todoapp.model.UserShard;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Binds each authenticated request to the caller's shard for its whole duration, so every transaction
+ * opened while handling it runs on that shard. Runs after JWT authentication.
+ */
+@Component
+public class ShardRoutingFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private ShardDirectory shardDirectory;
+    
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!shardDirectory.isEnabled() || authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        boolean write = !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()));
+        Optional<UserShard> entry = shardDirectory.lookup(authentication.getName(), !write);
+        if (entry.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        if (write && entry.get().getMovingTo() != null) {
+            response.setHeader("Retry-After", "5");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Account data is being moved, retry shortly");
+            return;
+        }
+        
+        ShardContext.set(entry.get().getShardId());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
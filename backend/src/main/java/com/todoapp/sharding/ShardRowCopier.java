@@ -0,0 +1,94 @@
+package com.todoapp.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Copies and deletes a user's rows between shard databases with plain JDBC, one short transaction per
+ * batch. Columns are discovered from the source result set, so new columns are carried over automatically.
+ */
+public class ShardRowCopier {
+    
+    private final int batchSize;
+    
+    public ShardRowCopier(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * Copy every row of {@code table} where {@code column = value}, in id order
+     *
+     * @return number of rows copied
+     */
+    public long copy(DataSource source, DataSource target, String table, String column, Object value) {
+        JdbcTemplate sourceJdbc = new JdbcTemplate(source);
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+        TransactionTemplate targetTx = new TransactionTemplate(new DataSourceTransactionManager(target));
+        
+        long copied = 0;
+        long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<String> columns = new ArrayList<>();
+            List<Object[]> rows = sourceJdbc.query(
+                    "SELECT * FROM " + table + " WHERE " + column + " = ? AND id > ? ORDER BY id LIMIT " + batchSize,
+                    rs -> {
+                        ResultSetMetaData meta = rs.getMetaData();
+                        for (int i = 1; i <= meta.getColumnCount(); i++) {
+                            columns.add(meta.getColumnName(i).toLowerCase());
+                        }
+                        List<Object[]> batch = new ArrayList<>();
+                        while (rs.next()) {
+                            Object[] row = new Object[columns.size()];
+                            for (int i = 0; i < row.length; i++) {
+                                row[i] = rs.getObject(i + 1);
+                            }
+                            batch.add(row);
+                        }
+                        return batch;
+                    },
+                    value, lastId);
+            if (rows == null || rows.isEmpty()) {
+                return copied;
+            }
+            
+            String insert = insertStatement(table, columns);
+            targetTx.executeWithoutResult(status -> targetJdbc.batchUpdate(insert, rows));
+            copied += rows.size();
+            lastId = ((Number) rows.get(rows.size() - 1)[columns.indexOf("id")]).longValue();
+        }
+    }
+    
+    /**
+     * Delete every row of {@code table} where {@code column = value}, in bounded batches
+     *
+     * @return number of rows deleted
+     */
+    public long delete(DataSource dataSource, String table, String column, Object value) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbc.update("DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                    + " WHERE " + column + " = ? ORDER BY id LIMIT " + batchSize + ")", value);
+            deleted += batch;
+        } while (batch > 0);
+        return deleted;
+    }
+    
+    private static String insertStatement(String table, List<String> columns) {
+        StringJoiner names = new StringJoiner(", ");
+        StringJoiner params = new StringJoiner(", ");
+        for (String name : columns) {
+            names.add(name);
+            params.add("?");
+        }
+        return "INSERT INTO " + table + " (" + names + ") VALUES (" + params + ")";
+    }
+}
@@ -0,0 +1,110 @@
+package com.todoapp.sharding;
+
+import com.todoapp.config.ConnectionTrackingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+    
+    /**
+     * Each shard generates task and rollup ids from its own range so rows keep their ids when a user is moved
+     */
+    static final long SHARD_ID_RANGE = 1L << 40;
+    
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "todoapp.sharding.enabled", havingValue = "true")
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("todoapp.sharding.enabled is set but no todoapp.sharding.shards are configured");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shards.add(new ConnectionTrackingDataSource(dataSource));
+        }
+        logger.info("Sharding enabled across {} databases", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+    
+    /**
+     * Prepares shards 1..N once the schema exists on shard 0: optionally creates the mapped schema,
+     * then moves each shard's task id generator into its own range.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "todoapp.sharding.enabled", havingValue = "true")
+    public InitializingBean shardInitializer(ShardRoutingDataSource routing,
+                                             ShardingProperties properties,
+                                             EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            for (int shard = 1; shard < routing.getShardCount(); shard++) {
+                if (properties.isInitializeSchema()) {
+                    ShardContext.runOn(shard, () -> entityManagerFactory.unwrap(SessionFactory.class)
+                            .getSchemaManager().exportMappedObjects(false));
+                }
+                reserveIdRange(routing.getShard(shard), "task", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "task_daily_rollup", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "tag", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "task_tag", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "task_sync_state", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "task_tombstone", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "task_list", shard * SHARD_ID_RANGE);
+                reserveIdRange(routing.getShard(shard), "task_list_member", shard * SHARD_ID_RANGE);
+            }
+        };
+    }
+    
+    private static void reserveIdRange(DataSource dataSource, String table, long start) throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        if (max != null && max >= start) {
+            return;
+        }
+        
+        String product;
+        try (Connection connection = dataSource.getConnection()) {
+            product = connection.getMetaData().getDatabaseProductName();
+        }
+        if ("PostgreSQL".equals(product)) {
+            String type = jdbc.queryForObject("SELECT data_type FROM information_schema.columns "
+                    + "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'id'", String.class, table);
+            if (!"bigint".equals(type)) {
+                throw new IllegalStateException(table + ".id is " + type + " and cannot hold ids from " + start
+                        + "; run database/migrations/011_bigint_task_ids.sql on every shard first");
+            }
+            String sequence = jdbc.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, table);
+            Long current = jdbc.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+            if (current == null || current < start) {
+                jdbc.queryForObject("SELECT setval(?, ?, false)", Long.class, sequence, start);
+            }
+        } else {
+            jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + start);
+        }
+        logger.info("Reserved {} ids from {}", table, start);
+    }
+}
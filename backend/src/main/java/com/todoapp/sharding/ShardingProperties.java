@@ -0,0 +1,129 @@
+package com.todoapp.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "todoapp.sharding")
+public class ShardingProperties {
+    
+    /**
+     * Route task data to per-user shards. When off, the regular spring.datasource is used.
+     */
+    private boolean enabled = false;
+    
+    /**
+     * Shard databases; shard 0 also holds the users table and the user_shard directory
+     */
+    private List<Shard> shards = new ArrayList<>();
+    
+    /**
+     * Create the mapped schema on shards 1..N at startup (embedded/local databases)
+     */
+    private boolean initializeSchema = false;
+    
+    /**
+     * How long read requests may use a cached username to shard mapping
+     */
+    private Duration directoryCacheTtl = Duration.ofSeconds(30);
+    
+    /**
+     * Rows copied per statement when moving a user between shards
+     */
+    private int rebalanceBatchSize = 500;
+    
+    /**
+     * Grace period for in-flight writes after a user is marked as moving
+     */
+    private Duration rebalanceDrainTime = Duration.ofSeconds(2);
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public List<Shard> getShards() {
+        return shards;
+    }
+    
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+    
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+    
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+    
+    public Duration getDirectoryCacheTtl() {
+        return directoryCacheTtl;
+    }
+    
+    public void setDirectoryCacheTtl(Duration directoryCacheTtl) {
+        this.directoryCacheTtl = directoryCacheTtl;
+    }
+    
+    public int getRebalanceBatchSize() {
+        return rebalanceBatchSize;
+    }
+    
+    public void setRebalanceBatchSize(int rebalanceBatchSize) {
+        this.rebalanceBatchSize = rebalanceBatchSize;
+    }
+    
+    public Duration getRebalanceDrainTime() {
+        return rebalanceDrainTime;
+    }
+    
+    public void setRebalanceDrainTime(Duration rebalanceDrainTime) {
+        this.rebalanceDrainTime = rebalanceDrainTime;
+    }
+    
+    public static class Shard {
+        
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        
+        public String getUrl() {
+            return url;
+        }
+        
+        public void setUrl(String url) {
+            this.url = url;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public void setUsername(String username) {
+            this.username = username;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+        
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.todoapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Wires the embedded task store when {@code todoapp.storage.engine=embedded}. Users and authentication
+ * stay on the regular datasource; only task data moves into the store.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todoapp.storage.engine", havingValue = "embedded")
+public class EmbeddedStorageConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedStorageConfig.class);
+    
+    @Bean(destroyMethod = "close")
+    public EmbeddedTaskStore embeddedTaskStore(@Value("${todoapp.storage.embedded.directory:data/tasks}") String directory,
+                                               @Value("${todoapp.storage.embedded.fsync:false}") boolean fsync) throws IOException {
+        if (directory == null || directory.isBlank()) {
+            logger.warn("Embedded task store running in memory only; tasks are lost on restart");
+            return EmbeddedTaskStore.inMemory();
+        }
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(Path.of(directory), fsync);
+        logger.info("Embedded task store loaded {} tasks from {}", store.size(), directory);
+        return store;
+    }
+}
@@ -0,0 +1,46 @@
+package com.todoapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Periodically folds the embedded store's journal into a snapshot so restarts replay only a short tail
+ */
+@Component
+@ConditionalOnProperty(name = "todoapp.storage.engine", havingValue = "embedded")
+public class EmbeddedTaskCompactor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedTaskCompactor.class);
+    
+    private final EmbeddedTaskStore store;
+    
+    @Value("${todoapp.storage.embedded.snapshot-min-records:10000}")
+    private long snapshotMinRecords;
+    
+    @Autowired
+    public EmbeddedTaskCompactor(EmbeddedTaskStore store) {
+        this.store = store;
+    }
+    
+    @Scheduled(fixedDelayString = "${todoapp.storage.embedded.snapshot-interval:PT5M}",
+               initialDelayString = "${todoapp.storage.embedded.snapshot-interval:PT5M}")
+    public void compact() {
+        long backlog = store.getJournalBacklog();
+        if (backlog < snapshotMinRecords) {
+            return;
+        }
+        try {
+            store.snapshot();
+            logger.info("Compacted {} journal records into a snapshot", backlog);
+        } catch (IOException e) {
+            logger.error("Embedded task snapshot failed, journal keeps growing until the next attempt", e);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.todoapp.storage;
+
+import com.todoapp.util.LongObjectHashMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-process task storage for single-node deployments. Tasks are held in a primitive-keyed map, and
+ * every user has sorted indexes matching the queries the task service runs (recent incomplete, recently
+ * completed, agenda, all), so a top-5 read walks a handful of tree nodes instead of going to a database.
+ * <p>
+ * Writes are serialized and journaled before they are applied; reads run concurrently under a shared lock.
+ * With no directory the store is memory-only, which is handy for tests.
+ */
+public class EmbeddedTaskStore implements Closeable {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongObjectHashMap<StoredTask> tasks = new LongObjectHashMap<>(1024);
+    private final LongObjectHashMap<TaskIndex> users = new LongObjectHashMap<>(64);
+    private final TaskIndex global = new TaskIndex(false);
+    private final Object snapshotLock = new Object();
+    private final TaskJournal journal;
+    private long nextId = 1;
+    
+    private EmbeddedTaskStore(Path directory, boolean fsync) throws IOException {
+        this.journal = directory != null ? TaskJournal.open(directory, fsync, this::apply, this::applyDelete, this::applyDeleteUser) : null;
+    }
+    
+    /**
+     * Open a durable store, recovering whatever the directory already holds
+     */
+    public static EmbeddedTaskStore open(Path directory, boolean fsync) throws IOException {
+        return new EmbeddedTaskStore(directory, fsync);
+    }
+    
+    public static EmbeddedTaskStore inMemory() {
+        try {
+            return new EmbeddedTaskStore(null, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Insert a new task, assigning the next id
+     */
+    public StoredTask insert(StoredTask task) {
+        lock.writeLock().lock();
+        try {
+            StoredTask stored = task.withId(nextId);
+            journalPut(stored);
+            apply(stored);
+            return stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replace an existing task
+     *
+     * @throws IllegalArgumentException if there is no task with that id
+     */
+    public StoredTask update(StoredTask task) {
+        lock.writeLock().lock();
+        try {
+            if (!tasks.containsKey(task.id)) {
+                throw new IllegalArgumentException("Task with ID " + task.id + " not found");
+            }
+            journalPut(task);
+            apply(task);
+            return task;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * @return the removed task, or null if it did not exist
+     */
+    public StoredTask delete(long id) {
+        lock.writeLock().lock();
+        try {
+            if (!tasks.containsKey(id)) {
+                return null;
+            }
+            if (journal != null) {
+                try {
+                    journal.appendDelete(id);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not journal task delete", e);
+                }
+            }
+            return applyDelete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Remove every task of a user, journaled as one record so recovery never sees half of it
+     *
+     * @return the removed tasks
+     */
+    public List<StoredTask> deleteUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            if (users.get(userId) == null) {
+                return Collections.emptyList();
+            }
+            if (journal != null) {
+                try {
+                    journal.appendDeleteUser(userId);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not journal task delete for user " + userId, e);
+                }
+            }
+            return applyDeleteUser(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public StoredTask get(long id) {
+        lock.readLock().lock();
+        try {
+            return tasks.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Incomplete tasks, newest first; {@code userId} null means all users
+     */
+    public List<StoredTask> findIncomplete(Long userId, int limit) {
+        return read(userId, index -> index.incomplete, limit);
+    }
+    
+    /**
+     * Completed tasks, most recently completed first; {@code userId} null means all users
+     */
+    public List<StoredTask> findCompleted(Long userId, int limit) {
+        return read(userId, index -> index.completed, limit);
+    }
+    
+    public List<StoredTask> findAgenda(long userId, int limit) {
+        return read(userId, index -> index.agenda, limit);
+    }
+    
+    public List<StoredTask> findAll(long userId) {
+        return read(userId, index -> index.all, Integer.MAX_VALUE);
+    }
+    
+    public int countIncomplete(Long userId) {
+        lock.readLock().lock();
+        try {
+            TaskIndex index = userId == null ? global : users.get(userId);
+            return index != null ? index.incomplete.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Journal records written since the last snapshot (0 for a memory-only store)
+     */
+    public long getJournalBacklog() {
+        lock.readLock().lock();
+        try {
+            return journal != null ? journal.getRecordsSinceSnapshot() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Compact the journal into a snapshot. Writers are only held off while the task references are copied
+     * and the journal is rotated; the snapshot itself is written concurrently with new writes.
+     */
+    public void snapshot() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            List<StoredTask> copy;
+            long generation;
+            lock.writeLock().lock();
+            try {
+                copy = new ArrayList<>(tasks.size());
+                tasks.forEachValue(copy::add);
+                generation = journal.rotate();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            journal.writeSnapshot(generation, copy);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            lock.writeLock().lock();
+            try {
+                journal.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    private List<StoredTask> read(Long userId, Function<TaskIndex, NavigableSet<StoredTask>> set, int limit) {
+        lock.readLock().lock();
+        try {
+            TaskIndex index = userId == null ? global : users.get(userId);
+            if (index == null) {
+                return Collections.emptyList();
+            }
+            NavigableSet<StoredTask> source = set.apply(index);
+            List<StoredTask> result = new ArrayList<>(Math.min(limit, source.size()));
+            Iterator<StoredTask> iterator = source.iterator();
+            while (result.size() < limit && iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void journalPut(StoredTask task) {
+        if (journal != null) {
+            try {
+                journal.appendPut(task);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal task " + task.id, e);
+            }
+        }
+    }
+    
+    private void apply(StoredTask task) {
+        StoredTask previous = tasks.put(task.id, task);
+        if (previous != null) {
+            unindex(previous);
+        }
+        global.add(task);
+        if (task.userId != StoredTask.NONE) {
+            TaskIndex index = users.get(task.userId);
+            if (index == null) {
+                index = new TaskIndex(true);
+                users.put(task.userId, index);
+            }
+            index.add(task);
+        }
+        nextId = Math.max(nextId, task.id + 1);
+    }
+    
+    private StoredTask applyDelete(long id) {
+        StoredTask previous = tasks.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+        return previous;
+    }
+    
+    private List<StoredTask> applyDeleteUser(long userId) {
+        TaskIndex index = users.get(userId);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+        List<StoredTask> removed = new ArrayList<>(index.all);
+        for (StoredTask task : removed) {
+            applyDelete(task.id);
+        }
+        return removed;
+    }
+    
+    private void unindex(StoredTask task) {
+        global.remove(task);
+        if (task.userId != StoredTask.NONE) {
+            TaskIndex index = users.get(task.userId);
+            if (index != null) {
+                index.remove(task);
+                if (index.all.isEmpty()) {
+                    users.remove(task.userId);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Sorted views over one user's tasks (or, without the per-user views, over everybody's)
+     */
+    private static final class TaskIndex {
+        final boolean perUser;
+        final NavigableSet<StoredTask> incomplete = new TreeSet<>(StoredTask.NEWEST_CREATED);
+        final NavigableSet<StoredTask> completed = new TreeSet<>(StoredTask.NEWEST_COMPLETED);
+        final NavigableSet<StoredTask> agenda = new TreeSet<>(StoredTask.AGENDA);
+        final NavigableSet<StoredTask> all = new TreeSet<>(StoredTask.NEWEST_CREATED);
+        
+        TaskIndex(boolean perUser) {
+            this.perUser = perUser;
+        }
+        
+        void add(StoredTask task) {
+            if (task.completed) {
+                completed.add(task);
+            } else {
+                incomplete.add(task);
+                if (perUser) {
+                    agenda.add(task);
+                }
+            }
+            if (perUser) {
+                all.add(task);
+            }
+        }
+        
+        void remove(StoredTask task) {
+            if (task.completed) {
+                completed.remove(task);
+            } else {
+                incomplete.remove(task);
+                agenda.remove(task);
+            }
+            all.remove(task);
+        }
+    }
+}
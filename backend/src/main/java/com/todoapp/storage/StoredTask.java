@@ -0,0 +1,145 @@
+package com.todoapp.storage;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+/**
+ * Immutable, compact form of a task held by the embedded store. Timestamps are epoch microseconds
+ * (UTC wall clock, like the JPA columns) and {@link #NONE} marks a missing value, so index
+ * comparators only ever compare primitives.
+ */
+public final class StoredTask {
+    
+    public static final long NONE = Long.MIN_VALUE;
+    
+    /**
+     * Incomplete tasks, newest first (ORDER BY created_at DESC)
+     */
+    public static final Comparator<StoredTask> NEWEST_CREATED = (a, b) -> {
+        int c = Long.compare(b.createdAt, a.createdAt);
+        return c != 0 ? c : Long.compare(b.id, a.id);
+    };
+    
+    /**
+     * Completed tasks, most recently completed first (ORDER BY completed_at DESC)
+     */
+    public static final Comparator<StoredTask> NEWEST_COMPLETED = (a, b) -> {
+        int c = Long.compare(b.completedAt, a.completedAt);
+        return c != 0 ? c : Long.compare(b.id, a.id);
+    };
+    
+    /**
+     * Agenda order: priority rank, then due date (missing last), then creation time
+     */
+    public static final Comparator<StoredTask> AGENDA = (a, b) -> {
+        int c = Integer.compare(a.priority, b.priority);
+        if (c == 0) {
+            c = Long.compare(a.dueDate == NONE ? Long.MAX_VALUE : a.dueDate, b.dueDate == NONE ? Long.MAX_VALUE : b.dueDate);
+        }
+        if (c == 0) {
+            c = Long.compare(a.createdAt, b.createdAt);
+        }
+        return c != 0 ? c : Long.compare(a.id, b.id);
+    };
+    
+    final long id;
+    final long userId;
+    final String title;
+    final String description;
+    final boolean completed;
+    final long createdAt;
+    final long completedAt;
+    final long dueDate;
+    final byte priority;
+    
+    StoredTask(long id, long userId, String title, String description, boolean completed,
+               long createdAt, long completedAt, long dueDate, byte priority) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.description = description;
+        this.completed = completed;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+        this.dueDate = dueDate;
+        this.priority = priority;
+    }
+    
+    /**
+     * Capture a task; the id is assigned by the store when {@code task.getId()} is null
+     */
+    public static StoredTask from(Task task) {
+        TaskPriority priority = task.getPriority() != null ? task.getPriority() : TaskPriority.MEDIUM;
+        return new StoredTask(
+                task.getId() != null ? task.getId() : 0L,
+                task.getUser() != null && task.getUser().getId() != null ? task.getUser().getId() : NONE,
+                task.getTitle(),
+                task.getDescription(),
+                Boolean.TRUE.equals(task.getCompleted()),
+                toMicros(task.getCreatedAt() != null ? task.getCreatedAt() : LocalDateTime.now()),
+                toMicros(task.getCompletedAt()),
+                toMicros(task.getDueDate()),
+                (byte) priority.getRank());
+    }
+    
+    StoredTask withId(long newId) {
+        return new StoredTask(newId, userId, title, description, completed, createdAt, completedAt, dueDate, priority);
+    }
+    
+    /**
+     * Materialize a detached task; {@code owner} is attached when given, otherwise an id-only user reference
+     */
+    public Task toTask(User owner) {
+        Task task = new Task(title, description);
+        task.setId(id);
+        task.setCompleted(completed);
+        task.setCreatedAt(fromMicros(createdAt));
+        task.setCompletedAt(fromMicros(completedAt));
+        task.setDueDate(fromMicros(dueDate));
+        task.setPriority(TaskPriority.fromRank(priority));
+        if (owner != null) {
+            task.setUser(owner);
+        } else if (userId != NONE) {
+            User reference = new User();
+            reference.setId(userId);
+            task.setUser(reference);
+        }
+        return task;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public long getUserId() {
+        return userId;
+    }
+    
+    public boolean isCompleted() {
+        return completed;
+    }
+    
+    public TaskPriority getPriority() {
+        return TaskPriority.fromRank(priority);
+    }
+    
+    static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NONE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+    
+    static LocalDateTime fromMicros(long micros) {
+        if (micros == NONE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,320 @@
+package com.todoapp.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durability for the embedded task store: an append-only journal of changes plus compacted snapshots.
+ * <p>
+ * Files are numbered by generation. {@code snapshot-N.dat} holds the full state as of the start of
+ * {@code journal-N.log}; recovery loads the newest snapshot and replays every journal from its generation
+ * on. Each record is framed as {@code [length][crc32][payload]}, so a write torn by a crash is detected
+ * and cut off instead of corrupting the store. Snapshots are written to a temporary file and renamed into
+ * place, after which older generations are deleted.
+ */
+public class TaskJournal implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskJournal.class);
+    
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte DELETE_USER = 3;
+    private static final Pattern FILE_NAME = Pattern.compile("(journal|snapshot)-(\\d+)\\.(log|dat)");
+    
+    private final Path directory;
+    private final boolean fsync;
+    private long generation;
+    private FileChannel channel;
+    private long recordsSinceSnapshot;
+    
+    private TaskJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+    
+    /**
+     * Replay the directory's contents into the given callbacks and open a fresh journal generation for new writes
+     */
+    public static TaskJournal open(Path directory, boolean fsync, Consumer<StoredTask> put, LongConsumer delete,
+                                   LongConsumer deleteUser) throws IOException {
+        Files.createDirectories(directory);
+        TaskJournal journal = new TaskJournal(directory, fsync);
+        
+        long snapshotGeneration = latest(directory, "snapshot").orElse(0L);
+        if (snapshotGeneration > 0) {
+            read(journal.snapshotFile(snapshotGeneration), put, delete, deleteUser, false);
+        }
+        long lastGeneration = snapshotGeneration;
+        for (long generation : generations(directory, "journal")) {
+            if (generation >= snapshotGeneration) {
+                journal.recordsSinceSnapshot += read(journal.journalFile(generation), put, delete, deleteUser, true);
+                lastGeneration = Math.max(lastGeneration, generation);
+            }
+        }
+        
+        journal.generation = lastGeneration + 1;
+        journal.channel = FileChannel.open(journal.journalFile(journal.generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        logger.info("Opened task journal in {} at generation {}", directory, journal.generation);
+        return journal;
+    }
+    
+    public void appendPut(StoredTask task) throws IOException {
+        append(encode(task));
+    }
+    
+    public void appendDelete(long id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(9);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE);
+        out.writeLong(id);
+        append(bytes.toByteArray());
+    }
+    
+    /**
+     * Record the removal of every task of one user, as a single record
+     */
+    public void appendDeleteUser(long userId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(9);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE_USER);
+        out.writeLong(userId);
+        append(bytes.toByteArray());
+    }
+    
+    /**
+     * Records appended since the last snapshot, i.e. how much replay work a restart would do
+     */
+    public long getRecordsSinceSnapshot() {
+        return recordsSinceSnapshot;
+    }
+    
+    /**
+     * Close the current journal and start the next generation. The caller must hold off writers while
+     * this runs and then snapshot the state as of this point under the returned generation.
+     */
+    public long rotate() throws IOException {
+        channel.close();
+        generation++;
+        channel = FileChannel.open(journalFile(generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        recordsSinceSnapshot = 0;
+        return generation;
+    }
+    
+    /**
+     * Write a snapshot for a generation returned by {@link #rotate()} and drop the files it supersedes
+     */
+    public void writeSnapshot(long snapshotGeneration, Collection<StoredTask> tasks) throws IOException {
+        Path temporary = directory.resolve("snapshot-" + snapshotGeneration + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (StoredTask task : tasks) {
+                byte[] frame = frame(encode(task));
+                if (frame.length > buffer.remaining()) {
+                    drain(out, buffer);
+                }
+                if (frame.length > buffer.capacity()) {
+                    out.write(ByteBuffer.wrap(frame));
+                } else {
+                    buffer.put(frame);
+                }
+            }
+            drain(out, buffer);
+            out.force(true);
+        }
+        Files.move(temporary, snapshotFile(snapshotGeneration), StandardCopyOption.ATOMIC_MOVE);
+        
+        for (long old : generations(directory, "snapshot")) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(snapshotFile(old));
+            }
+        }
+        for (long old : generations(directory, "journal")) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(journalFile(old));
+            }
+        }
+        logger.info("Wrote task snapshot generation {} with {} tasks", snapshotGeneration, tasks.size());
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private void append(byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(frame(payload));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        recordsSinceSnapshot++;
+    }
+    
+    private static byte[] encode(StoredTask task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + (task.description != null ? task.description.length() : 0));
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        out.writeLong(task.id);
+        out.writeLong(task.userId);
+        out.writeUTF(task.title);
+        out.writeBoolean(task.description != null);
+        if (task.description != null) {
+            out.writeUTF(task.description);
+        }
+        out.writeBoolean(task.completed);
+        out.writeLong(task.createdAt);
+        out.writeLong(task.completedAt);
+        out.writeLong(task.dueDate);
+        out.writeByte(task.priority);
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] frame(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt((int) crc.getValue());
+        frame.put(payload);
+        return frame.array();
+    }
+    
+    /**
+     * @return number of records applied
+     */
+    private static long read(Path file, Consumer<StoredTask> put, LongConsumer delete, LongConsumer deleteUser,
+                             boolean truncateTornTail) throws IOException {
+        long records = 0;
+        long validLength = 0;
+        try (InputStream stream = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    if (length <= 0 || length > (1 << 20)) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                apply(payload, put, delete, deleteUser);
+                records++;
+                validLength += 8 + payload.length;
+            }
+        }
+        
+        long size = Files.size(file);
+        if (validLength < size) {
+            if (!truncateTornTail) {
+                throw new IOException("Corrupt task snapshot " + file + " at offset " + validLength);
+            }
+            logger.warn("Dropping {} bytes of incomplete journal records at the end of {}", size - validLength, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+        return records;
+    }
+    
+    private static void apply(byte[] payload, Consumer<StoredTask> put, LongConsumer delete, LongConsumer deleteUser) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+        if (op == DELETE) {
+            delete.accept(in.readLong());
+            return;
+        }
+        if (op == DELETE_USER) {
+            deleteUser.accept(in.readLong());
+            return;
+        }
+        if (op != PUT) {
+            throw new IOException("Unknown journal record type " + op);
+        }
+        long id = in.readLong();
+        long userId = in.readLong();
+        String title = in.readUTF();
+        String description = in.readBoolean() ? in.readUTF() : null;
+        boolean completed = in.readBoolean();
+        long createdAt = in.readLong();
+        long completedAt = in.readLong();
+        long dueDate = in.readLong();
+        byte priority = in.readByte();
+        put.accept(new StoredTask(id, userId, title, description, completed, createdAt, completedAt, dueDate, priority));
+    }
+    
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private Path journalFile(long generation) {
+        return directory.resolve("journal-" + generation + ".log");
+    }
+    
+    private Path snapshotFile(long generation) {
+        return directory.resolve("snapshot-" + generation + ".dat");
+    }
+    
+    private static Optional<Long> latest(Path directory, String kind) throws IOException {
+        List<Long> all = generations(directory, kind);
+        return all.isEmpty() ? Optional.empty() : Optional.of(all.get(all.size() - 1));
+    }
+    
+    private static List<Long> generations(Path directory, String kind) throws IOException {
+        List<Long> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).equals(kind)) {
+                    result.add(Long.parseLong(matcher.group(2)));
+                }
+            });
+        }
+        result.sort(null);
+        return result;
+    }
+}
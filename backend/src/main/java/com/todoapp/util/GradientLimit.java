@@ -0,0 +1,98 @@
+package com.todoapp.util;
+
+/**
+ * Concurrency limit estimated from request latency with a gradient algorithm (after Gradient2 in Netflix's
+ * concurrency-limits).
+ * <p>
+ * Two exponential averages of the round-trip time are kept: a short one for current latency and a long one
+ * as the no-queueing baseline. Their ratio, times a tolerance, is the gradient, clamped to [0.5, 1]. Each
+ * sample moves the limit towards {@code limit * gradient + sqrt(limit)}, so while latency stays within the
+ * tolerance of the baseline the limit grows by about its square root, and once requests start queueing
+ * (latency rising over the baseline) it shrinks in proportion. Samples taken while less than half the limit
+ * is in use say nothing about whether more would fit, so they only update the averages. When latency drops
+ * well below the baseline, the baseline decays towards it, so the limit can recover after a slow period.
+ * <p>
+ * Thread-safe. Times are in nanoseconds.
+ */
+public final class GradientLimit {
+    
+    private static final int SHORT_WINDOW = 10;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+    
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+    
+    /**
+     * @param tolerance  how much latency may exceed the baseline before the limit shrinks, e.g. 1.5 for 50%
+     * @param smoothing  fraction of the way each sample moves the limit to its new estimate, in (0, 1]
+     * @param longWindow samples the baseline averages over
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int longWindow) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1 || smoothing <= 0 || smoothing > 1 || longWindow < SHORT_WINDOW) {
+            throw new IllegalArgumentException("Invalid gradient settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+        this.limit = initialLimit;
+    }
+    
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+    
+    /**
+     * Record a completed request
+     *
+     * @param rttNanos time from admission to completion
+     * @param inflight requests in flight when this one was admitted, itself included
+     * @return the new limit
+     */
+    public synchronized int onSample(long rttNanos, int inflight) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return (int) limit;
+        }
+        shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+        longRtt += (rtt - longRtt) / longWindow;
+        
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inflight < limit / 2) {
+            return (int) limit;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + estimate * smoothing));
+        return (int) limit;
+    }
+    
+    /**
+     * Current short-term average round-trip time
+     */
+    public synchronized long getShortRttNanos() {
+        return (long) shortRtt;
+    }
+    
+    /**
+     * Current baseline round-trip time
+     */
+    public synchronized long getLongRttNanos() {
+        return (long) longRtt;
+    }
+}
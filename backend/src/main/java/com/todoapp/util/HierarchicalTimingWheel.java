@@ -0,0 +1,172 @@
+package com.todoapp.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel keyed by a long id.
+ * <p>
+ * Each level has {@code 2^bitsPerLevel} slots; level {@code i} slots span {@code tickMs * 2^(bitsPerLevel * i)}.
+ * Scheduling and cancelling are O(1) (intrusive doubly-linked slot lists plus a key index), and advancing
+ * the wheel cascades higher-level slots down as their period starts. Deadlines beyond the top level are
+ * parked in an overflow list and re-placed whenever the top level wraps.
+ * <p>
+ * All methods are synchronized; expiry callbacks run on the thread calling {@link #advanceTo}.
+ */
+public class HierarchicalTimingWheel<T> {
+    
+    private final long tickMs;
+    private final int bitsPerLevel;
+    private final int levels;
+    private final int slotMask;
+    private final Entry<T>[][] slots;
+    private final Entry<T> overflow = new Entry<>();
+    private final Map<Long, Entry<T>> index = new HashMap<>();
+    private long currentTick;
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HierarchicalTimingWheel(long tickMs, int bitsPerLevel, int levels, long startMs) {
+        if (tickMs <= 0 || bitsPerLevel <= 0 || levels <= 0 || (long) bitsPerLevel * levels >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMs = tickMs;
+        this.bitsPerLevel = bitsPerLevel;
+        this.levels = levels;
+        this.slotMask = (1 << bitsPerLevel) - 1;
+        this.slots = new Entry[levels][1 << bitsPerLevel];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot <= slotMask; slot++) {
+                slots[level][slot] = new Entry<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+    
+    /**
+     * Schedule (or reschedule) the payload under the given key. Past deadlines fire on the next tick.
+     */
+    public synchronized void schedule(long key, long deadlineMs, T payload) {
+        Entry<T> entry = index.get(key);
+        if (entry == null) {
+            entry = new Entry<>();
+            entry.key = key;
+            index.put(key, entry);
+        } else {
+            entry.unlink();
+        }
+        entry.payload = payload;
+        entry.deadlineTick = Math.max(ceilDiv(deadlineMs, tickMs), currentTick + 1);
+        place(entry);
+    }
+    
+    /**
+     * Cancel the entry with the given key
+     *
+     * @return true if an entry was pending
+     */
+    public synchronized boolean cancel(long key) {
+        Entry<T> entry = index.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+    
+    /**
+     * Advance the wheel up to the given time, handing every expired payload to the consumer
+     */
+    public void advanceTo(long nowMs, Consumer<T> expired) {
+        List<T> due = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = nowMs / tickMs;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade();
+                Entry<T> head = slots[0][(int) (currentTick & slotMask)];
+                while (head.next != head) {
+                    Entry<T> entry = head.next;
+                    entry.unlink();
+                    index.remove(entry.key);
+                    due.add(entry.payload);
+                }
+            }
+        }
+        due.forEach(expired);
+    }
+    
+    public synchronized int size() {
+        return index.size();
+    }
+    
+    public synchronized boolean contains(long key) {
+        return index.containsKey(key);
+    }
+    
+    private void cascade() {
+        int topBits = bitsPerLevel * levels;
+        if ((currentTick & ((1L << topBits) - 1)) == 0) {
+            drainInto(overflow);
+        }
+        for (int level = levels - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (bitsPerLevel * level)) - 1)) == 0) {
+                drainInto(slots[level][(int) ((currentTick >>> (bitsPerLevel * level)) & slotMask)]);
+            }
+        }
+    }
+    
+    private void drainInto(Entry<T> head) {
+        Entry<T> entry = head.next;
+        head.next = head;
+        head.prev = head;
+        while (entry != head) {
+            Entry<T> next = entry.next;
+            entry.prev = entry;
+            entry.next = entry;
+            place(entry);
+            entry = next;
+        }
+    }
+    
+    private void place(Entry<T> entry) {
+        long deadline = entry.deadlineTick;
+        for (int level = 0; level < levels; level++) {
+            int shift = bitsPerLevel * (level + 1);
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                int slot = (int) ((deadline >>> (bitsPerLevel * level)) & slotMask);
+                entry.linkBefore(slots[level][slot]);
+                return;
+            }
+        }
+        entry.linkBefore(overflow);
+    }
+    
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+    
+    private static final class Entry<T> {
+        long key;
+        long deadlineTick;
+        T payload;
+        Entry<T> prev = this;
+        Entry<T> next = this;
+        
+        void linkBefore(Entry<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+        
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.todoapp.util;
+
+/**
+ * Log-linear histogram of non-negative durations in seconds. Every power of two is split into four
+ * sub-buckets, so a reported percentile is within about 12% of the true value whatever the scale, and
+ * histograms for different days can simply be added together.
+ * <p>
+ * Only non-empty buckets are written by {@link #encode()} ({@code "index:count,..."}), which keeps a
+ * day's histogram to a few dozen characters in the rollup table. Not thread-safe.
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;
+    
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    
+    public void record(long seconds) {
+        counts[bucket(Math.max(0, seconds))]++;
+        total++;
+    }
+    
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+    
+    public long getCount() {
+        return total;
+    }
+    
+    /**
+     * @param percentile between 0 and 100
+     * @return the midpoint of the bucket holding that rank, or 0 when nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return lowerBound(i) + (width(i) - 1) / 2;
+            }
+        }
+        return lowerBound(BUCKETS - 1);
+    }
+    
+    public String encode() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                if (out.length() > 0) {
+                    out.append(',');
+                }
+                out.append(i).append(':').append(counts[i]);
+            }
+        }
+        return out.toString();
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the text was not produced by {@link #encode()}
+     */
+    public static LatencyHistogram decode(String encoded) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        if (encoded == null || encoded.isEmpty()) {
+            return histogram;
+        }
+        for (String entry : encoded.split(",")) {
+            int separator = entry.indexOf(':');
+            try {
+                int index = Integer.parseInt(entry.substring(0, separator));
+                long count = Long.parseLong(entry.substring(separator + 1));
+                histogram.counts[index] += count;
+                histogram.total += count;
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid latency histogram entry: " + entry, e);
+            }
+        }
+        return histogram;
+    }
+    
+    /**
+     * Values below 4 get a bucket each; above that, bucket = 4 per power of two plus the two bits after the leading one
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (exponent - SUB_BUCKET_BITS + 1) + sub;
+    }
+    
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+    
+    static long width(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return 1;
+        }
+        return 1L << (bucket / SUB_BUCKETS - 1);
+    }
+}
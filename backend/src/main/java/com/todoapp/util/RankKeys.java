@@ -0,0 +1,151 @@
+package com.todoapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexicographic rank keys for user-defined ordering, so that moving an item only rewrites that item's key.
+ * <p>
+ * A key is a fixed-width base-36 integer part ({@value #WIDTH} characters of {@code 0-9a-z}) followed by an
+ * optional fraction that never ends in {@code '0'}. Plain string comparison orders keys, in Java as in the
+ * database. Appends and prepends step the integer part by {@link #STEP}, so long runs of them keep keys
+ * short; inserting between two neighbours takes the midpoint, which grows the fraction by about one
+ * character every five inserts into the same gap. {@link #spread} hands out fresh, evenly spaced keys for
+ * a rebalance once keys get long.
+ */
+public final class RankKeys {
+    
+    public static final int WIDTH = 6;
+    
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final long MAX = pow(BASE, WIDTH) - 1;
+    private static final long STEP = BASE * BASE;
+    
+    private RankKeys() {
+    }
+    
+    /**
+     * A key strictly between two keys, where a null lower bound means the start of the list and a null upper
+     * bound means the end
+     *
+     * @throws IllegalArgumentException if lower is not below upper, or either is not a valid key
+     */
+    public static String between(String lower, String upper) {
+        if (lower != null) {
+            validate(lower);
+        }
+        if (upper != null) {
+            validate(upper);
+        }
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Rank key " + lower + " is not below " + upper);
+        }
+        
+        if (lower == null && upper == null) {
+            return format((MAX + 1) / 2);
+        }
+        if (upper == null) {
+            long integer = integer(lower);
+            if (integer + STEP <= MAX) {
+                return format(integer + STEP);
+            }
+            if (integer < MAX) {
+                return format(integer + (MAX - integer + 1) / 2);
+            }
+            return lower.substring(0, WIDTH) + midpoint(lower.substring(WIDTH), null);
+        }
+        if (lower == null) {
+            // The bare zero key is never handed out, so there is always room below any key
+            long integer = integer(upper);
+            if (integer - STEP >= 1) {
+                return format(integer - STEP);
+            }
+            lower = format(0);
+        }
+        
+        long low = integer(lower);
+        long high = integer(upper);
+        if (high - low > 1) {
+            return format(low + (high - low) / 2);
+        }
+        String fraction = midpoint(lower.substring(WIDTH), high == low ? upper.substring(WIDTH) : null);
+        return lower.substring(0, WIDTH) + fraction;
+    }
+    
+    /**
+     * {@code count} ascending keys spread evenly over the whole key space, without fractions
+     */
+    public static List<String> spread(int count) {
+        List<String> keys = new ArrayList<>(count);
+        long gap = MAX / ((long) count + 1);
+        for (int i = 1; i <= count; i++) {
+            keys.add(format(gap * i));
+        }
+        return keys;
+    }
+    
+    /**
+     * Midpoint of two fractions read as base-36 digits after the point, with a null upper bound standing for 1
+     */
+    private static String midpoint(String lower, String upper) {
+        if (upper != null) {
+            int prefix = 0;
+            while (prefix < upper.length() && digitAt(lower, prefix) == upper.charAt(prefix)) {
+                prefix++;
+            }
+            if (prefix > 0) {
+                return upper.substring(0, prefix) + midpoint(lower.substring(Math.min(prefix, lower.length())), upper.substring(prefix));
+            }
+        }
+        int low = lower.isEmpty() ? 0 : DIGITS.indexOf(lower.charAt(0));
+        int high = upper != null ? DIGITS.indexOf(upper.charAt(0)) : BASE;
+        if (high - low > 1) {
+            return String.valueOf(DIGITS.charAt((low + high + 1) / 2));
+        }
+        if (upper != null && upper.length() > 1) {
+            return upper.substring(0, 1);
+        }
+        return DIGITS.charAt(low) + midpoint(lower.isEmpty() ? "" : lower.substring(1), null);
+    }
+    
+    private static char digitAt(String fraction, int index) {
+        return index < fraction.length() ? fraction.charAt(index) : '0';
+    }
+    
+    private static long integer(String key) {
+        long value = 0;
+        for (int i = 0; i < WIDTH; i++) {
+            value = value * BASE + DIGITS.indexOf(key.charAt(i));
+        }
+        return value;
+    }
+    
+    private static String format(long value) {
+        char[] chars = new char[WIDTH];
+        for (int i = WIDTH - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+    
+    private static void validate(String key) {
+        if (key.length() < WIDTH || key.charAt(key.length() - 1) == '0' && key.length() > WIDTH) {
+            throw new IllegalArgumentException("Invalid rank key: " + key);
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Invalid rank key: " + key);
+            }
+        }
+    }
+    
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.todoapp.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationBusTest {
+    
+    private InvalidatableCache cache;
+    private CacheInvalidationBus bus;
+    
+    @BeforeEach
+    void setUp() {
+        cache = mock(InvalidatableCache.class);
+        bus = new CacheInvalidationBus(mock(DataSource.class), mock(PlatformTransactionManager.class),
+                List.of(cache), new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void receive_ShouldEvictTheChangedUser() {
+        // When
+        bus.receive("node-a|1|T|42|7");
+        bus.receive("node-a|2|U|7|7");
+        
+        // Then
+        verify(cache, times(2)).evict(7L);
+        verify(cache, never()).evictAll();
+    }
+    
+    @Test
+    void receive_ShouldIgnoreOwnMessages() {
+        // When
+        bus.receive(bus.getNodeId() + "|1|T|42|7");
+        
+        // Then
+        verifyNoInteractions(cache);
+    }
+    
+    @Test
+    void receive_ShouldFlushOnSequenceGap() {
+        // Given
+        bus.receive("node-a|5|T|42|7");
+        
+        // When
+        bus.receive("node-a|7|T|43|8");
+        bus.receive("node-b|1|T|44|9");
+        
+        // Then
+        verify(cache).evict(7L);
+        verify(cache).evictAll();
+        verify(cache, never()).evict(8L);
+        verify(cache).evict(9L);
+    }
+    
+    @Test
+    void receive_ShouldFlushWhenOwnerIsUnknown() {
+        // When
+        bus.receive("node-a|1|T|42|-");
+        bus.receive("garbage");
+        
+        // Then
+        verify(cache).evictAll();
+        verifyNoMoreInteractions(cache);
+    }
+}
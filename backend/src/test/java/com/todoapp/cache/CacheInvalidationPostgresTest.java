@@ -0,0 +1,95 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs two buses against a real PostgreSQL, given by TODOAPP_TEST_POSTGRES_URL (plus _USER and _PASSWORD)
+ */
+@EnabledIfEnvironmentVariable(named = "TODOAPP_TEST_POSTGRES_URL", matches = ".+")
+class CacheInvalidationPostgresTest {
+    
+    private static final String CHANNEL = "todoapp_cache_invalidation_test";
+    
+    private DriverManagerDataSource dataSource;
+    private InvalidatableCache sendingCache;
+    private InvalidatableCache receivingCache;
+    private CacheInvalidationBus sending;
+    private CacheInvalidationBus receiving;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource(System.getenv("TODOAPP_TEST_POSTGRES_URL"),
+                System.getenv("TODOAPP_TEST_POSTGRES_USER"), System.getenv("TODOAPP_TEST_POSTGRES_PASSWORD"));
+        sendingCache = mock(InvalidatableCache.class);
+        receivingCache = mock(InvalidatableCache.class);
+        sending = bus(sendingCache);
+        receiving = bus(receivingCache);
+        awaitListening(sending);
+        awaitListening(receiving);
+        clearInvocations(sendingCache, receivingCache);
+    }
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        sending.stop();
+        receiving.stop();
+    }
+    
+    @Test
+    void otherNodesEvictTheChangedUser() {
+        // When
+        sending.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, 42L, 7L, null));
+        
+        // Then
+        verify(receivingCache, timeout(5_000)).evict(7L);
+        verify(receivingCache, never()).evictAll();
+        verify(sendingCache, after(500).never()).evict(anyLong());
+    }
+    
+    @Test
+    void reconnectFlushesEverything() throws Exception {
+        // When
+        new JdbcTemplate(dataSource).queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity " +
+                "WHERE query = 'LISTEN " + CHANNEL + "' AND pid <> pg_backend_pid()");
+        
+        // Then
+        verify(receivingCache, timeout(10_000)).evictAll();
+        awaitListening(receiving);
+        sending.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, 43L, 8L, null));
+        verify(receivingCache, timeout(5_000)).evict(8L);
+    }
+    
+    private CacheInvalidationBus bus(InvalidatableCache cache) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(dataSource, new DataSourceTransactionManager(dataSource),
+                List.of(cache), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "channel", CHANNEL);
+        ReflectionTestUtils.setField(bus, "pollTimeout", Duration.ofMillis(200));
+        ReflectionTestUtils.setField(bus, "reconnectDelay", Duration.ofMillis(200));
+        bus.start();
+        return bus;
+    }
+    
+    private static void awaitListening(CacheInvalidationBus bus) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!bus.isListening()) {
+            assertTrue(System.nanoTime() < deadline, "listener did not connect");
+            Thread.sleep(50);
+        }
+    }
+}
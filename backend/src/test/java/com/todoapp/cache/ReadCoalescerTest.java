@@ -0,0 +1,133 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadCoalescerTest {
+    
+    private SimpleMeterRegistry registry;
+    private ReadCoalescer coalescer;
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new ReadCoalescer(registry);
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        executor = Executors.newFixedThreadPool(4);
+        release = new CountDownLatch(1);
+        loads = new AtomicInteger();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void read_ShouldShareOneInFlightLoadBetweenIdenticalCalls() throws Exception {
+        // Given
+        Future<Integer> leader = executor.submit(() -> coalescer.read(1L, "recent", this::blockingLoad));
+        awaitLoads(1);
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> coalescer.read(1L, "recent", this::blockingLoad)));
+        }
+        awaitCoalesced(3);
+        
+        // When
+        release.countDown();
+        
+        // Then
+        assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+        for (Future<Integer> follower : followers) {
+            assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.counter("todoapp.reads.executed", "query", "recent").count());
+    }
+    
+    @Test
+    void read_ShouldNotJoinAFlightStartedBeforeAWrite() throws Exception {
+        // Given
+        Future<Integer> stale = executor.submit(() -> coalescer.read(1L, "recent", this::blockingLoad));
+        awaitLoads(1);
+        
+        // When
+        coalescer.onTaskChanged(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, 10L, 1L, null));
+        Future<Integer> fresh = executor.submit(() -> coalescer.read(1L, "recent", this::blockingLoad));
+        awaitLoads(2);
+        release.countDown();
+        
+        // Then
+        assertEquals(1, stale.get(5, TimeUnit.SECONDS));
+        assertEquals(2, fresh.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, registry.counter("todoapp.reads.coalesced", "query", "recent").count());
+    }
+    
+    @Test
+    void read_ShouldKeepUsersAndQueriesApartAndPropagateFailures() {
+        // When & Then
+        assertEquals("a", coalescer.read(1L, "all", () -> "a"));
+        assertEquals("b", coalescer.read(2L, "all", () -> "b"));
+        assertThrows(IllegalStateException.class, () -> coalescer.read(1L, "all", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("c", coalescer.read(1L, "all", () -> "c"));
+    }
+    
+    @Test
+    void read_ShouldTagCountersByQueryNameOnly() {
+        // When
+        assertEquals("a", coalescer.read(1L, "agenda", "10:2026-10-01:2026-10-08", () -> "a"));
+        assertEquals("b", coalescer.read(1L, "agenda", "20:2026-11-01:2026-11-08", () -> "b"));
+        
+        // Then
+        assertEquals(2.0, registry.counter("todoapp.reads.executed", "query", "agenda").count());
+        assertEquals(1, registry.find("todoapp.reads.executed").counters().size());
+    }
+    
+    private Integer blockingLoad() {
+        int load = loads.incrementAndGet();
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return load;
+    }
+    
+    private void awaitLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, loads.get());
+    }
+    
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.counter("todoapp.reads.coalesced", "query", "recent").count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, registry.counter("todoapp.reads.coalesced", "query", "recent").count());
+    }
+}
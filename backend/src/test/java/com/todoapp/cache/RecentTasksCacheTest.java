@@ -0,0 +1,143 @@
+package com.todoapp.cache;
+
+import com.todoapp.event.TaskChangedEvent;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecentTasksCacheTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+    
+    private RecentTasksCache cache;
+    private User user;
+    private List<Task> database;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        cache = new RecentTasksCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxUsers", 2);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        
+        user = user(1L);
+        database = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            database.add(task(id, user, BASE.plusMinutes(id)));
+        }
+        loads = new AtomicInteger();
+    }
+    
+    @Test
+    void getIncomplete_ShouldLoadOnceAndServeFromMemory() {
+        // When
+        List<Task> first = cache.getIncomplete(user, loader());
+        List<Task> second = cache.getIncomplete(user, loader());
+        
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L), ids(first));
+        assertEquals(ids(first), ids(second));
+        assertEquals(1, cache.getHits());
+    }
+    
+    @Test
+    void createEvent_ShouldUpdateListInPlace() {
+        // Given
+        cache.getIncomplete(user, loader());
+        Task created = task(8L, user, BASE.plusMinutes(8));
+        database.add(created);
+        
+        // When
+        cache.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, created));
+        
+        // Then
+        assertEquals(List.of(8L, 7L, 6L, 5L, 4L), ids(cache.getIncomplete(user, loader())));
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void completeEvent_ShouldReloadOnlyWhenListDropsBelowK() {
+        // Given
+        cache.getIncomplete(user, loader());
+        Task completed = database.remove(6);
+        completed.setCompleted(true);
+        completed.setCompletedAt(BASE.plusDays(1));
+        
+        // When
+        cache.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.COMPLETED, completed));
+        
+        // Then
+        assertEquals(List.of(6L, 5L, 4L, 3L, 2L), ids(cache.getIncomplete(user, loader())));
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    void deleteEvent_ShouldNotReloadWhenDatabaseHasNoMoreRows() {
+        // Given
+        database.subList(3, database.size()).clear();
+        cache.getIncomplete(user, loader());
+        Task deleted = database.remove(2);
+        
+        // When
+        cache.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.DELETED, deleted));
+        
+        // Then
+        assertEquals(List.of(2L, 1L), ids(cache.getIncomplete(user, loader())));
+        assertEquals(1, loads.get());
+    }
+    
+    @Test
+    void leastRecentlyUsedUser_ShouldBeEvicted() {
+        // Given
+        cache.getIncomplete(user, loader());
+        cache.getIncomplete(user(2L), List::of);
+        
+        // When
+        cache.getIncomplete(user, loader());
+        cache.getIncomplete(user(3L), List::of);
+        cache.getIncomplete(user(2L), List::of);
+        
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(4, cache.getMisses());
+    }
+    
+    private Supplier<List<Task>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            List<Task> sorted = new ArrayList<>(database);
+            sorted.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+            return sorted.subList(0, Math.min(RecentTasksCache.K, sorted.size()));
+        };
+    }
+    
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+    
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+    
+    private static Task task(Long id, User user, LocalDateTime createdAt) {
+        Task task = new Task("Task " + id, null, user);
+        task.setId(id);
+        task.setCreatedAt(createdAt);
+        return task;
+    }
+}
@@ -0,0 +1,117 @@
+package com.todoapp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+    
+    private SimpleMeterRegistry registry;
+    private ConcurrencyLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(registry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "initialLimit", 4);
+        ReflectionTestUtils.setField(filter, "minLimit", 4);
+        ReflectionTestUtils.setField(filter, "maxLimit", 4);
+        ReflectionTestUtils.setField(filter, "tolerance", 1.5);
+        ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+        ReflectionTestUtils.setField(filter, "longWindow", 600);
+        ReflectionTestUtils.setField(filter, "readShare", 0.75);
+        ReflectionTestUtils.setField(filter, "bulkReadShare", 0.5);
+        ReflectionTestUtils.setField(filter, "bulkPaths", List.of("/api/tasks/all", "/api/lists/*/tasks"));
+        filter.start();
+    }
+    
+    @Test
+    void shedsBulkReadsFirstAndWritesLast() throws Exception {
+        // Given: two slow requests hold half of a limit of 4
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> held = List.of(
+                    executor.submit(() -> hold("PUT", "/api/tasks/1/complete", started, release)),
+                    executor.submit(() -> hold("GET", "/api/tasks", started, release)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            
+            // When / Then: bulk reads are over their half, other reads still fit, and so do writes
+            assertEquals(503, call("GET", "/api/tasks/all").getStatus());
+            assertEquals(503, call("GET", "/api/lists/7/tasks").getStatus());
+            assertEquals(200, call("GET", "/api/tasks/completed").getStatus());
+            assertEquals(200, call("POST", "/api/auth/login").getStatus());
+            
+            MockHttpServletResponse rejected = call("GET", "/api/tasks/all");
+            assertEquals("1", rejected.getHeader("Retry-After"));
+            
+            assertEquals(2.0, registry.get("todoapp.concurrency.inflight").gauge().value());
+            release.countDown();
+            for (Future<?> future : held) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        
+        // Then
+        assertEquals(0.0, registry.get("todoapp.concurrency.inflight").gauge().value());
+        assertEquals(3.0, registry.get("todoapp.concurrency.requests")
+                .tag("priority", "bulk_read").tag("outcome", "rejected").counter().count());
+        assertEquals(2.0, registry.get("todoapp.concurrency.requests")
+                .tag("priority", "critical").tag("outcome", "accepted").counter().count());
+        assertEquals(4.0, registry.get("todoapp.concurrency.limit").gauge().value());
+    }
+    
+    @Test
+    void ignoresRequestsOutsideTheApi() throws Exception {
+        // When
+        MockHttpServletResponse response = call("GET", "/actuator/health");
+        
+        // Then
+        assertEquals(200, response.getStatus());
+        assertTrue(registry.find("todoapp.concurrency.requests").counters().isEmpty());
+    }
+    
+    private void hold(String method, String uri, CountDownLatch started, CountDownLatch release) {
+        try {
+            filter.doFilter(request(method, uri), new MockHttpServletResponse(), (req, res) -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private MockHttpServletResponse call(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri), response, (req, res) -> { });
+        return response;
+    }
+    
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+}
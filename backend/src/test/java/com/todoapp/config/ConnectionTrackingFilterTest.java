@@ -0,0 +1,98 @@
+package com.todoapp.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionTrackingFilterTest {
+    
+    private SimpleMeterRegistry registry;
+    private ConnectionTrackingFilter filter;
+    private ConnectionTrackingDataSource dataSource;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new ConnectionTrackingFilter(registry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "holdThreshold", Duration.ofMillis(50));
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:tracking;DB_CLOSE_DELAY=-1");
+        dataSource = new ConnectionTrackingDataSource(h2);
+    }
+    
+    @Test
+    void recordsHoldTimeSeparatelyFromStatementTime() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/tasks/all");
+        
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                    statement.executeQuery();
+                    assertSame(connection, statement.getConnection());
+                }
+                // Work done while still holding the connection, e.g. serialization inside a session
+                Thread.sleep(80);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        
+        // Then
+        Timer hold = registry.get("todoapp.db.connection.hold").tag("uri", "/api/tasks/all").timer();
+        Timer statements = registry.get("todoapp.db.statement.time").tag("uri", "/api/tasks/all").timer();
+        assertEquals(1, hold.count());
+        assertTrue(hold.totalTime(TimeUnit.MILLISECONDS) >= 80);
+        assertTrue(statements.totalTime(TimeUnit.MILLISECONDS) < hold.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1.0, registry.get("todoapp.db.connection.long-holds").counter().count());
+        assertNull(ConnectionUsage.get());
+    }
+    
+    @Test
+    void shortHoldsAreNotFlagged() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("/api/tasks/recent");
+        
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        
+        // Then
+        assertEquals(1, registry.get("todoapp.db.connection.hold").timer().count());
+        assertNull(registry.find("todoapp.db.connection.long-holds").counter());
+    }
+    
+    @Test
+    void connectionsOutsideRequestsAreNotWrapped() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertFalse(java.lang.reflect.Proxy.isProxyClass(connection.getClass()));
+        }
+    }
+    
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,310 @@
+package com.todoapp.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.controller.SqlStatementRecorder.RecordedStatement;
+import com.todoapp.controller.SqlStatementRecorder.ThrowingRunnable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statement budgets for every auth and task endpoint: each call may run at most the given number of JDBC
+ * statements. Budgets are measured against a fresh user with cold caches, several tasks, tags and
+ * subtasks, so a per-task query (N+1) or an extra lookup makes the build fail with the list of statements
+ * and the repository method behind each. Lower a budget when a change removes statements.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1",
+        "todoapp.cache.recent-tasks.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(SqlStatementRecorder.class)
+@ActiveProfiles("test")
+class SqlStatementBudgetTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetTest.class);
+    private static final int TASKS = 5;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private String username;
+    private String token;
+    private long taskId;
+    private long parentId;
+    private long seriesId;
+    private LocalDateTime seriesStart;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        username = "budget" + UUID.randomUUID().toString().substring(0, 8);
+        token = register(username);
+        for (int i = 0; i < TASKS; i++) {
+            taskId = createTask(Map.of("title", "Task " + i, "tags", List.of("work", "tag" + i)));
+        }
+        parentId = createTask(Map.of("title", "Parent"));
+        for (int i = 0; i < 3; i++) {
+            createTask(Map.of("title", "Subtask " + i, "parentId", parentId));
+        }
+        seriesStart = LocalDate.now().atTime(9, 0);
+        seriesId = createTask(Map.of("title", "Standup", "recurrence", "daily", "dueDate", seriesStart.toString(), "tags", List.of("work")));
+    }
+    
+    // Auth endpoints
+    
+    @Test
+    void register() throws Exception {
+        String name = "budget" + UUID.randomUUID().toString().substring(0, 8);
+        assertBudget("POST /api/auth/register", 3, () -> mockMvc.perform(json(post("/api/auth/register"),
+                        Map.of("username", name, "email", name + "@example.com", "password", "password123", "confirmPassword", "password123")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void login() throws Exception {
+        assertBudget("POST /api/auth/login", 1, () -> mockMvc.perform(json(post("/api/auth/login"),
+                        Map.of("usernameOrEmail", username, "password", "password123")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void authTest() throws Exception {
+        assertBudget("GET /api/auth/test", 0, () -> mockMvc.perform(get("/api/auth/test"))
+                .andExpect(status().isOk()));
+    }
+    
+    // Task reads
+    
+    @Test
+    void getRecentTasks() throws Exception {
+        assertBudget("GET /api/tasks", 3, () -> mockMvc.perform(authorized(get("/api/tasks")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getTaskById() throws Exception {
+        assertBudget("GET /api/tasks/{id}", 3, () -> mockMvc.perform(authorized(get("/api/tasks/" + taskId)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getTaskTree() throws Exception {
+        assertBudget("GET /api/tasks/{id}/tree", 3, () -> mockMvc.perform(authorized(get("/api/tasks/" + parentId + "/tree")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getCompletedTasks() throws Exception {
+        assertBudget("GET /api/tasks/completed", 2, () -> mockMvc.perform(authorized(get("/api/tasks/completed")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getCompletedHistory() throws Exception {
+        assertBudget("GET /api/tasks/completed?history=true", 3, () -> mockMvc.perform(authorized(get("/api/tasks/completed?history=true")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getAgenda() throws Exception {
+        // One query beyond the agenda page loads recurring tasks and their stored occurrences for expansion
+        assertBudget("GET /api/tasks/agenda", 4, () -> mockMvc.perform(authorized(get("/api/tasks/agenda")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getAnalytics() throws Exception {
+        assertBudget("GET /api/tasks/analytics", 3, () -> mockMvc.perform(authorized(get("/api/tasks/analytics"))));
+    }
+    
+    @Test
+    void getAllTasks() throws Exception {
+        assertBudget("GET /api/tasks/all", 3, () -> mockMvc.perform(authorized(get("/api/tasks/all")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getAllTasksWithFields() throws Exception {
+        assertBudget("GET /api/tasks/all?fields=compact", 3, () -> mockMvc.perform(authorized(get("/api/tasks/all?fields=compact")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].priority").exists())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist()));
+        
+        // Only the fieldset's columns are read, and unknown fields are rejected
+        List<RecordedStatement> statements = SqlStatementRecorder.record(() -> mockMvc.perform(authorized(get("/api/tasks/all?fields=title,tags")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tags").exists()));
+        assertTrue(statements.stream().noneMatch(statement -> statement.getSql().toLowerCase().contains("description")), statements.toString());
+        mockMvc.perform(authorized(get("/api/tasks/all?fields=title,password"))).andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void getAllTasksByTags() throws Exception {
+        assertBudget("GET /api/tasks/all?tags=", 3, () -> mockMvc.perform(authorized(get("/api/tasks/all?tags=work,tag1&mode=any")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getAllTasksInManualOrder() throws Exception {
+        assertBudget("GET /api/tasks/all?order=manual", 3, () -> mockMvc.perform(authorized(get("/api/tasks/all?order=manual")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getTags() throws Exception {
+        assertBudget("GET /api/tasks/tags", 2, () -> mockMvc.perform(authorized(get("/api/tasks/tags")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getChangesIdle() throws Exception {
+        String since = syncToken("");
+        assertBudget("GET /api/tasks/changes (idle)", 2, () -> mockMvc.perform(authorized(get("/api/tasks/changes?since=" + since)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void getChanges() throws Exception {
+        String since = syncToken("");
+        mockMvc.perform(authorized(put("/api/tasks/" + taskId + "/complete"))).andExpect(status().isOk());
+        mockMvc.perform(authorized(delete("/api/tasks/" + parentId))).andExpect(status().is2xxSuccessful());
+        assertBudget("GET /api/tasks/changes", 4, () -> mockMvc.perform(authorized(get("/api/tasks/changes?since=" + since)))
+                .andExpect(status().isOk()));
+    }
+    
+    // Task writes (each also advances the user's change counter, an update and a read, and stamps the
+    // changed row; deletes add tombstones, creates read the user's last rank key)
+    
+    @Test
+    void createTask() throws Exception {
+        assertBudget("POST /api/tasks", 5, () -> mockMvc.perform(json(authorized(post("/api/tasks")), Map.of("title", "New task")))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    void createTaskWithTags() throws Exception {
+        assertBudget("POST /api/tasks (tags)", 11, () -> mockMvc.perform(json(authorized(post("/api/tasks")),
+                        Map.of("title", "Tagged", "tags", List.of("work", "home", "later"))))
+                .andExpect(status().isCreated()));
+    }
+    
+    @Test
+    void completeTask() throws Exception {
+        assertBudget("PUT /api/tasks/{id}/complete", 5, () -> mockMvc.perform(authorized(put("/api/tasks/" + taskId + "/complete")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void completeTaskTree() throws Exception {
+        assertBudget("PUT /api/tasks/{id}/complete-tree", 6, () -> mockMvc.perform(authorized(put("/api/tasks/" + parentId + "/complete-tree")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void setTaskTags() throws Exception {
+        assertBudget("PUT /api/tasks/{id}/tags", 14, () -> mockMvc.perform(json(authorized(put("/api/tasks/" + taskId + "/tags")),
+                        List.of("home", "urgent", "work")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void moveTask() throws Exception {
+        assertBudget("PUT /api/tasks/{id}/move", 7, () -> mockMvc.perform(json(authorized(put("/api/tasks/" + taskId + "/move")),
+                        Map.of("afterId", parentId)))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void completeOccurrence() throws Exception {
+        // Stores the occurrence as a new task, with the series' tags
+        assertBudget("PUT /api/tasks/{id}/occurrences/{at}/complete", 10, () -> mockMvc.perform(
+                        authorized(put("/api/tasks/" + seriesId + "/occurrences/" + seriesStart.plusDays(1) + "/complete")))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void updateOccurrence() throws Exception {
+        // Stores the edited occurrence as a new task, like completing one
+        assertBudget("PUT /api/tasks/{id}/occurrences/{at}", 10, () -> mockMvc.perform(
+                        json(authorized(put("/api/tasks/" + seriesId + "/occurrences/" + seriesStart.plusDays(1))),
+                                Map.of("title", "Moved standup", "dueDate", seriesStart.plusDays(1).plusHours(2).toString())))
+                .andExpect(status().isOk()));
+    }
+    
+    @Test
+    void deleteTask() throws Exception {
+        assertBudget("DELETE /api/tasks/{id}", 7, () -> mockMvc.perform(authorized(delete("/api/tasks/" + taskId)))
+                .andExpect(status().is2xxSuccessful()));
+    }
+    
+    @Test
+    void deleteTaskWithSubtasks() throws Exception {
+        assertBudget("DELETE /api/tasks/{id} (subtasks)", 8, () -> mockMvc.perform(authorized(delete("/api/tasks/" + parentId)))
+                .andExpect(status().is2xxSuccessful()));
+    }
+    
+    private void assertBudget(String endpoint, int budget, ThrowingRunnable call) throws Exception {
+        List<RecordedStatement> statements = SqlStatementRecorder.record(call);
+        String report = statements.stream().map(statement -> "  " + statement).collect(Collectors.joining("\n"));
+        logger.info("{} ran {} statements (budget {}):\n{}", endpoint, statements.size(), budget, report);
+        assertTrue(statements.size() <= budget,
+                endpoint + " ran " + statements.size() + " statements, budget is " + budget + ":\n" + report);
+    }
+    
+    private String register(String name) throws Exception {
+        String response = mockMvc.perform(json(post("/api/auth/register"),
+                        Map.of("username", name, "email", name + "@example.com", "password", "password123", "confirmPassword", "password123")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("token").asText();
+    }
+    
+    private long createTask(Map<String, Object> task) throws Exception {
+        String response = mockMvc.perform(json(authorized(post("/api/tasks")), task))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode created = objectMapper.readTree(response);
+        return created.get("id").asLong();
+    }
+    
+    private String syncToken(String since) throws Exception {
+        String response = mockMvc.perform(authorized(get("/api/tasks/changes?since=" + since)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("syncToken").asText();
+    }
+    
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + token);
+    }
+    
+    private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+    }
+}
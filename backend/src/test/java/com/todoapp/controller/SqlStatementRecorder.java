@@ -0,0 +1,176 @@
+package com.todoapp.controller;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Test harness that records every JDBC statement executed while recording is on, together with the
+ * repository method that issued it. Statements run outside a repository call (flushes at commit, plain
+ * JDBC) are attributed to the nearest application frame instead.
+ */
+@TestConfiguration
+public class SqlStatementRecorder {
+    
+    private static final ThreadLocal<Deque<String>> REPOSITORY_CALLS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final List<RecordedStatement> STATEMENTS = new ArrayList<>();
+    private static volatile boolean recording;
+    
+    /**
+     * Record the statements executed by an action
+     */
+    public static List<RecordedStatement> record(ThrowingRunnable action) throws Exception {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+    
+    @Bean
+    static BeanPostProcessor sqlStatementRecordingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaRepositoryFactoryBean) {
+                    ((JpaRepositoryFactoryBean<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, information) -> {
+                                String repository = information.getRepositoryInterface().getSimpleName();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                                    Deque<String> calls = REPOSITORY_CALLS.get();
+                                    calls.push(repository + "." + invocation.getMethod().getName());
+                                    try {
+                                        return invocation.proceed();
+                                    } finally {
+                                        calls.pop();
+                                    }
+                                });
+                            }));
+                }
+                return bean;
+            }
+            
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof RecordingDataSource)) {
+                    return new RecordingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    private static void statementExecuted(String sql) {
+        if (!recording) {
+            return;
+        }
+        String source = Optional.ofNullable(REPOSITORY_CALLS.get().peek()).orElseGet(SqlStatementRecorder::callingFrame);
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(new RecordedStatement(sql, source));
+        }
+    }
+    
+    private static String callingFrame() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.todoapp.")
+                        && !frame.getClassName().startsWith("com.todoapp.controller.SqlStatement")
+                        && !frame.getClassName().startsWith("com.todoapp.config.ConnectionTracking"))
+                .findFirst()
+                .map(frame -> "outside repository: " + frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        .replaceAll("\\$\\$.*", "") + "." + frame.getMethodName())
+                .orElse("<unknown>"));
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+    
+    public static final class RecordedStatement {
+        private final String sql;
+        private final String source;
+        
+        RecordedStatement(String sql, String source) {
+            this.sql = sql;
+            this.source = source;
+        }
+        
+        public String getSql() {
+            return sql;
+        }
+        
+        public String getSource() {
+            return source;
+        }
+        
+        @Override
+        public String toString() {
+            return source + ": " + sql.replaceAll("\\s+", " ");
+        }
+    }
+    
+    private static final class RecordingDataSource extends DelegatingDataSource {
+        
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws java.sql.SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof Statement) {
+                            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                            return wrap((Statement) result, sql);
+                        }
+                        return result;
+                    });
+        }
+        
+        private static Statement wrap(Statement statement, String preparedSql) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                            statementExecuted(method.getName().equals("executeBatch") ? "[batch] " + sql : sql);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+    }
+}
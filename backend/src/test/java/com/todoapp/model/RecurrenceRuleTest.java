@@ -0,0 +1,89 @@
+package com.todoapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecurrenceRuleTest {
+    
+    private static final LocalDateTime ANCHOR = LocalDateTime.of(2024, 1, 31, 9, 30);
+    
+    @Test
+    void parse_ShouldNormalizeRules() {
+        assertEquals("daily", RecurrenceRule.parse(" Daily ").toString());
+        assertEquals("daily:3", RecurrenceRule.parse("daily:3").toString());
+        assertEquals("weekly:mon,wed,fri", RecurrenceRule.parse("WEEKLY:fri, monday,Wed").toString());
+        assertEquals("cron:0 8 * * MON-FRI", RecurrenceRule.parse("cron:0 8 * * MON-FRI").toString());
+    }
+    
+    @Test
+    void parse_ShouldRejectInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("hourly"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("daily:0"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("weekly:mo"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("monthly:15"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("cron:not a cron"));
+    }
+    
+    @Test
+    void occurrences_ShouldJumpStraightToTheWindow() {
+        // Given: a series started ten years before the window
+        RecurrenceRule rule = RecurrenceRule.parse("daily:2");
+        LocalDateTime from = ANCHOR.plusYears(10);
+        
+        // When
+        List<LocalDateTime> occurrences = rule.occurrences(ANCHOR, from, from.plusDays(7), 100);
+        
+        // Then: every other day at the anchor's time, in step with the anchor (3653 days before the window)
+        assertEquals(List.of(from.plusDays(1), from.plusDays(3), from.plusDays(5)), occurrences);
+        for (LocalDateTime at : occurrences) {
+            assertEquals(ANCHOR.toLocalTime(), at.toLocalTime());
+            assertTrue(!at.isBefore(from) && at.isBefore(from.plusDays(7)));
+            assertEquals(0, ChronoUnit.DAYS.between(ANCHOR, at) % 2);
+        }
+    }
+    
+    @Test
+    void occurrences_ShouldStartAtTheAnchorAndRespectTheLimit() {
+        RecurrenceRule rule = RecurrenceRule.parse("weekly:mon,wed");
+        
+        // Wednesday 31 January 2024 is the anchor, so the first occurrences are Wed 31, Mon 5, Wed 7
+        List<LocalDateTime> occurrences = rule.occurrences(ANCHOR, ANCHOR.minusMonths(1), ANCHOR.plusMonths(1), 3);
+        
+        assertEquals(List.of(ANCHOR, LocalDateTime.of(2024, 2, 5, 9, 30), LocalDateTime.of(2024, 2, 7, 9, 30)), occurrences);
+    }
+    
+    @Test
+    void occurrences_ShouldKeepTheDayOfMonthAfterShortMonths() {
+        RecurrenceRule rule = RecurrenceRule.parse("monthly");
+        
+        List<LocalDateTime> occurrences = rule.occurrences(ANCHOR, ANCHOR, LocalDateTime.of(2024, 5, 1, 0, 0), 10);
+        
+        assertEquals(List.of(ANCHOR, LocalDateTime.of(2024, 2, 29, 9, 30), LocalDateTime.of(2024, 3, 31, 9, 30),
+                LocalDateTime.of(2024, 4, 30, 9, 30)), occurrences);
+    }
+    
+    @Test
+    void occurrences_ShouldFollowCronExpressions() {
+        RecurrenceRule rule = RecurrenceRule.parse("cron:0 8 * * MON-FRI");
+        
+        // Friday 2 February to Tuesday 6 February 2024
+        List<LocalDateTime> occurrences = rule.occurrences(ANCHOR, LocalDateTime.of(2024, 2, 2, 0, 0), LocalDateTime.of(2024, 2, 7, 0, 0), 10);
+        
+        assertEquals(List.of(LocalDateTime.of(2024, 2, 2, 8, 0), LocalDateTime.of(2024, 2, 5, 8, 0), LocalDateTime.of(2024, 2, 6, 8, 0)), occurrences);
+    }
+    
+    @Test
+    void occursAt_ShouldOnlyMatchActualOccurrences() {
+        RecurrenceRule rule = RecurrenceRule.parse("daily");
+        
+        assertTrue(rule.occursAt(ANCHOR, ANCHOR.plusDays(400)));
+        assertFalse(rule.occursAt(ANCHOR, ANCHOR.plusDays(400).plusMinutes(1)));
+        assertFalse(rule.occursAt(ANCHOR, ANCHOR.minusDays(1)));
+    }
+}
@@ -0,0 +1,16 @@
+package com.todoapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskPriorityTest {
+    
+    @Test
+    void fromLabel_ShouldParseLabelsCaseInsensitively() {
+        assertEquals(TaskPriority.HIGH, TaskPriority.fromLabel("high"));
+        assertEquals(TaskPriority.MEDIUM, TaskPriority.fromLabel(" Medium "));
+        assertNull(TaskPriority.fromLabel(""));
+        assertThrows(IllegalArgumentException.class, () -> TaskPriority.fromLabel("someday"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.todoapp.service;
+
+import com.todoapp.model.AccountDeletion;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.AccountDeletionRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.storage.EmbeddedTaskStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:embeddedaccounts;DB_CLOSE_DELAY=-1",
+        "todoapp.storage.engine=embedded",
+        "todoapp.storage.embedded.directory=",
+        "todoapp.account-deletion.enabled=true",
+        "todoapp.account-deletion.initial-delay=PT1H",
+        "todoapp.account-deletion.batch-pause=0ms"
+})
+@ActiveProfiles("test")
+class AccountDeletionEmbeddedIntegrationTest {
+    
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private EmbeddedTaskStore store;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private AccountDeletionRepository deletionRepository;
+    
+    @Test
+    void deletionPurgesTheUsersTasksFromTheEmbeddedStore() {
+        // Given
+        User user = userRepository.save(new User("embeddedleaver", "embeddedleaver@example.com", "secret"));
+        User neighbour = userRepository.save(new User("embeddedstayer", "embeddedstayer@example.com", "secret"));
+        for (int i = 0; i < 4; i++) {
+            taskService.createTaskForUser(new Task("Task " + i, null), user);
+        }
+        Task kept = taskService.createTaskForUser(new Task("Keep me", null), neighbour);
+        accountDeletionService.requestDeletion(user.getId());
+        
+        // When
+        accountDeletionService.deletePendingAccounts();
+        
+        // Then
+        assertTrue(store.findAll(user.getId()).isEmpty());
+        assertNotNull(store.get(kept.getId()));
+        AccountDeletion done = deletionRepository.findById(user.getId()).orElseThrow();
+        assertNotNull(done.getCompletedAt());
+        assertTrue(done.getDeletedRows() >= 4);
+        assertFalse(userRepository.existsById(user.getId()));
+    }
+}
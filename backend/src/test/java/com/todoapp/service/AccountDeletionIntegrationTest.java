@@ -0,0 +1,100 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.LoginRequest;
+import com.todoapp.model.AccountDeletion;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.AccountDeletionRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accounts;DB_CLOSE_DELAY=-1",
+        "todoapp.account-deletion.enabled=true",
+        "todoapp.account-deletion.initial-delay=PT1H",
+        "todoapp.account-deletion.batch-size=2",
+        "todoapp.account-deletion.batch-pause=0ms"
+})
+@ActiveProfiles("test")
+class AccountDeletionIntegrationTest {
+    
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private AuthService authService;
+    
+    @Autowired
+    private UserDetailsService userDetailsService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private AccountDeletionRepository deletionRepository;
+    
+    @Test
+    void requestDeletionDisablesTheUserImmediately() {
+        // Given
+        User user = userRepository.save(new User("leaving", "leaving@example.com", authService.encodePassword("secret1")));
+        
+        // When
+        AccountDeletion deletion = accountDeletionService.requestDeletion(user.getId());
+        
+        // Then
+        assertNull(deletion.getCompletedAt());
+        assertEquals(deletion.getUserId(), accountDeletionService.requestDeletion(user.getId()).getUserId());
+        assertFalse(userDetailsService.loadUserByUsername("leaving").isEnabled());
+        assertThrows(RuntimeException.class, () -> authService.login(new LoginRequest("leaving", "secret1")));
+    }
+    
+    @Test
+    void deletionRemovesRowsInBatchesAndResumes() {
+        // Given
+        User user = userRepository.save(new User("heavy", "heavy@example.com", "secret"));
+        User neighbour = userRepository.save(new User("neighbour", "neighbour@example.com", "secret"));
+        for (int i = 0; i < 7; i++) {
+            Task task = new Task("Task " + i, null, user);
+            task.setTags(List.of("bulk"));
+            taskService.createTaskForUser(task, user);
+        }
+        Task kept = taskService.createTaskForUser(new Task("Keep me", null, neighbour), neighbour);
+        accountDeletionService.requestDeletion(user.getId());
+        
+        // When: a run that runs out of budget part-way, as after a crash
+        int left = accountDeletionService.deleteAccount(user.getId(), 3);
+        
+        // Then
+        assertEquals(0, left);
+        AccountDeletion partial = deletionRepository.findById(user.getId()).orElseThrow();
+        assertEquals(6, partial.getDeletedRows());
+        assertNull(partial.getCompletedAt());
+        assertTrue(userRepository.existsById(user.getId()));
+        
+        // When: the next run picks it up again
+        accountDeletionService.deletePendingAccounts();
+        
+        // Then: 7 task_tag rows, 1 tag, 7 tasks and the change counter
+        AccountDeletion done = deletionRepository.findById(user.getId()).orElseThrow();
+        assertNotNull(done.getCompletedAt());
+        assertEquals(16, done.getDeletedRows());
+        assertFalse(userRepository.existsById(user.getId()));
+        assertTrue(taskRepository.existsById(kept.getId()));
+        assertTrue(deletionRepository.findPending().isEmpty());
+    }
+}
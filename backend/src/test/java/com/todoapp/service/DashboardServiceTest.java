@@ -0,0 +1,99 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.DashboardResponse;
+import com.todoapp.dto.TaskStats;
+import com.todoapp.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+    
+    @Mock
+    private TaskService taskService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private DashboardService dashboardService;
+    private ExecutorService executor;
+    private final User user = new User("dashboard", "dashboard@example.com", "secret");
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        dashboardService = new DashboardService(taskService, executor, transactionManager);
+        ReflectionTestUtils.setField(dashboardService, "timeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(dashboardService, "storageEngine", "jpa");
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void getDashboard_ShouldRunEachReadInAReadOnlyTransactionBoundedByTheDeadline() throws Exception {
+        // Given
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(taskService.getRecentTasksByUser(user)).thenReturn(List.of());
+        when(taskService.getRecentCompletedTasksByUser(user)).thenReturn(List.of());
+        when(taskService.getTaskStatsByUser(user)).thenReturn(new TaskStats(0, 0, 0, 0));
+        
+        // When
+        DashboardResponse response = dashboardService.getDashboard(user);
+        
+        // Then
+        assertNotNull(response);
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(3)).getTransaction(definitions.capture());
+        for (TransactionDefinition definition : definitions.getAllValues()) {
+            assertTrue(definition.isReadOnly());
+            assertTrue(definition.getTimeout() >= 1 && definition.getTimeout() <= 2);
+        }
+    }
+    
+    @Test
+    void getDashboard_ShouldCancelReadsStillQueuedAtTheDeadline() throws Exception {
+        // Given: the only worker is stuck in the first read, so the other two stay queued
+        ReflectionTestUtils.setField(dashboardService, "timeout", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(dashboardService, "storageEngine", "embedded");
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.getRecentTasksByUser(user)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        
+        // When
+        assertThrows(TimeoutException.class, () -> dashboardService.getDashboard(user));
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        
+        // Then
+        verify(taskService, never()).getRecentCompletedTasksByUser(user);
+        verify(taskService, never()).getTaskStatsByUser(user);
+        verifyNoInteractions(transactionManager);
+    }
+}
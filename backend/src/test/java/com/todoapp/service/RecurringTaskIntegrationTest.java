@@ -0,0 +1,118 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskOccurrenceUpdate;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:recurrence;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class RecurringTaskIntegrationTest {
+    
+    private static final LocalDateTime MONDAY = LocalDate.of(2030, 1, 7).atTime(9, 0);
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void agendaExpandsOccurrencesWithoutStoringThem() {
+        // Given: a daily series and a one-off task due in the middle of the week
+        User user = userRepository.save(new User("routine", "routine@example.com", "secret"));
+        Task series = createSeries(user, "Standup", "daily");
+        Task oneOff = create(user, "Review", MONDAY.plusDays(2).plusHours(1));
+        
+        // When
+        List<Task> agenda = taskService.getAgendaByUser(user, 20, MONDAY, MONDAY.plusDays(7));
+        
+        // Then: seven occurrences without IDs, in due order with the stored task, and no rows written for them
+        assertEquals(8, agenda.size());
+        assertEquals(List.of(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2), MONDAY.plusDays(2).plusHours(1), MONDAY.plusDays(3)),
+                agenda.subList(0, 5).stream().map(Task::getDueDate).toList());
+        assertEquals(oneOff.getId(), agenda.get(3).getId());
+        assertTrue(agenda.stream().filter(task -> task != agenda.get(3))
+                .allMatch(task -> task.getId() == null && series.getId().equals(task.getSeriesId())));
+        assertEquals(2, taskRepository.findAllTasksByUser(user).size());
+        
+        assertEquals(3, taskService.getAgendaByUser(user, 3, MONDAY, MONDAY.plusDays(7)).size());
+        assertEquals(1, taskService.getAgendaByUser(user, 20, MONDAY.minusDays(7), MONDAY).size());
+    }
+    
+    @Test
+    void completingOrEditingAnOccurrenceStoresOnlyThatOccurrence() {
+        // Given
+        User user = userRepository.save(new User("gardener", "gardener@example.com", "secret"));
+        Task series = createSeries(user, "Water plants", "weekly:mon,thu");
+        LocalDateTime thursday = MONDAY.plusDays(3);
+        
+        // When
+        Task completed = taskService.completeOccurrence(series.getId(), MONDAY, user).orElseThrow();
+        Task edited = taskService.updateOccurrence(series.getId(), thursday,
+                new TaskOccurrenceUpdate("Water plants twice", null, TaskPriority.HIGH, thursday.plusHours(8)), user).orElseThrow();
+        
+        // Then: both are real tasks linked to the series, and drop out of the expansion
+        assertTrue(completed.getCompleted());
+        assertEquals(MONDAY, completed.getOccurrenceAt());
+        assertEquals(series.getId(), edited.getSeriesId());
+        assertEquals(thursday.plusHours(8), edited.getDueDate());
+        
+        List<Task> agenda = taskService.getAgendaByUser(user, 20, MONDAY, MONDAY.plusDays(7));
+        assertEquals(List.of(edited.getId()), agenda.stream().filter(task -> task.getId() != null).map(Task::getId).toList());
+        assertEquals(List.of(thursday.plusHours(8)), agenda.stream().map(Task::getDueDate).toList());
+        
+        // Editing the same occurrence again updates the stored task rather than adding one
+        Task completedEdit = taskService.completeOccurrence(series.getId(), thursday, user).orElseThrow();
+        assertEquals(edited.getId(), completedEdit.getId());
+        assertEquals(3, taskRepository.findAllTasksByUser(user).size());
+        assertTrue(taskService.getAgendaByUser(user, 20, MONDAY, MONDAY.plusDays(7)).isEmpty());
+        
+        // Completing the series itself ends it
+        taskService.completeTask(series.getId(), user);
+        assertTrue(taskService.getAgendaByUser(user, 20, MONDAY, MONDAY.plusDays(28)).isEmpty());
+    }
+    
+    @Test
+    void invalidRulesAndOccurrencesAreRejected() {
+        User user = userRepository.save(new User("skeptic", "skeptic@example.com", "secret"));
+        Task series = createSeries(user, "Report", "monthly");
+        User stranger = userRepository.save(new User("outsider", "outsider@example.com", "secret"));
+        
+        assertThrows(IllegalArgumentException.class, () -> createSeries(user, "Bad", "fortnightly"));
+        Task undated = new Task("Undated", null);
+        undated.setRecurrence("daily");
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTaskForUser(undated, user));
+        
+        assertThrows(IllegalArgumentException.class, () -> taskService.completeOccurrence(series.getId(), MONDAY.plusDays(1), user));
+        assertTrue(taskService.completeOccurrence(series.getId(), MONDAY, stranger).isEmpty());
+    }
+    
+    private Task createSeries(User user, String title, String recurrence) {
+        Task task = new Task(title, null);
+        task.setDueDate(MONDAY);
+        task.setRecurrence(recurrence);
+        return taskService.createTaskForUser(task, user);
+    }
+    
+    private Task create(User user, String title, LocalDateTime dueDate) {
+        Task task = new Task(title, null);
+        task.setDueDate(dueDate);
+        return taskService.createTaskForUser(task, user);
+    }
+}
@@ -0,0 +1,142 @@
+package com.todoapp.service;
+
+import com.todoapp.cache.ListAccessCache;
+import com.todoapp.model.ListRole;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskList;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sharedlists;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SharedListIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskListService taskListService;
+    
+    @Autowired
+    private ListAccessCache listAccessCache;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void membersGetTheirRoleOnTasksInTheList() {
+        // Given: a list shared with an editor and a viewer, and a task added by the editor
+        User owner = userRepository.save(new User("teamlead", "teamlead@example.com", "secret"));
+        User editor = userRepository.save(new User("developer", "developer@example.com", "secret"));
+        User viewer = userRepository.save(new User("stakeholder", "stakeholder@example.com", "secret"));
+        User stranger = userRepository.save(new User("passerby", "passerby@example.com", "secret"));
+        TaskList list = taskListService.createList("Release", owner);
+        taskListService.setMember(list.getId(), "developer", ListRole.EDITOR, owner);
+        taskListService.setMember(list.getId(), "stakeholder", ListRole.VIEWER, owner);
+        
+        Task task = create(editor, "Write changelog", list.getId());
+        
+        // Then: the task belongs to the list owner and everyone on the list sees it
+        assertEquals(owner.getId(), task.getUser().getId());
+        assertEquals(List.of(task.getId()), taskListService.getTasks(list.getId(), viewer).orElseThrow().stream().map(Task::getId).toList());
+        assertTrue(taskService.getTaskById(task.getId(), viewer).isPresent());
+        assertTrue(taskService.getTaskById(task.getId(), stranger).isEmpty());
+        assertTrue(taskListService.getTasks(list.getId(), stranger).isEmpty());
+        
+        // Viewers cannot change tasks or add to the list; editors can
+        assertThrows(IllegalArgumentException.class, () -> taskService.completeTask(task.getId(), viewer));
+        assertThrows(IllegalArgumentException.class, () -> create(viewer, "Sneak in", list.getId()));
+        assertTrue(taskService.completeTask(task.getId(), editor).getCompleted());
+        
+        assertEquals(List.of(ListRole.OWNER), roles(owner));
+        assertEquals(List.of(ListRole.VIEWER), roles(viewer));
+    }
+    
+    @Test
+    void accessDecisionsAreCachedUntilMembershipChanges() {
+        // Given
+        User owner = userRepository.save(new User("organizer", "organizer@example.com", "secret"));
+        User member = userRepository.save(new User("volunteer", "volunteer@example.com", "secret"));
+        TaskList list = taskListService.createList("Event", owner);
+        Task task = create(owner, "Book venue", list.getId());
+        taskListService.setMember(list.getId(), "volunteer", ListRole.VIEWER, owner);
+        
+        // When: the member reads the task repeatedly
+        assertTrue(taskService.getTaskById(task.getId(), member).isPresent());
+        long misses = listAccessCache.getMisses();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(taskService.getTaskById(task.getId(), member).isPresent());
+        }
+        
+        // Then: only the first read loaded the member's access
+        assertEquals(misses, listAccessCache.getMisses());
+        
+        // Promoting the member takes effect at once
+        taskListService.setMember(list.getId(), "volunteer", ListRole.EDITOR, owner);
+        assertTrue(taskService.completeTask(task.getId(), member).getCompleted());
+        
+        // So does removing them
+        assertTrue(taskListService.removeMember(list.getId(), "volunteer", owner));
+        assertTrue(taskService.getTaskById(task.getId(), member).isEmpty());
+        assertTrue(roles(member).isEmpty());
+    }
+    
+    @Test
+    void deletingAListKeepsItsTasksWithTheOwner() {
+        User owner = userRepository.save(new User("archivist", "archivist@example.com", "secret"));
+        User member = userRepository.save(new User("reader", "reader@example.com", "secret"));
+        TaskList list = taskListService.createList("Reading", owner);
+        taskListService.setMember(list.getId(), "reader", ListRole.EDITOR, owner);
+        Task task = create(member, "Finish chapter", list.getId());
+        
+        assertFalse(taskListService.deleteList(list.getId(), member));
+        assertTrue(taskListService.deleteList(list.getId(), owner));
+        
+        assertTrue(taskService.getTaskById(task.getId(), member).isEmpty());
+        Task kept = taskService.getTaskById(task.getId(), owner).orElseThrow();
+        assertNull(kept.getListId());
+        assertTrue(taskListService.setMember(list.getId(), "reader", ListRole.VIEWER, owner).isEmpty());
+    }
+    
+    @Test
+    void editorsMoveListTasksWithinTheOwnersOrder() {
+        // Given
+        User owner = userRepository.save(new User("planner", "planner@example.com", "secret"));
+        User editor = userRepository.save(new User("helper", "helper@example.com", "secret"));
+        User viewer = userRepository.save(new User("watcher", "watcher@example.com", "secret"));
+        TaskList list = taskListService.createList("Moving day", owner);
+        taskListService.setMember(list.getId(), "helper", ListRole.EDITOR, owner);
+        taskListService.setMember(list.getId(), "watcher", ListRole.VIEWER, owner);
+        Task first = create(owner, "Pack boxes", list.getId());
+        Task second = create(owner, "Rent van", list.getId());
+        Task personal = create(owner, "Call mum", null);
+        
+        // When
+        Task moved = taskService.moveTask(first.getId(), second.getId(), editor).orElseThrow();
+        
+        // Then: the owner's order changed
+        assertTrue(moved.getSortKey().compareTo(taskService.getTaskById(second.getId(), owner).orElseThrow().getSortKey()) > 0);
+        
+        // Viewers cannot move, and editors cannot place tasks next to ones they cannot see
+        assertTrue(taskService.moveTask(second.getId(), null, viewer).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskService.moveTask(second.getId(), personal.getId(), editor));
+    }
+    
+    private Task create(User user, String title, Long listId) {
+        Task task = new Task(title, null);
+        task.setListId(listId);
+        return taskService.createTaskForUser(task, user);
+    }
+    
+    private List<ListRole> roles(User user) {
+        return taskListService.getListsByUser(user).stream().map(TaskList::getRole).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.DailyActivity;
+import com.todoapp.dto.PriorityThroughput;
+import com.todoapp.dto.TaskAnalytics;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+import com.todoapp.repository.RollupWatermarkRepository;
+import com.todoapp.repository.TaskDailyRollupRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:analytics;DB_CLOSE_DELAY=-1",
+        "todoapp.analytics.enabled=true",
+        "todoapp.analytics.settle-delay=0s",
+        "todoapp.analytics.initial-delay=PT1H",
+        "todoapp.analytics.max-rows-per-window=2"
+})
+@ActiveProfiles("test")
+class TaskAnalyticsIntegrationTest {
+    
+    @Autowired
+    private TaskRollupService rollupService;
+    
+    @Autowired
+    private TaskAnalyticsService analyticsService;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TaskDailyRollupRepository rollupRepository;
+    
+    @Autowired
+    private RollupWatermarkRepository watermarkRepository;
+    
+    @BeforeEach
+    void resetRollups() {
+        rollupRepository.deleteAll();
+        watermarkRepository.deleteAll();
+    }
+    
+    @Test
+    void rollUpBackfillsHistoryIntoDailyCounts() {
+        // Given
+        User user = userRepository.save(new User("history", "history@example.com", "secret"));
+        LocalDateTime dayOne = LocalDate.now().minusDays(3).atTime(9, 0);
+        save(user, TaskPriority.HIGH, dayOne, dayOne.plusHours(1));
+        save(user, TaskPriority.HIGH, dayOne.plusMinutes(5), dayOne.plusDays(1));
+        save(user, TaskPriority.LOW, dayOne.plusMinutes(10), null);
+        
+        // When
+        rollupService.rollUp();
+        TaskAnalytics analytics = analyticsService.getAnalytics(user, dayOne.toLocalDate(), dayOne.toLocalDate().plusDays(1));
+        
+        // Then
+        assertEquals(2, analytics.getDays().size());
+        DailyActivity first = analytics.getDays().get(0);
+        DailyActivity second = analytics.getDays().get(1);
+        assertEquals(3, first.getCreated());
+        assertEquals(1, first.getCompleted());
+        assertEquals(0, second.getCreated());
+        assertEquals(1, second.getCompleted());
+        
+        assertEquals(2, analytics.getCompletionLatency().getCount());
+        assertEquals((3600 + 86100) / 2, analytics.getCompletionLatency().getMeanSeconds());
+        assertWithin(3600, analytics.getCompletionLatency().getP50Seconds());
+        assertWithin(86100, analytics.getCompletionLatency().getP99Seconds());
+        
+        PriorityThroughput high = priority(analytics, TaskPriority.HIGH);
+        assertEquals(2, high.getCreated());
+        assertEquals(2, high.getCompleted());
+        assertEquals(1.0, high.getCompletedPerDay());
+        assertEquals(1, priority(analytics, TaskPriority.LOW).getCreated());
+        assertNotNull(analytics.getRolledUpUntil());
+    }
+    
+    @Test
+    void rollUpOnlyAddsActivityAfterTheWatermark() {
+        // Given
+        User user = userRepository.save(new User("incremental", "incremental@example.com", "secret"));
+        Task task = save(user, TaskPriority.MEDIUM, LocalDateTime.now().minusMinutes(10), null);
+        rollupService.rollUp();
+        
+        // When
+        task.setCompleted(true);
+        task.setCompletedAt(LocalDateTime.now());
+        taskRepository.save(task);
+        rollupService.rollUp();
+        rollupService.rollUp();
+        taskRepository.delete(task);
+        rollupService.rollUp();
+        
+        // Then
+        LocalDate today = LocalDate.now();
+        TaskAnalytics analytics = analyticsService.getAnalytics(user, today.minusDays(1), today);
+        long created = analytics.getDays().stream().mapToLong(DailyActivity::getCreated).sum();
+        long completed = analytics.getDays().stream().mapToLong(DailyActivity::getCompleted).sum();
+        assertEquals(1, created);
+        assertEquals(1, completed);
+    }
+    
+    @Test
+    void getAnalyticsRejectsReversedAndOversizedRanges() {
+        User user = userRepository.save(new User("ranges", "ranges@example.com", "secret"));
+        LocalDate today = LocalDate.now();
+        
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getAnalytics(user, today, today.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getAnalytics(user, today.minusYears(2), today));
+    }
+    
+    private Task save(User user, TaskPriority priority, LocalDateTime createdAt, LocalDateTime completedAt) {
+        Task task = new Task("Task", null, user);
+        task.setPriority(priority);
+        task.setCreatedAt(createdAt);
+        task.setCompleted(completedAt != null);
+        task.setCompletedAt(completedAt);
+        return taskRepository.save(task);
+    }
+    
+    private static PriorityThroughput priority(TaskAnalytics analytics, TaskPriority priority) {
+        return analytics.getPriorities().stream()
+                .filter(p -> p.getPriority() == priority)
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 8, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,94 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskArchiveRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class TaskArchiveIntegrationTest {
+    
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private TaskArchiveRepository taskArchiveRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void archiveBatchMovesCompletedTasksAndSkipsParentsWithSubtasks() {
+        // Given: two finished tasks, a finished parent whose subtask is still live, and an open task
+        User user = userRepository.save(new User("archivist", "archivist@example.com", "secret"));
+        Task first = complete(create(user, "First", null), user);
+        Task second = complete(create(user, "Second", null), user);
+        Task parent = create(user, "Parent", null);
+        Task child = create(user, "Child", parent.getId());
+        complete(parent, user);
+        Task open = create(user, "Open", null);
+        taskService.setTaskTags(parent.getId(), user, List.of("home"));
+        long token = Long.parseLong(taskService.getChangesSince(user, 0).getSyncToken());
+        LocalDateTime cutoff = LocalDateTime.now().plusMinutes(1);
+        
+        // When
+        int moved = taskArchiveService.archiveBatch(cutoff);
+        
+        // Then: only the two leaves moved, and synced clients see them as deleted
+        assertEquals(2, moved);
+        assertTrue(taskArchiveRepository.existsById(first.getId()));
+        assertTrue(taskArchiveRepository.existsById(second.getId()));
+        assertEquals("First", taskArchiveRepository.findById(first.getId()).orElseThrow().getTitle());
+        assertFalse(taskRepository.existsById(first.getId()));
+        assertFalse(taskRepository.existsById(second.getId()));
+        assertTrue(taskRepository.existsById(parent.getId()));
+        assertFalse(taskArchiveRepository.existsById(parent.getId()));
+        assertTrue(taskRepository.existsById(open.getId()));
+        List<Long> deleted = taskService.getChangesSince(user, token).getDeleted();
+        assertEquals(2, deleted.size());
+        assertTrue(deleted.containsAll(List.of(first.getId(), second.getId())));
+        
+        // History merges live and archived tasks, with tags on the live ones
+        List<Task> history = taskService.getCompletedTaskHistoryByUser(user, 10);
+        assertEquals(3, history.size());
+        assertTrue(history.stream().map(Task::getId).toList().containsAll(List.of(first.getId(), second.getId(), parent.getId())));
+        Task liveParent = history.stream().filter(task -> task.getId().equals(parent.getId())).findFirst().orElseThrow();
+        assertEquals(List.of("home"), liveParent.getTags());
+        
+        // The parent follows once its subtask is finished and archived
+        complete(child, user);
+        assertEquals(1, taskArchiveService.archiveBatch(cutoff.plusMinutes(1)));
+        assertTrue(taskArchiveRepository.existsById(child.getId()));
+        assertTrue(taskRepository.existsById(parent.getId()));
+        assertEquals(1, taskArchiveService.archiveBatch(cutoff.plusMinutes(1)));
+        assertTrue(taskArchiveRepository.existsById(parent.getId()));
+        assertEquals(0, taskArchiveService.archiveBatch(cutoff.plusMinutes(1)));
+    }
+    
+    private Task create(User user, String title, Long parentId) {
+        Task task = new Task(title, null);
+        task.setParentId(parentId);
+        return taskService.createTaskForUser(task, user);
+    }
+    
+    private Task complete(Task task, User user) {
+        return taskService.completeTask(task.getId(), user);
+    }
+}
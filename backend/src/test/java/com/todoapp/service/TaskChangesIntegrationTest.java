@@ -0,0 +1,85 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskChanges;
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:deltasync;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class TaskChangesIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void changesSinceTokenReturnOnlyWritesAfterIt() {
+        // Given: a client that synced after three tasks were created
+        User user = userRepository.save(new User("syncer", "syncer@example.com", "secret"));
+        Task kept = create(user, "Kept", null);
+        Task done = create(user, "Done", null);
+        Task gone = create(user, "Gone", null);
+        Task child = create(user, "Gone child", gone.getId());
+        TaskChanges snapshot = taskService.getChangesSince(user, 0);
+        assertTrue(snapshot.isReset());
+        assertEquals(4, snapshot.getChanged().size());
+        long token = Long.parseLong(snapshot.getSyncToken());
+        
+        // When
+        taskService.completeTask(done.getId(), user);
+        taskService.deleteTask(gone.getId(), user);
+        Task added = create(user, "Added", null);
+        TaskChanges changes = taskService.getChangesSince(user, token);
+        
+        // Then
+        assertFalse(changes.isReset());
+        assertEquals(List.of(done.getId(), added.getId()), changes.getChanged().stream().map(Task::getId).toList());
+        assertTrue(changes.getChanged().get(0).getCompleted());
+        assertEquals(2, changes.getDeleted().size());
+        assertTrue(changes.getDeleted().containsAll(List.of(gone.getId(), child.getId())));
+        assertFalse(changes.getDeleted().contains(kept.getId()));
+        
+        // Nothing happened since: the next refresh is empty and keeps the token
+        TaskChanges idle = taskService.getChangesSince(user, Long.parseLong(changes.getSyncToken()));
+        assertTrue(idle.getChanged().isEmpty());
+        assertTrue(idle.getDeleted().isEmpty());
+        assertEquals(changes.getSyncToken(), idle.getSyncToken());
+        
+        // Other users' writes do not show up
+        User other = userRepository.save(new User("bystander", "bystander@example.com", "secret"));
+        create(other, "Elsewhere", null);
+        assertTrue(taskService.getChangesSince(user, Long.parseLong(changes.getSyncToken())).getChanged().isEmpty());
+    }
+    
+    @Test
+    void unknownTokenFallsBackToSnapshot() {
+        // Given
+        User user = userRepository.save(new User("drifter", "drifter@example.com", "secret"));
+        create(user, "Only", null);
+        
+        // When
+        TaskChanges changes = taskService.getChangesSince(user, 1_000_000);
+        
+        // Then
+        assertTrue(changes.isReset());
+        assertEquals(1, changes.getChanged().size());
+        assertEquals("1", changes.getSyncToken());
+    }
+    
+    private Task create(User user, String title, Long parentId) {
+        Task task = new Task(title, null);
+        task.setParentId(parentId);
+        return taskService.createTaskForUser(task, user);
+    }
+}
@@ -0,0 +1,103 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1",
+        "todoapp.group-commit.enabled=true",
+        "todoapp.group-commit.max-delay=20ms",
+        "todoapp.group-commit.max-batch-size=16"
+})
+@ActiveProfiles("test")
+class TaskCreateBatcherIntegrationTest {
+    
+    @Autowired
+    private TaskCreateBatcher taskCreateBatcher;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void concurrentCreatesEachGetTheirOwnId() throws Exception {
+        // Given
+        User user = userRepository.save(new User("batched", "batched@example.com", "secret"));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        
+        // When
+        List<Future<Task>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 100; i++) {
+                Task task = new Task("Task " + i, "Created in a batch", null);
+                results.add(executor.submit(() -> taskCreateBatcher.create(task, user)));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<Task> result : results) {
+                ids.add(result.get().getId());
+            }
+            
+            // Then
+            assertEquals(100, ids.size());
+            assertFalse(ids.contains(null));
+            assertEquals(100, taskRepository.findAllTasksByUser(user).size());
+            Task stored = taskRepository.findById(results.get(7).get().getId()).orElseThrow();
+            assertEquals("Task 7", stored.getTitle());
+            assertFalse(stored.getCompleted());
+            assertEquals(user.getId(), stored.getUser().getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void failedCreateOnlyFailsItsOwnRequest() throws Exception {
+        // Given
+        User user = userRepository.save(new User("partial", "partial@example.com", "secret"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        
+        // When
+        List<Future<Task>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                // Longer than the title column, so the whole batch insert fails
+                String title = i == 3 ? "x".repeat(1000) : "Task " + i;
+                Task task = new Task(title, null, null);
+                results.add(executor.submit(() -> taskCreateBatcher.create(task, user)));
+            }
+            
+            // Then
+            for (int i = 0; i < 8; i++) {
+                if (i == 3) {
+                    Future<Task> failed = results.get(i);
+                    assertThrows(ExecutionException.class, failed::get);
+                } else {
+                    assertNotNull(results.get(i).get().getId());
+                }
+            }
+            assertEquals(7, taskRepository.findAllTasksByUser(user).size());
+            assertThrows(IllegalArgumentException.class, () -> taskCreateBatcher.create(new Task(" ", null, null), user));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Request-side behaviour when the writer does not answer; the writer itself is replaced by a thread that
+ * never runs, and the test plays its part on the queue
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskCreateBatcherTest {
+    
+    @Mock
+    private TaskService taskService;
+    
+    @Mock
+    private TaskChangeLog taskChangeLog;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private DataSource dataSource;
+    
+    private TaskCreateBatcher batcher;
+    private BlockingQueue<TaskCreateBatcher.PendingCreate> queue;
+    private ExecutorService executor;
+    private final User user = new User("waiting", "waiting@example.com", "secret");
+    
+    @BeforeEach
+    void setUp() {
+        batcher = new TaskCreateBatcher(taskService, taskChangeLog, eventPublisher, transactionManager, dataSource);
+        queue = new ArrayBlockingQueue<>(10);
+        ReflectionTestUtils.setField(batcher, "queue", queue);
+        ReflectionTestUtils.setField(batcher, "writer", new Thread(() -> { }));
+        ReflectionTestUtils.setField(batcher, "running", true);
+        ReflectionTestUtils.setField(batcher, "waitTimeout", Duration.ofMillis(100));
+        executor = Executors.newSingleThreadExecutor();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void createNotPickedUpInTimeIsCreatedDirectly() throws Exception {
+        // Given
+        Task task = new Task("Not batched", null);
+        Task created = new Task("Not batched", null);
+        created.setId(42L);
+        when(taskService.createTaskForUser(task, user)).thenReturn(created);
+        
+        // When: nobody takes the create off the queue
+        Task result = batcher.create(task, user);
+        
+        // Then
+        assertEquals(42L, result.getId());
+        verify(taskService).createTaskForUser(task, user);
+    }
+    
+    @Test
+    void createHeldByAStuckWriterTimesOutWithoutADuplicate() throws Exception {
+        // Given
+        Future<Task> result = executor.submit(() -> batcher.create(new Task("Stuck", null), user));
+        TaskCreateBatcher.PendingCreate pending = queue.poll(5, TimeUnit.SECONDS);
+        
+        // When: the writer takes the create and then blocks
+        assertTrue(pending.claim());
+        
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        verify(taskService, never()).createTaskForUser(any(), any());
+    }
+    
+    @Test
+    void createsQueuedAtShutdownAreRejected() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(batcher, "waitTimeout", Duration.ofSeconds(30));
+        Future<Task> result = executor.submit(() -> batcher.create(new Task("Too late", null), user));
+        while (queue.isEmpty()) {
+            Thread.sleep(5);
+        }
+        
+        // When
+        batcher.stop();
+        
+        // Then: the request fails at once, not after its timeout
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        verify(taskService, never()).createTaskForUser(any(), any());
+    }
+}
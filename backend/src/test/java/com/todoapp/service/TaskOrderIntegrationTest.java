@@ -0,0 +1,125 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.util.RankKeys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ordering;DB_CLOSE_DELAY=-1",
+        "todoapp.ordering.rebalance.enabled=true",
+        "todoapp.ordering.rebalance.user-pause=0ms"
+})
+@ActiveProfiles("test")
+class TaskOrderIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskOrderRebalancer taskOrderRebalancer;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void moveRewritesOnlyTheMovedTask() {
+        // Given: new tasks are appended in creation order
+        User user = userRepository.save(new User("arranger", "arranger@example.com", "secret"));
+        Task a = create(user, "A");
+        Task b = create(user, "B");
+        Task c = create(user, "C");
+        Task d = create(user, "D");
+        assertEquals(List.of(a.getId(), b.getId(), c.getId(), d.getId()), manualOrder(user));
+        Map<Long, String> before = sortKeys(user);
+        
+        // When
+        taskService.moveTask(d.getId(), a.getId(), user).orElseThrow();
+        
+        // Then
+        assertEquals(List.of(a.getId(), d.getId(), b.getId(), c.getId()), manualOrder(user));
+        Map<Long, String> after = sortKeys(user);
+        assertEquals(before.get(a.getId()), after.get(a.getId()));
+        assertEquals(before.get(b.getId()), after.get(b.getId()));
+        assertEquals(before.get(c.getId()), after.get(c.getId()));
+        
+        taskService.moveTask(c.getId(), null, user).orElseThrow();
+        assertEquals(List.of(c.getId(), a.getId(), d.getId(), b.getId()), manualOrder(user));
+        
+        User stranger = userRepository.save(new User("meddler", "meddler@example.com", "secret"));
+        Task foreign = create(stranger, "Not yours");
+        assertTrue(taskService.moveTask(a.getId(), null, stranger).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskService.moveTask(a.getId(), foreign.getId(), user));
+        assertThrows(IllegalArgumentException.class, () -> taskService.moveTask(a.getId(), a.getId(), user));
+    }
+    
+    @Test
+    void rebalanceShortensLongKeysAndKeepsTheOrder() {
+        // Given: two tasks repeatedly squeezed into the gap right after the first one
+        User user = userRepository.save(new User("shuffler", "shuffler@example.com", "secret"));
+        Task first = create(user, "First");
+        Task x = create(user, "X");
+        Task y = create(user, "Y");
+        create(user, "Last");
+        for (int i = 0; i < 200; i++) {
+            taskService.moveTask(i % 2 == 0 ? x.getId() : y.getId(), first.getId(), user).orElseThrow();
+        }
+        List<Long> order = manualOrder(user);
+        assertTrue(sortKeys(user).values().stream().anyMatch(key -> key.length() > TaskOrderRebalancer.MAX_KEY_LENGTH));
+        
+        // When
+        taskOrderRebalancer.rebalanceLongKeys();
+        
+        // Then
+        assertEquals(order, manualOrder(user));
+        assertTrue(sortKeys(user).values().stream().allMatch(key -> key.length() == RankKeys.WIDTH));
+    }
+    
+    @Test
+    void moveKeysTasksWrittenBeforeManualOrdering() {
+        // Given: rows without a key yet
+        User user = userRepository.save(new User("veteran", "veteran@example.com", "secret"));
+        Task a = create(user, "A");
+        Task b = create(user, "B");
+        Task c = create(user, "C");
+        jdbcTemplate.update("UPDATE task SET sort_key = NULL WHERE user_id = ?", user.getId());
+        
+        // When
+        taskService.moveTask(a.getId(), b.getId(), user).orElseThrow();
+        
+        // Then
+        assertEquals(List.of(b.getId(), a.getId(), c.getId()), manualOrder(user));
+        assertTrue(taskRepository.findAllTasksByUser(user).stream().allMatch(task -> task.getSortKey() != null));
+    }
+    
+    private Task create(User user, String title) {
+        return taskService.createTaskForUser(new Task(title, null), user);
+    }
+    
+    private List<Long> manualOrder(User user) {
+        return taskService.getAllTasksByUserInManualOrder(user).stream().map(Task::getId).toList();
+    }
+    
+    private Map<Long, String> sortKeys(User user) {
+        return taskRepository.findAllTasksByUser(user).stream()
+                .collect(Collectors.toMap(Task::getId, Task::getSortKey));
+    }
+}
@@ -0,0 +1,107 @@
+package com.todoapp.service;
+
+import com.todoapp.dto.TaskReminder;
+import com.todoapp.repository.TaskDueDate;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.sharding.ShardDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskReminderServiceTest {
+    
+    @Mock
+    private TaskRepository taskRepository;
+    
+    @Mock
+    private ShardDirectory shardDirectory;
+    
+    private final List<Long> dueSoon = new ArrayList<>();
+    private final List<Long> overdue = new ArrayList<>();
+    private TaskReminderService reminderService;
+    
+    @BeforeEach
+    void setUp() {
+        TaskReminderListener listener = new TaskReminderListener() {
+            @Override
+            public void onTaskDueSoon(TaskReminder reminder) {
+                dueSoon.add(reminder.getTaskId());
+            }
+            
+            @Override
+            public void onTaskOverdue(TaskReminder reminder) {
+                overdue.add(reminder.getTaskId());
+            }
+        };
+        reminderService = new TaskReminderService(taskRepository, List.of(listener), shardDirectory);
+        ReflectionTestUtils.setField(reminderService, "enabled", true);
+        ReflectionTestUtils.setField(reminderService, "window", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(reminderService, "leadTime", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(reminderService, "tick", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(reminderService, "startupLookback", Duration.ofHours(24));
+        when(shardDirectory.getShardIds()).thenReturn(List.of(0));
+    }
+    
+    @Test
+    void firstLoadCatchesUpOnTasksDueWhileTheServiceWasDown() throws Exception {
+        // Given: one task already overdue, one inside the lead time, one further out
+        LocalDateTime now = LocalDateTime.now();
+        when(taskRepository.findIncompleteTasksDueBetween(any(), any())).thenReturn(List.of(
+                due(1L, now.minusHours(2)),
+                due(2L, now.plusMinutes(5)),
+                due(3L, now.plusMinutes(40))));
+        
+        // When
+        reminderService.loadNextWindow();
+        Thread.sleep(50);
+        reminderService.tick();
+        
+        // Then: the overdue task and the reminder inside the lead time are sent at once
+        assertEquals(List.of(1L), overdue);
+        assertEquals(List.of(2L), dueSoon);
+        assertEquals(3, reminderService.pendingNotifications());
+        
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(taskRepository).findIncompleteTasksDueBetween(from.capture(), any());
+        assertTrue(from.getValue().isBefore(now.minusHours(23)));
+        
+        // Later loads continue where the first one ended and do not look back again
+        when(taskRepository.findIncompleteTasksDueBetween(any(), any())).thenReturn(List.of());
+        reminderService.loadNextWindow();
+        verify(taskRepository, times(2)).findIncompleteTasksDueBetween(from.capture(), any());
+        assertTrue(from.getValue().isAfter(now));
+    }
+    
+    private static TaskDueDate due(Long id, LocalDateTime dueDate) {
+        return new TaskDueDate() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public Long getUserId() {
+                return 7L;
+            }
+            
+            @Override
+            public LocalDateTime getDueDate() {
+                return dueDate;
+            }
+        };
+    }
+}
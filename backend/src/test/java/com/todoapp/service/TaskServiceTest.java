@@ -1,13 +1,24 @@
 package com.todoapp.service;
 
+import com.todoapp.cache.RecentTasksCache;
+import com.todoapp.cache.TaskTagIndex;
+import com.todoapp.dto.TaskStats;
 import com.todoapp.model.Task;
+import com.todoapp.model.TaskArchive;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskArchiveRepository;
 import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskStatusCount;
+import com.todoapp.repository.TagRepository;
+import com.todoapp.repository.TaskTagRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
@@ -26,6 +37,27 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
     
+    @Mock
+    private TaskArchiveRepository taskArchiveRepository;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private RecentTasksCache recentTasksCache;
+    
+    @Mock
+    private TagRepository tagRepository;
+    
+    @Mock
+    private TaskTagRepository taskTagRepository;
+    
+    @Mock
+    private TaskTagIndex taskTagIndex;
+    
+    @Mock
+    private TaskChangeLog taskChangeLog;
+    
     @InjectMocks
     private TaskServiceImpl taskService;
     
@@ -123,13 +155,13 @@ class TaskServiceTest {
     void deleteTask_WithValidId_ShouldDeleteTask() {
         // Given
         Long taskId = 1L;
-        when(taskRepository.existsById(taskId)).thenReturn(true);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(testTask));
         
         // When
         taskService.deleteTask(taskId);
         
         // Then
-        verify(taskRepository).existsById(taskId);
+        verify(taskRepository).findById(taskId);
         verify(taskRepository).deleteById(taskId);
     }
     
@@ -137,11 +169,11 @@ class TaskServiceTest {
     void deleteTask_WithInvalidId_ShouldThrowException() {
         // Given
         Long invalidId = 999L;
-        when(taskRepository.existsById(invalidId)).thenReturn(false);
+        when(taskRepository.findById(invalidId)).thenReturn(Optional.empty());
         
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> taskService.deleteTask(invalidId));
-        verify(taskRepository).existsById(invalidId);
+        verify(taskRepository).findById(invalidId);
         verify(taskRepository, never()).deleteById(any(Long.class));
     }
     
@@ -187,4 +219,88 @@ class TaskServiceTest {
         assertEquals(expectedTasks, actualTasks);
         verify(taskRepository).findAllIncompleteTasks();
     }
-}
\ No newline at end of file
+    
+    @Test
+    void getCompletedTaskHistoryByUser_ShouldMergeLiveAndArchivedTasks() {
+        // Given
+        User user = new User("alice", "alice@example.com", "secret");
+        user.setId(7L);
+        
+        Task live = new Task("Live", "Recently completed");
+        live.setCompleted(true);
+        live.setCompletedAt(LocalDateTime.now().minusDays(1));
+        
+        TaskArchive archived = new TaskArchive();
+        archived.setId(2L);
+        archived.setTitle("Archived");
+        archived.setCompletedAt(LocalDateTime.now().minusDays(90));
+        archived.setUserId(7L);
+        
+        when(taskRepository.findCompletedTasksByUser(user, PageRequest.of(0, 10))).thenReturn(Arrays.asList(live));
+        when(taskArchiveRepository.findCompletedByUserId(7L, PageRequest.of(0, 10))).thenReturn(Arrays.asList(archived));
+        
+        // When
+        List<Task> history = taskService.getCompletedTaskHistoryByUser(user, 10);
+        
+        // Then
+        assertEquals(2, history.size());
+        assertEquals("Live", history.get(0).getTitle());
+        assertEquals("Archived", history.get(1).getTitle());
+        assertTrue(history.get(1).getCompleted());
+        verify(taskTagIndex).attachTags(7L, history);
+    }
+    
+    @Test
+    void getAgendaByUser_ShouldQueryAgendaWithLimit() {
+        // Given
+        User user = new User("alice", "alice@example.com", "secret");
+        testTask.setPriority(TaskPriority.HIGH);
+        when(taskRepository.findAgendaByUser(user, PageRequest.of(0, 20))).thenReturn(Arrays.asList(testTask));
+        
+        // When
+        List<Task> agenda = taskService.getAgendaByUser(user, 20);
+        
+        // Then
+        assertEquals(1, agenda.size());
+        assertEquals(TaskPriority.HIGH, agenda.get(0).getPriority());
+        verify(taskRepository).findAgendaByUser(user, PageRequest.of(0, 20));
+    }
+    
+    @Test
+    void getTaskStatsByUser_ShouldFoldGroupedCounts() {
+        // Given
+        User user = new User("alice", "alice@example.com", "secret");
+        when(taskRepository.countByStatusAndPriority(user)).thenReturn(Arrays.asList(
+                statusCount(false, TaskPriority.HIGH, 2),
+                statusCount(false, TaskPriority.LOW, 3),
+                statusCount(true, TaskPriority.HIGH, 4)));
+        
+        // When
+        TaskStats stats = taskService.getTaskStatsByUser(user);
+        
+        // Then
+        assertEquals(9, stats.getTotal());
+        assertEquals(4, stats.getCompleted());
+        assertEquals(5, stats.getPending());
+        assertEquals(6, stats.getHighPriority());
+    }
+    
+    private static TaskStatusCount statusCount(boolean completed, TaskPriority priority, long total) {
+        return new TaskStatusCount() {
+            @Override
+            public Boolean getCompleted() {
+                return completed;
+            }
+            
+            @Override
+            public TaskPriority getPriority() {
+                return priority;
+            }
+            
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:tags;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class TaskTagIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void getTasksByTagsMatchesAllOrAnyTag() {
+        // Given
+        User user = userRepository.save(new User("tagger", "tagger@example.com", "secret"));
+        Task report = create(user, "Report", List.of("Work", "urgent"));
+        Task slides = create(user, "Slides", List.of("work"));
+        create(user, "Groceries", List.of("home"));
+        
+        // When
+        List<Task> all = taskService.getTasksByTags(user, List.of("work", "URGENT"), true);
+        List<Task> any = taskService.getTasksByTags(user, List.of("urgent", "home"), false);
+        
+        // Then
+        assertEquals(List.of(report.getId()), all.stream().map(Task::getId).toList());
+        assertEquals(List.of("urgent", "work"), all.get(0).getTags());
+        assertEquals(2, any.size());
+        assertFalse(any.stream().anyMatch(task -> task.getId().equals(slides.getId())));
+        assertEquals(Map.of("home", 1L, "urgent", 1L, "work", 2L), taskService.getTagCountsByUser(user));
+    }
+    
+    @Test
+    void setTaskTagsAndDeleteKeepTheIndexCurrent() {
+        // Given
+        User user = userRepository.save(new User("retagger", "retagger@example.com", "secret"));
+        User other = userRepository.save(new User("stranger", "stranger@example.com", "secret"));
+        Task task = create(user, "Plan", List.of("work"));
+        assertEquals(1, taskService.getTasksByTags(user, List.of("work"), true).size());
+        
+        // When
+        taskService.setTaskTags(task.getId(), user, List.of("later"));
+        
+        // Then
+        assertTrue(taskService.getTasksByTags(user, List.of("work"), true).isEmpty());
+        assertEquals(List.of("later"), taskService.getTaskById(task.getId(), user).orElseThrow().getTags());
+        assertThrows(IllegalArgumentException.class, () -> taskService.setTaskTags(task.getId(), other, List.of("mine")));
+        assertThrows(IllegalArgumentException.class, () -> taskService.setTaskTags(task.getId(), user, List.of("a,b")));
+        
+        taskService.deleteTask(task.getId(), user);
+        assertTrue(taskService.getTasksByTags(user, List.of("later"), false).isEmpty());
+        assertTrue(taskService.getTagCountsByUser(user).isEmpty());
+    }
+    
+    private Task create(User user, String title, List<String> tags) {
+        Task task = new Task(title, null, user);
+        task.setTags(tags);
+        return taskService.createTaskForUser(task, user);
+    }
+}
@@ -0,0 +1,102 @@
+package com.todoapp.service;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.User;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:trees;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class TaskTreeIntegrationTest {
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void getTaskTreeNestsSubtasksAndRollsUpCounts() {
+        // Given: a root with 20 children of 10 grandchildren each, plus a 100-level chain under the first child
+        User user = userRepository.save(new User("planner", "planner@example.com", "secret"));
+        Task root = create(user, "Launch", null);
+        List<Task> children = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Task child = create(user, "Step " + i, root.getId());
+            children.add(child);
+            for (int j = 0; j < 10; j++) {
+                create(user, "Item " + i + "." + j, child.getId());
+            }
+        }
+        Long parentId = children.get(0).getId();
+        for (int depth = 0; depth < 100; depth++) {
+            parentId = create(user, "Level " + depth, parentId).getId();
+        }
+        taskService.completeTask(children.get(1).getId(), user);
+        
+        // When
+        Task tree = taskService.getTaskTree(root.getId(), user).orElseThrow();
+        
+        // Then
+        assertEquals(20, tree.getSubtasks().size());
+        assertEquals(20 + 20 * 10 + 100, tree.getSubtaskCount());
+        assertEquals(1, tree.getCompletedSubtaskCount());
+        Task first = tree.getSubtasks().get(0);
+        assertEquals(children.get(0).getId(), first.getId());
+        assertEquals(10 + 100, first.getSubtaskCount());
+        
+        User stranger = userRepository.save(new User("outsider", "outsider@example.com", "secret"));
+        assertTrue(taskService.getTaskTree(root.getId(), stranger).isEmpty());
+    }
+    
+    @Test
+    void completeAndDeleteApplyToTheWholeSubtree() {
+        // Given
+        User user = userRepository.save(new User("finisher", "finisher@example.com", "secret"));
+        Task root = create(user, "Move house", null);
+        Task packing = create(user, "Pack", root.getId());
+        Task boxes = create(user, "Buy boxes", packing.getId());
+        Task unrelated = create(user, "Unrelated", null);
+        
+        // When
+        Task tree = taskService.completeTaskTree(packing.getId(), user).orElseThrow();
+        
+        // Then
+        assertTrue(tree.getCompleted());
+        assertEquals(1, tree.getCompletedSubtaskCount());
+        assertFalse(taskRepository.findById(root.getId()).orElseThrow().getCompleted());
+        assertTrue(taskRepository.findById(boxes.getId()).orElseThrow().getCompleted());
+        
+        taskService.deleteTask(root.getId(), user);
+        assertFalse(taskRepository.existsById(packing.getId()));
+        assertFalse(taskRepository.existsById(boxes.getId()));
+        assertTrue(taskRepository.existsById(unrelated.getId()));
+    }
+    
+    @Test
+    void createTaskForUserRejectsAnotherUsersParent() {
+        User owner = userRepository.save(new User("owner", "owner@example.com", "secret"));
+        User other = userRepository.save(new User("intruder", "intruder@example.com", "secret"));
+        Task parent = create(owner, "Private", null);
+        
+        assertThrows(IllegalArgumentException.class, () -> create(other, "Sneaky", parent.getId()));
+    }
+    
+    private Task create(User user, String title, Long parentId) {
+        Task task = new Task(title, null, user);
+        task.setParentId(parentId);
+        return taskService.createTaskForUser(task, user);
+    }
+}
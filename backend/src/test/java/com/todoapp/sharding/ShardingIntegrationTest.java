@@ -0,0 +1,161 @@
+package com.todoapp.sharding;
+
+import com.todoapp.dto.AuthResponse;
+import com.todoapp.dto.RegisterRequest;
+import com.todoapp.model.ListRole;
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskList;
+import com.todoapp.model.User;
+import com.todoapp.model.UserShard;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.service.AuthService;
+import com.todoapp.service.TaskListService;
+import com.todoapp.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "todoapp.sharding.enabled=true",
+        "todoapp.sharding.initialize-schema=true",
+        "todoapp.sharding.directory-cache-ttl=0s",
+        "todoapp.sharding.rebalance-drain-time=0s",
+        "todoapp.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "todoapp.sharding.shards[0].username=sa",
+        "todoapp.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "todoapp.sharding.shards[1].username=sa"
+})
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+    
+    @Autowired
+    private AuthService authService;
+    
+    @Autowired
+    private TaskService taskService;
+    
+    @Autowired
+    private TaskListService taskListService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ShardDirectory shardDirectory;
+    
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+    
+    @Autowired
+    private ShardRoutingDataSource routingDataSource;
+    
+    @Test
+    void registerPlacesUsersByJumpHash() {
+        // When
+        for (int i = 0; i < 6; i++) {
+            register("placed" + i);
+        }
+        
+        // Then
+        for (int i = 0; i < 6; i++) {
+            UserShard entry = shardDirectory.lookup("placed" + i, false).orElseThrow();
+            assertEquals(ShardDirectory.jumpHash(entry.getUserId(), 2), entry.getShardId());
+            assertEquals(1, countRows(entry.getShardId(), "users", entry.getUserId()));
+        }
+    }
+    
+    @Test
+    void moveUserCopiesTasksAndCleansUpSource() {
+        // Given
+        AuthResponse auth = register("mover");
+        int source = shardDirectory.findByUserId(auth.getId()).orElseThrow().getShardId();
+        int target = 1 - source;
+        ShardContext.runOn(source, () -> {
+            User user = userRepository.findByUsername("mover").orElseThrow();
+            taskService.createTaskForUser(new Task("First", "on home shard"), user);
+            taskService.createTaskForUser(new Task("Second", "on home shard"), user);
+        });
+        assertEquals(2, countRows(source, "task", auth.getId()));
+        
+        // When
+        shardRebalancer.moveUser(auth.getId(), target);
+        
+        // Then
+        UserShard entry = shardDirectory.findByUserId(auth.getId()).orElseThrow();
+        assertEquals(target, entry.getShardId());
+        assertNull(entry.getMovingTo());
+        assertNull(entry.getMovedFrom());
+        assertEquals(0, countRows(source, "task", auth.getId()));
+        List<Task> moved = ShardContext.callOn(target, () ->
+                taskService.getAllTasksByUser(userRepository.findByUsername("mover").orElseThrow()));
+        assertEquals(2, moved.size());
+    }
+    
+    @Test
+    void moveUserRefusesUsersWhoShareLists() {
+        // Given: an owner sharing a list with a member on the same shard
+        Long ownerId = register("groupowner").getId();
+        int shard = shardDirectory.findByUserId(ownerId).orElseThrow().getShardId();
+        Long memberId = register("groupmember").getId();
+        shardDirectory.ensureUserOnShard(memberId, shard);
+        UserShard memberEntry = shardDirectory.findByUserId(memberId).orElseThrow();
+        memberEntry.setShardId(shard);
+        shardDirectory.save(memberEntry);
+        User owner = userRepository.findById(ownerId).orElseThrow();
+        ShardContext.runOn(shard, () -> {
+            TaskList list = taskListService.createList("Groceries", owner);
+            taskListService.setMember(list.getId(), "groupmember", ListRole.EDITOR, owner);
+        });
+        
+        // When & Then: neither side of the share can move on its own
+        assertThrows(IllegalStateException.class, () -> shardRebalancer.moveUser(ownerId, 1 - shard));
+        assertThrows(IllegalStateException.class, () -> shardRebalancer.moveUser(memberId, 1 - shard));
+        for (Long userId : List.of(ownerId, memberId)) {
+            UserShard entry = shardDirectory.findByUserId(userId).orElseThrow();
+            assertEquals(shard, entry.getShardId());
+            assertNull(entry.getMovingTo());
+        }
+        assertEquals(1, countRows(shard, "task_list", ownerId));
+        assertEquals(1, countRows(shard, "task_list_member", ownerId));
+        
+        // Once the share is removed the member moves
+        User member = userRepository.findById(memberId).orElseThrow();
+        ShardContext.runOn(shard, () -> {
+            Long listId = taskListService.getListsByUser(owner).get(0).getId();
+            assertTrue(taskListService.removeMember(listId, "groupmember", member));
+        });
+        shardRebalancer.moveUser(memberId, 1 - shard);
+        assertEquals(1 - shard, shardDirectory.findByUserId(memberId).orElseThrow().getShardId());
+    }
+    
+    @Test
+    void shardsAllocateTaskIdsFromSeparateRanges() {
+        // Given
+        User user = userRepository.findById(register("ranged").getId()).orElseThrow();
+        shardDirectory.ensureUserOnShard(user.getId(), 1);
+        
+        // When
+        Task onZero = ShardContext.callOn(0, () -> taskService.createTaskForUser(new Task("Zero", null), user));
+        Task onOne = ShardContext.callOn(1, () -> taskService.createTaskForUser(new Task("One", null), user));
+        
+        // Then
+        assertTrue(onZero.getId() < ShardingConfig.SHARD_ID_RANGE);
+        assertTrue(onOne.getId() >= ShardingConfig.SHARD_ID_RANGE);
+    }
+    
+    private AuthResponse register(String username) {
+        return authService.register(new RegisterRequest(username, username + "@example.com", "password123", "password123"));
+    }
+    
+    private int countRows(int shard, String table, Long userId) {
+        String column = "users".equals(table) ? "id" : "user_id";
+        return new JdbcTemplate(routingDataSource.getShard(shard))
+                .queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?", Integer.class, userId);
+    }
+}
@@ -0,0 +1,150 @@
+package com.todoapp.storage;
+
+import com.todoapp.model.Task;
+import com.todoapp.model.TaskPriority;
+import com.todoapp.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedTaskStoreTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 9, 0);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void indexesServeRecentCompletedAndAgendaQueries() {
+        // Given
+        EmbeddedTaskStore store = EmbeddedTaskStore.inMemory();
+        for (int i = 0; i < 8; i++) {
+            store.insert(StoredTask.from(task("Task " + i, 1L, BASE.plusMinutes(i), TaskPriority.MEDIUM)));
+        }
+        StoredTask urgent = store.insert(StoredTask.from(task("Urgent", 1L, BASE, TaskPriority.HIGH)));
+        store.insert(StoredTask.from(task("Other user", 2L, BASE.plusHours(1), TaskPriority.LOW)));
+        
+        // When
+        Task done = store.get(3).toTask(null);
+        done.setCompleted(true);
+        done.setCompletedAt(BASE.plusDays(1));
+        store.update(StoredTask.from(done));
+        
+        // Then
+        List<StoredTask> recent = store.findIncomplete(1L, 5);
+        assertEquals(5, recent.size());
+        assertEquals("Task 7", recent.get(0).toTask(null).getTitle());
+        assertEquals(8, store.countIncomplete(1L));
+        assertEquals(9, store.countIncomplete(null));
+        assertEquals("Task 2", store.findCompleted(1L, 5).get(0).toTask(null).getTitle());
+        assertEquals(urgent.getId(), store.findAgenda(1L, 1).get(0).getId());
+        assertEquals(9, store.findAll(1L).size());
+        assertEquals("Other user", store.findIncomplete(null, 1).get(0).toTask(null).getTitle());
+    }
+    
+    @Test
+    void reopenReplaysJournalOnTopOfSnapshot() throws IOException {
+        // Given
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(directory, false);
+        StoredTask first = store.insert(StoredTask.from(task("First", 1L, BASE, TaskPriority.LOW)));
+        StoredTask second = store.insert(StoredTask.from(task("Second", 1L, BASE.plusMinutes(1), TaskPriority.HIGH)));
+        store.snapshot();
+        store.delete(first.getId());
+        store.insert(StoredTask.from(task("Third", 1L, BASE.plusMinutes(2), TaskPriority.MEDIUM)));
+        store.close();
+        
+        // When
+        EmbeddedTaskStore reopened = EmbeddedTaskStore.open(directory, false);
+        
+        // Then
+        assertNull(reopened.get(first.getId()));
+        Task restored = reopened.get(second.getId()).toTask(null);
+        assertEquals("Second", restored.getTitle());
+        assertEquals(TaskPriority.HIGH, restored.getPriority());
+        assertEquals(BASE.plusMinutes(1), restored.getCreatedAt());
+        assertEquals(2, reopened.size());
+        assertEquals(4, reopened.insert(StoredTask.from(task("Fourth", 1L, BASE, TaskPriority.LOW))).getId());
+        reopened.close();
+    }
+    
+    @Test
+    void tornJournalRecordIsDroppedOnRecovery() throws IOException {
+        // Given
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(directory, false);
+        store.insert(StoredTask.from(task("Kept", 1L, BASE, TaskPriority.MEDIUM)));
+        store.close();
+        Path journal;
+        try (Stream<Path> files = Files.list(directory)) {
+            journal = files.filter(file -> file.toString().endsWith(".log") && fileSize(file) > 0).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2, 3}));
+        }
+        
+        // When
+        EmbeddedTaskStore reopened = EmbeddedTaskStore.open(directory, false);
+        
+        // Then
+        assertEquals(1, reopened.size());
+        assertEquals("Kept", reopened.get(1).toTask(null).getTitle());
+        reopened.close();
+    }
+    
+    @Test
+    void deleteUserSurvivesReplayAndCompaction() throws IOException {
+        // Given
+        EmbeddedTaskStore store = EmbeddedTaskStore.open(directory, false);
+        for (int i = 0; i < 3; i++) {
+            store.insert(StoredTask.from(task("Leaving " + i, 1L, BASE.plusMinutes(i), TaskPriority.MEDIUM)));
+        }
+        StoredTask kept = store.insert(StoredTask.from(task("Staying", 2L, BASE, TaskPriority.LOW)));
+        store.snapshot();
+        
+        // When
+        assertEquals(3, store.deleteUser(1L).size());
+        assertTrue(store.deleteUser(1L).isEmpty());
+        store.close();
+        
+        // Then: replaying the journal on top of the snapshot drops the user's tasks
+        EmbeddedTaskStore replayed = EmbeddedTaskStore.open(directory, false);
+        assertTrue(replayed.findAll(1L).isEmpty());
+        assertEquals(1, replayed.size());
+        
+        // And a snapshot taken afterwards no longer holds them either
+        replayed.snapshot();
+        replayed.close();
+        EmbeddedTaskStore compacted = EmbeddedTaskStore.open(directory, false);
+        assertTrue(compacted.findAll(1L).isEmpty());
+        assertEquals("Staying", compacted.get(kept.getId()).toTask(null).getTitle());
+        assertEquals(1, compacted.size());
+        compacted.close();
+    }
+    
+    private static Task task(String title, Long userId, LocalDateTime createdAt, TaskPriority priority) {
+        User user = new User();
+        user.setId(userId);
+        Task task = new Task(title, null, user);
+        task.setCreatedAt(createdAt);
+        task.setPriority(priority);
+        return task;
+    }
+    
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.todoapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimitTest {
+    
+    private static final long MS = 1_000_000L;
+    
+    @Test
+    void growsWhileLatencyStaysAtTheBaseline() {
+        // Given
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 600);
+        
+        // When: a busy server answers at steady latency
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+        
+        // Then
+        assertTrue(limit.getLimit() > 40, "limit was " + limit.getLimit());
+        assertTrue(limit.getLimit() <= 200);
+    }
+    
+    @Test
+    void shrinksWhenRequestsStartToQueue() {
+        // Given: a limit settled at a 10ms baseline
+        GradientLimit limit = new GradientLimit(100, 4, 200, 1.5, 0.2, 600);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MS, 100);
+        }
+        int settled = limit.getLimit();
+        
+        // When: latency jumps to 50ms
+        for (int i = 0; i < 30; i++) {
+            limit.onSample(50 * MS, limit.getLimit());
+        }
+        
+        // Then
+        assertTrue(limit.getLimit() < settled / 2, "limit went from " + settled + " to " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 4);
+    }
+    
+    @Test
+    void idleSamplesLeaveTheLimitAlone() {
+        // Given
+        GradientLimit limit = new GradientLimit(50, 4, 200, 1.5, 0.2, 600);
+        
+        // When: only a few requests are ever in flight, however slow
+        for (int i = 0; i < 50; i++) {
+            limit.onSample((10 + i * 10) * MS, 3);
+        }
+        
+        // Then
+        assertEquals(50, limit.getLimit());
+        assertTrue(limit.getShortRttNanos() > limit.getLongRttNanos());
+    }
+    
+    @Test
+    void rejectsInconsistentSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(2, 4, 200, 1.5, 0.2, 600));
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(20, 4, 200, 0.5, 0.2, 600));
+        assertThrows(IllegalArgumentException.class, () -> new GradientLimit(20, 4, 200, 1.5, 0, 600));
+    }
+}
@@ -0,0 +1,100 @@
+package com.todoapp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+    
+    private HierarchicalTimingWheel<String> wheel;
+    
+    private List<String> fired;
+    
+    @BeforeEach
+    void setUp() {
+        // 10ms ticks, 16 slots per level, 3 levels => 40.96s before overflow
+        wheel = new HierarchicalTimingWheel<>(10, 4, 3, 0);
+        fired = new ArrayList<>();
+    }
+    
+    @Test
+    void advanceTo_ShouldFireEntriesAtTheirDeadline() {
+        // Given
+        wheel.schedule(1, 50, "a");
+        wheel.schedule(2, 5_000, "b");
+        
+        // When & Then
+        wheel.advanceTo(40, fired::add);
+        assertTrue(fired.isEmpty());
+        
+        wheel.advanceTo(50, fired::add);
+        assertEquals(List.of("a"), fired);
+        
+        wheel.advanceTo(4_990, fired::add);
+        assertEquals(List.of("a"), fired);
+        
+        wheel.advanceTo(5_000, fired::add);
+        assertEquals(List.of("a", "b"), fired);
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void advanceTo_ShouldCascadeAndOverflowInDeadlineOrder() {
+        // Given
+        wheel.schedule(1, 100_000, "overflow");
+        wheel.schedule(2, 2_570, "level2");
+        wheel.schedule(3, 170, "level1");
+        
+        // When
+        wheel.advanceTo(100_000, fired::add);
+        
+        // Then
+        assertEquals(List.of("level1", "level2", "overflow"), fired);
+    }
+    
+    @Test
+    void cancel_ShouldPreventFiring() {
+        // Given
+        wheel.schedule(1, 300, "a");
+        
+        // When
+        assertTrue(wheel.cancel(1));
+        wheel.advanceTo(1_000, fired::add);
+        
+        // Then
+        assertTrue(fired.isEmpty());
+        assertFalse(wheel.cancel(1));
+    }
+    
+    @Test
+    void schedule_ShouldReplaceExistingEntryForKey() {
+        // Given
+        wheel.schedule(1, 300, "first");
+        
+        // When
+        wheel.schedule(1, 600, "second");
+        wheel.advanceTo(500, fired::add);
+        
+        // Then
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(600, fired::add);
+        assertEquals(List.of("second"), fired);
+    }
+    
+    @Test
+    void schedule_WithPastDeadline_ShouldFireOnNextTick() {
+        // Given
+        wheel.advanceTo(1_000, fired::add);
+        
+        // When
+        wheel.schedule(1, 10, "late");
+        wheel.advanceTo(1_010, fired::add);
+        
+        // Then
+        assertEquals(List.of("late"), fired);
+    }
+}
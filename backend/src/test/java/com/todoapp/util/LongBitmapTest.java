@@ -0,0 +1,84 @@
+package com.todoapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongBitmapTest {
+    
+    @Test
+    void add_ShouldTrackMembershipAcrossChunks() {
+        // Given
+        LongBitmap bitmap = LongBitmap.of(1, 65_536, 3_000_000_000_000L);
+        
+        // When
+        boolean added = bitmap.add(7);
+        boolean duplicate = bitmap.add(7);
+        boolean removed = bitmap.remove(65_536);
+        
+        // Then
+        assertTrue(added);
+        assertFalse(duplicate);
+        assertTrue(removed);
+        assertFalse(bitmap.remove(65_536));
+        assertTrue(bitmap.contains(3_000_000_000_000L));
+        assertFalse(bitmap.contains(65_536));
+        assertArrayEquals(new long[]{1, 7, 3_000_000_000_000L}, bitmap.toArray());
+        assertEquals(3, bitmap.cardinality());
+    }
+    
+    @Test
+    void add_ShouldSwitchToBitsetWhenDenseAndBackWhenSparse() {
+        // Given
+        LongBitmap bitmap = new LongBitmap();
+        
+        // When
+        for (long value = 0; value < 10_000; value++) {
+            bitmap.add(value);
+        }
+        for (long value = 0; value < 9_000; value++) {
+            bitmap.remove(value);
+        }
+        
+        // Then
+        assertEquals(1_000, bitmap.cardinality());
+        assertEquals(9_000, bitmap.toArray()[0]);
+        assertTrue(bitmap.contains(9_999));
+        assertFalse(bitmap.contains(8_999));
+    }
+    
+    @Test
+    void andOr_ShouldMatchSetOperations() {
+        // Given
+        Random random = new Random(42);
+        LongBitmap left = new LongBitmap();
+        LongBitmap right = new LongBitmap();
+        TreeSet<Long> leftValues = new TreeSet<>();
+        TreeSet<Long> rightValues = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Dense values in the first chunks, sparse values further out
+            long a = i % 2 == 0 ? random.nextInt(150_000) : random.nextInt(1 << 30);
+            long b = i % 3 == 0 ? random.nextInt(150_000) : random.nextInt(1 << 30);
+            left.add(a);
+            leftValues.add(a);
+            right.add(b);
+            rightValues.add(b);
+        }
+        
+        // When
+        LongBitmap intersection = left.and(right);
+        LongBitmap union = left.or(right);
+        
+        // Then
+        TreeSet<Long> expectedIntersection = new TreeSet<>(leftValues);
+        expectedIntersection.retainAll(rightValues);
+        TreeSet<Long> expectedUnion = new TreeSet<>(leftValues);
+        expectedUnion.addAll(rightValues);
+        assertArrayEquals(expectedIntersection.stream().mapToLong(Long::longValue).toArray(), intersection.toArray());
+        assertArrayEquals(expectedUnion.stream().mapToLong(Long::longValue).toArray(), union.toArray());
+        assertEquals(leftValues.size(), left.cardinality());
+    }
+}
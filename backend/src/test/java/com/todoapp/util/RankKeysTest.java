@@ -0,0 +1,93 @@
+package com.todoapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeysTest {
+    
+    @Test
+    void between_ShouldKeepAppendsAndPrependsShort() {
+        // Given
+        List<String> keys = new ArrayList<>();
+        keys.add(RankKeys.between(null, null));
+        
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(RankKeys.between(keys.get(keys.size() - 1), null));
+            keys.add(0, RankKeys.between(null, keys.get(0)));
+        }
+        
+        // Then
+        assertSorted(keys);
+        assertTrue(keys.stream().allMatch(key -> key.length() == RankKeys.WIDTH));
+    }
+    
+    @Test
+    void between_ShouldAlwaysFindRoomBetweenNeighbours() {
+        // Given: a list where items keep being moved to random places, including into the same gap
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>(RankKeys.spread(20));
+        
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            int index = i % 10 == 0 ? 1 : random.nextInt(keys.size() + 1);
+            String lower = index > 0 ? keys.get(index - 1) : null;
+            String upper = index < keys.size() ? keys.get(index) : null;
+            String key = RankKeys.between(lower, upper);
+            
+            // Then
+            if (lower != null) {
+                assertTrue(lower.compareTo(key) < 0, lower + " < " + key);
+            }
+            if (upper != null) {
+                assertTrue(key.compareTo(upper) < 0, key + " < " + upper);
+            }
+            keys.add(index, key);
+        }
+        assertSorted(keys);
+    }
+    
+    @Test
+    void between_ShouldGrowByAboutOneCharacterPerFiveInsertsIntoOneGap() {
+        // Given
+        String lower = RankKeys.between(null, null);
+        String upper = RankKeys.between(lower, null);
+        
+        // When
+        for (int i = 0; i < 50; i++) {
+            upper = RankKeys.between(lower, upper);
+        }
+        
+        // Then: the first 11 inserts split the integer gap, the rest about 5 per fraction digit
+        assertTrue(upper.length() <= RankKeys.WIDTH + 10, upper);
+    }
+    
+    @Test
+    void between_ShouldRejectInvalidBounds() {
+        String key = RankKeys.between(null, null);
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between(key, key));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("ABC", null));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between(null, key + "10"));
+    }
+    
+    @Test
+    void spread_ShouldReturnAscendingFixedWidthKeys() {
+        List<String> keys = RankKeys.spread(100_000);
+        
+        assertEquals(100_000, keys.size());
+        assertSorted(keys);
+        assertTrue(keys.stream().allMatch(key -> key.length() == RankKeys.WIDTH));
+        assertTrue(RankKeys.between(keys.get(0), keys.get(1)).length() == RankKeys.WIDTH);
+    }
+    
+    private static void assertSorted(List<String> keys) {
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " < " + keys.get(i));
+        }
+    }
+}
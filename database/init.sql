@@ -5,20 +5,154 @@ CREATE TABLE users (
     email VARCHAR(255) UNIQUE NOT NULL,
     password VARCHAR(100) NOT NULL,
     created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    deletion_requested_at TIMESTAMP WITHOUT TIME ZONE
 );
 
 -- Create task table with user relationship
 CREATE TABLE task (
-    id SERIAL PRIMARY KEY,
+    id BIGSERIAL PRIMARY KEY,
     title VARCHAR(255) NOT NULL,
     description TEXT,
     completed BOOLEAN DEFAULT FALSE,
     created_at TIMESTAMP WITHOUT TIME ZONE,
     completed_at TIMESTAMP WITHOUT TIME ZONE,
-    priority VARCHAR(20),
+    priority SMALLINT NOT NULL DEFAULT 2,
     due_date TIMESTAMP WITHOUT TIME ZONE,
-    user_id INTEGER REFERENCES users(id)
+    user_id INTEGER REFERENCES users(id),
+    parent_id BIGINT,
+    change_seq BIGINT,
+    sort_key VARCHAR(255) COLLATE "C",
+    recurrence VARCHAR(100),
+    series_id BIGINT,
+    occurrence_at TIMESTAMP WITHOUT TIME ZONE,
+    list_id BIGINT,
+    CONSTRAINT uk_task_series_occurrence UNIQUE (series_id, occurrence_at)
+);
+
+CREATE INDEX idx_task_user_completed_created ON task (user_id, completed, created_at);
+CREATE INDEX idx_task_completed_completed_at ON task (completed, completed_at);
+CREATE INDEX idx_task_completed_due_date ON task (completed, due_date);
+CREATE INDEX idx_task_user_agenda ON task (user_id, completed, priority, due_date, created_at);
+CREATE INDEX idx_task_created_at ON task (created_at);
+CREATE INDEX idx_task_parent ON task (parent_id);
+CREATE INDEX idx_task_user_change_seq ON task (user_id, change_seq);
+CREATE INDEX idx_task_user_sort_key ON task (user_id, sort_key);
+CREATE INDEX idx_task_sort_key_rebalance ON task (user_id) WHERE sort_key IS NULL OR length(sort_key) > 24;
+CREATE INDEX idx_task_user_recurring ON task (user_id) WHERE recurrence IS NOT NULL OR series_id IS NOT NULL;
+CREATE INDEX idx_task_list ON task (list_id);
+
+-- Archive of old completed tasks, filled in small batches by the background archive job
+CREATE TABLE task_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    completed_at TIMESTAMP WITHOUT TIME ZONE,
+    priority SMALLINT,
+    user_id INTEGER,
+    archived_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX idx_task_archive_user_completed ON task_archive (user_id, completed_at);
+
+-- Per-user daily task activity, maintained incrementally by the analytics rollup job
+CREATE TABLE task_daily_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    rollup_date DATE NOT NULL,
+    priority SMALLINT NOT NULL,
+    created_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    latency_seconds_total BIGINT NOT NULL DEFAULT 0,
+    latency_histogram VARCHAR(2000),
+    CONSTRAINT uk_task_daily_rollup UNIQUE (user_id, rollup_date, priority)
+);
+
+-- User-defined task tags; the backend keeps per-user tag bitmaps in memory for filtering
+CREATE TABLE tag (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_tag_user_name UNIQUE (user_id, name)
+);
+
+CREATE TABLE task_tag (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    task_id BIGINT NOT NULL REFERENCES task(id) ON DELETE CASCADE,
+    tag_id BIGINT NOT NULL REFERENCES tag(id) ON DELETE CASCADE,
+    CONSTRAINT uk_task_tag UNIQUE (task_id, tag_id)
+);
+
+CREATE INDEX idx_task_tag_user ON task_tag (user_id);
+
+-- Per-user change counter for delta sync; writes lock the user's row until commit
+CREATE TABLE task_sync_state (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    purged_seq BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_task_sync_state_user UNIQUE (user_id)
+);
+
+-- Deleted tasks, kept for a retention period so clients syncing deltas learn about deletions
+CREATE TABLE task_tombstone (
+    id BIGSERIAL PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    user_id INTEGER NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_task_tombstone_user_change ON task_tombstone (user_id, change_seq);
+CREATE INDEX idx_task_tombstone_deleted_at ON task_tombstone (deleted_at);
+
+-- Shared task lists; lists, memberships and the lists' tasks all belong to the list owner (user_id)
+CREATE TABLE task_list (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX idx_task_list_user ON task_list (user_id);
+
+CREATE TABLE task_list_member (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    list_id BIGINT NOT NULL REFERENCES task_list(id) ON DELETE CASCADE,
+    member_id INTEGER NOT NULL,
+    role VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT uk_task_list_member UNIQUE (list_id, member_id)
+);
+
+CREATE INDEX idx_task_list_member_user ON task_list_member (user_id);
+CREATE INDEX idx_task_list_member_member ON task_list_member (member_id);
+
+-- How far each incremental background job has processed
+CREATE TABLE rollup_watermark (
+    name VARCHAR(50) PRIMARY KEY,
+    processed_until TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- Shard directory: which database holds each user's tasks (only used when sharding is enabled)
+CREATE TABLE user_shard (
+    user_id INTEGER PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    shard_id INTEGER NOT NULL,
+    moving_to INTEGER,
+    moved_from INTEGER
+);
+
+-- Progress of account deletions, worked off in batches by a background job (shard 0 only)
+CREATE TABLE account_deletion (
+    user_id INTEGER PRIMARY KEY,
+    requested_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    deleted_rows BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    completed_at TIMESTAMP WITHOUT TIME ZONE
 );
 
 -- Insert sample user (password: password123)
@@ -29,4 +163,7 @@ INSERT INTO users (username, email, password) VALUES
 INSERT INTO task (title, description, completed, user_id) VALUES 
     ('Sample Task 1', 'This is a sample task for testing', FALSE, 1),
     ('Sample Task 2', 'Another sample task', FALSE, 1),
-    ('Completed Task', 'This task is already completed', TRUE, 1);
\ No newline at end of file
+    ('Completed Task', 'This task is already completed', TRUE, 1);
+
+INSERT INTO user_shard (user_id, username, shard_id)
+SELECT id, username, 0 FROM users;
\ No newline at end of file
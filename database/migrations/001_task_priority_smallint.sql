@@ -0,0 +1,26 @@
+-- Convert free-form priority strings to the compact rank used by TaskPriority
+-- (1 = High, 2 = Medium, 3 = Low). Unknown or missing values become Medium.
+
+BEGIN;
+
+ALTER TABLE task ALTER COLUMN priority TYPE SMALLINT USING
+    CASE lower(trim(priority))
+        WHEN 'high' THEN 1
+        WHEN 'low' THEN 3
+        ELSE 2
+    END;
+ALTER TABLE task ALTER COLUMN priority SET DEFAULT 2;
+ALTER TABLE task ALTER COLUMN priority SET NOT NULL;
+
+ALTER TABLE task_archive ALTER COLUMN priority TYPE SMALLINT USING
+    CASE lower(trim(priority))
+        WHEN 'high' THEN 1
+        WHEN 'low' THEN 3
+        ELSE 2
+    END;
+
+COMMIT;
+
+-- Agenda index: equality on (user_id, completed), then rows already in agenda order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_user_agenda
+    ON task (user_id, completed, priority, due_date, created_at);
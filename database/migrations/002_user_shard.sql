@@ -0,0 +1,18 @@
+-- Shard directory used when todoapp.sharding.enabled is set. Existing users stay on shard 0,
+-- the database that already holds their tasks; ShardRebalancer can move them afterwards.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS user_shard (
+    user_id INTEGER PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    shard_id INTEGER NOT NULL,
+    moving_to INTEGER,
+    moved_from INTEGER
+);
+
+INSERT INTO user_shard (user_id, username, shard_id)
+SELECT id, username, 0 FROM users
+ON CONFLICT (user_id) DO NOTHING;
+
+COMMIT;
@@ -0,0 +1,25 @@
+-- Daily rollups behind GET /api/tasks/analytics. The rollup job backfills them from the oldest live
+-- task on its first run, so no data migration is needed here. Run on every shard.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_created_at ON task (created_at);
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS task_daily_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    rollup_date DATE NOT NULL,
+    priority SMALLINT NOT NULL,
+    created_count BIGINT NOT NULL DEFAULT 0,
+    completed_count BIGINT NOT NULL DEFAULT 0,
+    latency_seconds_total BIGINT NOT NULL DEFAULT 0,
+    latency_histogram VARCHAR(2000),
+    CONSTRAINT uk_task_daily_rollup UNIQUE (user_id, rollup_date, priority)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_watermark (
+    name VARCHAR(50) PRIMARY KEY,
+    processed_until TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,22 @@
+-- Tags behind PUT /api/tasks/{id}/tags and GET /api/tasks/all?tags=. Run on every shard.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tag (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_tag_user_name UNIQUE (user_id, name)
+);
+
+CREATE TABLE IF NOT EXISTS task_tag (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    task_id INTEGER NOT NULL REFERENCES task(id) ON DELETE CASCADE,
+    tag_id BIGINT NOT NULL REFERENCES tag(id) ON DELETE CASCADE,
+    CONSTRAINT uk_task_tag UNIQUE (task_id, tag_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tag_user ON task_tag (user_id);
+
+COMMIT;
@@ -0,0 +1,7 @@
+-- Subtasks: parent_id links a task to its parent, and trees are walked with recursive queries over
+-- idx_task_parent. There is deliberately no foreign key: shard moves copy rows in id order, which is not
+-- always parent-first, and the task service deletes subtrees itself. Run on every shard.
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS parent_id INTEGER;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_parent ON task (parent_id);
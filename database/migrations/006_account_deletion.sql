@@ -0,0 +1,16 @@
+-- Account deletion: a deleted user is disabled at once and their rows are removed in the background.
+-- Run on every shard; account_deletion is only used on shard 0.
+
+BEGIN;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deletion_requested_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE TABLE IF NOT EXISTS account_deletion (
+    user_id INTEGER PRIMARY KEY,
+    requested_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    deleted_rows BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    completed_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+COMMIT;
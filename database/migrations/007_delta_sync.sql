@@ -0,0 +1,30 @@
+-- Delta sync: every task write stamps a per-user change sequence on the row, deletions leave tombstones,
+-- and GET /api/tasks/changes returns what changed after a client's sync token. Existing rows keep a NULL
+-- change_seq; clients start from a full snapshot anyway. Run on every shard.
+
+BEGIN;
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+
+CREATE TABLE IF NOT EXISTS task_sync_state (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    change_seq BIGINT NOT NULL DEFAULT 0,
+    purged_seq BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_task_sync_state_user UNIQUE (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS task_tombstone (
+    id BIGSERIAL PRIMARY KEY,
+    task_id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstone_user_change ON task_tombstone (user_id, change_seq);
+CREATE INDEX IF NOT EXISTS idx_task_tombstone_deleted_at ON task_tombstone (deleted_at);
+
+COMMIT;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_user_change_seq ON task (user_id, change_seq);
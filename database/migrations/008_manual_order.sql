@@ -0,0 +1,11 @@
+-- Manual task ordering: sort_key holds a lexicographic rank key (0-9a-z, compared bytewise), so a move
+-- rewrites one row. Existing rows start without a key; the rebalance job keys them in creation order and
+-- later rekeys users whose keys grow past 24 characters, found through idx_task_sort_key_rebalance.
+-- Run on every shard.
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS sort_key VARCHAR(255) COLLATE "C";
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_user_sort_key ON task (user_id, sort_key);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_sort_key_rebalance ON task (user_id)
+    WHERE sort_key IS NULL OR length(sort_key) > 24;
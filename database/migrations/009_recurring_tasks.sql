@@ -0,0 +1,18 @@
+-- Recurring tasks: a task with a recurrence rule is the template of a series, its due date the first
+-- occurrence. Occurrences are expanded at read time and only stored, as tasks pointing back at the template
+-- through series_id and occurrence_at, once completed or edited. idx_task_user_recurring keeps the one
+-- query per agenda read that loads a user's templates and stored occurrences small.
+-- Run on every shard.
+
+BEGIN;
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS recurrence VARCHAR(100);
+ALTER TABLE task ADD COLUMN IF NOT EXISTS series_id INTEGER;
+ALTER TABLE task ADD COLUMN IF NOT EXISTS occurrence_at TIMESTAMP WITHOUT TIME ZONE;
+
+COMMIT;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_task_series_occurrence ON task (series_id, occurrence_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_user_recurring ON task (user_id)
+    WHERE recurrence IS NOT NULL OR series_id IS NOT NULL;
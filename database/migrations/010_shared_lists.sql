@@ -0,0 +1,34 @@
+-- Shared task lists behind /api/lists. A list, its memberships and the tasks in it all carry the list
+-- owner's user_id, so they stay on the owner's shard and go with the owner's other rows when the account is
+-- deleted or moved. Members' access decisions are cached in the backend, keyed by (member, list).
+-- Run on every shard.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS task_list (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_list_user ON task_list (user_id);
+
+CREATE TABLE IF NOT EXISTS task_list_member (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    list_id BIGINT NOT NULL REFERENCES task_list(id) ON DELETE CASCADE,
+    member_id INTEGER NOT NULL,
+    role VARCHAR(10) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT uk_task_list_member UNIQUE (list_id, member_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_list_member_user ON task_list_member (user_id);
+CREATE INDEX IF NOT EXISTS idx_task_list_member_member ON task_list_member (member_id);
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS list_id BIGINT;
+
+COMMIT;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_task_list ON task (list_id);
@@ -0,0 +1,21 @@
+-- Task ids as BIGINT. With sharding enabled each shard N >= 1 generates task ids from N * 2^40
+-- (ShardingConfig.SHARD_ID_RANGE), which does not fit the int4 that SERIAL created, so the id sequence and
+-- every column holding a task id are widened. Each ALTER rewrites its table under an exclusive lock; run in
+-- a maintenance window on large tables.
+-- Run on every shard, before enabling sharding.
+
+BEGIN;
+
+ALTER SEQUENCE task_id_seq AS BIGINT;
+
+ALTER TABLE task
+    ALTER COLUMN id TYPE BIGINT,
+    ALTER COLUMN parent_id TYPE BIGINT,
+    ALTER COLUMN series_id TYPE BIGINT,
+    ALTER COLUMN list_id TYPE BIGINT;
+
+ALTER TABLE task_tag ALTER COLUMN task_id TYPE BIGINT;
+ALTER TABLE task_tombstone ALTER COLUMN task_id TYPE BIGINT;
+ALTER TABLE task_archive ALTER COLUMN id TYPE BIGINT;
+
+COMMIT;
@@ -23,17 +23,8 @@ const Dashboard: React.FC<DashboardProps> = ({ refreshTrigger }) => {
   const fetchTaskStats = async () => {
     try {
       console.log('Fetching task stats...');
-      // Use getAllTasks instead of getTasks to get all tasks (completed and incomplete)
-      const allTasks = await taskService.getAllTasks();
-      console.log('All tasks:', allTasks);
-      
-      // Calculate stats from tasks
-      const stats = {
-        total: allTasks.length,
-        completed: allTasks.filter(task => task.completed).length,
-        pending: allTasks.filter(task => !task.completed).length,
-        highPriority: allTasks.filter(task => task.priority?.toLowerCase() === 'high').length
-      };
+      // One request: the backend counts tasks instead of shipping every task to the browser
+      const { stats } = await taskService.getDashboard();
 
       console.log('Calculated stats:', stats);
       setStats(stats);
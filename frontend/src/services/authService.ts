@@ -61,6 +61,17 @@ export const authService = {
     return handleResponse(response);
   },
 
+  // The account is disabled at once; its tasks are removed in the background
+  deleteAccount: async (): Promise<void> => {
+    const response = await fetch('/api/account', {
+      method: 'DELETE',
+      headers: { 'Authorization': `Bearer ${localStorage.getItem('token')}` }
+    });
+    await handleResponse(response);
+    localStorage.removeItem('token');
+    localStorage.removeItem('user');
+  },
+
   logout: (): void => {
     localStorage.removeItem('token');
     localStorage.removeItem('user');
@@ -1,4 +1,4 @@
-import type { Task } from '../types/Task';
+import type { DashboardData, Task, TaskAnalytics } from '../types/Task';
 
 const API_BASE_URL = '/api/tasks';
 
@@ -90,6 +90,71 @@ export const taskService = {
     return handleResponse(response);
   },
 
+  // mode 'all' returns tasks carrying every tag, 'any' tasks carrying at least one
+  getTasksByTags: async (tags: string[], mode: 'all' | 'any' = 'all'): Promise<Task[]> => {
+    const params = new URLSearchParams({ tags: tags.join(','), mode });
+    const response = await fetch(`${API_BASE_URL}/all?${params}`, {
+      method: 'GET',
+      headers: getHeaders()
+    });
+    return handleResponse(response);
+  },
+
+  setTaskTags: async (id: number, tags: string[]): Promise<Task> => {
+    const response = await fetch(`${API_BASE_URL}/${id}/tags`, {
+      method: 'PUT',
+      headers: getHeaders(),
+      body: JSON.stringify(tags)
+    });
+    return handleResponse(response);
+  },
+
+  // Task count per tag name
+  getTags: async (): Promise<Record<string, number>> => {
+    const response = await fetch(`${API_BASE_URL}/tags`, {
+      method: 'GET',
+      headers: getHeaders()
+    });
+    return handleResponse(response);
+  },
+
+  getTaskTree: async (id: number): Promise<Task> => {
+    const response = await fetch(`${API_BASE_URL}/${id}/tree`, {
+      method: 'GET',
+      headers: getHeaders()
+    });
+    return handleResponse(response);
+  },
+
+  completeTaskTree: async (id: number): Promise<Task> => {
+    const response = await fetch(`${API_BASE_URL}/${id}/complete-tree`, {
+      method: 'PUT',
+      headers: getHeaders()
+    });
+    return handleResponse(response);
+  },
+
+  getDashboard: async (): Promise<DashboardData> => {
+    const response = await fetch('/api/dashboard', {
+      method: 'GET',
+      headers: getHeaders()
+    });
+    return handleResponse(response);
+  },
+
+  // Dates are ISO yyyy-mm-dd; the backend defaults to the last 30 days
+  getAnalytics: async (from?: string, to?: string): Promise<TaskAnalytics> => {
+    const params = new URLSearchParams();
+    if (from) params.append('from', from);
+    if (to) params.append('to', to);
+    const query = params.toString();
+    const response = await fetch(`${API_BASE_URL}/analytics${query ? `?${query}` : ''}`, {
+      method: 'GET',
+      headers: getHeaders()
+    });
+    return handleResponse(response);
+  },
+
   updateTask: async (id: number, updatedData: Partial<Task>): Promise<Task> => {
     const response = await fetch(`${API_BASE_URL}/${id}`, {
       method: 'PUT',
@@ -7,6 +7,12 @@ export interface Task {
   completedAt: string | null;
   priority: string;
   dueDate: string | null;
+  tags?: string[];
+  parentId?: number | null;
+  // Only present on tasks loaded as a tree
+  subtasks?: Task[];
+  subtaskCount?: number;
+  completedSubtaskCount?: number;
 }
 
 export interface TaskStats {
@@ -16,4 +22,41 @@ export interface TaskStats {
   highPriority: number;
 }
 
+export interface DashboardData {
+  recentTasks: Task[];
+  completedTasks: Task[];
+  stats: TaskStats;
+}
+
+export interface DailyActivity {
+  date: string;
+  created: number;
+  completed: number;
+}
+
+export interface LatencySummary {
+  count: number;
+  meanSeconds: number;
+  p50Seconds: number;
+  p90Seconds: number;
+  p99Seconds: number;
+}
+
+export interface PriorityThroughput {
+  priority: string;
+  created: number;
+  completed: number;
+  completedPerDay: number;
+  completionLatency: LatencySummary;
+}
+
+export interface TaskAnalytics {
+  from: string;
+  to: string;
+  rolledUpUntil: string | null;
+  days: DailyActivity[];
+  completionLatency: LatencySummary;
+  priorities: PriorityThroughput[];
+}
+
 export type UpdatableTask = Omit<Task, 'id' | 'createdAt' | 'completedAt'>; 
\ No newline at end of file
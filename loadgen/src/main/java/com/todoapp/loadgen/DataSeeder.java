@@ -0,0 +1,220 @@
+package com.todoapp.loadgen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads synthetic users and tasks straight into the database.
+ * Uses PostgreSQL COPY when available and falls back to JDBC batches otherwise.
+ * Re-running tops up to the requested user count instead of failing on duplicates.
+ */
+public class DataSeeder {
+    
+    /**
+     * BCrypt hash of "password123", shared by every seeded user so seeding does not pay hashing cost
+     */
+    static final String PASSWORD_HASH = "$2a$10$dewFQd/8maEjbawCb9MYK.b7RFnAryEg7TaMOuidAlnDL//29Luqi";
+    static final String PASSWORD = "password123";
+    
+    private static final DateTimeFormatter COPY_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private final LoadGenOptions options;
+    private final SplittableRandom random = new SplittableRandom(42);
+    
+    public DataSeeder(LoadGenOptions options) {
+        this.options = options;
+    }
+    
+    public void seed() throws Exception {
+        String prefix = options.get("user-prefix");
+        int users = options.getInt("users");
+        int tasksPerUser = options.getInt("tasks-per-user");
+        int chunkRows = options.getInt("seed-chunk-rows");
+        
+        try (Connection connection = DriverManager.getConnection(
+                options.get("jdbc-url"), options.get("jdbc-user"), options.get("jdbc-password"))) {
+            connection.setAutoCommit(false);
+            
+            int existing = countUsers(connection, prefix);
+            if (existing >= users) {
+                System.out.printf("%d users with prefix '%s' already present, nothing to seed%n", existing, prefix);
+                return;
+            }
+            
+            long started = System.nanoTime();
+            boolean copy = connection.isWrapperFor(PGConnection.class);
+            CopyManager copyManager = copy ? connection.unwrap(PGConnection.class).getCopyAPI() : null;
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            long taskRows = 0;
+            
+            for (int from = existing; from < users; ) {
+                int usersInChunk = Math.max(1, Math.min(users - from, chunkRows / Math.max(1, tasksPerUser)));
+                int to = from + usersInChunk;
+                
+                if (copy) {
+                    copyUsers(copyManager, prefix, from, to, now);
+                } else {
+                    batchUsers(connection, prefix, from, to, now);
+                }
+                long[] ids = userIds(connection, prefix, from, to);
+                taskRows += copy ? copyTasks(copyManager, ids, tasksPerUser, now) : batchTasks(connection, ids, tasksPerUser, now);
+                connection.commit();
+                
+                System.out.printf("Seeded users %d..%d (%d tasks so far)%n", from, to - 1, taskRows);
+                from = to;
+            }
+            
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("Seeded %d users and %d tasks in %.1fs (%.0f rows/s) using %s%n",
+                    users - existing, taskRows, seconds, (users - existing + taskRows) / seconds, copy ? "COPY" : "JDBC batches");
+        }
+    }
+    
+    private int countUsers(Connection connection, String prefix) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM users WHERE username LIKE ?")) {
+            statement.setString(1, prefix + "%");
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+    
+    private long[] userIds(Connection connection, String prefix, int from, int to) throws SQLException {
+        String[] usernames = new String[to - from];
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            usernames[i - from] = username(prefix, i);
+            positions.put(usernames[i - from], i - from);
+        }
+        
+        long[] ids = new long[to - from];
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id, username FROM users WHERE username = ANY (?)")) {
+            statement.setArray(1, connection.createArrayOf("varchar", usernames));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids[positions.get(rs.getString(2))] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+    
+    private void copyUsers(CopyManager copyManager, String prefix, int from, int to, LocalDateTime now) throws Exception {
+        StringBuilder rows = new StringBuilder((to - from) * 120);
+        String created = COPY_TIMESTAMP.format(now);
+        for (int i = from; i < to; i++) {
+            rows.append(username(prefix, i)).append('\t')
+                .append(username(prefix, i)).append("@loadgen.local\t")
+                .append(PASSWORD_HASH).append('\t')
+                .append(created).append('\t')
+                .append(created).append('\n');
+        }
+        copyManager.copyIn("COPY users (username, email, password, created_at, updated_at) FROM STDIN",
+                new StringReader(rows.toString()));
+    }
+    
+    private long copyTasks(CopyManager copyManager, long[] userIds, int tasksPerUser, LocalDateTime now) throws Exception {
+        StringBuilder rows = new StringBuilder(userIds.length * tasksPerUser * 120);
+        for (long userId : userIds) {
+            for (int t = 0; t < tasksPerUser; t++) {
+                SyntheticTask task = nextTask(now, t);
+                rows.append(task.title).append('\t')
+                    .append(task.description).append('\t')
+                    .append(task.completed).append('\t')
+                    .append(COPY_TIMESTAMP.format(task.createdAt)).append('\t')
+                    .append(task.completedAt != null ? COPY_TIMESTAMP.format(task.completedAt) : "\\N").append('\t')
+                    .append(task.priority).append('\t')
+                    .append(task.dueDate != null ? COPY_TIMESTAMP.format(task.dueDate) : "\\N").append('\t')
+                    .append(userId).append('\n');
+            }
+        }
+        return copyManager.copyIn("COPY task (title, description, completed, created_at, completed_at, priority, due_date, user_id) FROM STDIN",
+                new StringReader(rows.toString()));
+    }
+    
+    private void batchUsers(Connection connection, String prefix, int from, int to, LocalDateTime now) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (username, email, password, created_at, updated_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = from; i < to; i++) {
+                statement.setString(1, username(prefix, i));
+                statement.setString(2, username(prefix, i) + "@loadgen.local");
+                statement.setString(3, PASSWORD_HASH);
+                statement.setTimestamp(4, Timestamp.valueOf(now));
+                statement.setTimestamp(5, Timestamp.valueOf(now));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+    
+    private long batchTasks(Connection connection, long[] userIds, int tasksPerUser, LocalDateTime now) throws SQLException {
+        long rows = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO task (title, description, completed, created_at, completed_at, priority, due_date, user_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long userId : userIds) {
+                for (int t = 0; t < tasksPerUser; t++) {
+                    SyntheticTask task = nextTask(now, t);
+                    statement.setString(1, task.title);
+                    statement.setString(2, task.description);
+                    statement.setBoolean(3, task.completed);
+                    statement.setTimestamp(4, Timestamp.valueOf(task.createdAt));
+                    statement.setTimestamp(5, task.completedAt != null ? Timestamp.valueOf(task.completedAt) : null);
+                    statement.setShort(6, task.priority);
+                    statement.setTimestamp(7, task.dueDate != null ? Timestamp.valueOf(task.dueDate) : null);
+                    statement.setLong(8, userId);
+                    statement.addBatch();
+                    rows++;
+                }
+            }
+            statement.executeBatch();
+        }
+        return rows;
+    }
+    
+    /**
+     * Roughly 60% of tasks are completed, with ages spread over the last year
+     */
+    private SyntheticTask nextTask(LocalDateTime now, int sequence) {
+        SyntheticTask task = new SyntheticTask();
+        task.createdAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+        task.completed = random.nextInt(100) < 60;
+        task.completedAt = task.completed ? task.createdAt.plusMinutes(random.nextInt(14 * 24 * 60)) : null;
+        if (task.completedAt != null && task.completedAt.isAfter(now)) {
+            task.completedAt = now;
+        }
+        task.priority = (short) (1 + random.nextInt(3));
+        task.dueDate = random.nextInt(100) < 40 ? task.createdAt.plusDays(1 + random.nextInt(30)) : null;
+        task.title = "Load task " + sequence;
+        task.description = "Synthetic task generated for load testing";
+        return task;
+    }
+    
+    static String username(String prefix, int index) {
+        return prefix + index;
+    }
+    
+    private static final class SyntheticTask {
+        String title;
+        String description;
+        boolean completed;
+        LocalDateTime createdAt;
+        LocalDateTime completedAt;
+        short priority;
+        LocalDateTime dueDate;
+    }
+}
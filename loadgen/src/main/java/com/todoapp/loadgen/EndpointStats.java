@@ -0,0 +1,116 @@
+package com.todoapp.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counters.
+ * Latency is measured from the intended start time, so queueing delay is included. Requests the driver
+ * never sent because {@code max-in-flight} was reached are counted as dropped and kept out of the
+ * histograms, where their near-zero latency would pull the percentiles down.
+ */
+public class EndpointStats {
+    
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+    
+    public EndpointStats() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_TRACKABLE_NANOS, 3));
+            totals.put(operation, new Histogram(MAX_TRACKABLE_NANOS, 3));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+    
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+    
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        recorders.get(operation).recordValue(Math.min(Math.max(latencyNanos, 1), MAX_TRACKABLE_NANOS));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+    
+    /**
+     * Count a request that was due but not sent because too many were already in flight
+     */
+    public void recordDropped(Operation operation) {
+        if (recording) {
+            dropped.get(operation).increment();
+        }
+    }
+    
+    /**
+     * Drain the interval histograms into the run totals
+     */
+    public synchronized void collect() {
+        recorders.forEach((operation, recorder) -> totals.get(operation).add(recorder.getIntervalHistogram()));
+    }
+    
+    public synchronized void report(PrintStream out, double seconds) {
+        collect();
+        out.printf("%-30s %9s %8s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "dropped", "rps", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            long count = histogram.getTotalCount();
+            if (count == 0 && dropped.get(operation).sum() == 0) {
+                continue;
+            }
+            out.printf("%-30s %9d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.getEndpoint(), count, errors.get(operation).sum(), dropped.get(operation).sum(), count / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+    }
+    
+    /**
+     * Print two runs of the same workload next to each other, one row per endpoint either of them drove
+     */
+    public static void compare(PrintStream out, String leftName, EndpointStats left, String rightName, EndpointStats right,
+                               double seconds) {
+        left.collect();
+        right.collect();
+        out.printf("%-30s | %-52s | %-52s%n", "", leftName, rightName);
+        out.printf("%-30s | %8s %6s %7s %9s %9s %9s | %8s %6s %7s %9s %9s %9s%n", "endpoint",
+                "rps", "errors", "dropped", "p50(ms)", "p99(ms)", "p99.9(ms)",
+                "rps", "errors", "dropped", "p50(ms)", "p99(ms)", "p99.9(ms)");
+        for (Operation operation : Operation.values()) {
+            if (left.totals.get(operation).getTotalCount() == 0 && right.totals.get(operation).getTotalCount() == 0
+                    && left.dropped.get(operation).sum() == 0 && right.dropped.get(operation).sum() == 0) {
+                continue;
+            }
+            out.printf("%-30s | %s | %s%n", operation.getEndpoint(), left.summary(operation, seconds), right.summary(operation, seconds));
+        }
+    }
+    
+    private synchronized String summary(Operation operation, double seconds) {
+        Histogram histogram = totals.get(operation);
+        return String.format("%8.1f %6d %7d %9.2f %9.2f %9.2f", histogram.getTotalCount() / seconds, errors.get(operation).sum(),
+                dropped.get(operation).sum(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)));
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
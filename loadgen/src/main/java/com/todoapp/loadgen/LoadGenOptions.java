@@ -0,0 +1,94 @@
+package com.todoapp.loadgen;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options in {@code --key=value} form, with defaults suitable for a local run
+ */
+public class LoadGenOptions {
+    
+    private final Map<String, String> values = new LinkedHashMap<>();
+    
+    private LoadGenOptions() {
+        values.put("base-url", "http://localhost:8080");
+        values.put("reactive-base-url", "http://localhost:8081");
+        values.put("compare-order", "servlet-first");
+        values.put("jdbc-url", "jdbc:postgresql://localhost:5432/todoapp");
+        values.put("jdbc-user", "todouser");
+        values.put("jdbc-password", "todopass");
+        values.put("user-prefix", "loadgen_");
+        values.put("users", "1000");
+        values.put("tasks-per-user", "100");
+        values.put("seed-chunk-rows", "50000");
+        values.put("virtual-users", "200");
+        values.put("rate", "200");
+        values.put("duration", "PT60S");
+        values.put("warmup", "PT10S");
+        values.put("max-in-flight", "10000");
+        values.put("mix", "login:5,list:45,completed:10,create:20,complete:12,delete:8");
+        values.put("startup-command", "java -jar ../backend/target/todo-backend-0.0.1-SNAPSHOT.jar");
+        values.put("probe-url", "http://localhost:8080/api/auth/test");
+        values.put("runs", "5");
+        values.put("startup-budget", "");
+        values.put("startup-log", "startup-benchmark.log");
+    }
+    
+    public static LoadGenOptions parse(String[] args, int from) {
+        LoadGenOptions options = new LoadGenOptions();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            String key = arg.substring(2, eq);
+            if (!options.values.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+            options.values.put(key, arg.substring(eq + 1));
+        }
+        return options;
+    }
+    
+    /**
+     * Copy of these options with one value replaced
+     */
+    public LoadGenOptions with(String key, String value) {
+        LoadGenOptions copy = new LoadGenOptions();
+        copy.values.putAll(values);
+        copy.values.put(key, value);
+        return copy;
+    }
+    
+    public String get(String key) {
+        return values.get(key);
+    }
+    
+    public int getInt(String key) {
+        return Integer.parseInt(values.get(key));
+    }
+    
+    public Duration getDuration(String key) {
+        return Duration.parse(values.get(key));
+    }
+    
+    /**
+     * Parse the operation mix ("name:weight,...") into weights keyed by operation
+     */
+    public Map<Operation, Integer> getMix() {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : values.get("mix").split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(Operation.fromName(pair[0]), Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+    
+    public static String usage() {
+        StringBuilder usage = new StringBuilder("Usage: java -jar todo-loadgen.jar <seed|run|all|startup|compare> [--key=value ...]\n\nOptions (defaults):\n");
+        new LoadGenOptions().values.forEach((key, value) -> usage.append("  --").append(key).append('=').append(value).append('\n'));
+        return usage.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.todoapp.loadgen;
+
+/**
+ * Entry point: {@code seed} bulk-loads synthetic data, {@code run} drives the HTTP workload,
+ * {@code all} does both, {@code startup} benchmarks backend time-to-first-request, and {@code compare}
+ * runs the same workload against the servlet and the reactive stack.
+ */
+public class LoadGenerator {
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.out.println(LoadGenOptions.usage());
+            System.exit(1);
+        }
+        
+        LoadGenOptions options = LoadGenOptions.parse(args, 1);
+        switch (args[0]) {
+            case "seed" -> new DataSeeder(options).seed();
+            case "run" -> new WorkloadDriver(options).run();
+            case "all" -> {
+                new DataSeeder(options).seed();
+                new WorkloadDriver(options).run();
+            }
+            case "startup" -> System.exit(new StartupBenchmark(options).run());
+            case "compare" -> new StackComparison(options).run();
+            default -> {
+                System.out.println(LoadGenOptions.usage());
+                System.exit(1);
+            }
+        }
+    }
+}
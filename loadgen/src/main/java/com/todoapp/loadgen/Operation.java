@@ -0,0 +1,38 @@
+package com.todoapp.loadgen;
+
+/**
+ * Endpoints driven by the workload; each is reported as its own histogram
+ */
+public enum Operation {
+    
+    LOGIN("login", "POST /api/auth/login"),
+    LIST("list", "GET /api/tasks"),
+    COMPLETED("completed", "GET /api/tasks/completed"),
+    ALL("all", "GET /api/tasks/all"),
+    DASHBOARD("dashboard", "GET /api/dashboard"),
+    DASHBOARD_SEQUENTIAL("dashboard-sequential", "GET /api/tasks, /completed, /all in sequence"),
+    CREATE("create", "POST /api/tasks"),
+    COMPLETE("complete", "PUT /api/tasks/{id}/complete"),
+    DELETE("delete", "DELETE /api/tasks/{id}");
+    
+    private final String name;
+    private final String endpoint;
+    
+    Operation(String name, String endpoint) {
+        this.name = name;
+        this.endpoint = endpoint;
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.name.equalsIgnoreCase(name.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation in mix: " + name);
+    }
+}
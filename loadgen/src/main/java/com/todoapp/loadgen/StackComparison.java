@@ -0,0 +1,42 @@
+package com.todoapp.loadgen;
+
+import java.io.PrintStream;
+
+/**
+ * Side-by-side benchmark of the servlet backend ({@code --base-url}) and the reactive backend
+ * ({@code --reactive-base-url}): the same open-loop workload, rate and operation mix is driven against each
+ * in turn, then the per-endpoint percentiles are printed next to each other.
+ * <p>
+ * Both stacks share one database, so the second run starts from the tasks the first one left behind. With
+ * {@code --compare-order=reactive-first} the order is reversed, which shows whether that matters.
+ */
+public class StackComparison {
+    
+    private final LoadGenOptions options;
+    
+    public StackComparison(LoadGenOptions options) {
+        this.options = options;
+    }
+    
+    public void run() throws Exception {
+        boolean reactiveFirst = "reactive-first".equals(options.get("compare-order"));
+        LoadGenOptions servlet = options;
+        LoadGenOptions reactive = options.with("base-url", options.get("reactive-base-url"));
+        
+        EndpointStats first = drive(reactiveFirst ? "reactive" : "servlet", reactiveFirst ? reactive : servlet);
+        EndpointStats second = drive(reactiveFirst ? "servlet" : "reactive", reactiveFirst ? servlet : reactive);
+        EndpointStats servletStats = reactiveFirst ? second : first;
+        EndpointStats reactiveStats = reactiveFirst ? first : second;
+        
+        PrintStream out = System.out;
+        out.println();
+        out.printf("Servlet %s vs reactive %s at %s req/s, %s virtual users%n",
+                servlet.get("base-url"), reactive.get("base-url"), options.get("rate"), options.get("virtual-users"));
+        EndpointStats.compare(out, "servlet", servletStats, "reactive", reactiveStats, options.getDuration("duration").toNanos() / 1e9);
+    }
+    
+    private static EndpointStats drive(String name, LoadGenOptions options) throws Exception {
+        System.out.printf("%n=== %s stack ===%n", name);
+        return new WorkloadDriver(options).run();
+    }
+}
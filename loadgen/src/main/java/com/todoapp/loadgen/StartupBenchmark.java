@@ -0,0 +1,88 @@
+package com.todoapp.loadgen;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Measures time-to-first-successful-request: launches the backend command, polls the probe URL until it
+ * answers 2xx, then stops the process. Repeats for the requested number of runs and fails (exit code 2)
+ * when the median exceeds the optional startup budget, so it can gate CI.
+ */
+public class StartupBenchmark {
+    
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+    private static final Duration GIVE_UP_AFTER = Duration.ofMinutes(3);
+    
+    private final LoadGenOptions options;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    
+    public StartupBenchmark(LoadGenOptions options) {
+        this.options = options;
+    }
+    
+    /**
+     * @return process exit code: 0 on success, 2 when the startup budget is exceeded
+     */
+    public int run() throws Exception {
+        String command = options.get("startup-command");
+        URI probe = URI.create(options.get("probe-url"));
+        int runs = options.getInt("runs");
+        long[] millis = new long[runs];
+        
+        for (int run = 0; run < runs; run++) {
+            millis[run] = measureOnce(command, probe);
+            System.out.printf("Run %d: first successful request after %d ms%n", run + 1, millis[run]);
+        }
+        
+        Arrays.sort(millis);
+        long median = millis[runs / 2];
+        System.out.printf("Time to first successful request over %d runs: min %d ms, median %d ms, max %d ms%n",
+                runs, millis[0], median, millis[runs - 1]);
+        
+        String budget = options.get("startup-budget");
+        if (!budget.isEmpty() && median > Duration.parse(budget).toMillis()) {
+            System.out.printf("Median startup %d ms exceeds budget %s%n", median, budget);
+            return 2;
+        }
+        return 0;
+    }
+    
+    private long measureOnce(String command, URI probe) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder("sh", "-c", command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(options.get("startup-log")));
+        
+        long started = System.nanoTime();
+        Process process = builder.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(probe).timeout(Duration.ofSeconds(2)).GET().build();
+            while (System.nanoTime() - started < GIVE_UP_AFTER.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Backend exited with code " + process.exitValue()
+                            + " before serving a request, see " + options.get("startup-log"));
+                }
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                        return (System.nanoTime() - started) / 1_000_000;
+                    }
+                } catch (java.io.IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("Backend did not serve " + probe + " within " + GIVE_UP_AFTER);
+        } finally {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+            process.waitFor();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.todoapp.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Thin asynchronous client for the AuthController and TaskController endpoints
+ */
+public class TodoApiClient {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    
+    public TodoApiClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    public CompletableFuture<HttpResponse<String>> login(String usernameOrEmail, String password) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("usernameOrEmail", usernameOrEmail)
+                .put("password", password);
+        return send(request("/api/auth/login", null)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+    }
+    
+    public CompletableFuture<HttpResponse<String>> listRecent(String token) {
+        return send(request("/api/tasks", token).GET());
+    }
+    
+    public CompletableFuture<HttpResponse<String>> listCompleted(String token) {
+        return send(request("/api/tasks/completed", token).GET());
+    }
+    
+    public CompletableFuture<HttpResponse<String>> listAll(String token) {
+        return send(request("/api/tasks/all", token).GET());
+    }
+    
+    public CompletableFuture<HttpResponse<String>> dashboard(String token) {
+        return send(request("/api/dashboard", token).GET());
+    }
+    
+    public CompletableFuture<HttpResponse<String>> create(String token, String title, String priority) {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("title", title)
+                .put("description", "Created by loadgen")
+                .put("priority", priority);
+        return send(request("/api/tasks", token)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+    }
+    
+    public CompletableFuture<HttpResponse<String>> complete(String token, long id) {
+        return send(request("/api/tasks/" + id + "/complete", token)
+                .PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+    
+    public CompletableFuture<HttpResponse<String>> delete(String token, long id) {
+        return send(request("/api/tasks/" + id, token).DELETE());
+    }
+    
+    public JsonNode parse(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unparseable response: " + e.getMessage(), e);
+        }
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+    
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest.Builder builder) {
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,200 @@
+package com.todoapp.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop workload: requests are issued on a fixed schedule regardless of how quickly earlier ones
+ * complete, and each latency is measured from its scheduled start. A slow server therefore shows up as
+ * queueing delay in the histograms instead of silently lowering the offered load (coordinated omission).
+ */
+public class WorkloadDriver {
+    
+    private static final String[] PRIORITIES = {"High", "Medium", "Low"};
+    
+    private final LoadGenOptions options;
+    private final TodoApiClient client;
+    private final EndpointStats stats = new EndpointStats();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final SplittableRandom random = new SplittableRandom(7);
+    private Operation[] weightedOperations;
+    private VirtualUser[] virtualUsers;
+    
+    public WorkloadDriver(LoadGenOptions options) {
+        this.options = options;
+        this.client = new TodoApiClient(options.get("base-url"));
+    }
+    
+    /**
+     * Drive the workload, print the per-endpoint report and return the measurements
+     */
+    public EndpointStats run() throws Exception {
+        buildMix(options.getMix());
+        logInVirtualUsers();
+        
+        int rate = options.getInt("rate");
+        Duration warmup = options.getDuration("warmup");
+        Duration duration = options.getDuration("duration");
+        int maxInFlight = options.getInt("max-in-flight");
+        
+        long periodNanos = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        System.out.printf("Driving %d req/s for %s after %s warmup against %s%n", rate, duration, warmup, options.get("base-url"));
+        
+        for (long i = 0; ; i++) {
+            long intended = start + i * periodNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            stats.setRecording(intended >= measureStart);
+            
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            if (inFlight.get() >= maxInFlight) {
+                stats.recordDropped(operation);
+                continue;
+            }
+            
+            VirtualUser user = virtualUsers[random.nextInt(virtualUsers.length)];
+            inFlight.incrementAndGet();
+            execute(operation, user).whenComplete((success, error) -> {
+                inFlight.decrementAndGet();
+                stats.record(operation, System.nanoTime() - intended, error == null && Boolean.TRUE.equals(success));
+            });
+        }
+        
+        long drainDeadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        stats.report(System.out, duration.toNanos() / 1e9);
+        return stats;
+    }
+    
+    private CompletableFuture<Boolean> execute(Operation operation, VirtualUser user) {
+        switch (operation) {
+            case LOGIN:
+                return client.login(user.username, DataSeeder.PASSWORD).thenApply(response -> {
+                    if (!ok(response)) {
+                        return false;
+                    }
+                    user.token = client.parse(response.body()).path("token").asText();
+                    return true;
+                });
+            case LIST:
+                return client.listRecent(user.token).thenApply(response -> {
+                    if (ok(response) && user.openTaskIds.isEmpty()) {
+                        rememberIds(user, response);
+                    }
+                    return ok(response);
+                });
+            case COMPLETED:
+                return client.listCompleted(user.token).thenApply(WorkloadDriver::ok);
+            case ALL:
+                return client.listAll(user.token).thenApply(WorkloadDriver::ok);
+            case DASHBOARD:
+                return client.dashboard(user.token).thenApply(WorkloadDriver::ok);
+            case DASHBOARD_SEQUENTIAL:
+                // What the dashboard page did before /api/dashboard: three round trips, one after another
+                return client.listRecent(user.token)
+                        .thenCompose(recent -> ok(recent) ? client.listCompleted(user.token) : CompletableFuture.completedFuture(recent))
+                        .thenCompose(completed -> ok(completed) ? client.listAll(user.token) : CompletableFuture.completedFuture(completed))
+                        .thenApply(WorkloadDriver::ok);
+            case COMPLETE:
+            case DELETE: {
+                Long id = user.openTaskIds.pollFirst();
+                if (id == null) {
+                    return execute(Operation.CREATE, user);
+                }
+                CompletableFuture<HttpResponse<String>> call = operation == Operation.COMPLETE
+                        ? client.complete(user.token, id)
+                        : client.delete(user.token, id);
+                return call.thenApply(WorkloadDriver::ok);
+            }
+            case CREATE:
+            default:
+                return client.create(user.token, "Load task " + random.nextInt(1_000_000), PRIORITIES[random.nextInt(PRIORITIES.length)])
+                        .thenApply(response -> {
+                            if (ok(response)) {
+                                user.openTaskIds.addLast(client.parse(response.body()).path("id").asLong());
+                            }
+                            return ok(response);
+                        });
+        }
+    }
+    
+    private void buildMix(Map<Operation, Integer> mix) {
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix must have at least one positive weight");
+        }
+        weightedOperations = weighted.toArray(new Operation[0]);
+    }
+    
+    private void logInVirtualUsers() {
+        int count = Math.min(options.getInt("virtual-users"), options.getInt("users"));
+        String prefix = options.get("user-prefix");
+        virtualUsers = new VirtualUser[count];
+        
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            VirtualUser user = new VirtualUser(DataSeeder.username(prefix, i));
+            virtualUsers[i] = user;
+            logins.add(client.login(user.username, DataSeeder.PASSWORD)
+                    .thenCompose(response -> {
+                        if (!ok(response)) {
+                            throw new IllegalStateException("Login failed for " + user.username + ": HTTP " + response.statusCode());
+                        }
+                        user.token = client.parse(response.body()).path("token").asText();
+                        return client.listRecent(user.token);
+                    })
+                    .thenAccept(response -> rememberIds(user, response)));
+            if (logins.size() == 32) {
+                CompletableFuture.allOf(logins.toArray(new CompletableFuture[0])).join();
+                logins.clear();
+            }
+        }
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture[0])).join();
+        System.out.printf("Logged in %d virtual users%n", count);
+    }
+    
+    private void rememberIds(VirtualUser user, HttpResponse<String> response) {
+        for (JsonNode task : client.parse(response.body())) {
+            user.openTaskIds.addLast(task.path("id").asLong());
+        }
+    }
+    
+    private static boolean ok(HttpResponse<String> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+    
+    private static final class VirtualUser {
+        final String username;
+        final ConcurrentLinkedDeque<Long> openTaskIds = new ConcurrentLinkedDeque<>();
+        volatile String token;
+        
+        VirtualUser(String username) {
+            this.username = username;
+        }
+    }
+}